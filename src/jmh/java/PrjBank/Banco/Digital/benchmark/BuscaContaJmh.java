@@ -0,0 +1,76 @@
+package PrjBank.Banco.Digital.benchmark;
+
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.service.Banco;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca de contas pelo número em {@link Banco#buscarConta} com quantidades crescentes de contas.
+ * Os números são consultados em ordem embaralhada, para não favorecer a cache do processador.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BuscaContaJmh {
+
+    @Param({"1000", "100000", "1000000"})
+    public int quantidadeContas;
+
+    private Banco banco;
+    private int[] numeros;
+
+    /**
+     * Posição de leitura de cada thread na sequência embaralhada de números.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int posicao;
+    }
+
+    @Setup
+    public void preparar() {
+        banco = new Banco();
+        numeros = new int[quantidadeContas];
+        for (int i = 0; i < quantidadeContas; i++) {
+            Conta conta = new Conta(new Cliente("Cliente " + i, "000"));
+            banco.carregarConta(conta);
+            numeros[i] = conta.getNumero();
+        }
+        Random aleatorio = new Random(42);
+        for (int i = numeros.length - 1; i > 0; i--) {
+            int j = aleatorio.nextInt(i + 1);
+            int troca = numeros[i];
+            numeros[i] = numeros[j];
+            numeros[j] = troca;
+        }
+    }
+
+    @Benchmark
+    public Conta buscarExistente(Cursor cursor) {
+        int posicao = cursor.posicao;
+        cursor.posicao = posicao + 1 == numeros.length ? 0 : posicao + 1;
+        return banco.buscarConta(numeros[posicao]).orElse(null);
+    }
+
+    @Benchmark
+    public boolean buscarInexistente() {
+        return banco.buscarConta(-1).isPresent();
+    }
+}
@@ -0,0 +1,66 @@
+package PrjBank.Banco.Digital.benchmark;
+
+import PrjBank.Banco.Digital.model.Dinheiro;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leitura e formatação de valores no formato da planilha ({@code "R$ 1.234,56"}) e da API ({@code "1234.56"}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DinheiroJmh {
+
+    // Valores como chegam da planilha, inclusive com o espaço não separável usado pelo Sheets.
+    public String real = "R$ 1.234.567,89";
+    public String realSheets = "R$\u00A01.234.567,89";
+    public String decimal = "1234567.89";
+    public long centavos = 123_456_789L;
+
+    private final StringBuilder destino = new StringBuilder(32);
+    private final char[] buffer = new char[24];
+
+    @Benchmark
+    public long lerReal() {
+        return Dinheiro.lerReal(real);
+    }
+
+    @Benchmark
+    public long lerRealDoSheets() {
+        return Dinheiro.lerReal(realSheets);
+    }
+
+    @Benchmark
+    public long lerDecimal() {
+        return Dinheiro.lerDecimal(decimal);
+    }
+
+    @Benchmark
+    public String formatarReal() {
+        return Dinheiro.formatarReal(centavos);
+    }
+
+    @Benchmark
+    public int formatarRealSemAlocar() {
+        destino.setLength(0);
+        return Dinheiro.formatarReal(centavos, destino).length();
+    }
+
+    @Benchmark
+    public int formatarDecimalSemAlocar() {
+        return Dinheiro.formatarDecimal(centavos, buffer);
+    }
+}
@@ -0,0 +1,52 @@
+package PrjBank.Banco.Digital.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Executa os benchmarks JMH e grava os resultados em JSON, um arquivo por número de threads,
+ * para comparação entre versões.
+ * <p>
+ * Todos os benchmarks rodam com 1 thread; os de {@link MovimentacaoJmh} rodam também com 2, 4, ...
+ * até o número de núcleos disponíveis.
+ * <p>
+ * Execução: {@code mvn -Pjmh verify -DskipTests} (resultados em {@code target/jmh}), ou
+ * {@code mvn -Pjmh verify -DskipTests -Djmh.filtro=DinheiroJmh} para rodar apenas alguns benchmarks.
+ */
+public class ExecutarBenchmarks {
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        Path diretorio = Path.of(args.length > 0 ? args[0] : "target/jmh");
+        String filtro = args.length > 1 && !args[1].isBlank() ? args[1] : ExecutarBenchmarks.class.getPackageName() + ".*Jmh";
+        Files.createDirectories(diretorio);
+
+        executar(filtro, 1, diretorio.resolve("resultados-1-thread.json"));
+
+        String movimentacao = MovimentacaoJmh.class.getSimpleName();
+        if (!filtro.contains("*") && !filtro.contains(movimentacao)) return;
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        for (int threads = 2; threads < nucleos; threads *= 2) {
+            executar(movimentacao, threads, diretorio.resolve("resultados-" + threads + "-threads.json"));
+        }
+        if (nucleos > 1) {
+            executar(movimentacao, nucleos, diretorio.resolve("resultados-" + nucleos + "-threads.json"));
+        }
+    }
+
+    private static void executar(String filtro, int threads, Path resultado) throws RunnerException {
+        Options opcoes = new OptionsBuilder()
+                .include(filtro)
+                .threads(threads)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultado.toString())
+                .build();
+        new Runner(opcoes).run();
+    }
+}
@@ -0,0 +1,104 @@
+package PrjBank.Banco.Digital.benchmark;
+
+import PrjBank.Banco.Digital.exception.SaldoInsuficienteException;
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.model.Dinheiro;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Depósitos, saques e transferências em {@link Conta}.
+ * <p>
+ * Nos métodos "disjunto" cada thread movimenta apenas as suas próprias contas; nos métodos
+ * "concorrido" todas as threads disputam as mesmas 4 contas. O número de threads é definido
+ * na execução ({@code -t} ou {@link ExecutarBenchmarks}, que roda de 1 até o número de núcleos).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MovimentacaoJmh {
+
+    private static final long SALDO_INICIAL = Dinheiro.deReais(1_000_000_000);
+
+    /**
+     * Par de contas exclusivo de cada thread.
+     */
+    @State(Scope.Thread)
+    public static class Proprias {
+        Conta a;
+        Conta b;
+        boolean ida;
+
+        @Setup
+        public void preparar() {
+            a = criarConta("A");
+            b = criarConta("B");
+        }
+    }
+
+    /**
+     * Contas compartilhadas por todas as threads.
+     */
+    @State(Scope.Benchmark)
+    public static class Compartilhadas {
+        final Conta[] contas = new Conta[4];
+
+        @Setup
+        public void preparar() {
+            for (int i = 0; i < contas.length; i++) {
+                contas[i] = criarConta("Compartilhada " + i);
+            }
+        }
+
+        Conta sortear() {
+            return contas[ThreadLocalRandom.current().nextInt(contas.length)];
+        }
+    }
+
+    private static Conta criarConta(String nome) {
+        Conta conta = new Conta(new Cliente(nome, "000"));
+        conta.setSaldo(SALDO_INICIAL);
+        return conta;
+    }
+
+    @Benchmark
+    public boolean depositarESacarDisjunto(Proprias proprias) throws SaldoInsuficienteException {
+        proprias.a.depositar(100);
+        return proprias.a.sacar(100);
+    }
+
+    @Benchmark
+    public boolean transferirDisjunto(Proprias proprias) throws SaldoInsuficienteException {
+        // Alterna o sentido para que os saldos não se esgotem.
+        proprias.ida = !proprias.ida;
+        return proprias.ida
+                ? proprias.a.transferir(100, proprias.b)
+                : proprias.b.transferir(100, proprias.a);
+    }
+
+    @Benchmark
+    public boolean depositarESacarConcorrido(Compartilhadas compartilhadas) throws SaldoInsuficienteException {
+        Conta conta = compartilhadas.sortear();
+        conta.depositar(100);
+        return conta.sacar(100);
+    }
+
+    @Benchmark
+    public boolean transferirConcorrido(Compartilhadas compartilhadas) throws SaldoInsuficienteException {
+        return compartilhadas.sortear().transferir(100, compartilhadas.sortear());
+    }
+}
@@ -0,0 +1,65 @@
+package PrjBank.Banco.Digital.benchmark;
+
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.model.Dinheiro;
+import PrjBank.Banco.Digital.service.GoogleSheetsService;
+import PrjBank.Banco.Digital.service.PlanilhaTransporte;
+import PrjBank.Banco.Digital.service.PlanilhaTransporteFalso;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão entre linhas da planilha e contas em {@link GoogleSheetsService}, sem chamadas de rede:
+ * as linhas vêm de um transporte em memória.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlanilhaJmh {
+
+    @Param({"1000", "100000"})
+    public int quantidadeLinhas;
+
+    private GoogleSheetsService service;
+    private Conta conta;
+
+    @Setup
+    public void preparar() {
+        List<List<Object>> linhas = new ArrayList<>(quantidadeLinhas);
+        for (int i = 1; i <= quantidadeLinhas; i++) {
+            linhas.add(List.of(String.valueOf(i), "1", Dinheiro.formatarReal(i * 12_345L), "Cliente " + i, "000"));
+        }
+        service = new GoogleSheetsService(new PlanilhaTransporteFalso().comLinhas(linhas));
+        conta = new Conta(new Cliente("Cliente", "000"), 1, 1, 123_456_789L);
+    }
+
+    @Benchmark
+    public int lerContas(Blackhole blackhole) throws IOException {
+        return service.lerContas(GoogleSheetsService.TAMANHO_PAGINA_PADRAO, blackhole::consume).contas();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public PlanilhaTransporte.Escrita montarLinha() {
+        return GoogleSheetsService.escritaLinha(conta);
+    }
+}
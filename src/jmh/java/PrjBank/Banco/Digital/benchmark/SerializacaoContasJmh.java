@@ -0,0 +1,71 @@
+package PrjBank.Banco.Digital.benchmark;
+
+import PrjBank.Banco.Digital.controller.ContaController;
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.service.Banco;
+import PrjBank.Banco.Digital.service.CacheIdempotencia;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização JSON de listas de {@link Conta}: a lista inteira com o {@link ObjectMapper}, como era
+ * feito antes, e as listagens escritas direto na resposta pelo {@link ContaController}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacaoContasJmh {
+
+    @Param({"100", "10000"})
+    public int quantidadeContas;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ContaController controller;
+    private List<Conta> contas;
+
+    @Setup
+    public void preparar() {
+        Banco banco = new Banco();
+        for (int i = 0; i < quantidadeContas; i++) {
+            Conta conta = new Conta(new Cliente("Cliente " + i, String.format("%011d", i)));
+            conta.setSaldo(i * 12_345L);
+            banco.carregarConta(conta);
+        }
+        contas = banco.getContas();
+        controller = new ContaController(banco, new CacheIdempotencia(1_000, 60_000), objectMapper);
+    }
+
+    @Benchmark
+    public void serializarLista() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), contas);
+    }
+
+    @Benchmark
+    public void listarPeloController() throws IOException {
+        controller.listarTodasAsContas(null).getBody().writeTo(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void listarNdjsonPeloController() throws IOException {
+        controller.listarContasNdjson(null, null).getBody().writeTo(OutputStream.nullOutputStream());
+    }
+}
@@ -1,17 +1,49 @@
 package PrjBank.Banco.Digital.controller;
 
 import PrjBank.Banco.Digital.controller.dto.CriarContaRequest;
+import PrjBank.Banco.Digital.controller.dto.LoteRequest;
+import PrjBank.Banco.Digital.controller.dto.PaginaContas;
 import PrjBank.Banco.Digital.controller.dto.TransacaoRequest;
 import PrjBank.Banco.Digital.controller.dto.TransferenciaRequest;
-import PrjBank.Banco.Digital.exception.SaldoInsuficienteException;
+import PrjBank.Banco.Digital.exception.ChaveIdempotenciaReutilizadaException;
+import PrjBank.Banco.Digital.exception.CpfJaCadastradoException;
+import PrjBank.Banco.Digital.exception.ResultadoIndeterminadoException;
 import PrjBank.Banco.Digital.model.Cliente;
 import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.model.Dinheiro;
+import PrjBank.Banco.Digital.model.StatusOperacao;
+import PrjBank.Banco.Digital.persistencia.Journal;
+import PrjBank.Banco.Digital.service.AnelComandos;
 import PrjBank.Banco.Digital.service.Banco;
+import PrjBank.Banco.Digital.service.CacheIdempotencia;
+import PrjBank.Banco.Digital.service.ExecutorOperacoes;
+import PrjBank.Banco.Digital.service.ModoLote;
+import PrjBank.Banco.Digital.service.OperacaoLote;
+import PrjBank.Banco.Digital.service.Particoes;
+import PrjBank.Banco.Digital.service.ResultadoLote;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
 /**
  * Controlador REST para operações de Contas bancárias.
@@ -20,24 +52,177 @@ import java.util.Optional;
 @RequestMapping("/api/contas")
 public class ContaController {
 
+    private static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+    private static final int LIMITE_MAXIMO_PAGINA = 1000;
+    private static final int LIMITE_MAXIMO_LOTE = 100_000;
+    private static final String CABECALHO_IDEMPOTENCIA = "Idempotency-Key";
+    private static final int TAMANHO_MAXIMO_CHAVE = 255;
+
+    // Respostas das recusas, montadas uma única vez.
+    private static final Map<StatusOperacao, ResponseEntity<String>> RECUSAS = montarRecusas();
+    private static final ResponseEntity<String> ORIGEM_INEXISTENTE = ResponseEntity.status(404).body("Conta de origem não encontrada.");
+    private static final ResponseEntity<String> DESTINO_INEXISTENTE = ResponseEntity.status(404).body("Conta de destino não encontrada.");
+
     private final Banco banco;
+    private final CacheIdempotencia idempotencia;
+    // Partições de execução; nulo quando banco.particoes.ativo não está ligado.
+    @Nullable
+    private final Particoes particoes;
+    // Executor das operações (partições ou anel de comandos); nulo para alterar as contas na própria requisição.
+    @Nullable
+    private final ExecutorOperacoes executor;
+    private final ObjectMapper objectMapper;
+    // Escritor de contas que não força o envio a cada objeto; o buffer da resposta decide quando enviar.
+    private final ObjectWriter escritorConta;
 
     /**
-     * Construtor injeta o serviço Banco.
+     * Construtor injeta o serviço Banco, o cache de idempotência e o ObjectMapper configurado pelo Spring.
      * @param banco Serviço que gerencia a lógica de negócio do banco.
+     * @param idempotencia Resultados guardados das operações feitas com {@code Idempotency-Key}.
+     * @param objectMapper Conversor JSON usado nas listagens escritas direto na resposta.
+     */
+    public ContaController(Banco banco, CacheIdempotencia idempotencia, ObjectMapper objectMapper) {
+        this(banco, idempotencia, (Particoes) null, (AnelComandos) null, objectMapper);
+    }
+
+    /**
+     * Construtor usado pelo Spring. Com as partições ativas, depósitos, saques, transferências e
+     * aberturas de conta são executados pela thread da partição de cada conta; senão, com o anel de
+     * comandos ativo, depósitos, saques e transferências passam pelo anel.
+     * @param particoes Partições de execução, se configuradas.
+     * @param anel Anel de comandos, se configurado.
      */
-    public ContaController(Banco banco) {
+    @Autowired
+    public ContaController(Banco banco, CacheIdempotencia idempotencia, ObjectProvider<Particoes> particoes,
+                           ObjectProvider<AnelComandos> anel, ObjectMapper objectMapper) {
+        this(banco, idempotencia, particoes.getIfAvailable(), anel.getIfAvailable(), objectMapper);
+    }
+
+    private ContaController(Banco banco, CacheIdempotencia idempotencia, @Nullable Particoes particoes,
+                            @Nullable AnelComandos anel, ObjectMapper objectMapper) {
         this.banco = banco;
+        this.idempotencia = idempotencia;
+        this.particoes = particoes;
+        this.executor = particoes != null ? particoes : anel;
+        this.objectMapper = objectMapper;
+        this.escritorConta = objectMapper.writerFor(Conta.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Cria um gerador JSON sobre a saída da resposta, sem fechá-la ao final.
+     */
+    private JsonGenerator criarGerador(OutputStream saida) throws IOException {
+        JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida);
+        gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return gerador;
+    }
+
+    /**
+     * Lista todas as contas existentes, em ordem de número.
+     * Mapeia para GET /api/contas ou GET /api/contas?after={numero}
+     * <p>
+     * O array JSON é escrito direto na resposta, conta a conta, sem montar uma lista
+     * intermediária; o uso de memória não cresce com a quantidade de contas.
+     * @param after Número a partir do qual listar (opcional, exclusivo).
+     * @return Array JSON com todas as contas após {@code after}.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> listarTodasAsContas(@RequestParam(required = false) Integer after) {
+        StreamingResponseBody corpo = saida -> {
+            try (JsonGenerator gerador = criarGerador(saida)) {
+                gerador.writeStartArray();
+                for (Conta conta : banco.contasApos(after)) {
+                    escritorConta.writeValue(gerador, conta);
+                }
+                gerador.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(corpo);
+    }
+
+    /**
+     * Lista uma página de contas a partir de um cursor.
+     * Mapeia para GET /api/contas?limit={limit}&after={numero}
+     * @param limit Quantidade máxima de contas na página (1 a {@value #LIMITE_MAXIMO_PAGINA}).
+     * @param after Número da última conta da página anterior (opcional).
+     * @return 200 (OK) com a página ou 400 (Bad Request) se o limite for inválido.
+     */
+    @GetMapping(params = "limit", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PaginaContas> listarPagina(@RequestParam int limit,
+                                                     @RequestParam(required = false) Integer after) {
+        if (limit < 1 || limit > LIMITE_MAXIMO_PAGINA) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(paginar(banco.contasApos(after).iterator(), limit));
+    }
+
+    /**
+     * Busca as contas de um CPF, com ou sem pontuação.
+     * Mapeia para GET /api/contas/busca?cpf={cpf}
+     * @param cpf O CPF do titular.
+     * @return 200 (OK) com as contas do CPF (a lista fica vazia se não houver nenhuma).
+     */
+    @GetMapping(value = "/busca", params = "cpf")
+    public PaginaContas buscarPorCpf(@RequestParam String cpf) {
+        return new PaginaContas(banco.buscarPorCpf(cpf), null);
     }
 
     /**
-     * Lista todas as contas existentes.
-     * Mapeia para GET /api/contas
-     * @return Lista de todas as contas.
+     * Busca, página a página, as contas cujo titular tem o nome começando pelo texto informado,
+     * sem diferenciar maiúsculas e acentos, em ordem de nome.
+     * Mapeia para GET /api/contas/busca?nome={prefixo}&limit={limit}&after={numero}
+     * @param nome Início do nome do titular.
+     * @param limit Quantidade máxima de contas na página (1 a {@value #LIMITE_MAXIMO_PAGINA}).
+     * @param after Número da última conta da página anterior (opcional).
+     * @return 200 (OK) com a página ou 400 (Bad Request) se o nome estiver vazio ou o limite for inválido.
      */
-    @GetMapping
-    public List<Conta> listarTodasAsContas() {
-        return banco.getContas();
+    @GetMapping(value = "/busca", params = "nome")
+    public ResponseEntity<PaginaContas> buscarPorNome(@RequestParam String nome,
+                                                      @RequestParam(defaultValue = "50") int limit,
+                                                      @RequestParam(required = false) Integer after) {
+        if (nome.isBlank() || limit < 1 || limit > LIMITE_MAXIMO_PAGINA) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(paginar(banco.buscarPorNome(nome, after).iterator(), limit));
+    }
+
+    /**
+     * Lê até {@code limit} contas; o cursor da próxima página é o número da última, se houver mais.
+     */
+    private static PaginaContas paginar(Iterator<Conta> contas, int limit) {
+        List<Conta> pagina = new ArrayList<>(Math.min(limit, 64));
+        while (contas.hasNext() && pagina.size() < limit) {
+            pagina.add(contas.next());
+        }
+        Integer proximoCursor = contas.hasNext() ? pagina.get(pagina.size() - 1).getNumero() : null;
+        return new PaginaContas(pagina, proximoCursor);
+    }
+
+    /**
+     * Lista as contas no formato NDJSON (um objeto JSON por linha), escrevendo direto na resposta.
+     * Mapeia para GET /api/contas com o cabeçalho {@code Accept: application/x-ndjson}
+     * @param after Número a partir do qual listar (opcional, exclusivo).
+     * @param limit Quantidade máxima de contas (opcional).
+     * @return Fluxo NDJSON com as contas.
+     */
+    @GetMapping(produces = MEDIA_TYPE_NDJSON)
+    public ResponseEntity<StreamingResponseBody> listarContasNdjson(@RequestParam(required = false) Integer after,
+                                                                   @RequestParam(required = false) Integer limit) {
+        long maximo = limit != null && limit > 0 ? limit : Long.MAX_VALUE;
+        StreamingResponseBody corpo = saida -> {
+            try (JsonGenerator gerador = criarGerador(saida)) {
+                // Separa cada objeto raiz por uma quebra de linha.
+                gerador.setRootValueSeparator(new SerializedString("\n"));
+                long escritas = 0;
+                for (Conta conta : banco.contasApos(after)) {
+                    if (escritas++ == maximo) break;
+                    escritorConta.writeValue(gerador, conta);
+                }
+                gerador.writeRaw('\n');
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(MEDIA_TYPE_NDJSON)).body(corpo);
     }
 
     /**
@@ -57,14 +242,35 @@ public class ContaController {
      * Cria uma nova conta com o cliente fornecido.
      * Mapeia para POST /api/contas
      * @param request Dados do cliente (nome e CPF).
-     * @return A Conta recém-criada.
+     * @return 200 (OK) com a Conta recém-criada, 400 (Bad Request) sem nome ou com nome ou CPF longo
+     * demais, ou 409 (Conflict) se o banco exige CPF único e o CPF já tem conta.
      */
     @PostMapping
-    public Conta criarConta(@RequestBody CriarContaRequest request) {
+    public ResponseEntity<?> criarConta(@RequestBody CriarContaRequest request) {
+        if (request.nome() == null || request.nome().isBlank()) {
+            return ResponseEntity.badRequest().body("O nome do titular é obrigatório.");
+        }
+        if (!Journal.cabeNoRegistro(request.nome()) || !Journal.cabeNoRegistro(request.cpf())) {
+            return ResponseEntity.badRequest().body("Nome ou CPF longo demais.");
+        }
         Cliente novoCliente = new Cliente(request.nome(), request.cpf());
-        Conta novaConta = new Conta(novoCliente);
-        banco.adicionarConta(novaConta);
-        return novaConta;
+        try {
+            if (particoes != null) {
+                return ResponseEntity.ok(particoes.criarConta(novoCliente).join());
+            }
+            // O número só é tirado do sequencial depois de o CPF passar.
+            banco.conferirCpfLivre(novoCliente);
+            Conta novaConta = new Conta(novoCliente);
+            banco.adicionarConta(novaConta);
+            return ResponseEntity.ok(novaConta);
+        } catch (CpfJaCadastradoException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof CpfJaCadastradoException cpfJaCadastrado) {
+                return ResponseEntity.status(409).body(cpfJaCadastrado.getMessage());
+            }
+            throw e;
+        }
     }
 
     /**
@@ -72,19 +278,21 @@ public class ContaController {
      * Mapeia para POST /api/contas/{numeroConta}/deposito
      * @param numeroConta O número da conta na URL.
      * @param request Valor a ser depositado.
-     * @return 200 (OK) em caso de sucesso ou 404 (Not Found).
+     * @param chave Cabeçalho {@code Idempotency-Key} opcional; repetições com a mesma chave devolvem a resposta original.
+     * @return 200 (OK) em caso de sucesso, 400 (Bad Request) se o valor for inválido, 404 (Not Found),
+     * ou 422 (Unprocessable Entity) se a chave já foi usada em outra operação.
      */
     @PostMapping("/{numeroConta}/deposito")
-    public ResponseEntity<String> depositar(@PathVariable int numeroConta, @RequestBody TransacaoRequest request) {
-        Optional<Conta> contaOpt = banco.buscarConta(numeroConta);
-        if (contaOpt.isPresent()) {
-            Conta conta = contaOpt.get();
-            conta.depositar(request.valor());
-            String mensagemSucesso = String.format("Depósito de R$ %.2f realizado com sucesso na conta %d.", request.valor(), numeroConta);
-            return ResponseEntity.ok(mensagemSucesso);
-        } else {
-            return ResponseEntity.notFound().build();
-        }
+    public ResponseEntity<String> depositar(@PathVariable int numeroConta, @RequestBody TransacaoRequest request,
+                                            @RequestHeader(value = CABECALHO_IDEMPOTENCIA, required = false) String chave) {
+        return idempotente(chave, "deposito " + numeroConta + " " + request.valor(),
+                () -> aplicarDeposito(numeroConta, request));
+    }
+
+    private ResponseEntity<String> aplicarDeposito(int numeroConta, TransacaoRequest request) {
+        return responder(executar(OperacaoLote.deposito(numeroConta, request.valor())),
+                () -> "Depósito de " + Dinheiro.formatarReal(request.valor())
+                        + " realizado com sucesso na conta " + numeroConta + ".");
     }
 
     /**
@@ -92,23 +300,21 @@ public class ContaController {
      * Mapeia para POST /api/contas/{numeroConta}/saque
      * @param numeroConta O número da conta na URL.
      * @param request Valor a ser sacado.
-     * @return 200 (OK), 400 (Bad Request) se saldo insuficiente ou 404 (Not Found).
+     * @param chave Cabeçalho {@code Idempotency-Key} opcional.
+     * @return 200 (OK), 400 (Bad Request) se o saldo for insuficiente ou o valor inválido, 404 (Not Found)
+     * ou 422 (chave reutilizada).
      */
     @PostMapping("/{numeroConta}/saque")
-    public ResponseEntity<String> sacar(@PathVariable int numeroConta, @RequestBody TransacaoRequest request) {
-        Optional<Conta> contaOpt = banco.buscarConta(numeroConta);
-        if (contaOpt.isPresent()) {
-            Conta conta = contaOpt.get();
-            try {
-                conta.sacar(request.valor());
-                String mensagemSucesso = String.format("Saque de R$ %.2f realizado com sucesso na conta %d.", request.valor(), numeroConta);
-                return ResponseEntity.ok(mensagemSucesso);
-            } catch (SaldoInsuficienteException e) {
-                return ResponseEntity.badRequest().body(e.getMessage());
-            }
-        } else {
-            return ResponseEntity.notFound().build();
-        }
+    public ResponseEntity<String> sacar(@PathVariable int numeroConta, @RequestBody TransacaoRequest request,
+                                        @RequestHeader(value = CABECALHO_IDEMPOTENCIA, required = false) String chave) {
+        return idempotente(chave, "saque " + numeroConta + " " + request.valor(),
+                () -> aplicarSaque(numeroConta, request));
+    }
+
+    private ResponseEntity<String> aplicarSaque(int numeroConta, TransacaoRequest request) {
+        return responder(executar(OperacaoLote.saque(numeroConta, request.valor())),
+                () -> "Saque de " + Dinheiro.formatarReal(request.valor())
+                        + " realizado com sucesso na conta " + numeroConta + ".");
     }
 
     /**
@@ -116,29 +322,96 @@ public class ContaController {
      * Mapeia para POST /api/contas/{numeroOrigem}/transferencia
      * @param numeroOrigem O número da conta de origem.
      * @param request Dados da transferência (valor e conta de destino).
-     * @return 200 (OK), 400 (Bad Request) ou 404 (Not Found).
+     * @param chave Cabeçalho {@code Idempotency-Key} opcional.
+     * @return 200 (OK), 400 (Bad Request), 404 (Not Found) ou 422 (chave reutilizada).
      */
     @PostMapping("/{numeroOrigem}/transferencia")
-    public ResponseEntity<String> transferir(@PathVariable int numeroOrigem, @RequestBody TransferenciaRequest request) {
-        Optional<Conta> contaOrigemOpt = banco.buscarConta(numeroOrigem);
-        Optional<Conta> contaDestinoOpt = banco.buscarConta(request.numeroDestino());
+    public ResponseEntity<String> transferir(@PathVariable int numeroOrigem, @RequestBody TransferenciaRequest request,
+                                             @RequestHeader(value = CABECALHO_IDEMPOTENCIA, required = false) String chave) {
+        return idempotente(chave, "transferencia " + numeroOrigem + " " + request.numeroDestino() + " " + request.valor(),
+                () -> aplicarTransferencia(numeroOrigem, request));
+    }
 
-        if (contaOrigemOpt.isEmpty()) {
-            return ResponseEntity.status(404).body("Conta de origem não encontrada.");
+    private ResponseEntity<String> aplicarTransferencia(int numeroOrigem, TransferenciaRequest request) {
+        if (banco.buscarConta(numeroOrigem).isEmpty()) {
+            return ORIGEM_INEXISTENTE;
         }
-        if (contaDestinoOpt.isEmpty()) {
-            return ResponseEntity.status(404).body("Conta de destino não encontrada.");
+        if (banco.buscarConta(request.numeroDestino()).isEmpty()) {
+            return DESTINO_INEXISTENTE;
         }
+        return responder(executar(OperacaoLote.transferencia(numeroOrigem, request.numeroDestino(), request.valor())),
+                () -> "Transferência de " + Dinheiro.formatarReal(request.valor()) + " da conta " + numeroOrigem
+                        + " para a conta " + request.numeroDestino() + " realizada com sucesso.");
+    }
 
+    /**
+     * Executa a operação pelo executor, se houver, ou diretamente no banco; em ambos os casos as
+     * recusas voltam como status, sem exceções.
+     */
+    private StatusOperacao executar(OperacaoLote operacao) {
+        return executor != null ? executor.executar(operacao).join() : banco.executar(operacao);
+    }
+
+    /**
+     * Converte o status da operação na resposta HTTP. As respostas de recusa são montadas uma única
+     * vez; a mensagem de sucesso só é montada quando a operação é aplicada.
+     */
+    private static ResponseEntity<String> responder(StatusOperacao status, Supplier<String> mensagemSucesso) {
+        return status == StatusOperacao.APLICADA ? ResponseEntity.ok(mensagemSucesso.get()) : RECUSAS.get(status);
+    }
+
+    private static Map<StatusOperacao, ResponseEntity<String>> montarRecusas() {
+        Map<StatusOperacao, ResponseEntity<String>> recusas = new EnumMap<>(StatusOperacao.class);
+        for (StatusOperacao status : StatusOperacao.values()) {
+            recusas.put(status, ResponseEntity.badRequest().body("Operação não realizada: " + status + "."));
+        }
+        recusas.put(StatusOperacao.CONTA_INEXISTENTE, ResponseEntity.notFound().build());
+        recusas.put(StatusOperacao.SALDO_INSUFICIENTE, ResponseEntity.badRequest().body("Saldo insuficiente."));
+        recusas.put(StatusOperacao.VALOR_INVALIDO, ResponseEntity.badRequest().body("O valor deve ser positivo."));
+        recusas.put(StatusOperacao.LIMITE_EXCEDIDO, ResponseEntity.badRequest().body("O saldo resultante excede o limite permitido."));
+        return recusas;
+    }
+
+    /**
+     * Executa a operação diretamente quando não há chave; com chave, executa uma única vez e
+     * devolve a resposta guardada nas repetições.
+     */
+    private ResponseEntity<String> idempotente(String chave, String assinatura, Supplier<ResponseEntity<String>> operacao) {
+        if (chave == null) {
+            return operacao.get();
+        }
+        if (chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            return ResponseEntity.badRequest().body("Cabeçalho " + CABECALHO_IDEMPOTENCIA + " inválido.");
+        }
         try {
-            Conta contaOrigem = contaOrigemOpt.get();
-            Conta contaDestino = contaDestinoOpt.get();
-            contaOrigem.transferir(request.valor(), contaDestino);
-            String mensagemSucesso = String.format("Transferência de R$ %.2f da conta %d para a conta %d realizada com sucesso.",
-                    request.valor(), numeroOrigem, request.numeroDestino());
-            return ResponseEntity.ok(mensagemSucesso);
-        } catch (SaldoInsuficienteException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
+            return idempotencia.executar(chave, assinatura, operacao);
+        } catch (ChaveIdempotenciaReutilizadaException e) {
+            return ResponseEntity.unprocessableEntity().body(e.getMessage());
+        } catch (ResultadoIndeterminadoException e) {
+            return ResponseEntity.internalServerError().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Executa um lote de depósitos, saques e transferências em uma única requisição. O lote é aplicado
+     * pelo {@link Banco#executarLote} nesta thread, com as travas das contas, mesmo com as partições ou o
+     * anel de comandos ligados.
+     * Mapeia para POST /api/contas/lote
+     * @param request Modo do lote, se pode ser processado em paralelo e as operações, em ordem.
+     * @return 200 (OK) com o status de cada operação, 409 (Conflict) se um lote TUDO_OU_NADA
+     * foi rejeitado, ou 400 (Bad Request) se o lote estiver vazio ou for grande demais.
+     */
+    @PostMapping("/lote")
+    public ResponseEntity<ResultadoLote> executarLote(@RequestBody LoteRequest request) {
+        if (request.operacoes() == null || request.operacoes().isEmpty()
+                || request.operacoes().size() > LIMITE_MAXIMO_LOTE) {
+            return ResponseEntity.badRequest().build();
+        }
+        ModoLote modo = request.modo() != null ? request.modo() : ModoLote.MELHOR_ESFORCO;
+        ResultadoLote resultado = banco.executarLote(request.operacoes(), modo, request.paralelo());
+        if (modo == ModoLote.TUDO_OU_NADA && resultado.rejeitadas() > 0) {
+            return ResponseEntity.status(409).body(resultado);
         }
+        return ResponseEntity.ok(resultado);
     }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package PrjBank.Banco.Digital.controller;
+
+import PrjBank.Banco.Digital.service.PublicadorSaldos;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Controlador REST do fluxo de saldos alterados (Server-Sent Events).
+ */
+@RestController
+@RequestMapping("/api/contas/eventos")
+@ConditionalOnProperty(name = "banco.sse.ativo", havingValue = "true", matchIfMissing = true)
+public class EventosSaldoController {
+
+    private final PublicadorSaldos publicador;
+
+    public EventosSaldoController(PublicadorSaldos publicador) {
+        this.publicador = publicador;
+    }
+
+    /**
+     * Abre o fluxo de eventos com os saldos das contas alteradas e as contas criadas.
+     * Mapeia para GET /api/contas/eventos
+     * @return Conexão SSE; a requisição é liberada e os eventos são escritos conforme as contas mudam.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter assinar() {
+        return publicador.assinar();
+    }
+}
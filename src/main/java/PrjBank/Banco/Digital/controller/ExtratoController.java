@@ -0,0 +1,69 @@
+package PrjBank.Banco.Digital.controller;
+
+import PrjBank.Banco.Digital.controller.dto.PaginaExtrato;
+import PrjBank.Banco.Digital.service.Banco;
+import PrjBank.Banco.Digital.service.Lancamento;
+import PrjBank.Banco.Digital.service.LivroRazao;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Controlador REST para o extrato das contas.
+ */
+@RestController
+@RequestMapping("/api/contas")
+public class ExtratoController {
+
+    private static final int LIMITE_PADRAO = 100;
+    private static final int LIMITE_MAXIMO = 1000;
+
+    private final Banco banco;
+    private final LivroRazao livroRazao;
+
+    /**
+     * Construtor injeta o serviço Banco e o livro-razão com os lançamentos das contas.
+     */
+    public ExtratoController(Banco banco, LivroRazao livroRazao) {
+        this.banco = banco;
+        this.livroRazao = livroRazao;
+    }
+
+    /**
+     * Retorna uma página do extrato da conta, em ordem cronológica.
+     * Mapeia para GET /api/contas/{numeroConta}/extrato?de=2025-01-01T00:00:00Z&ate=...&after={sequencia}&limit={limit}
+     * @param numeroConta O número da conta na URL.
+     * @param de Início do período, inclusivo (opcional, ISO-8601).
+     * @param ate Fim do período, exclusivo (opcional, ISO-8601).
+     * @param after Sequência do último lançamento da página anterior (opcional).
+     * @param limit Quantidade máxima de lançamentos (1 a {@value #LIMITE_MAXIMO}, padrão {@value #LIMITE_PADRAO}).
+     * @return 200 (OK) com a página, 400 (Bad Request) se o limite for inválido ou 404 (Not Found).
+     */
+    @GetMapping("/{numeroConta}/extrato")
+    public ResponseEntity<PaginaExtrato> consultarExtrato(@PathVariable int numeroConta,
+                                                          @RequestParam(required = false) Instant de,
+                                                          @RequestParam(required = false) Instant ate,
+                                                          @RequestParam(required = false) Long after,
+                                                          @RequestParam(defaultValue = "" + LIMITE_PADRAO) int limit) {
+        if (limit < 1 || limit > LIMITE_MAXIMO) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (banco.buscarConta(numeroConta).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        // Pede um lançamento a mais para saber se existe uma próxima página.
+        List<Lancamento> lancamentos = livroRazao.consultar(numeroConta, de, ate, after, limit + 1);
+        Long proximoCursor = null;
+        if (lancamentos.size() > limit) {
+            lancamentos = lancamentos.subList(0, limit);
+            proximoCursor = lancamentos.get(limit - 1).sequencia();
+        }
+        return ResponseEntity.ok(new PaginaExtrato(numeroConta, lancamentos, proximoCursor));
+    }
+}
@@ -0,0 +1,49 @@
+package PrjBank.Banco.Digital.controller;
+
+import PrjBank.Banco.Digital.service.LancamentosEmLote;
+import PrjBank.Banco.Digital.service.RegraLancamento;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Controlador REST para executar sob demanda um lote de lançamentos (rendimento, tarifa) em todas as contas.
+ */
+@RestController
+@RequestMapping("/api/lancamentos")
+public class LancamentosController {
+
+    private final LancamentosEmLote lancamentos;
+
+    /**
+     * Construtor injeta o serviço de lotes de lançamentos.
+     */
+    public LancamentosController(LancamentosEmLote lancamentos) {
+        this.lancamentos = lancamentos;
+    }
+
+    /**
+     * Executa o lote e responde ao final. Repetir a chamada com o mesmo nome retoma um lote interrompido ou,
+     * se ele já foi concluído, devolve o resultado sem lançar de novo.
+     * Mapeia para POST /api/lancamentos/{nome}?regra={regra}
+     * @param nome Nome do lote, como {@code rendimento-2026-10}.
+     * @param regra {@code rendimento:<pontos-base>} ou {@code tarifa:<valor>}, como {@code tarifa:12.90}.
+     * @return 200 (OK) com os totais e a vazão, 400 (Bad Request) se o nome ou a regra forem inválidos ou
+     * 409 (Conflict) se o lote estiver em execução ou já existir com outra regra.
+     */
+    @PostMapping("/{nome}")
+    public ResponseEntity<?> executar(@PathVariable String nome, @RequestParam String regra) throws IOException {
+        try {
+            return ResponseEntity.ok(lancamentos.executar(nome, RegraLancamento.de(regra)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package PrjBank.Banco.Digital.controller;
+
+import PrjBank.Banco.Digital.metricas.Metricas;
+import PrjBank.Banco.Digital.persistencia.Journal;
+import PrjBank.Banco.Digital.persistencia.Snapshots;
+import PrjBank.Banco.Digital.service.AnelComandos;
+import PrjBank.Banco.Digital.service.CacheIdempotencia;
+import PrjBank.Banco.Digital.service.Particoes;
+import PrjBank.Banco.Digital.service.PublicadorSaldos;
+import PrjBank.Banco.Digital.service.RegistroEventos;
+import PrjBank.Banco.Digital.service.SincronizadorPlanilha;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Controlador REST que expõe as métricas internas da aplicação.
+ */
+@RestController
+@RequestMapping("/api/metricas")
+public class MetricasController {
+
+    private final Metricas metricas;
+    private final CacheIdempotencia idempotencia;
+    private final ObjectProvider<Journal> journal;
+    private final ObjectProvider<RegistroEventos> registroEventos;
+    private final ObjectProvider<SincronizadorPlanilha> sincronizador;
+    private final ObjectProvider<Snapshots> snapshots;
+    private final ObjectProvider<Particoes> particoes;
+    private final ObjectProvider<AnelComandos> anel;
+    private final ObjectProvider<PublicadorSaldos> publicadorSaldos;
+
+    /**
+     * Construtor injeta as métricas e, quando ativos, os componentes que mantêm contadores próprios.
+     */
+    public MetricasController(Metricas metricas, CacheIdempotencia idempotencia, ObjectProvider<Journal> journal,
+                              ObjectProvider<RegistroEventos> registroEventos,
+                              ObjectProvider<SincronizadorPlanilha> sincronizador,
+                              ObjectProvider<Snapshots> snapshots,
+                              ObjectProvider<Particoes> particoes,
+                              ObjectProvider<AnelComandos> anel,
+                              ObjectProvider<PublicadorSaldos> publicadorSaldos) {
+        this.metricas = metricas;
+        this.idempotencia = idempotencia;
+        this.journal = journal;
+        this.registroEventos = registroEventos;
+        this.sincronizador = sincronizador;
+        this.snapshots = snapshots;
+        this.particoes = particoes;
+        this.anel = anel;
+        this.publicadorSaldos = publicadorSaldos;
+    }
+
+    /**
+     * Retorna um retrato das métricas: latência (p50/p99/p999, em nanossegundos) e resultados por endpoint,
+     * operações aceitas e recusadas, espera pelas travas das contas, chamadas ao Google Sheets, journal,
+     * registro de eventos, sincronização da planilha, snapshots, chaves de idempotência, partições, anel de comandos e fluxo de saldos (SSE).
+     * Mapeia para GET /api/metricas
+     * @return Métricas em JSON.
+     */
+    @GetMapping
+    public Map<String, Object> obterMetricas() {
+        Map<String, Object> resposta = new LinkedHashMap<>(metricas.resumir());
+        journal.ifAvailable(j -> resposta.put("journal", Map.of(
+                "politica", j.getPolitica(),
+                "fsyncs", j.getQuantidadeFsyncs())));
+        registroEventos.ifAvailable(r -> resposta.put("eventos", Map.of(
+                "publicados", r.getPublicados(),
+                "escritos", r.getEscritos(),
+                "descartados", r.getDescartados(),
+                "politica", r.getPolitica())));
+        sincronizador.ifAvailable(s -> resposta.put("sincronizacaoPlanilha", Map.of(
+                "pendentes", s.getPendentes(),
+                "lotesEnviados", s.getLotesEnviados(),
+                "escritasEnviadas", s.getEscritasEnviadas(),
+                "falhas", s.getFalhas(),
+                "descartadas", s.getDescartadas())));
+        snapshots.ifAvailable(s -> resposta.put("snapshots", Map.of(
+                "gerados", s.getQuantidadeGerados(),
+                "ultimaDuracaoNs", s.getUltimaDuracaoNanos())));
+        resposta.put("idempotencia", Map.of(
+                "chaves", idempotencia.getTamanho(),
+                "executadas", idempotencia.getExecutadas(),
+                "repetidas", idempotencia.getRepetidas(),
+                "removidas", idempotencia.getRemovidas()));
+        particoes.ifAvailable(p -> resposta.put("particoes", Map.of(
+                "quantidade", p.getQuantidade(),
+                "executadas", p.getExecutadas(),
+                "entreParticoes", p.getTransferenciasEntreParticoes(),
+                "pendentes", p.getPendentes())));
+        anel.ifAvailable(a -> resposta.put("anelComandos", Map.of(
+                "capacidade", a.getCapacidade(),
+                "publicadas", a.getPublicadas(),
+                "concluidas", a.getConcluidas(),
+                "lotes", a.getLotes(),
+                "maiorLote", a.getMaiorLote())));
+        publicadorSaldos.ifAvailable(p -> resposta.put("sse", Map.of(
+                "assinantes", p.getAssinantes(),
+                "enviados", p.getEventosEnviados(),
+                "recargas", p.getRecargas(),
+                "descartados", p.getDescartados())));
+        return resposta;
+    }
+}
@@ -0,0 +1,81 @@
+package PrjBank.Banco.Digital.controller;
+
+import PrjBank.Banco.Digital.service.ContasCsv;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Controlador REST para importar e exportar as contas em arquivos CSV no servidor.
+ * <p>
+ * Os arquivos ficam sempre no diretório {@code banco.migracao.diretorio}; a requisição informa apenas
+ * o nome do arquivo.
+ */
+@RestController
+@RequestMapping("/api/migracao")
+public class MigracaoController {
+
+    private final ContasCsv contasCsv;
+    private final Path diretorio;
+
+    /**
+     * Construtor injeta o serviço de CSV e o diretório dos arquivos de migração.
+     */
+    public MigracaoController(ContasCsv contasCsv,
+                              @Value("${banco.migracao.diretorio:dados/migracao}") String diretorio) {
+        this.contasCsv = contasCsv;
+        this.diretorio = Path.of(diretorio).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Importa as contas de um arquivo CSV, preservando os números; linhas inválidas são relatadas sem
+     * interromper a importação.
+     * Mapeia para POST /api/migracao/importacao?arquivo={nome}
+     * @param arquivo Nome do arquivo no diretório de migração.
+     * @return 200 (OK) com os totais e exemplos de linhas rejeitadas, 400 (Bad Request) se o nome for
+     * inválido ou 404 (Not Found) se o arquivo não existir.
+     */
+    @PostMapping("/importacao")
+    public ResponseEntity<?> importar(@RequestParam String arquivo) throws IOException {
+        Path caminho = resolver(arquivo);
+        if (caminho == null) {
+            return ResponseEntity.badRequest().body("Nome de arquivo inválido.");
+        }
+        if (!Files.isRegularFile(caminho)) {
+            return ResponseEntity.status(404).body("Arquivo não encontrado: " + arquivo);
+        }
+        return ResponseEntity.ok(contasCsv.importar(caminho));
+    }
+
+    /**
+     * Exporta todas as contas, com os saldos de um corte consistente, para um arquivo CSV.
+     * Mapeia para POST /api/migracao/exportacao?arquivo={nome}
+     * @param arquivo Nome do arquivo no diretório de migração; é substituído se já existir.
+     * @return 200 (OK) com a época do corte e os totais, ou 400 (Bad Request) se o nome for inválido.
+     */
+    @PostMapping("/exportacao")
+    public ResponseEntity<?> exportar(@RequestParam String arquivo) throws IOException {
+        Path caminho = resolver(arquivo);
+        if (caminho == null) {
+            return ResponseEntity.badRequest().body("Nome de arquivo inválido.");
+        }
+        Files.createDirectories(diretorio);
+        return ResponseEntity.ok(contasCsv.exportar(caminho));
+    }
+
+    /**
+     * Caminho do arquivo no diretório de migração, ou {@code null} se o nome apontar para fora dele.
+     */
+    private Path resolver(String arquivo) {
+        if (arquivo.isBlank()) return null;
+        Path caminho = diretorio.resolve(arquivo).normalize();
+        return diretorio.equals(caminho.getParent()) ? caminho : null;
+    }
+}
@@ -0,0 +1,52 @@
+package PrjBank.Banco.Digital.controller;
+
+import PrjBank.Banco.Digital.service.AgregadosSaldos;
+import PrjBank.Banco.Digital.service.Banco;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador REST para os relatórios sobre todas as contas.
+ */
+@RestController
+@RequestMapping("/api/relatorios")
+public class RelatorioController {
+
+    private final Banco banco;
+
+    /**
+     * Construtor injeta o serviço Banco.
+     */
+    public RelatorioController(Banco banco) {
+        this.banco = banco;
+    }
+
+    /**
+     * Retorna os agregados correntes dos saldos: soma, quantidade de contas e contas por faixa de saldo.
+     * A leitura não percorre as contas; operações em andamento podem estar contadas em parte.
+     * Mapeia para GET /api/relatorios/saldos
+     * @return Os agregados em JSON.
+     */
+    @GetMapping("/saldos")
+    public AgregadosSaldos.Resumo resumirSaldos() {
+        return banco.resumirSaldos();
+    }
+
+    /**
+     * Retorna um corte consistente dos saldos (todas as contas no mesmo instante lógico), com os totais,
+     * as faixas e os maiores saldos. As operações continuam durante o corte.
+     * Mapeia para GET /api/relatorios/saldos/corte?maiores={n}
+     * @param maiores Quantidade de maiores saldos (0 a {@value AgregadosSaldos#MAIORES_MAXIMO}, padrão 10).
+     * @return 200 (OK) com o corte ou 400 (Bad Request) se a quantidade for inválida.
+     */
+    @GetMapping("/saldos/corte")
+    public ResponseEntity<AgregadosSaldos.Corte> cortarSaldos(@RequestParam(defaultValue = "10") int maiores) {
+        if (maiores < 0 || maiores > AgregadosSaldos.MAIORES_MAXIMO) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(banco.cortarSaldos(maiores));
+    }
+}
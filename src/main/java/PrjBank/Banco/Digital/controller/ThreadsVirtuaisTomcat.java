@@ -0,0 +1,33 @@
+package PrjBank.Banco.Digital.controller;
+
+import PrjBank.Banco.Digital.service.ThreadsVirtuais;
+import org.apache.coyote.ProtocolHandler;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Component: Atende as requisições HTTP em threads virtuais ({@code banco.threads.virtuais=true}).
+ * <p>
+ * O Tomcat passa a criar uma thread virtual por requisição no lugar do pool de threads de plataforma
+ * ({@code server.tomcat.threads.max}). Uma requisição parada em uma chamada bloqueante deixa de ocupar
+ * uma das poucas centenas de threads do pool, desde que a espera não aconteça dentro de um bloco
+ * {@code synchronized}, que prende a thread de plataforma: por isso a espera pelo fsync do
+ * {@link PrjBank.Banco.Digital.persistencia.Journal Journal} usa {@code ReentrantLock} e {@code Condition}.
+ * <p>
+ * Requer executar a aplicação em um Java 21 ou mais novo; em versões anteriores apenas avisa e mantém o pool padrão.
+ * No Java 21 o efeito é o mesmo de {@code spring.threads.virtual.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "banco.threads.virtuais", havingValue = "true")
+public class ThreadsVirtuaisTomcat implements TomcatProtocolHandlerCustomizer<ProtocolHandler> {
+
+    @Override
+    public void customize(ProtocolHandler protocolo) {
+        if (ThreadsVirtuais.verificar("o Tomcat")) {
+            protocolo.setExecutor(new VirtualThreadExecutor("tomcat-virtual-"));
+            System.out.println("Requisições HTTP atendidas em threads virtuais.");
+        }
+    }
+}
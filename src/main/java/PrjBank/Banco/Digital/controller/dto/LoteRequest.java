@@ -0,0 +1,14 @@
+package PrjBank.Banco.Digital.controller.dto;
+
+import PrjBank.Banco.Digital.service.ModoLote;
+import PrjBank.Banco.Digital.service.OperacaoLote;
+
+import java.util.List;
+
+/**
+ * DTO para a execução de um lote de operações.
+ * Contém o modo (padrão MELHOR_ESFORCO), se as contas independentes podem ser processadas em paralelo
+ * e as operações, na ordem em que devem ser aplicadas.
+ */
+public record LoteRequest(ModoLote modo, boolean paralelo, List<OperacaoLote> operacoes) {
+}
@@ -0,0 +1,12 @@
+package PrjBank.Banco.Digital.controller.dto;
+
+import PrjBank.Banco.Digital.model.Conta;
+
+import java.util.List;
+
+/**
+ * DTO de resposta para a listagem paginada de contas.
+ * Contém as contas da página e o cursor para a próxima página ({@code null} na última).
+ */
+public record PaginaContas(List<Conta> contas, Integer proximoCursor) {
+}
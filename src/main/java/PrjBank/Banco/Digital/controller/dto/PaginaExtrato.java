@@ -0,0 +1,12 @@
+package PrjBank.Banco.Digital.controller.dto;
+
+import PrjBank.Banco.Digital.service.Lancamento;
+
+import java.util.List;
+
+/**
+ * DTO de resposta para o extrato paginado de uma conta.
+ * Contém o número da conta, os lançamentos da página e o cursor para a próxima página ({@code null} na última).
+ */
+public record PaginaExtrato(int numeroConta, List<Lancamento> lancamentos, Long proximoCursor) {
+}
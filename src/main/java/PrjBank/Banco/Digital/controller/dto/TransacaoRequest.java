@@ -1,7 +1,11 @@
 package PrjBank.Banco.Digital.controller.dto;
 
+import PrjBank.Banco.Digital.model.DinheiroJson;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
 /**
  * DTO para o valor em requisições de depósito ou saque.
+ * O valor chega em reais no JSON (ex.: {@code 10.50}) e é convertido para centavos.
  */
-public record TransacaoRequest(double valor) {
+public record TransacaoRequest(@JsonDeserialize(using = DinheiroJson.Desserializador.class) long valor) {
 }
\ No newline at end of file
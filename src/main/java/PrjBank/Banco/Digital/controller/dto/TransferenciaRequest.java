@@ -1,8 +1,12 @@
 package PrjBank.Banco.Digital.controller.dto;
 
+import PrjBank.Banco.Digital.model.DinheiroJson;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
 /**
  * DTO para dados de requisição de transferência.
- * Contém o valor a ser transferido e o número da conta de destino.
+ * Contém o valor a ser transferido (em reais no JSON, convertido para centavos) e o número da conta de destino.
  */
-public record TransferenciaRequest(double valor, int numeroDestino) {
+public record TransferenciaRequest(@JsonDeserialize(using = DinheiroJson.Desserializador.class) long valor,
+                                   int numeroDestino) {
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package PrjBank.Banco.Digital.exception;
+
+/**
+ * Lançada quando um cabeçalho {@code Idempotency-Key} já usado chega com uma operação diferente
+ * (outro tipo, outra conta ou outro valor). Repetir a chave só é permitido para repetir a mesma
+ * requisição.
+ */
+public class ChaveIdempotenciaReutilizadaException extends RuntimeException {
+
+    /**
+     * @param chave A chave reutilizada.
+     */
+    public ChaveIdempotenciaReutilizadaException(String chave) {
+        super("A chave de idempotência '" + chave + "' já foi usada em outra operação.", null, false, false);
+    }
+}
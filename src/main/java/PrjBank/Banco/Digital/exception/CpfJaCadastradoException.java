@@ -0,0 +1,15 @@
+package PrjBank.Banco.Digital.exception;
+
+/**
+ * Lançada ao abrir uma conta para um CPF que já tem conta, quando o banco exige CPF único
+ * ({@code banco.contas.cpf-unico}).
+ */
+public class CpfJaCadastradoException extends RuntimeException {
+
+    /**
+     * @param cpf O CPF já cadastrado.
+     */
+    public CpfJaCadastradoException(String cpf) {
+        super("Já existe uma conta para o CPF " + cpf + ".", null, false, false);
+    }
+}
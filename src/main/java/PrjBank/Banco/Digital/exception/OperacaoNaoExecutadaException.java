@@ -0,0 +1,16 @@
+package PrjBank.Banco.Digital.exception;
+
+/**
+ * Lançada quando uma operação é recusada antes de alterar qualquer saldo ou chegar ao journal, por
+ * exemplo porque o executor já foi encerrado. Ao contrário das demais falhas, garante que nada foi
+ * aplicado: repetir a operação, inclusive com a mesma {@code Idempotency-Key}, é seguro.
+ */
+public class OperacaoNaoExecutadaException extends IllegalStateException {
+
+    /**
+     * @param mensagem O motivo da recusa.
+     */
+    public OperacaoNaoExecutadaException(String mensagem) {
+        super(mensagem);
+    }
+}
@@ -0,0 +1,19 @@
+package PrjBank.Banco.Digital.exception;
+
+/**
+ * Lançada na repetição de uma {@code Idempotency-Key} cuja execução original falhou depois de
+ * possivelmente ter aplicado a operação (uma falha no fsync do journal, por exemplo). Executar de novo
+ * poderia aplicar a operação duas vezes, então a chave responde com esta falha até vencer; o cliente
+ * deve conferir o saldo antes de repetir com outra chave.
+ */
+public class ResultadoIndeterminadoException extends RuntimeException {
+
+    /**
+     * @param chave A chave da operação.
+     * @param causa A falha da execução original.
+     */
+    public ResultadoIndeterminadoException(String chave, Throwable causa) {
+        super("A operação com a chave de idempotência '" + chave + "' falhou e pode ter sido aplicada; "
+                + "confira o saldo antes de repetir com outra chave.", causa, false, false);
+    }
+}
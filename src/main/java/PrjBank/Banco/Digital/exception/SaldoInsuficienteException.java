@@ -7,6 +7,9 @@ package PrjBank.Banco.Digital.exception;
  * concluída por falta de saldo na conta. O uso de uma exceção específica
  * torna o código mais claro e o tratamento de erros mais robusto, separando
  * erros de sistema de erros de lógica de negócio.
+ * <p>
+ * Quem precisa recusar muitas operações sem custo deve usar os métodos {@code tentar...} de
+ * {@code Conta}, que devolvem um {@code StatusOperacao} em vez de lançar esta exceção.
  *
  * @author Seu Nome Aqui
  */
@@ -25,6 +28,8 @@ public class SaldoInsuficienteException extends Exception {
         // A palavra-chave 'super' chama o construtor da classe pai (Exception),
         // passando a mensagem de erro para que ela seja armazenada e possa ser
         // recuperada posteriormente, por exemplo, pelo método getMessage().
-        super(message);
+        // Sem supressão nem pilha de chamadas: é uma recusa de negócio, não um erro a depurar,
+        // e montar a pilha custava mais que a própria operação.
+        super(message, null, false, false);
     }
 }
\ No newline at end of file
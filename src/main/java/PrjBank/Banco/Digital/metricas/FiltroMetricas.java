@@ -0,0 +1,50 @@
+package PrjBank.Banco.Digital.metricas;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * @Component: Filtro que mede a duração e o status de cada requisição e os registra em {@link Metricas},
+ * agrupando pelo padrão da URL (ex.: {@code /api/contas/{numeroConta}/saque}) em vez da URL real,
+ * para que números de conta diferentes caiam no mesmo endpoint.
+ * <p>
+ * Em respostas escritas de forma assíncrona (como a listagem de contas), é medido o tempo até o
+ * início da escrita.
+ */
+@Component
+public class FiltroMetricas implements Filter {
+
+    // Agrupa requisições que não chegaram a nenhum endpoint (URL inexistente, arquivos estáticos etc.).
+    private static final String SEM_ENDPOINT = "(outros)";
+
+    private final Metricas metricas;
+
+    public FiltroMetricas(Metricas metricas) {
+        this.metricas = metricas;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        long inicio = System.nanoTime();
+        int status = 500;
+        try {
+            chain.doFilter(request, response);
+            status = ((HttpServletResponse) response).getStatus();
+        } finally {
+            HttpServletRequest http = (HttpServletRequest) request;
+            Object padrao = http.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            metricas.registrarRequisicao(padrao != null ? padrao.toString() : SEM_ENDPOINT,
+                    http.getMethod(), status, System.nanoTime() - inicio);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package PrjBank.Banco.Digital.metricas;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências em nanossegundos, no estilo do HdrHistogram: cada potência de 2 é dividida
+ * em {@value #SUB_FAIXAS} faixas iguais, o que limita o erro relativo de qualquer percentil a cerca de 3%
+ * em toda a escala (de 1 ns até dezenas de anos), com um vetor de tamanho fixo.
+ * <p>
+ * O registro é livre de travas e não aloca memória: apenas incrementa contadores atômicos.
+ * As leituras ({@link #resumir()}) copiam os contadores e podem ser feitas a qualquer momento.
+ */
+public class Histograma {
+
+    private static final int BITS_SUB_FAIXA = 5;
+    private static final int SUB_FAIXAS = 1 << BITS_SUB_FAIXA;
+    // Faixas até o maior long positivo (expoente 62).
+    private static final int TAMANHO = (62 - BITS_SUB_FAIXA + 2) * SUB_FAIXAS;
+
+    private final AtomicLongArray contagens = new AtomicLongArray(TAMANHO);
+    private final LongAdder soma = new LongAdder();
+    private final AtomicLong maximo = new AtomicLong();
+
+    /**
+     * Resumo do histograma, com os valores em nanossegundos.
+     */
+    public record Resumo(long contagem, long mediaNs, long p50Ns, long p99Ns, long p999Ns, long maximoNs) {
+    }
+
+    /**
+     * Registra um valor, em nanossegundos. Valores negativos contam como zero.
+     */
+    public void registrar(long nanos) {
+        long valor = Math.max(nanos, 0);
+        contagens.incrementAndGet(indice(valor));
+        soma.add(valor);
+        long atual = maximo.get();
+        while (valor > atual && !maximo.compareAndSet(atual, valor)) {
+            atual = maximo.get();
+        }
+    }
+
+    /**
+     * Calcula contagem, média, percentis 50, 99 e 99,9 e máximo a partir de uma cópia dos contadores.
+     */
+    public Resumo resumir() {
+        long[] copia = new long[TAMANHO];
+        long total = 0;
+        for (int i = 0; i < TAMANHO; i++) {
+            copia[i] = contagens.get(i);
+            total += copia[i];
+        }
+        if (total == 0) {
+            return new Resumo(0, 0, 0, 0, 0, 0);
+        }
+        long maior = maximo.get();
+        return new Resumo(total, soma.sum() / total,
+                Math.min(percentil(copia, total, 0.50), maior),
+                Math.min(percentil(copia, total, 0.99), maior),
+                Math.min(percentil(copia, total, 0.999), maior),
+                maior);
+    }
+
+    private static long percentil(long[] contagens, long total, double fracao) {
+        long posicao = Math.max(1, (long) Math.ceil(total * fracao));
+        long acumulado = 0;
+        for (int i = 0; i < contagens.length; i++) {
+            acumulado += contagens[i];
+            if (acumulado >= posicao) {
+                return maiorValor(i);
+            }
+        }
+        return maiorValor(contagens.length - 1);
+    }
+
+    /**
+     * Faixa do valor: até {@value #SUB_FAIXAS} o índice é o próprio valor; acima disso, os
+     * {@value #BITS_SUB_FAIXA} bits seguintes ao bit mais alto escolhem a sub-faixa.
+     */
+    static int indice(long valor) {
+        if (valor < SUB_FAIXAS) {
+            return (int) valor;
+        }
+        int expoente = 63 - Long.numberOfLeadingZeros(valor);
+        int deslocamento = expoente - BITS_SUB_FAIXA;
+        int subFaixa = (int) (valor >>> deslocamento) - SUB_FAIXAS;
+        return (deslocamento + 1) * SUB_FAIXAS + subFaixa;
+    }
+
+    /**
+     * Maior valor que cai na faixa de índice informado.
+     */
+    static long maiorValor(int indice) {
+        if (indice < SUB_FAIXAS) {
+            return indice;
+        }
+        int deslocamento = indice / SUB_FAIXAS - 1;
+        long menor = (long) (SUB_FAIXAS + indice % SUB_FAIXAS) << deslocamento;
+        return menor + (1L << deslocamento) - 1;
+    }
+}
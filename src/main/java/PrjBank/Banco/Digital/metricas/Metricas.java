@@ -0,0 +1,178 @@
+package PrjBank.Banco.Digital.metricas;
+
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.service.OuvinteOperacoes;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Component: Métricas internas da aplicação, mantidas em memória e expostas em {@code GET /api/metricas}.
+ * <p>
+ * Reúne a latência e o resultado de cada endpoint (registrados pelo {@link FiltroMetricas}), as operações
+ * aceitas e rejeitadas por saldo insuficiente (como {@link OuvinteOperacoes}), o tempo das chamadas ao
+ * Google Sheets e a espera pelas travas das contas. Todos os registros usam apenas contadores atômicos:
+ * não há travas nem alocação por requisição, exceto na primeira chamada de cada endpoint.
+ */
+@Component
+public class Metricas implements OuvinteOperacoes {
+
+    /**
+     * Métricas de um endpoint (padrão de URL e método HTTP).
+     */
+    public static final class MetricasEndpoint {
+        private final Histograma latencia = new Histograma();
+        private final LongAdder sucessos = new LongAdder();
+        private final LongAdder naoEncontrados = new LongAdder();
+        private final LongAdder rejeicoes = new LongAdder();
+        private final LongAdder erros = new LongAdder();
+
+        void registrar(int status, long nanos) {
+            latencia.registrar(nanos);
+            if (status < 400) sucessos.increment();
+            else if (status == 404) naoEncontrados.increment();
+            else if (status < 500) rejeicoes.increment();
+            else erros.increment();
+        }
+
+        Map<String, Object> resumir() {
+            Map<String, Object> resumo = new LinkedHashMap<>();
+            resumo.put("sucessos", sucessos.sum());
+            resumo.put("naoEncontrados", naoEncontrados.sum());
+            resumo.put("rejeicoes", rejeicoes.sum());
+            resumo.put("erros", erros.sum());
+            resumo.put("latencia", latencia.resumir());
+            return resumo;
+        }
+    }
+
+    // Métodos com métricas próprias; os demais são somados em OUTROS.
+    private static final String OUTROS = "OUTROS";
+
+    // Padrão da URL -> método HTTP -> métricas. Os padrões vêm do Spring e os métodos são reduzidos a um
+    // conjunto fixo, então requisições com métodos arbitrários não criam entradas novas.
+    private final ConcurrentMap<String, ConcurrentMap<String, MetricasEndpoint>> endpoints = new ConcurrentHashMap<>();
+
+    private final LongAdder contasAdicionadas = new LongAdder();
+    private final LongAdder depositos = new LongAdder();
+    private final LongAdder saques = new LongAdder();
+    private final LongAdder transferencias = new LongAdder();
+    private final LongAdder saldoInsuficiente = new LongAdder();
+
+    private final Histograma planilhaLeituras = new Histograma();
+    private final Histograma planilhaEscritas = new Histograma();
+    private final LongAdder planilhaFalhas = new LongAdder();
+
+    /**
+     * Registra uma requisição atendida.
+     * @param padrao Padrão da URL do endpoint (ex.: {@code /api/contas/{numeroConta}}).
+     * @param metodo Método HTTP.
+     * @param status Código de status da resposta.
+     * @param nanos Duração da requisição.
+     */
+    public void registrarRequisicao(String padrao, String metodo, int status, long nanos) {
+        ConcurrentMap<String, MetricasEndpoint> porMetodo = endpoints.get(padrao);
+        if (porMetodo == null) {
+            porMetodo = endpoints.computeIfAbsent(padrao, p -> new ConcurrentHashMap<>());
+        }
+        String chave = normalizarMetodo(metodo);
+        MetricasEndpoint endpoint = porMetodo.get(chave);
+        if (endpoint == null) {
+            endpoint = porMetodo.computeIfAbsent(chave, m -> new MetricasEndpoint());
+        }
+        endpoint.registrar(status, nanos);
+    }
+
+    /**
+     * Reduz o método HTTP a GET, POST, PUT, DELETE, PATCH ou {@value #OUTROS}, devolvendo sempre as mesmas strings.
+     */
+    static String normalizarMetodo(String metodo) {
+        if (metodo == null) return OUTROS;
+        return switch (metodo) {
+            case "GET" -> "GET";
+            case "POST" -> "POST";
+            case "PUT" -> "PUT";
+            case "DELETE" -> "DELETE";
+            case "PATCH" -> "PATCH";
+            default -> OUTROS;
+        };
+    }
+
+    /**
+     * Registra uma leitura na planilha.
+     */
+    public void registrarLeituraPlanilha(long nanos, boolean sucesso) {
+        planilhaLeituras.registrar(nanos);
+        if (!sucesso) planilhaFalhas.increment();
+    }
+
+    /**
+     * Registra uma escrita em lote na planilha.
+     */
+    public void registrarEscritaPlanilha(long nanos, boolean sucesso) {
+        planilhaEscritas.registrar(nanos);
+        if (!sucesso) planilhaFalhas.increment();
+    }
+
+    @Override
+    public void contaAdicionada(Conta conta) {
+        contasAdicionadas.increment();
+    }
+
+    @Override
+    public void deposito(Conta conta, long valor) {
+        depositos.increment();
+    }
+
+    @Override
+    public void saque(Conta conta, long valor) {
+        saques.increment();
+    }
+
+    @Override
+    public void transferencia(Conta origem, Conta destino, long valor) {
+        transferencias.increment();
+    }
+
+    @Override
+    public void saldoInsuficiente(Conta conta, long valor) {
+        saldoInsuficiente.increment();
+    }
+
+    /**
+     * Monta um retrato de todas as métricas, pronto para ser convertido em JSON.
+     */
+    public Map<String, Object> resumir() {
+        Map<String, Object> porEndpoint = new TreeMap<>();
+        endpoints.forEach((padrao, porMetodo) -> porMetodo.forEach((metodo, endpoint) ->
+                porEndpoint.put(metodo + " " + padrao, endpoint.resumir())));
+
+        Map<String, Object> operacoes = new LinkedHashMap<>();
+        operacoes.put("contasAdicionadas", contasAdicionadas.sum());
+        operacoes.put("depositos", depositos.sum());
+        operacoes.put("saques", saques.sum());
+        operacoes.put("transferencias", transferencias.sum());
+        operacoes.put("saldoInsuficiente", saldoInsuficiente.sum());
+
+        Map<String, Object> travas = new LinkedHashMap<>();
+        travas.put("semEspera", Conta.getTravasSemEspera());
+        travas.put("espera", Conta.getEsperaTravas().resumir());
+
+        Map<String, Object> planilha = new LinkedHashMap<>();
+        planilha.put("leituras", planilhaLeituras.resumir());
+        planilha.put("escritas", planilhaEscritas.resumir());
+        planilha.put("falhas", planilhaFalhas.sum());
+
+        Map<String, Object> resumo = new LinkedHashMap<>();
+        resumo.put("endpoints", porEndpoint);
+        resumo.put("operacoes", operacoes);
+        resumo.put("travasContas", travas);
+        resumo.put("planilha", planilha);
+        return resumo;
+    }
+}
@@ -1,28 +1,108 @@
 package PrjBank.Banco.Digital.model;
 
 import PrjBank.Banco.Digital.exception.SaldoInsuficienteException;
+import PrjBank.Banco.Digital.metricas.Histograma;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Supplier;
 
 /**
  * Representa a entidade Conta bancária.
+ * <p>
+ * Todas as alterações de saldo acontecem sob a trava da própria conta. Transferências
+ * adquirem as travas das duas contas sempre na ordem crescente do número da conta,
+ * o que evita deadlock entre transferências em sentidos opostos e não bloqueia
+ * operações em contas não envolvidas.
+ * <p>
+ * O saldo e os valores das operações são mantidos em centavos ({@code long}); veja {@link Dinheiro}.
+ * <p>
+ * Uma conta vinculada a um {@link ObservadorSaldos} avisa cada alteração de saldo e guarda, a cada
+ * nova época, o saldo que tinha antes dela; assim um corte consistente de todos os saldos pode ser
+ * lido por {@link #saldoNoCorte} sem travar a conta.
  */
 public class Conta {
 
     // Constantes e sequencial
     private static final int AGENCIA_PADRAO = 1;
-    private static int SEQUENCIAL = 1;
+    private static final AtomicInteger SEQUENCIAL = new AtomicInteger(1);
+
+    // Medição da disputa pelas travas: aquisições imediatas e tempo de espera das demais.
+    private static final LongAdder TRAVAS_SEM_ESPERA = new LongAdder();
+    private static final Histograma ESPERA_TRAVAS = new Histograma();
 
     // Atributos da conta
     protected int agencia;
     protected int numero;
-    protected double saldo;
+    protected volatile long saldo; // em centavos
     protected Cliente titular;
 
+    // Trava que protege as alterações de saldo desta conta.
+    private final ReentrantLock trava = new ReentrantLock();
+
+    // Observador das alterações de saldo (nulo enquanto a conta não pertence a um banco).
+    private ObservadorSaldos observador;
+    // Época da última alteração e saldo anterior à primeira alteração dessa época.
+    private volatile long epoca;
+    private long saldoAnterior;
+    // Época em que a conta foi vinculada ao observador; cortes anteriores não a incluem.
+    private volatile long epocaInclusao = Long.MAX_VALUE;
+
     // Construtor
     public Conta(Cliente titular) {
         this.agencia = AGENCIA_PADRAO;
-        this.numero = SEQUENCIAL++;
+        this.numero = SEQUENCIAL.getAndIncrement();
+        this.titular = titular;
+        this.saldo = 0;
+    }
+
+    /**
+     * Reconstrói uma conta já existente (por exemplo, a partir do journal), preservando número,
+     * agência e saldo. O sequencial avança para além desse número, evitando que uma conta nova
+     * receba um número já usado.
+     * @param titular Cliente titular da conta.
+     * @param numero Número original da conta.
+     * @param agencia Agência original da conta.
+     * @param saldo Saldo em centavos.
+     */
+    public Conta(Cliente titular, int numero, int agencia, long saldo) {
+        this.agencia = agencia;
+        this.numero = numero;
+        this.titular = titular;
+        this.saldo = saldo;
+        // Só escreve no sequencial compartilhado quando ele realmente precisa avançar.
+        if (SEQUENCIAL.get() <= numero) {
+            SEQUENCIAL.accumulateAndGet(numero + 1, Math::max);
+        }
+    }
+
+    /**
+     * Cria uma conta nova, com saldo zero, usando um número já reservado por {@link #reservarNumeros}.
+     * @param titular Cliente titular da conta.
+     * @param numero Número reservado.
+     */
+    public Conta(Cliente titular, int numero) {
+        this.agencia = AGENCIA_PADRAO;
+        this.numero = numero;
         this.titular = titular;
-        this.saldo = 0.0;
+        this.saldo = 0;
+    }
+
+    /**
+     * Reserva um bloco de números de conta consecutivos, que ninguém mais receberá.
+     * Quem cria muitas contas reserva um bloco e distribui os números sozinho, em vez de
+     * disputar o sequencial compartilhado a cada conta.
+     * @param quantidade Tamanho do bloco.
+     * @return O primeiro número do bloco.
+     */
+    public static int reservarNumeros(int quantidade) {
+        return SEQUENCIAL.getAndAdd(quantidade);
     }
 
     // Getters
@@ -34,7 +114,8 @@ public class Conta {
         return numero;
     }
 
-    public double getSaldo() {
+    @JsonSerialize(using = DinheiroJson.Serializador.class)
+    public long getSaldo() {
         return saldo;
     }
 
@@ -44,54 +125,493 @@ public class Conta {
 
     // Setter para saldo (necessário para depósito/saque direto no atributo)
     // Embora possa ser evitado usando apenas os métodos depositar/sacar
-    public void setSaldo(double saldo) {
-        this.saldo = saldo;
+    public void setSaldo(long saldo) {
+        travar(trava);
+        try {
+            alterarSaldo(saldo);
+        } finally {
+            trava.unlock();
+        }
     }
 
     /**
-     * Adiciona um valor positivo ao saldo da conta.
-     * @param valor Valor a ser depositado.
+     * Vincula a conta ao observador, que passa a receber as suas alterações de saldo.
+     * @param observador Observador do banco ao qual a conta pertence.
+     * @param epoca Época, obtida de {@link ObservadorSaldos#iniciarAlteracao()}, em que a conta é incluída.
+     * @throws IllegalStateException Se a conta já estiver vinculada a outro observador.
      */
-    public void depositar(double valor) {
-        if (valor <= 0) {
-            System.err.println("Valor de depósito deve ser positivo.");
-            return;
+    public void vincular(ObservadorSaldos observador, long epoca) {
+        travar(trava);
+        try {
+            if (this.observador != null && this.observador != observador) {
+                throw new IllegalStateException("A conta " + numero + " já pertence a outro banco.");
+            }
+            this.observador = observador;
+            this.saldoAnterior = this.saldo;
+            this.epoca = epoca;
+            this.epocaInclusao = epoca;
+            observador.contaIncluida(this.saldo);
+        } finally {
+            trava.unlock();
         }
-        this.saldo += valor;
-        System.out.printf("Depósito de R$ %.2f realizado com sucesso.%n", valor);
     }
 
     /**
-     * Remove um valor positivo do saldo da conta.
-     * @param valor Valor a ser sacado.
-     * @throws SaldoInsuficienteException Se o saldo for menor que o valor.
+     * Indica se a conta já estava vinculada ao observador no corte informado.
      */
-    public void sacar(double valor) throws SaldoInsuficienteException {
-        if (valor <= 0) {
-            System.err.println("Valor de saque deve ser positivo.");
-            return;
+    public boolean incluidaAte(long corte) {
+        return epocaInclusao <= corte;
+    }
+
+    /**
+     * Lê, sem travar, o saldo da conta ao fim da época {@code corte}. Só é exato enquanto nenhuma
+     * alteração de época posterior a {@code corte + 1} tiver acontecido, isto é, enquanto o observador
+     * não abrir outra época; é o observador quem garante isso durante a leitura de um corte.
+     */
+    public long saldoNoCorte(long corte) {
+        if (epoca > corte) return saldoAnterior;
+        long atual = saldo;
+        // A época é gravada antes do saldo novo: se o saldo lido já é de depois do corte, a época também é.
+        return epoca > corte ? saldoAnterior : atual;
+    }
+
+    /**
+     * Adiciona um valor positivo ao saldo da conta, sem lançar exceções.
+     * @param valor Valor a ser depositado, em centavos.
+     * @return {@link StatusOperacao#APLICADA}, {@link StatusOperacao#VALOR_INVALIDO} ou
+     * {@link StatusOperacao#LIMITE_EXCEDIDO} se o novo saldo estourar o limite de um {@code long}.
+     */
+    public StatusOperacao tentarDepositar(long valor) {
+        return tentarDepositar(valor, null);
+    }
+
+    /**
+     * Como {@link #tentarDepositar(long)}, devolvendo também o saldo gravado pelo depósito.
+     * @param saldos Se não for nulo, recebe na posição 0 o saldo logo após o depósito, lido sob a trava.
+     */
+    public StatusOperacao tentarDepositar(long valor, long[] saldos) {
+        if (valor <= 0) return StatusOperacao.VALOR_INVALIDO;
+        travar(trava);
+        try {
+            if (Dinheiro.somaEstoura(this.saldo, valor)) return StatusOperacao.LIMITE_EXCEDIDO;
+            alterarSaldo(this.saldo + valor);
+            if (saldos != null) saldos[0] = this.saldo;
+            return StatusOperacao.APLICADA;
+        } finally {
+            trava.unlock();
         }
+    }
+
+    /**
+     * Remove um valor positivo do saldo da conta, sem lançar exceções.
+     * @param valor Valor a ser sacado, em centavos.
+     * @return {@link StatusOperacao#APLICADA}, {@link StatusOperacao#VALOR_INVALIDO} ou
+     * {@link StatusOperacao#SALDO_INSUFICIENTE}.
+     */
+    public StatusOperacao tentarSacar(long valor) {
+        return tentarSacar(valor, null);
+    }
+
+    /**
+     * Como {@link #tentarSacar(long)}, devolvendo também o saldo gravado pelo saque.
+     * @param saldos Se não for nulo, recebe na posição 0 o saldo logo após o saque, lido sob a trava.
+     */
+    public StatusOperacao tentarSacar(long valor, long[] saldos) {
+        if (valor <= 0) return StatusOperacao.VALOR_INVALIDO;
+        travar(trava);
+        try {
+            if (this.saldo < valor) return StatusOperacao.SALDO_INSUFICIENTE;
+            alterarSaldo(this.saldo - valor);
+            if (saldos != null) saldos[0] = this.saldo;
+            return StatusOperacao.APLICADA;
+        } finally {
+            trava.unlock();
+        }
+    }
 
-        if (this.saldo < valor) {
-            throw new SaldoInsuficienteException(String.format(
-                    "Saldo insuficiente. Saldo atual: R$ %.2f, Tentativa de saque: R$ %.2f", this.saldo, valor));
+    /**
+     * Adiciona um valor positivo ao saldo dentro de uma alteração já iniciada, possivelmente por outra
+     * thread, com {@link ObservadorSaldos#iniciarAlteracaoCompartilhada()}; usado na segunda fase de uma
+     * transferência entre partições e no seu estorno.
+     * @param valor Valor a ser depositado, em centavos.
+     * @param epocaAlteracao Época da alteração compartilhada.
+     * @param saldos Recebe na posição 0 o saldo logo após o depósito, lido sob a trava.
+     * @return Os mesmos status de {@link #tentarDepositar(long)}.
+     */
+    public StatusOperacao tentarDepositar(long valor, long epocaAlteracao, long[] saldos) {
+        if (valor <= 0) return StatusOperacao.VALOR_INVALIDO;
+        travar(trava);
+        try {
+            if (Dinheiro.somaEstoura(this.saldo, valor)) return StatusOperacao.LIMITE_EXCEDIDO;
+            alterarSaldo(epocaAlteracao, this.saldo + valor);
+            saldos[0] = this.saldo;
+            return StatusOperacao.APLICADA;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Remove um valor positivo do saldo dentro de uma alteração compartilhada já iniciada; usado na
+     * primeira fase de uma transferência entre partições.
+     * @param valor Valor a ser sacado, em centavos.
+     * @param epocaAlteracao Época da alteração compartilhada.
+     * @param saldos Recebe na posição 0 o saldo logo após o saque, lido sob a trava.
+     * @return Os mesmos status de {@link #tentarSacar(long)}.
+     */
+    public StatusOperacao tentarSacar(long valor, long epocaAlteracao, long[] saldos) {
+        if (valor <= 0) return StatusOperacao.VALOR_INVALIDO;
+        travar(trava);
+        try {
+            if (this.saldo < valor) return StatusOperacao.SALDO_INSUFICIENTE;
+            alterarSaldo(epocaAlteracao, this.saldo - valor);
+            saldos[0] = this.saldo;
+            return StatusOperacao.APLICADA;
+        } finally {
+            trava.unlock();
         }
+    }
+
+    /**
+     * Transfere um valor para outra conta, sem lançar exceções.
+     * @param valor Valor a ser transferido, em centavos.
+     * @param contaDestino Conta para onde o valor será transferido.
+     * @return {@link StatusOperacao#APLICADA}, {@link StatusOperacao#VALOR_INVALIDO},
+     * {@link StatusOperacao#SALDO_INSUFICIENTE} ou {@link StatusOperacao#LIMITE_EXCEDIDO} se o saldo de
+     * destino estourar o limite de um {@code long}.
+     */
+    public StatusOperacao tentarTransferir(long valor, Conta contaDestino) {
+        return tentarTransferir(valor, contaDestino, null);
+    }
+
+    /**
+     * Como {@link #tentarTransferir(long, Conta)}, devolvendo também os saldos gravados pela transferência.
+     * @param saldos Se não for nulo, recebe o saldo da origem (posição 0) e o do destino (posição 1)
+     *               logo após a transferência, lidos sob as travas.
+     */
+    public StatusOperacao tentarTransferir(long valor, Conta contaDestino, long[] saldos) {
+        if (valor <= 0) return StatusOperacao.VALOR_INVALIDO;
+
+        if (contaDestino == this) {
+            // Transferência para a própria conta: apenas valida o saldo, sem alterá-lo.
+            travar(trava);
+            try {
+                if (this.saldo < valor) return StatusOperacao.SALDO_INSUFICIENTE;
+                if (saldos != null) saldos[0] = saldos[1] = this.saldo;
+                return StatusOperacao.APLICADA;
+            } finally {
+                trava.unlock();
+            }
+        }
+        // Ordem global de aquisição das travas pelo número da conta.
+        Conta primeira = this.numero < contaDestino.numero ? this : contaDestino;
+        Conta segunda = primeira == this ? contaDestino : this;
+        travar(primeira.trava);
+        try {
+            travar(segunda.trava);
+            try {
+                if (Dinheiro.somaEstoura(contaDestino.saldo, valor)) return StatusOperacao.LIMITE_EXCEDIDO;
+                if (this.saldo < valor) return StatusOperacao.SALDO_INSUFICIENTE;
+                alterarSaldos(this, this.saldo - valor, contaDestino, contaDestino.saldo + valor);
+                if (saldos != null) {
+                    saldos[0] = this.saldo;
+                    saldos[1] = contaDestino.saldo;
+                }
+                return StatusOperacao.APLICADA;
+            } finally {
+                segunda.trava.unlock();
+            }
+        } finally {
+            primeira.trava.unlock();
+        }
+    }
+
+    /**
+     * Lança no saldo um valor calculado a partir do próprio saldo (um rendimento, uma tarifa), lido e
+     * alterado sob a trava da conta, sem lançar exceções. A regra roda com a trava adquirida e deve ser rápida.
+     * @param regra Recebe o saldo atual e devolve o valor a lançar, em centavos: positivo credita,
+     *              negativo debita e zero não altera nada.
+     * @return {@link StatusOperacao#APLICADA}, {@link StatusOperacao#VALOR_INVALIDO} se não houver o que
+     * lançar, {@link StatusOperacao#SALDO_INSUFICIENTE} se o débito for maior que o saldo ou
+     * {@link StatusOperacao#LIMITE_EXCEDIDO} se o crédito estourar o limite de um {@code long}.
+     */
+    public StatusOperacao tentarLancar(LongUnaryOperator regra) {
+        travar(trava);
+        try {
+            long valor = regra.applyAsLong(this.saldo);
+            if (valor == 0 || valor == Long.MIN_VALUE) return StatusOperacao.VALOR_INVALIDO;
+            if (valor > 0 && Dinheiro.somaEstoura(this.saldo, valor)) return StatusOperacao.LIMITE_EXCEDIDO;
+            if (valor < 0 && this.saldo < -valor) return StatusOperacao.SALDO_INSUFICIENTE;
+            alterarSaldo(this.saldo + valor);
+            return StatusOperacao.APLICADA;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Adiciona um valor positivo ao saldo da conta.
+     * @param valor Valor a ser depositado, em centavos.
+     * @return {@code true} se o depósito foi aplicado, {@code false} se o valor for inválido.
+     * @throws ArithmeticException Se o novo saldo estourar o limite de um {@code long}.
+     */
+    public boolean depositar(long valor) {
+        return depositar(valor, null);
+    }
+
+    /**
+     * Como {@link #depositar(long)}; {@code saldos} é tratado como em {@link #tentarDepositar(long, long[])}.
+     */
+    public boolean depositar(long valor, long[] saldos) {
+        StatusOperacao status = tentarDepositar(valor, saldos);
+        if (status == StatusOperacao.VALOR_INVALIDO) return false;
+        if (status == StatusOperacao.LIMITE_EXCEDIDO) throw new ArithmeticException("long overflow");
+        return true;
+    }
+
+    /**
+     * Remove um valor positivo do saldo da conta.
+     * @param valor Valor a ser sacado, em centavos.
+     * @return {@code true} se o saque foi aplicado, {@code false} se o valor for inválido.
+     * @throws SaldoInsuficienteException Se o saldo for menor que o valor.
+     */
+    public boolean sacar(long valor) throws SaldoInsuficienteException {
+        return sacar(valor, null);
+    }
 
-        this.saldo -= valor;
-        System.out.printf("Saque de R$ %.2f realizado com sucesso.%n", valor);
+    /**
+     * Como {@link #sacar(long)}; {@code saldos} é tratado como em {@link #tentarSacar(long, long[])}.
+     */
+    public boolean sacar(long valor, long[] saldos) throws SaldoInsuficienteException {
+        StatusOperacao status = tentarSacar(valor, saldos);
+        if (status == StatusOperacao.VALOR_INVALIDO) return false;
+        if (status == StatusOperacao.SALDO_INSUFICIENTE) throw saldoInsuficiente(valor);
+        return true;
     }
 
     /**
      * Transfere um valor para outra conta, realizando saque na conta atual e depósito na conta de destino.
-     * @param valor Valor a ser transferido.
+     * @param valor Valor a ser transferido, em centavos.
      * @param contaDestino Conta para onde o valor será transferido.
+     * @return {@code true} se a transferência foi aplicada, {@code false} se o valor for inválido.
      * @throws SaldoInsuficienteException Se o saldo for menor que o valor.
+     * @throws ArithmeticException Se o saldo de destino estourar o limite de um {@code long}.
+     */
+    public boolean transferir(long valor, Conta contaDestino) throws SaldoInsuficienteException {
+        return transferir(valor, contaDestino, null);
+    }
+
+    /**
+     * Como {@link #transferir(long, Conta)}; {@code saldos} é tratado como em
+     * {@link #tentarTransferir(long, Conta, long[])}.
+     */
+    public boolean transferir(long valor, Conta contaDestino, long[] saldos)
+            throws SaldoInsuficienteException {
+        StatusOperacao status = tentarTransferir(valor, contaDestino, saldos);
+        switch (status) {
+            case VALOR_INVALIDO -> {
+                return false;
+            }
+            case SALDO_INSUFICIENTE -> throw saldoInsuficiente(valor);
+            case LIMITE_EXCEDIDO -> throw new ArithmeticException("long overflow");
+            default -> {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Executa a ação com as travas de todas as contas informadas, adquiridas em ordem crescente
+     * de número (a mesma ordem usada em {@link #transferir}), sem risco de deadlock.
+     * Como as travas são reentrantes, a ação pode chamar os métodos de movimentação das contas.
+     * @param contas Contas a travar; repetições são ignoradas.
+     * @param acao Ação executada com todas as travas adquiridas.
+     * @return O resultado da ação.
+     */
+    public static <T> T comTravas(Collection<Conta> contas, Supplier<T> acao) {
+        Conta[] ordenadas = contas.stream()
+                .distinct()
+                .sorted(Comparator.comparingInt(Conta::getNumero))
+                .toArray(Conta[]::new);
+        int travadas = 0;
+        try {
+            for (Conta conta : ordenadas) {
+                travar(conta.trava);
+                travadas++;
+            }
+            return acao.get();
+        } finally {
+            while (travadas > 0) {
+                ordenadas[--travadas].trava.unlock();
+            }
+        }
+    }
+
+    /**
+     * Executa a ação com a trava da conta e, se houver, com a da outra, adquiridas na mesma ordem de
+     * {@link #transferir}. É o {@link #comTravas(Collection, Supplier)} de uma única operação, sem copiar
+     * nem ordenar uma coleção.
+     * @param conta Conta a travar.
+     * @param outra Segunda conta, ou nulo; se for a própria {@code conta}, é ignorada.
+     * @param acao Ação executada com as travas adquiridas.
+     * @return O resultado da ação.
+     */
+    public static <T> T comTravas(Conta conta, Conta outra, Supplier<T> acao) {
+        if (outra == null || outra == conta) {
+            travar(conta.trava);
+            try {
+                return acao.get();
+            } finally {
+                conta.trava.unlock();
+            }
+        }
+        Conta primeira = conta.numero < outra.numero ? conta : outra;
+        Conta segunda = primeira == conta ? outra : conta;
+        travar(primeira.trava);
+        try {
+            travar(segunda.trava);
+            try {
+                return acao.get();
+            } finally {
+                segunda.trava.unlock();
+            }
+        } finally {
+            primeira.trava.unlock();
+        }
+    }
+
+    /**
+     * Grava os saldos de várias contas como uma única alteração, na mesma época; usado para aplicar
+     * um lote inteiro de uma vez. Deve ser chamado com as travas de todas as contas (veja {@link #comTravas}).
+     * @param saldos Novo saldo de cada conta.
      */
-    public void transferir(double valor, Conta contaDestino) throws SaldoInsuficienteException {
-        this.sacar(valor);
-        contaDestino.depositar(valor);
-        System.out.printf("Transferência de R$ %.2f para %s realizada com sucesso.%n",
-                valor, contaDestino.getTitular().getNome());
+    public static void definirSaldos(Map<Conta, Long> saldos) {
+        ObservadorSaldos comum = null;
+        for (Conta conta : saldos.keySet()) {
+            if (comum == null) comum = conta.observador;
+            if (conta.observador == null || conta.observador != comum) {
+                comum = null;
+                break;
+            }
+        }
+        if (comum == null) {
+            saldos.forEach(Conta::alterarSaldo);
+            return;
+        }
+        ObservadorSaldos observador = comum;
+        long epocaAlteracao = observador.iniciarAlteracao();
+        try {
+            saldos.forEach((conta, saldo) -> conta.gravar(observador, epocaAlteracao, saldo));
+        } finally {
+            observador.concluirAlteracao(epocaAlteracao);
+        }
+    }
+
+    /**
+     * Quantidade de aquisições de trava que não precisaram esperar.
+     */
+    public static long getTravasSemEspera() {
+        return TRAVAS_SEM_ESPERA.sum();
+    }
+
+    /**
+     * Tempo de espera das aquisições de trava que encontraram a conta ocupada.
+     */
+    public static Histograma getEsperaTravas() {
+        return ESPERA_TRAVAS;
+    }
+
+    /**
+     * Adquire a trava medindo a espera. Sem disputa, custa apenas um {@code tryLock}; uma trava que a
+     * thread já tem (dentro de {@link #comTravas}) não conta como aquisição.
+     */
+    private static void travar(ReentrantLock trava) {
+        if (trava.tryLock()) {
+            if (trava.getHoldCount() == 1) TRAVAS_SEM_ESPERA.increment();
+            return;
+        }
+        long inicio = System.nanoTime();
+        trava.lock();
+        ESPERA_TRAVAS.registrar(System.nanoTime() - inicio);
+    }
+
+    /**
+     * Monta a exceção dos métodos que lançam exceções; a mensagem traz o saldo lido agora.
+     */
+    public SaldoInsuficienteException saldoInsuficiente(long valor) {
+        return new SaldoInsuficienteException(String.format(
+                "Saldo insuficiente. Saldo atual: %s, Tentativa de saque: %s",
+                Dinheiro.formatarReal(this.saldo), Dinheiro.formatarReal(valor)));
+    }
+
+    /**
+     * Grava o novo saldo, avisando o observador. Deve ser chamado com a trava adquirida.
+     */
+    private void alterarSaldo(long novo) {
+        ObservadorSaldos o = observador;
+        if (o == null) {
+            this.saldo = novo;
+            return;
+        }
+        long epocaAlteracao = o.iniciarAlteracao();
+        try {
+            gravar(o, epocaAlteracao, novo);
+        } finally {
+            o.concluirAlteracao(epocaAlteracao);
+        }
+    }
+
+    /**
+     * Grava o novo saldo dentro de uma alteração compartilhada, já iniciada na época informada.
+     * Deve ser chamado com a trava adquirida.
+     */
+    private void alterarSaldo(long epocaAlteracao, long novo) {
+        ObservadorSaldos o = observador;
+        if (o == null) {
+            this.saldo = novo;
+        } else {
+            gravar(o, epocaAlteracao, novo);
+        }
+    }
+
+    /**
+     * Grava os saldos de duas contas na mesma época. Deve ser chamado com as duas travas adquiridas.
+     */
+    private static void alterarSaldos(Conta a, long novoA, Conta b, long novoB) {
+        ObservadorSaldos o = a.observador;
+        if (o == null || o != b.observador) {
+            a.alterarSaldo(novoA);
+            b.alterarSaldo(novoB);
+            return;
+        }
+        long epocaAlteracao = o.iniciarAlteracao();
+        try {
+            a.gravar(o, epocaAlteracao, novoA);
+            b.gravar(o, epocaAlteracao, novoB);
+        } finally {
+            o.concluirAlteracao(epocaAlteracao);
+        }
+    }
+
+    /**
+     * Grava o saldo dentro de uma alteração já iniciada. Na primeira alteração de uma época, guarda o
+     * saldo anterior antes de publicar a época e só então o saldo novo (a ordem que
+     * {@link #saldoNoCorte} pressupõe).
+     * <p>
+     * Uma alteração compartilhada pode chegar depois de a conta já ter mudado na época seguinte; ela
+     * entra também no saldo guardado do fim da sua época. Isso é seguro sem travar a leitura: o corte
+     * dessa época ainda espera a alteração terminar, e nenhuma época posterior a ela pode ter começado.
+     */
+    private void gravar(ObservadorSaldos o, long epocaAlteracao, long novo) {
+        long anterior = this.saldo;
+        if (this.epoca < epocaAlteracao) {
+            this.saldoAnterior = anterior;
+            this.epoca = epocaAlteracao;
+        } else if (this.epoca > epocaAlteracao) {
+            this.saldoAnterior += novo - anterior;
+        }
+        this.saldo = novo;
+        o.saldoAlterado(anterior, novo);
     }
 
     /**
@@ -102,6 +622,6 @@ public class Conta {
         System.out.println(String.format("Titular: %s", this.titular.getNome()));
         System.out.println(String.format("Agência: %d", this.agencia));
         System.out.println(String.format("Número: %d", this.numero));
-        System.out.println(String.format("Saldo: R$ %.2f", this.saldo));
+        System.out.println("Saldo: " + Dinheiro.formatarReal(this.saldo));
     }
 }
\ No newline at end of file
@@ -0,0 +1,205 @@
+package PrjBank.Banco.Digital.model;
+
+/**
+ * Utilitário para valores monetários representados como {@code long} em centavos.
+ * <p>
+ * Usar centavos inteiros mantém os saldos exatos (sem os erros de arredondamento do
+ * {@code double}) e evita alocar objetos a cada operação. As rotinas de leitura e
+ * escrita trabalham direto sobre os caracteres, sem expressões regulares nem cópias
+ * intermediárias de texto.
+ */
+public final class Dinheiro {
+
+    /**
+     * Valor sentinela devolvido pelos métodos de leitura quando o texto não representa
+     * um valor monetário válido. Nenhum saldo real pode assumir esse valor.
+     */
+    public static final long INVALIDO = Long.MIN_VALUE;
+
+    private static final long CENTAVOS_POR_REAL = 100;
+
+    private Dinheiro() {
+    }
+
+    /**
+     * Converte um valor em reais para centavos.
+     * @param reais Valor inteiro em reais.
+     * @return O valor equivalente em centavos.
+     * @throws ArithmeticException Se o resultado não couber em um {@code long}.
+     */
+    public static long deReais(long reais) {
+        return Math.multiplyExact(reais, CENTAVOS_POR_REAL);
+    }
+
+    /**
+     * Soma dois valores em centavos, com verificação de estouro.
+     * @throws ArithmeticException Se o resultado não couber em um {@code long}.
+     */
+    public static long somar(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    /**
+     * Indica se {@code a + b} estoura o limite de um {@code long}; o mesmo teste de {@link #somar},
+     * sem a exceção.
+     */
+    public static boolean somaEstoura(long a, long b) {
+        long soma = a + b;
+        return ((a ^ soma) & (b ^ soma)) < 0;
+    }
+
+    /**
+     * Subtrai dois valores em centavos, com verificação de estouro.
+     * @throws ArithmeticException Se o resultado não couber em um {@code long}.
+     */
+    public static long subtrair(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    /**
+     * Lê um valor no formato brasileiro usado na planilha, como {@code "R$ 1.234,56"}.
+     * O símbolo da moeda, espaços e pontos de milhar são ignorados; a vírgula separa os centavos.
+     * @param texto Texto a ser lido.
+     * @return O valor em centavos ou {@link #INVALIDO}.
+     */
+    public static long lerReal(CharSequence texto) {
+        return ler(texto, 0, texto.length(), ',', '.');
+    }
+
+    /**
+     * Lê um valor decimal com ponto, como {@code "1234.56"}, formato usado no JSON da API.
+     * @param texto Texto a ser lido.
+     * @return O valor em centavos ou {@link #INVALIDO}.
+     */
+    public static long lerDecimal(CharSequence texto) {
+        return ler(texto, 0, texto.length(), '.', '\0');
+    }
+
+    /**
+     * Lê um valor decimal com ponto a partir de um trecho do texto.
+     * @return O valor em centavos ou {@link #INVALIDO}.
+     */
+    public static long lerDecimal(CharSequence texto, int inicio, int fim) {
+        return ler(texto, inicio, fim, '.', '\0');
+    }
+
+    private static long ler(CharSequence texto, int inicio, int fim, char separadorDecimal, char separadorMilhar) {
+        long inteiro = 0;
+        int centavos = 0;
+        int casasDecimais = -1; // -1 enquanto o separador decimal não foi encontrado
+        boolean negativo = false;
+        boolean temDigito = false;
+
+        for (int i = inicio; i < fim; i++) {
+            char c = texto.charAt(i);
+            if (c >= '0' && c <= '9') {
+                int digito = c - '0';
+                temDigito = true;
+                if (casasDecimais < 0) {
+                    if (inteiro > (Long.MAX_VALUE - digito) / 10) return INVALIDO;
+                    inteiro = inteiro * 10 + digito;
+                } else {
+                    if (casasDecimais == 2) return INVALIDO; // frações de centavo não são aceitas
+                    centavos = centavos * 10 + digito;
+                    casasDecimais++;
+                }
+            } else if (c == separadorDecimal) {
+                if (casasDecimais >= 0) return INVALIDO;
+                casasDecimais = 0;
+            } else if (c == separadorMilhar && casasDecimais < 0 && separadorMilhar != '\0') {
+                // Ponto de milhar: apenas ignorado.
+            } else if (c == '-' && !temDigito && !negativo) {
+                negativo = true;
+            } else if (c == ' ' || c == '\u00A0') {
+                // Espaços, inclusive o espaço não separável do Sheets.
+            } else if ((c == 'R' || c == '$' || c == '+') && !temDigito && casasDecimais < 0) {
+                // Prefixo da moeda e sinal, apenas antes do número.
+            } else {
+                return INVALIDO;
+            }
+        }
+
+        if (!temDigito) return INVALIDO;
+        if (casasDecimais == 1) centavos *= 10;
+        if (inteiro > (Long.MAX_VALUE - centavos) / CENTAVOS_POR_REAL) return INVALIDO;
+        long valor = inteiro * CENTAVOS_POR_REAL + centavos;
+        return negativo ? -valor : valor;
+    }
+
+    /**
+     * Formata o valor no padrão brasileiro, como {@code "R$ 1.234,56"}.
+     * @param centavos Valor em centavos.
+     * @return O texto formatado.
+     */
+    public static String formatarReal(long centavos) {
+        return formatarReal(centavos, new StringBuilder(24)).toString();
+    }
+
+    /**
+     * Escreve o valor no padrão brasileiro no final do {@link StringBuilder} informado,
+     * sem criar textos intermediários.
+     * @return O próprio {@code destino}, para encadeamento.
+     */
+    public static StringBuilder formatarReal(long centavos, StringBuilder destino) {
+        if (centavos < 0) destino.append('-');
+        destino.append("R$ ");
+        // Divide antes de trocar o sinal: Long.MIN_VALUE não tem valor absoluto positivo.
+        long inteiro = Math.abs(centavos / CENTAVOS_POR_REAL);
+        int fracao = (int) Math.abs(centavos % CENTAVOS_POR_REAL);
+
+        // Agrupa a parte inteira de três em três dígitos separados por ponto.
+        long divisor = 1;
+        while (inteiro / divisor >= 1000) divisor *= 1000;
+        destino.append(inteiro / divisor);
+        while (divisor > 1) {
+            inteiro %= divisor;
+            divisor /= 1000;
+            long grupo = inteiro / divisor;
+            destino.append('.');
+            if (grupo < 100) destino.append('0');
+            if (grupo < 10) destino.append('0');
+            destino.append(grupo);
+        }
+
+        destino.append(',');
+        if (fracao < 10) destino.append('0');
+        return destino.append(fracao);
+    }
+
+    /**
+     * Escreve o valor com ponto decimal e duas casas, como {@code "1234.56"}, no buffer informado.
+     * @param centavos Valor em centavos.
+     * @param buffer Buffer com pelo menos 22 posições.
+     * @return A quantidade de caracteres escritos a partir do início do buffer.
+     */
+    public static int formatarDecimal(long centavos, char[] buffer) {
+        int fim = buffer.length;
+        int pos = fim;
+        // Long.MIN_VALUE não tem valor absoluto positivo; trabalha com o resto negativo.
+        boolean negativo = centavos < 0;
+        long resto = negativo ? centavos : -centavos;
+
+        for (int casa = 0; casa < 2; casa++) {
+            buffer[--pos] = (char) ('0' - (resto % 10));
+            resto /= 10;
+        }
+        buffer[--pos] = '.';
+        do {
+            buffer[--pos] = (char) ('0' - (resto % 10));
+            resto /= 10;
+        } while (resto != 0);
+        if (negativo) buffer[--pos] = '-';
+
+        int tamanho = fim - pos;
+        System.arraycopy(buffer, pos, buffer, 0, tamanho);
+        return tamanho;
+    }
+
+    /**
+     * Formata o valor com ponto decimal e duas casas, como {@code "1234.56"}.
+     */
+    public static String formatarDecimal(long centavos) {
+        char[] buffer = new char[24];
+        return new String(buffer, 0, formatarDecimal(centavos, buffer));
+    }
+}
@@ -0,0 +1,59 @@
+package PrjBank.Banco.Digital.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+
+/**
+ * Conversores Jackson para valores em centavos.
+ * <p>
+ * Na API os valores continuam trafegando como números decimais em reais (ex.: {@code 1234.56}),
+ * mas internamente são lidos e escritos direto como {@code long} em centavos,
+ * sem passar por {@code double}.
+ */
+public final class DinheiroJson {
+
+    private DinheiroJson() {
+    }
+
+    /**
+     * Escreve um {@code long} em centavos como número decimal com duas casas.
+     */
+    public static class Serializador extends JsonSerializer<Long> {
+        @Override
+        public void serialize(Long centavos, JsonGenerator gerador, SerializerProvider provider) throws IOException {
+            char[] buffer = new char[24];
+            int tamanho = Dinheiro.formatarDecimal(centavos, buffer);
+            gerador.writeNumber(buffer, 0, tamanho);
+        }
+    }
+
+    /**
+     * Lê um número decimal (ou texto com número decimal) como {@code long} em centavos.
+     */
+    public static class Desserializador extends JsonDeserializer<Long> {
+        @Override
+        public Long deserialize(JsonParser parser, DeserializationContext contexto) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT
+                    && token != JsonToken.VALUE_STRING) {
+                return (Long) contexto.handleUnexpectedToken(long.class, parser);
+            }
+            CharBuffer texto = CharBuffer.wrap(parser.getTextCharacters(),
+                    parser.getTextOffset(), parser.getTextLength());
+            long centavos = Dinheiro.lerDecimal(texto);
+            if (centavos == Dinheiro.INVALIDO) {
+                return (Long) contexto.handleWeirdStringValue(long.class, texto.toString(),
+                        "valor monetário inválido (use no máximo duas casas decimais)");
+            }
+            return centavos;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package PrjBank.Banco.Digital.model;
+
+/**
+ * Recebe, sob a trava da conta, cada alteração de saldo das contas vinculadas a ele por
+ * {@link Conta#vincular}; usado para manter os agregados do banco e os cortes consistentes dos saldos.
+ * <p>
+ * Toda alteração acontece dentro de uma época: {@link #iniciarAlteracao()} devolve a época corrente e
+ * {@link #concluirAlteracao(long)} avisa que a alteração terminou. As alterações de uma mesma operação
+ * (os dois lados de uma transferência, por exemplo) usam a mesma época. Uma operação dividida entre
+ * threads usa {@link #iniciarAlteracaoCompartilhada()}, que qualquer thread pode concluir.
+ */
+public interface ObservadorSaldos {
+
+    /**
+     * Registra o início de uma alteração.
+     * @return A época em que a alteração acontece.
+     */
+    long iniciarAlteracao();
+
+    /**
+     * Registra o fim da alteração iniciada na época informada.
+     */
+    void concluirAlteracao(long epoca);
+
+    /**
+     * Registra o início de uma alteração que pode ser concluída por outra thread, como as duas fases
+     * de uma transferência entre partições. Um corte da época devolvida espera a conclusão.
+     * @return A época em que a alteração acontece.
+     */
+    long iniciarAlteracaoCompartilhada();
+
+    /**
+     * Registra o fim da alteração iniciada por {@link #iniciarAlteracaoCompartilhada()} na época informada.
+     */
+    void concluirAlteracaoCompartilhada(long epoca);
+
+    /**
+     * Uma conta foi vinculada ao observador com o saldo informado.
+     */
+    void contaIncluida(long saldo);
+
+    /**
+     * O saldo de uma conta vinculada passou de {@code anterior} para {@code novo}.
+     */
+    void saldoAlterado(long anterior, long novo);
+}
@@ -0,0 +1,18 @@
+package PrjBank.Banco.Digital.model;
+
+/**
+ * Resultado de uma operação sobre as contas — de um lote ou individual —, devolvido no lugar de
+ * exceções para que as recusas custem tão pouco quanto os sucessos.
+ */
+public enum StatusOperacao {
+    APLICADA,
+    CONTA_INEXISTENTE,
+    VALOR_INVALIDO,
+    SALDO_INSUFICIENTE,
+    // O saldo resultante estouraria o limite de um long.
+    LIMITE_EXCEDIDO,
+    // Operação sem tipo ou transferência sem conta de destino.
+    OPERACAO_INVALIDA,
+    // Operação válida descartada porque outra operação de um lote TUDO_OU_NADA foi rejeitada.
+    NAO_EXECUTADA
+}
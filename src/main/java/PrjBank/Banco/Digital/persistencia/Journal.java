@@ -0,0 +1,799 @@
+package PrjBank.Banco.Digital.persistencia;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal binário, somente de acréscimo, com todas as operações que alteram o estado do banco.
+ * <p>
+ * O arquivo é escrito por meio de regiões mapeadas em memória ({@link MappedByteBuffer}), então
+ * registrar uma operação custa apenas uma cópia de poucos bytes. A durabilidade depende da
+ * {@link PoliticaFsync} configurada; na política {@link PoliticaFsync#GRUPO GRUPO} uma única
+ * thread faz o fsync de vários registros de uma vez (commit em grupo).
+ * <p>
+ * Formato do arquivo:
+ * <pre>
+ * cabeçalho (16 bytes): mágico | versão | tamanho da região | identificador do arquivo
+ * registro:             tamanho (int) | CRC32C do conteúdo (int) | conteúdo
+ * conteúdo:             tipo (byte) | sequência (long) | instante (long) | campos do tipo
+ * lançamento de lote:   conta (int) | valor com sinal (long) | lote (long)
+ * </pre>
+ * Um registro nunca atravessa o limite de uma região; quando não cabe, a região é encerrada com
+ * a marca {@code -1} (ou simplesmente abandonada, se restarem menos de 8 bytes).
+ * <p>
+ * Na abertura, o arquivo é percorrido até o primeiro registro incompleto ou com CRC inválido.
+ * Essa cauda (resultado de uma queda no meio de uma escrita) é descartada e as novas
+ * escritas continuam a partir do último registro válido.
+ * <p>
+ * A escrita e a espera pelo fsync usam {@link ReentrantLock} e {@link Condition}, e não
+ * {@code synchronized}: uma thread virtual que espera o commit em grupo dentro de um bloco
+ * {@code synchronized} prende a thread de plataforma que a executa, enquanto com
+ * {@link Condition#await()} ela é desmontada e a libera para outras requisições.
+ * <p>
+ * Se um fsync falhar, a falha fica guardada e todos os que esperam a durabilidade, agora ou
+ * depois, recebem a exceção em vez de esperar para sempre; a thread de fsync para.
+ */
+@Component
+@ConditionalOnProperty(name = "banco.journal.ativo", havingValue = "true", matchIfMissing = true)
+public class Journal implements AutoCloseable {
+
+    /**
+     * Recebe os registros lidos durante a reprodução do journal.
+     */
+    public interface Leitor {
+        /**
+         * Chamado antes de cada registro, com o instante em que foi gravado (milissegundos desde a época).
+         */
+        default void inicioRegistro(long instante) {
+        }
+
+        void abertura(int numero, int agencia, long saldo, String nome, String cpf);
+
+        void deposito(int numero, long valor);
+
+        void saque(int numero, long valor);
+
+        void transferencia(int origem, int destino, long valor);
+
+        /**
+         * Lançamento de um lote (rendimento, tarifa etc.): {@code valor} positivo credita e negativo debita.
+         * Por padrão é entregue como um depósito ou saque comum; só quem acompanha os lotes precisa do {@code lote}.
+         */
+        default void lancamento(int numero, long valor, long lote) {
+            if (valor >= 0) {
+                deposito(numero, valor);
+            } else {
+                saque(numero, -valor);
+            }
+        }
+    }
+
+    public static final int TAMANHO_REGIAO_PADRAO = 64 * 1024 * 1024;
+
+    private static final int MAGICO = 0x4A524E4C; // "JRNL"
+    private static final int VERSAO = 1;
+    private static final int TAMANHO_CABECALHO_ARQUIVO = 16;
+    private static final int TAMANHO_CABECALHO_REGISTRO = 8;
+    private static final int MARCA_FIM_REGIAO = -1;
+    private static final int TAMANHO_PREFIXO = 1 + 8 + 8; // tipo + sequência + instante
+    // Limite, em bytes UTF-8, do nome e do CPF de uma abertura.
+    public static final int TAMANHO_MAXIMO_TEXTO = 4 * 1024;
+    private static final int TAMANHO_JANELA_LEITURA = 1024 * 1024;
+
+    private static final byte ABERTURA = 1;
+    private static final byte DEPOSITO = 2;
+    private static final byte SAQUE = 3;
+    private static final byte TRANSFERENCIA = 4;
+    private static final byte LANCAMENTO = 5;
+
+    private final FileChannel canal;
+    private final PoliticaFsync politica;
+    private final long intervaloMs;
+    private final int tamanhoRegiao;
+    private final long fimRecuperado;
+    private final long sequenciaRecuperada;
+    private int identificador;
+
+    // Estado de escrita, protegido por 'travaEscrita'.
+    private final ReentrantLock travaEscrita = new ReentrantLock();
+    private final CRC32C crc = new CRC32C();
+    private MappedByteBuffer regiao;
+    private long baseRegiao;
+    private long sequencia;
+    private volatile long escrito;
+
+    // Estado de durabilidade, protegido por 'travaDurabilidade'.
+    private final ReentrantLock travaDurabilidade = new ReentrantLock();
+    // Sinalizada quando 'duravel' avança ou o journal termina de fechar; aguardada por quem espera o fsync.
+    private final Condition duravelAvancou = travaDurabilidade.newCondition();
+    // Sinalizada quando 'solicitado' avança ou o journal é fechado; aguardada pela thread de fsync.
+    private final Condition fsyncSolicitado = travaDurabilidade.newCondition();
+    private long duravel;
+    private long solicitado;
+    private long quantidadeFsyncs;
+    // Primeira falha de fsync; depois dela nada mais fica durável.
+    private RuntimeException falhaFsync;
+    // 'fechado' encerra a thread de fsync; 'encerrado' só vale depois do último fsync do close().
+    private boolean fechado;
+    private boolean encerrado;
+    private final Thread threadFsync;
+
+    /**
+     * Cria o journal a partir das propriedades da aplicação.
+     */
+    @Autowired
+    public Journal(@Value("${banco.journal.arquivo:dados/journal.dat}") String arquivo,
+                   @Value("${banco.journal.fsync:GRUPO}") PoliticaFsync politica,
+                   @Value("${banco.journal.intervalo-ms:5}") long intervaloMs) throws IOException {
+        this(Path.of(arquivo), politica, intervaloMs, TAMANHO_REGIAO_PADRAO);
+    }
+
+    /**
+     * Abre (ou cria) o journal no arquivo informado, descartando uma eventual cauda incompleta.
+     *
+     * @param arquivo Caminho do arquivo do journal.
+     * @param politica Política de fsync.
+     * @param intervaloMs Intervalo entre fsyncs na política {@link PoliticaFsync#INTERVALO INTERVALO}.
+     * @param tamanhoRegiao Tamanho de cada região mapeada; usado apenas ao criar um arquivo novo.
+     */
+    public Journal(Path arquivo, PoliticaFsync politica, long intervaloMs, int tamanhoRegiao) throws IOException {
+        this.politica = politica;
+        this.intervaloMs = intervaloMs;
+
+        Path diretorio = arquivo.toAbsolutePath().getParent();
+        if (diretorio != null) {
+            Files.createDirectories(diretorio);
+        }
+        this.canal = FileChannel.open(arquivo,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.tamanhoRegiao = lerOuCriarCabecalho(tamanhoRegiao);
+
+        Varredura varredura = varrer(null, TAMANHO_CABECALHO_ARQUIVO, Long.MAX_VALUE, Long.MAX_VALUE);
+        if (varredura.fim < canal.size()) {
+            // Descarta a cauda inválida para que restos de uma escrita interrompida
+            // nunca sejam confundidos com registros novos.
+            canal.truncate(varredura.fim);
+        }
+        this.fimRecuperado = varredura.fim;
+        this.sequenciaRecuperada = varredura.ultimaSequencia;
+        this.sequencia = varredura.ultimaSequencia;
+        this.baseRegiao = varredura.fim - varredura.fim % this.tamanhoRegiao;
+        this.regiao = mapear(baseRegiao);
+        this.regiao.position((int) (varredura.fim - baseRegiao));
+        this.escrito = varredura.fim;
+        this.duravel = varredura.fim;
+        this.solicitado = varredura.fim;
+
+        if (politica == PoliticaFsync.SEMPRE) {
+            this.threadFsync = null;
+        } else {
+            this.threadFsync = new Thread(this::executarFsync, "journal-fsync");
+            this.threadFsync.setDaemon(true);
+            this.threadFsync.start();
+        }
+    }
+
+    /**
+     * Reproduz, em ordem, todos os registros válidos encontrados na abertura do journal.
+     * Deve ser chamado antes de registrar novas operações.
+     *
+     * @param leitor Destino dos registros lidos.
+     * @return A quantidade de registros reproduzidos.
+     */
+    public long reproduzir(Leitor leitor) throws IOException {
+        return reproduzir(leitor, TAMANHO_CABECALHO_ARQUIVO);
+    }
+
+    /**
+     * Reproduz apenas os registros encontrados na abertura a partir de {@code posicao}, usado para
+     * completar um snapshot. Confira antes a posição com {@link #continuaEm(long, long)}.
+     *
+     * @param leitor Destino dos registros lidos.
+     * @param posicao Posição do primeiro registro a reproduzir.
+     * @return A quantidade de registros reproduzidos.
+     */
+    public long reproduzir(Leitor leitor, long posicao) throws IOException {
+        return varrer(leitor, posicao, fimRecuperado, Long.MAX_VALUE).quantidade;
+    }
+
+    /**
+     * Reproduz os registros encontrados na abertura entre o início do journal e {@code fim}, usado para
+     * ler sob demanda o histórico que um snapshot já inclui. Pode ser chamado enquanto o journal recebe
+     * novas escritas: os registros recuperados na abertura não mudam mais.
+     *
+     * @param leitor Destino dos registros lidos.
+     * @param fim Posição logo após o último registro a reproduzir.
+     * @return A quantidade de registros reproduzidos.
+     */
+    public long reproduzirAte(Leitor leitor, long fim) throws IOException {
+        return varrer(leitor, TAMANHO_CABECALHO_ARQUIVO, Math.min(fim, fimRecuperado), Long.MAX_VALUE).quantidade;
+    }
+
+    /**
+     * Verifica se o estado até {@code posicao} (cuja última operação tem a {@code sequencia}
+     * informada) é um prefixo do journal recuperado na abertura. Um snapshot só pode ser usado
+     * quando isso vale; caso contrário, o journal foi recriado ou perdeu registros.
+     */
+    public boolean continuaEm(long posicao, long sequencia) throws IOException {
+        if (posicao < TAMANHO_CABECALHO_ARQUIVO || posicao > fimRecuperado) return false;
+        if (posicao == fimRecuperado) return sequencia == sequenciaRecuperada;
+        Varredura proximo = varrer(null, posicao, fimRecuperado, 1);
+        return proximo.quantidade == 1 && proximo.ultimaSequencia == sequencia + 1;
+    }
+
+    /**
+     * Lê os registros já duráveis a partir de {@code posicao}, enquanto o journal continua
+     * recebendo escritas. Usado para acompanhar o journal em segundo plano.
+     *
+     * @param leitor Destino dos registros lidos.
+     * @param posicao Posição do primeiro registro a ler (o {@code fim} da leitura anterior).
+     * @return Onde a leitura parou, a sequência do último registro lido e quantos foram lidos.
+     */
+    public Varredura ler(Leitor leitor, long posicao) throws IOException {
+        return varrer(leitor, Math.max(posicao, TAMANHO_CABECALHO_ARQUIVO), getPosicaoDuravel(), Long.MAX_VALUE);
+    }
+
+    /**
+     * Posição até a qual o journal já está gravado no disco.
+     */
+    public long getPosicaoDuravel() {
+        if (politica == PoliticaFsync.SEMPRE) return escrito;
+        travaDurabilidade.lock();
+        try {
+            return duravel;
+        } finally {
+            travaDurabilidade.unlock();
+        }
+    }
+
+    /**
+     * Identificador aleatório gravado na criação do arquivo, que distingue um journal recriado do
+     * anterior (arquivos criados antes dele têm identificador 0).
+     */
+    public int getIdentificador() {
+        return identificador;
+    }
+
+    /**
+     * Registra a abertura de uma conta.
+     */
+    public void registrarAbertura(int numero, int agencia, long saldo, String nome, String cpf) {
+        aguardarDurabilidade(escreverAbertura(numero, agencia, saldo, nome, cpf));
+    }
+
+    /**
+     * Registra a abertura de uma conta sem esperar pelo fsync, para cargas em massa.
+     * Ao final da carga, chame {@link #sincronizar()} (ou {@link #aguardar(long)} com a posição devolvida).
+     * @return A posição do journal após o registro.
+     */
+    public long anexarAbertura(int numero, int agencia, long saldo, String nome, String cpf) {
+        return escreverAbertura(numero, agencia, saldo, nome, cpf);
+    }
+
+    /**
+     * Força para o disco tudo que já foi escrito, independentemente da política.
+     */
+    public void sincronizar() {
+        forcarPendentes();
+    }
+
+    /**
+     * Registra um depósito aplicado em uma conta.
+     */
+    public void registrarDeposito(int numero, long valor) {
+        aguardarDurabilidade(escreverMovimento(DEPOSITO, numero, valor));
+    }
+
+    /**
+     * Registra um saque aplicado em uma conta.
+     */
+    public void registrarSaque(int numero, long valor) {
+        aguardarDurabilidade(escreverMovimento(SAQUE, numero, valor));
+    }
+
+    /**
+     * Registra uma transferência aplicada entre duas contas.
+     */
+    public void registrarTransferencia(int origem, int destino, long valor) {
+        aguardarDurabilidade(escreverTransferencia(origem, destino, valor));
+    }
+
+    /**
+     * Anexa um depósito sem esperar pelo fsync. Usado em lotes: anexe todas as operações e
+     * chame {@link #aguardar(long)} uma única vez com a maior posição devolvida.
+     * @return A posição do journal após o registro.
+     */
+    public long anexarDeposito(int numero, long valor) {
+        return escreverMovimento(DEPOSITO, numero, valor);
+    }
+
+    /**
+     * Anexa um saque sem esperar pelo fsync.
+     * @return A posição do journal após o registro.
+     */
+    public long anexarSaque(int numero, long valor) {
+        return escreverMovimento(SAQUE, numero, valor);
+    }
+
+    /**
+     * Anexa uma transferência sem esperar pelo fsync.
+     * @return A posição do journal após o registro.
+     */
+    public long anexarTransferencia(int origem, int destino, long valor) {
+        return escreverTransferencia(origem, destino, valor);
+    }
+
+    /**
+     * Anexa, sem esperar pelo fsync, um lançamento de lote já aplicado.
+     * @param numero Conta lançada.
+     * @param valor Valor em centavos: positivo credita, negativo debita.
+     * @param lote Identificador do lote, devolvido na reprodução por {@link Leitor#lancamento}.
+     * @return A posição do journal após o registro.
+     */
+    public long anexarLancamento(int numero, long valor, long lote) {
+        return escreverLancamento(numero, valor, lote);
+    }
+
+    /**
+     * Posição logo após o último registro escrito (durável ou não). Registros anexados depois
+     * da leitura ficam sempre a partir dela.
+     */
+    public long getPosicaoEscrita() {
+        return escrito;
+    }
+
+    /**
+     * Aguarda, conforme a política de fsync, até que o journal esteja durável até a posição informada.
+     * Com {@link PoliticaFsync#GRUPO} espera pelo próximo fsync; nas demais políticas retorna na hora,
+     * como fazem os métodos {@code registrar*}.
+     */
+    public void aguardar(long posicao) {
+        aguardarDurabilidade(posicao);
+    }
+
+    /**
+     * Retorna quantos fsyncs já foram executados. Útil para medir o efeito do commit em grupo.
+     */
+    public long getQuantidadeFsyncs() {
+        travaDurabilidade.lock();
+        try {
+            return quantidadeFsyncs;
+        } finally {
+            travaDurabilidade.unlock();
+        }
+    }
+
+    public PoliticaFsync getPolitica() {
+        return politica;
+    }
+
+    /**
+     * Força os registros pendentes para o disco e fecha o arquivo.
+     */
+    @PreDestroy
+    @Override
+    public void close() throws IOException {
+        travaDurabilidade.lock();
+        try {
+            if (fechado) return;
+            fechado = true;
+            fsyncSolicitado.signalAll();
+        } finally {
+            travaDurabilidade.unlock();
+        }
+        if (threadFsync != null) {
+            try {
+                threadFsync.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            // Quem espera só é acordado depois deste fsync, para ver os próprios registros duráveis.
+            forcarPendentes();
+        } finally {
+            travaDurabilidade.lock();
+            try {
+                encerrado = true;
+                duravelAvancou.signalAll();
+            } finally {
+                travaDurabilidade.unlock();
+            }
+            canal.close();
+        }
+    }
+
+    private long escreverAbertura(int numero, int agencia, long saldo, String nome, String cpf) {
+        byte[] nomeBytes = codificar(nome);
+        byte[] cpfBytes = codificar(cpf);
+        travaEscrita.lock();
+        try {
+            int inicio = iniciarRegistro(ABERTURA, 4 + 4 + 8 + 2 + nomeBytes.length + 2 + cpfBytes.length);
+            regiao.putInt(numero).putInt(agencia).putLong(saldo);
+            regiao.putShort((short) nomeBytes.length).put(nomeBytes);
+            regiao.putShort((short) cpfBytes.length).put(cpfBytes);
+            return concluirRegistro(inicio);
+        } finally {
+            travaEscrita.unlock();
+        }
+    }
+
+    private long escreverMovimento(byte tipo, int numero, long valor) {
+        travaEscrita.lock();
+        try {
+            int inicio = iniciarRegistro(tipo, 4 + 8);
+            regiao.putInt(numero).putLong(valor);
+            return concluirRegistro(inicio);
+        } finally {
+            travaEscrita.unlock();
+        }
+    }
+
+    private long escreverTransferencia(int origem, int destino, long valor) {
+        travaEscrita.lock();
+        try {
+            int inicio = iniciarRegistro(TRANSFERENCIA, 4 + 4 + 8);
+            regiao.putInt(origem).putInt(destino).putLong(valor);
+            return concluirRegistro(inicio);
+        } finally {
+            travaEscrita.unlock();
+        }
+    }
+
+    private long escreverLancamento(int numero, long valor, long lote) {
+        travaEscrita.lock();
+        try {
+            int inicio = iniciarRegistro(LANCAMENTO, 4 + 8 + 8);
+            regiao.putInt(numero).putLong(valor).putLong(lote);
+            return concluirRegistro(inicio);
+        } finally {
+            travaEscrita.unlock();
+        }
+    }
+
+    /**
+     * Reserva espaço para um registro e escreve o prefixo comum. Chamado com {@code travaEscrita}.
+     * @return A posição do registro dentro da região atual.
+     */
+    private int iniciarRegistro(byte tipo, int tamanhoCampos) {
+        int tamanhoTotal = TAMANHO_CABECALHO_REGISTRO + TAMANHO_PREFIXO + tamanhoCampos;
+        if (regiao.remaining() < tamanhoTotal) {
+            avancarRegiao();
+        }
+        int inicio = regiao.position();
+        regiao.position(inicio + TAMANHO_CABECALHO_REGISTRO);
+        regiao.put(tipo).putLong(++sequencia).putLong(System.currentTimeMillis());
+        return inicio;
+    }
+
+    /**
+     * Calcula o CRC e grava o cabeçalho do registro por último, tornando-o visível à leitura.
+     * Chamado com {@code travaEscrita}.
+     * @return A posição absoluta do fim do registro no arquivo.
+     */
+    private long concluirRegistro(int inicio) {
+        int fim = regiao.position();
+        regiao.limit(fim).position(inicio + TAMANHO_CABECALHO_REGISTRO);
+        crc.reset();
+        crc.update(regiao);
+        regiao.limit(regiao.capacity());
+        regiao.putInt(inicio + 4, (int) crc.getValue());
+        regiao.putInt(inicio, fim - inicio - TAMANHO_CABECALHO_REGISTRO);
+
+        if (politica == PoliticaFsync.SEMPRE) {
+            regiao.force(inicio, fim - inicio);
+            travaDurabilidade.lock();
+            try {
+                quantidadeFsyncs++;
+            } finally {
+                travaDurabilidade.unlock();
+            }
+        }
+        escrito = baseRegiao + fim;
+        return escrito;
+    }
+
+    /**
+     * Encerra a região atual e mapeia a seguinte. Chamado com {@code travaEscrita}.
+     */
+    private void avancarRegiao() {
+        if (regiao.remaining() >= 4) {
+            regiao.putInt(regiao.position(), MARCA_FIM_REGIAO);
+        }
+        // A região antiga é descartada, então tudo que estiver nela precisa chegar ao disco agora.
+        regiao.force();
+        baseRegiao += tamanhoRegiao;
+        regiao = mapear(baseRegiao);
+    }
+
+    /**
+     * Bloqueia até o registro que termina em {@code posicao} estar no disco.
+     * @throws IllegalStateException Se o fsync falhar, se o journal fechar antes ou se a espera for interrompida;
+     *                               em nenhum desses casos o registro é garantidamente durável.
+     */
+    private void aguardarDurabilidade(long posicao) {
+        if (politica != PoliticaFsync.GRUPO) return;
+        travaDurabilidade.lock();
+        try {
+            if (posicao > solicitado) {
+                solicitado = posicao;
+                fsyncSolicitado.signal();
+            }
+            while (duravel < posicao && !encerrado && falhaFsync == null) {
+                duravelAvancou.await();
+            }
+            if (duravel < posicao) {
+                if (falhaFsync != null) {
+                    throw new IllegalStateException("Falha ao gravar o journal no disco.", falhaFsync);
+                }
+                throw new IllegalStateException("Journal fechado antes de gravar o registro no disco.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando o fsync do journal.", e);
+        } finally {
+            travaDurabilidade.unlock();
+        }
+    }
+
+    /**
+     * Laço da thread de fsync. Em GRUPO, acorda assim que houver escrita aguardando durabilidade;
+     * em INTERVALO, acorda periodicamente.
+     */
+    private void executarFsync() {
+        while (true) {
+            travaDurabilidade.lock();
+            try {
+                if (politica == PoliticaFsync.GRUPO) {
+                    while (!fechado && solicitado <= duravel) {
+                        fsyncSolicitado.await();
+                    }
+                } else if (!fechado) {
+                    fsyncSolicitado.await(intervaloMs, TimeUnit.MILLISECONDS);
+                }
+                if (fechado) return;
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                travaDurabilidade.unlock();
+            }
+            try {
+                forcarPendentes();
+            } catch (RuntimeException e) {
+                // A falha já foi entregue a quem espera; sem disco, não há o que tentar de novo.
+                System.err.println("Falha no fsync do journal; a durabilidade foi interrompida: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void forcarPendentes() {
+        MappedByteBuffer alvo;
+        long base;
+        long fim;
+        travaEscrita.lock();
+        try {
+            alvo = regiao;
+            base = baseRegiao;
+            fim = escrito;
+        } finally {
+            travaEscrita.unlock();
+        }
+        long inicio;
+        travaDurabilidade.lock();
+        try {
+            inicio = duravel;
+        } finally {
+            travaDurabilidade.unlock();
+        }
+        if (fim > inicio) {
+            int de = (int) Math.max(inicio - base, 0);
+            try {
+                forcar(alvo, de, (int) (fim - base) - de);
+            } catch (RuntimeException e) {
+                travaDurabilidade.lock();
+                try {
+                    if (falhaFsync == null) falhaFsync = e;
+                    duravelAvancou.signalAll();
+                } finally {
+                    travaDurabilidade.unlock();
+                }
+                throw e;
+            }
+        }
+        travaDurabilidade.lock();
+        try {
+            if (fim > inicio) quantidadeFsyncs++;
+            if (fim > duravel) duravel = fim;
+            duravelAvancou.signalAll();
+        } finally {
+            travaDurabilidade.unlock();
+        }
+    }
+
+    /**
+     * Grava no disco o trecho da região; separado para que os testes simulem uma falha de I/O.
+     * @throws java.io.UncheckedIOException Se o fsync falhar.
+     */
+    void forcar(MappedByteBuffer alvo, int inicio, int tamanho) {
+        alvo.force(inicio, tamanho);
+    }
+
+    private MappedByteBuffer mapear(long base) {
+        try {
+            return canal.map(FileChannel.MapMode.READ_WRITE, base, tamanhoRegiao);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao mapear o journal na posição " + base, e);
+        }
+    }
+
+    private int lerOuCriarCabecalho(int tamanhoRegiaoNovo) throws IOException {
+        ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO_ARQUIVO);
+        if (canal.size() < TAMANHO_CABECALHO_ARQUIVO) {
+            identificador = ThreadLocalRandom.current().nextInt(1, Integer.MAX_VALUE);
+            cabecalho.putInt(MAGICO).putInt(VERSAO).putInt(tamanhoRegiaoNovo).putInt(identificador).flip();
+            canal.write(cabecalho, 0);
+            canal.force(true);
+            return tamanhoRegiaoNovo;
+        }
+        canal.read(cabecalho, 0);
+        cabecalho.flip();
+        if (cabecalho.getInt() != MAGICO || cabecalho.getInt() != VERSAO) {
+            throw new IOException("Arquivo de journal inválido ou de versão desconhecida.");
+        }
+        int tamanhoRegiao = cabecalho.getInt();
+        identificador = cabecalho.getInt();
+        return tamanhoRegiao;
+    }
+
+    /**
+     * Se o texto cabe em um registro de abertura ({@value #TAMANHO_MAXIMO_TEXTO} bytes em UTF-8).
+     * Um texto nulo é gravado vazio.
+     */
+    public static boolean cabeNoRegistro(@Nullable String texto) {
+        return texto == null || texto.length() <= TAMANHO_MAXIMO_TEXTO / 3
+                || texto.getBytes(StandardCharsets.UTF_8).length <= TAMANHO_MAXIMO_TEXTO;
+    }
+
+    private static byte[] codificar(@Nullable String texto) {
+        if (texto == null) return new byte[0];
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > TAMANHO_MAXIMO_TEXTO) {
+            throw new IllegalArgumentException("Texto muito longo para o journal: " + bytes.length + " bytes.");
+        }
+        return bytes;
+    }
+
+    /**
+     * Percorre o arquivo a partir de {@code inicio}, validando cada registro, até o primeiro
+     * inválido, até {@code limite} ou até ler {@code maximo} registros. Quando há um leitor, os
+     * registros válidos são repassados a ele.
+     */
+    private Varredura varrer(Leitor leitor, long inicio, long limite, long maximo) throws IOException {
+        Janela janela = new Janela(canal);
+        CRC32C verificador = new CRC32C();
+        long posicao = inicio;
+        long ultimaSequencia = 0;
+        long quantidade = 0;
+
+        while (posicao < limite && quantidade < maximo) {
+            long restanteRegiao = tamanhoRegiao - posicao % tamanhoRegiao;
+            if (restanteRegiao < TAMANHO_CABECALHO_REGISTRO) {
+                posicao += restanteRegiao;
+                continue;
+            }
+            if (!janela.garantir(posicao, TAMANHO_CABECALHO_REGISTRO)) break;
+            int tamanho = janela.buffer.getInt(janela.indice(posicao));
+            if (tamanho == MARCA_FIM_REGIAO) {
+                posicao += restanteRegiao;
+                continue;
+            }
+            if (tamanho < TAMANHO_PREFIXO || tamanho > restanteRegiao - TAMANHO_CABECALHO_REGISTRO
+                    || tamanho > TAMANHO_JANELA_LEITURA - TAMANHO_CABECALHO_REGISTRO) {
+                break; // fim do journal (zeros) ou cabeçalho corrompido
+            }
+            if (!janela.garantir(posicao, TAMANHO_CABECALHO_REGISTRO + tamanho)) break; // registro truncado
+
+            int indice = janela.indice(posicao);
+            int crcGravado = janela.buffer.getInt(indice + 4);
+            verificador.reset();
+            verificador.update(janela.buffer.array(), indice + TAMANHO_CABECALHO_REGISTRO, tamanho);
+            if ((int) verificador.getValue() != crcGravado) break;
+
+            ultimaSequencia = janela.buffer.getLong(indice + TAMANHO_CABECALHO_REGISTRO + 1);
+            if (leitor != null) {
+                entregar(janela.buffer, indice + TAMANHO_CABECALHO_REGISTRO, leitor);
+            }
+            quantidade++;
+            posicao += TAMANHO_CABECALHO_REGISTRO + tamanho;
+        }
+        return new Varredura(posicao, ultimaSequencia, quantidade);
+    }
+
+    private static void entregar(ByteBuffer buffer, int inicio, Leitor leitor) {
+        byte tipo = buffer.get(inicio);
+        int campos = inicio + TAMANHO_PREFIXO;
+        leitor.inicioRegistro(buffer.getLong(inicio + 1 + 8));
+        switch (tipo) {
+            case ABERTURA -> {
+                int tamanhoNome = buffer.getShort(campos + 16);
+                int inicioNome = campos + 18;
+                int tamanhoCpf = buffer.getShort(inicioNome + tamanhoNome);
+                int inicioCpf = inicioNome + tamanhoNome + 2;
+                leitor.abertura(buffer.getInt(campos), buffer.getInt(campos + 4), buffer.getLong(campos + 8),
+                        new String(buffer.array(), inicioNome, tamanhoNome, StandardCharsets.UTF_8),
+                        new String(buffer.array(), inicioCpf, tamanhoCpf, StandardCharsets.UTF_8));
+            }
+            case DEPOSITO -> leitor.deposito(buffer.getInt(campos), buffer.getLong(campos + 4));
+            case SAQUE -> leitor.saque(buffer.getInt(campos), buffer.getLong(campos + 4));
+            case TRANSFERENCIA -> leitor.transferencia(buffer.getInt(campos), buffer.getInt(campos + 4),
+                    buffer.getLong(campos + 8));
+            case LANCAMENTO -> leitor.lancamento(buffer.getInt(campos), buffer.getLong(campos + 4),
+                    buffer.getLong(campos + 12));
+            default -> System.err.printf("Aviso: tipo de registro desconhecido no journal: %d%n", tipo);
+        }
+    }
+
+    /**
+     * Resultado de uma leitura do journal.
+     * @param fim Posição logo após o último registro lido; a próxima leitura começa nela.
+     * @param ultimaSequencia Sequência do último registro lido, ou 0 se nenhum foi lido.
+     * @param quantidade Quantidade de registros lidos.
+     */
+    public record Varredura(long fim, long ultimaSequencia, long quantidade) {
+    }
+
+    /**
+     * Janela de leitura sequencial sobre o arquivo, recarregada sob demanda.
+     */
+    private static final class Janela {
+        private final FileChannel canal;
+        private final ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_JANELA_LEITURA);
+        private long inicio;
+        private int disponivel;
+
+        Janela(FileChannel canal) {
+            this.canal = canal;
+        }
+
+        int indice(long posicao) {
+            return (int) (posicao - inicio);
+        }
+
+        /**
+         * Garante que os bytes [posicao, posicao + tamanho) estejam na janela.
+         * @return {@code false} se o arquivo terminar antes disso.
+         */
+        boolean garantir(long posicao, int tamanho) throws IOException {
+            if (posicao >= inicio && posicao + tamanho <= inicio + disponivel) return true;
+            buffer.clear();
+            int lidos;
+            long leitura = posicao;
+            while (buffer.hasRemaining() && (lidos = canal.read(buffer, leitura)) > 0) {
+                leitura += lidos;
+            }
+            inicio = posicao;
+            disponivel = buffer.position();
+            return disponivel >= tamanho;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package PrjBank.Banco.Digital.persistencia;
+
+/**
+ * Define quando os registros do {@link Journal} são forçados para o disco (fsync).
+ */
+public enum PoliticaFsync {
+
+    /**
+     * Cada registro é forçado para o disco antes de a operação retornar.
+     * É a opção mais segura e também a mais lenta.
+     */
+    SEMPRE,
+
+    /**
+     * Commit em grupo: a operação aguarda a durabilidade, mas uma única thread de fsync
+     * atende de uma vez todos os registros que chegaram enquanto o fsync anterior rodava.
+     */
+    GRUPO,
+
+    /**
+     * O fsync acontece periodicamente em segundo plano e a operação não espera por ele.
+     * Uma queda pode perder os registros do último intervalo.
+     */
+    INTERVALO
+}
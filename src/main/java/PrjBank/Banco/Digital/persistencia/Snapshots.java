@@ -0,0 +1,444 @@
+package PrjBank.Banco.Digital.persistencia;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Snapshots binários do estado das contas, para que a inicialização não precise reproduzir o
+ * journal inteiro.
+ * <p>
+ * O snapshot não é tirado das contas em uso: uma thread própria acompanha o journal e mantém uma
+ * cópia do estado (titular, agência e saldo de cada conta) aplicando apenas os registros novos
+ * desde a última passada. Assim cada snapshot corresponde exatamente a uma posição do journal,
+ * sem travar contas nem parar as requisições, e o custo para o tráfego é zero. Só entram no
+ * snapshot registros já duráveis, então ele nunca fica à frente do journal após uma queda.
+ * <p>
+ * Formato do arquivo {@code snapshot-<sequência>.bin}:
+ * <pre>
+ * cabeçalho (40 bytes): mágico | versão | identificador do journal | reservado
+ *                       | posição no journal (long) | sequência (long) | quantidade de contas (long)
+ * conta:                número | agência | saldo (long) | nome (short + UTF-8) | CPF (short + UTF-8)
+ * rodapé:               CRC32C de todo o conteúdo anterior (int)
+ * </pre>
+ * As contas são gravadas em ordem de número. O arquivo é escrito com outro nome e renomeado ao
+ * final, então um snapshot incompleto nunca é lido; na inicialização ele é mapeado em memória,
+ * conferido pelo CRC e entregue ao {@link Journal.Leitor} do banco como aberturas, seguido dos
+ * registros do journal posteriores à sua posição.
+ */
+@Component
+@ConditionalOnProperty(name = {"banco.journal.ativo", "banco.snapshot.ativo"}, havingValue = "true", matchIfMissing = true)
+public class Snapshots implements AutoCloseable {
+
+    private static final int MAGICO = 0x534E4150; // "SNAP"
+    private static final int VERSAO = 1;
+    private static final int TAMANHO_CABECALHO = 40;
+    private static final int TAMANHO_BUFFER_ESCRITA = 1024 * 1024;
+    private static final String PREFIXO = "snapshot-";
+    private static final String SUFIXO = ".bin";
+
+    /**
+     * Resultado de uma restauração.
+     * @param arquivo Snapshot usado.
+     * @param posicao Posição do journal logo após o último registro incluído no snapshot.
+     * @param contas Quantidade de contas lidas do snapshot.
+     * @param registrosJournal Quantidade de registros do journal reproduzidos depois dele.
+     */
+    public record Restauracao(Path arquivo, long posicao, long contas, long registrosJournal) {
+    }
+
+    /**
+     * Cabeçalho de um snapshot.
+     */
+    private record Cabecalho(int identificador, long posicao, long sequencia, long quantidade) {
+    }
+
+    /**
+     * Estado de uma conta na cópia mantida pela thread de snapshots.
+     */
+    private static final class Registro {
+        final int agencia;
+        final byte[] nome;
+        final byte[] cpf;
+        long saldo;
+
+        Registro(int agencia, long saldo, byte[] nome, byte[] cpf) {
+            this.agencia = agencia;
+            this.saldo = saldo;
+            this.nome = nome;
+            this.cpf = cpf;
+        }
+    }
+
+    private final Journal journal;
+    private final Path diretorio;
+    private final int manter;
+    private final ScheduledExecutorService executor;
+
+    // Cópia do estado e posição no journal; acessadas apenas pela thread de snapshots.
+    private final Map<Integer, Registro> estado = new HashMap<>();
+    private boolean iniciado;
+    private long posicao;
+    private long sequencia;
+    private long gravadoAte = -1;
+
+    // Estatísticas.
+    private volatile long quantidadeGerados;
+    private volatile long ultimaDuracaoNanos;
+    private volatile Path ultimoArquivo;
+
+    /**
+     * Cria o gerenciador de snapshots a partir das propriedades da aplicação.
+     */
+    @Autowired
+    public Snapshots(Journal journal,
+                     @Value("${banco.snapshot.diretorio:dados/snapshots}") String diretorio,
+                     @Value("${banco.snapshot.intervalo-ms:60000}") long intervaloMs,
+                     @Value("${banco.snapshot.manter:2}") int manter) throws IOException {
+        this(journal, Path.of(diretorio), intervaloMs, manter);
+    }
+
+    /**
+     * @param journal Journal acompanhado.
+     * @param diretorio Diretório dos snapshots.
+     * @param intervaloMs Intervalo entre snapshots; zero ou negativo desliga a geração periódica
+     *                    (os snapshots passam a ser gerados só por {@link #gerarAgora()} e no fechamento).
+     * @param manter Quantidade de snapshots mantidos no diretório; os mais antigos são apagados.
+     */
+    public Snapshots(Journal journal, Path diretorio, long intervaloMs, int manter) throws IOException {
+        this.journal = journal;
+        this.diretorio = diretorio;
+        this.manter = Math.max(manter, 1);
+        Files.createDirectories(diretorio);
+        this.executor = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "snapshots");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (intervaloMs > 0) {
+            this.executor.scheduleWithFixedDelay(this::gerarPeriodico, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Restaura o estado a partir do snapshot válido mais recente: as contas são entregues ao
+     * {@code leitor} como aberturas e, em seguida, os registros do journal posteriores ao snapshot.
+     * Deve ser chamado na inicialização, antes de registrar novas operações no journal.
+     * <p>
+     * O snapshot guarda apenas os saldos. Os registros que ele já inclui não são entregues; quem mantém
+     * histórico (o livro-razão, por exemplo) os lê sob demanda com {@link Journal#reproduzirAte}, até a
+     * {@link Restauracao#posicao()}, já que o journal nunca é encurtado.
+     *
+     * @param leitor Destino das contas e dos registros.
+     * @return O resultado, ou {@code null} se não houver snapshot utilizável (nesse caso nada foi
+     *         entregue e o journal deve ser reproduzido desde o início).
+     */
+    public Restauracao restaurar(Journal.Leitor leitor) throws IOException {
+        for (Path arquivo : listar()) {
+            try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+                MappedByteBuffer conteudo = mapearValido(canal, arquivo);
+                if (conteudo == null) continue;
+                Cabecalho cabecalho = lerCabecalho(conteudo);
+                if (!compativel(cabecalho, arquivo)) continue;
+
+                long contas = entregar(conteudo, cabecalho.quantidade(), leitor);
+                long registros = journal.reproduzir(leitor, cabecalho.posicao());
+                return new Restauracao(arquivo, cabecalho.posicao(), contas, registros);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gera um snapshot imediatamente, na thread de snapshots, e aguarda o término.
+     * @return O arquivo gerado, ou {@code null} se nada mudou desde o último.
+     */
+    public Path gerarAgora() throws IOException {
+        try {
+            return executor.submit(this::gerar).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrompido aguardando o snapshot.", e);
+        } catch (Exception e) {
+            Throwable causa = e.getCause() != null ? e.getCause() : e;
+            if (causa instanceof IOException io) throw io;
+            throw new IOException("Falha ao gerar o snapshot.", causa);
+        }
+    }
+
+    public long getQuantidadeGerados() {
+        return quantidadeGerados;
+    }
+
+    /**
+     * Duração do último snapshot, incluindo a leitura do journal e a escrita do arquivo.
+     */
+    public long getUltimaDuracaoNanos() {
+        return ultimaDuracaoNanos;
+    }
+
+    public Path getUltimoArquivo() {
+        return ultimoArquivo;
+    }
+
+    /**
+     * Gera um último snapshot, com tudo que já foi escrito no journal, e encerra a thread.
+     * <p>
+     * Depois dele, a próxima inicialização não reproduz nenhum registro como posterior ao snapshot.
+     * Isso só é seguro porque o journal nunca é encurtado: quem deriva estado do histórico, e não dos
+     * saldos, continua lendo o journal ({@link Journal#reproduzirAte} para o histórico do livro-razão,
+     * e os checkpoints dos lotes a partir da própria posição).
+     */
+    @PreDestroy
+    @Override
+    public void close() {
+        if (executor.isShutdown()) return;
+        try {
+            journal.sincronizar();
+            gerarAgora();
+        } catch (Exception e) {
+            System.err.println("Aviso: falha ao gerar o snapshot de encerramento: " + e.getMessage());
+        }
+        executor.shutdown();
+    }
+
+    private void gerarPeriodico() {
+        try {
+            gerar();
+        } catch (Exception e) {
+            System.err.println("Aviso: falha ao gerar o snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Aplica à cópia os registros novos do journal e, se houver algum, grava um snapshot.
+     * Executa sempre na thread de snapshots.
+     */
+    private Path gerar() throws IOException {
+        long inicio = System.nanoTime();
+        if (!iniciado) {
+            iniciar();
+        }
+        Journal.Varredura lidos = journal.ler(leitorEstado(), posicao);
+        posicao = lidos.fim();
+        if (lidos.quantidade() > 0) {
+            sequencia = lidos.ultimaSequencia();
+        }
+        if (sequencia == gravadoAte || estado.isEmpty()) return null;
+
+        Path arquivo = escrever();
+        gravadoAte = sequencia;
+        apagarAntigos();
+        ultimoArquivo = arquivo;
+        quantidadeGerados++;
+        ultimaDuracaoNanos = System.nanoTime() - inicio;
+        return arquivo;
+    }
+
+    /**
+     * Monta a cópia inicial a partir do snapshot mais recente (se houver), para que a primeira
+     * passada leia apenas o journal posterior a ele.
+     */
+    private void iniciar() throws IOException {
+        iniciado = true;
+        posicao = 0;
+        sequencia = 0;
+        for (Path arquivo : listar()) {
+            try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+                MappedByteBuffer conteudo = mapearValido(canal, arquivo);
+                if (conteudo == null) continue;
+                Cabecalho cabecalho = lerCabecalho(conteudo);
+                if (!compativel(cabecalho, arquivo)) continue;
+                entregar(conteudo, cabecalho.quantidade(), leitorEstado());
+                posicao = cabecalho.posicao();
+                sequencia = cabecalho.sequencia();
+                gravadoAte = sequencia;
+                return;
+            }
+        }
+    }
+
+    private Journal.Leitor leitorEstado() {
+        return new Journal.Leitor() {
+            @Override
+            public void abertura(int numero, int agencia, long saldo, String nome, String cpf) {
+                estado.put(numero, new Registro(agencia, saldo,
+                        nome.getBytes(StandardCharsets.UTF_8), cpf.getBytes(StandardCharsets.UTF_8)));
+            }
+
+            @Override
+            public void deposito(int numero, long valor) {
+                ajustar(numero, valor);
+            }
+
+            @Override
+            public void saque(int numero, long valor) {
+                ajustar(numero, -valor);
+            }
+
+            @Override
+            public void transferencia(int origem, int destino, long valor) {
+                ajustar(origem, -valor);
+                ajustar(destino, valor);
+            }
+        };
+    }
+
+    private void ajustar(int numero, long delta) {
+        Registro registro = estado.get(numero);
+        if (registro != null) {
+            registro.saldo += delta;
+        }
+    }
+
+    /**
+     * Grava a cópia em um arquivo temporário, força para o disco e o renomeia para o nome final.
+     */
+    private Path escrever() throws IOException {
+        int[] numeros = new int[estado.size()];
+        int i = 0;
+        for (Integer numero : estado.keySet()) {
+            numeros[i++] = numero;
+        }
+        Arrays.sort(numeros);
+
+        Path arquivo = diretorio.resolve(String.format("%s%020d%s", PREFIXO, sequencia, SUFIXO));
+        Path temporario = diretorio.resolve(arquivo.getFileName() + ".tmp");
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER_ESCRITA);
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            buffer.putInt(MAGICO).putInt(VERSAO).putInt(journal.getIdentificador()).putInt(0)
+                    .putLong(posicao).putLong(sequencia).putLong(numeros.length);
+            for (int numero : numeros) {
+                Registro registro = estado.get(numero);
+                if (buffer.remaining() < 4 + 4 + 8 + 2 + registro.nome.length + 2 + registro.cpf.length) {
+                    descarregar(canal, buffer, crc);
+                }
+                buffer.putInt(numero).putInt(registro.agencia).putLong(registro.saldo);
+                buffer.putShort((short) registro.nome.length).put(registro.nome);
+                buffer.putShort((short) registro.cpf.length).put(registro.cpf);
+            }
+            descarregar(canal, buffer, crc);
+            buffer.putInt((int) crc.getValue()).flip();
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            canal.force(true);
+        }
+        return Files.move(temporario, arquivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void descarregar(FileChannel canal, ByteBuffer buffer, CRC32C crc) throws IOException {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void apagarAntigos() throws IOException {
+        List<Path> arquivos = listar();
+        for (int i = manter; i < arquivos.size(); i++) {
+            Files.deleteIfExists(arquivos.get(i));
+        }
+    }
+
+    /**
+     * Snapshots do diretório, do mais recente para o mais antigo.
+     */
+    private List<Path> listar() throws IOException {
+        List<Path> arquivos = new ArrayList<>();
+        try (Stream<Path> caminhos = Files.list(diretorio)) {
+            caminhos.filter(caminho -> {
+                String nome = caminho.getFileName().toString();
+                return nome.startsWith(PREFIXO) && nome.endsWith(SUFIXO);
+            }).forEach(arquivos::add);
+        }
+        arquivos.sort(Comparator.comparing((Path caminho) -> caminho.getFileName().toString()).reversed());
+        return arquivos;
+    }
+
+    /**
+     * Mapeia o arquivo e confere mágico, versão e CRC.
+     * @return O conteúdo sem o rodapé, ou {@code null} se o arquivo for inválido.
+     */
+    private static MappedByteBuffer mapearValido(FileChannel canal, Path arquivo) throws IOException {
+        long tamanho = canal.size();
+        if (tamanho < TAMANHO_CABECALHO + 4 || tamanho > Integer.MAX_VALUE) {
+            System.err.printf("Aviso: snapshot %s com tamanho inválido; ignorado.%n", arquivo.getFileName());
+            return null;
+        }
+        MappedByteBuffer conteudo = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamanho);
+        int fim = (int) tamanho - 4;
+        CRC32C crc = new CRC32C();
+        crc.update(conteudo.duplicate().limit(fim));
+        if (conteudo.getInt(0) != MAGICO || conteudo.getInt(4) != VERSAO || conteudo.getInt(fim) != (int) crc.getValue()) {
+            System.err.printf("Aviso: snapshot %s corrompido ou de versão desconhecida; ignorado.%n", arquivo.getFileName());
+            return null;
+        }
+        conteudo.limit(fim);
+        return conteudo;
+    }
+
+    private static Cabecalho lerCabecalho(ByteBuffer conteudo) {
+        return new Cabecalho(conteudo.getInt(8), conteudo.getLong(16), conteudo.getLong(24), conteudo.getLong(32));
+    }
+
+    /**
+     * Um snapshot só serve se veio deste journal e se o journal ainda contém tudo até a sua posição.
+     */
+    private boolean compativel(Cabecalho cabecalho, Path arquivo) throws IOException {
+        if (cabecalho.identificador() == journal.getIdentificador()
+                && journal.continuaEm(cabecalho.posicao(), cabecalho.sequencia())) {
+            return true;
+        }
+        System.err.printf("Aviso: snapshot %s não corresponde ao journal atual; ignorado.%n", arquivo.getFileName());
+        return false;
+    }
+
+    /**
+     * Entrega as contas do snapshot ao leitor, como aberturas.
+     */
+    private static long entregar(ByteBuffer conteudo, long quantidade, Journal.Leitor leitor) {
+        ByteBuffer buffer = conteudo.duplicate().position(TAMANHO_CABECALHO);
+        byte[] texto = new byte[Short.MAX_VALUE];
+        for (long i = 0; i < quantidade; i++) {
+            int numero = buffer.getInt();
+            int agencia = buffer.getInt();
+            long saldo = buffer.getLong();
+            int tamanhoNome = buffer.getShort();
+            buffer.get(texto, 0, tamanhoNome);
+            String nome = new String(texto, 0, tamanhoNome, StandardCharsets.UTF_8);
+            int tamanhoCpf = buffer.getShort();
+            buffer.get(texto, 0, tamanhoCpf);
+            String cpf = new String(texto, 0, tamanhoCpf, StandardCharsets.UTF_8);
+            leitor.abertura(numero, agencia, saldo, nome, cpf);
+        }
+        return quantidade;
+    }
+}
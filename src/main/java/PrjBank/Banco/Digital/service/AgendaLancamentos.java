@@ -0,0 +1,97 @@
+// Define o pacote para os serviços da aplicação.
+package PrjBank.Banco.Digital.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Component: Agenda os lotes de lançamentos ({@link LancamentosEmLote}) e retoma, na inicialização, os
+ * que foram interrompidos.
+ * <p>
+ * A cada horário da agenda (uma expressão cron do Spring, como {@code 0 0 2 1 * *}), cada regra configurada
+ * roda como um lote chamado {@code <tipo>-<data>}, como {@code rendimento-2026-11-01}; assim, se a aplicação
+ * cair no meio, o mesmo lote é retomado, e um horário repetido no mesmo dia não lança de novo. Tudo roda em
+ * uma thread própria, sem atrasar a inicialização.
+ */
+@Component
+@ConditionalOnProperty(name = "banco.lancamentos.ativo", havingValue = "true", matchIfMissing = true)
+public class AgendaLancamentos implements SmartInitializingSingleton {
+
+    private final LancamentosEmLote lancamentos;
+    private final CronExpression agenda;
+    private final List<RegraLancamento> regras = new ArrayList<>();
+    private final ScheduledExecutorService executor;
+
+    /**
+     * @param agenda Expressão cron dos lotes; vazia para apenas retomar os interrompidos.
+     * @param regras Regras separadas por vírgula, no formato de {@link RegraLancamento#de(String)}.
+     * @throws IllegalArgumentException Se a agenda ou alguma regra for inválida.
+     */
+    public AgendaLancamentos(LancamentosEmLote lancamentos,
+                             @Value("${banco.lancamentos.agenda:}") String agenda,
+                             @Value("${banco.lancamentos.regras:}") String regras) {
+        this.lancamentos = lancamentos;
+        this.agenda = agenda.isBlank() ? null : CronExpression.parse(agenda);
+        for (String regra : regras.split(",")) {
+            if (!regra.isBlank()) {
+                this.regras.add(RegraLancamento.de(regra));
+            }
+        }
+        this.executor = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "lancamentos");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        executor.execute(() -> {
+            try {
+                lancamentos.retomarPendentes();
+            } catch (Exception e) {
+                System.err.println("Aviso: falha ao retomar os lotes de lançamentos: " + e.getMessage());
+            }
+        });
+        agendarProximo();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    private void agendarProximo() {
+        if (agenda == null || regras.isEmpty() || executor.isShutdown()) return;
+        LocalDateTime proximo = agenda.next(LocalDateTime.now());
+        if (proximo == null) return;
+        long esperaMs = Math.max(0, Duration.between(LocalDateTime.now(), proximo).toMillis());
+        executor.schedule(() -> executarAgendados(proximo.toLocalDate()), esperaMs, TimeUnit.MILLISECONDS);
+        System.out.println("Próximo lote de lançamentos agendado para " + proximo + ".");
+    }
+
+    private void executarAgendados(LocalDate data) {
+        for (RegraLancamento regra : regras) {
+            String tipo = regra.descricao().substring(0, regra.descricao().indexOf(':'));
+            try {
+                lancamentos.executar(tipo + "-" + data, regra);
+            } catch (Exception e) {
+                System.err.println("Aviso: falha no lote de lançamentos " + tipo + "-" + data + ": " + e.getMessage());
+            }
+        }
+        agendarProximo();
+    }
+}
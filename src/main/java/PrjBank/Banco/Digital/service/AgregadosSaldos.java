@@ -0,0 +1,387 @@
+// Define o pacote para os serviços da aplicação.
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.model.Dinheiro;
+import PrjBank.Banco.Digital.model.DinheiroJson;
+import PrjBank.Banco.Digital.model.ObservadorSaldos;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Totais de todas as contas de um {@link Banco}, para os relatórios:
+ * <ul>
+ *     <li>Agregados correntes — soma dos saldos, quantidade de contas e quantidade por faixa de saldo —
+ *     atualizados a cada alteração de saldo em contadores distribuídos ({@link LongAdder}); a leitura
+ *     não percorre as contas. Operações em andamento podem estar contadas em parte.</li>
+ *     <li>Cortes consistentes, sob demanda: os saldos de todas as contas num mesmo instante lógico,
+ *     somados e ordenados por uma varredura paralela (fork-join), sem travar contas.</li>
+ * </ul>
+ * O corte usa épocas. Cada alteração de saldo acontece numa época e as contas guardam o saldo que
+ * tinham antes da primeira alteração de uma época nova. Para cortar, a época avança de {@code c} para
+ * {@code c + 1}, o corte espera terminarem as alterações que ainda estão na época {@code c} (operações
+ * curtas, feitas sob as travas das contas) e lê cada conta como estava ao fim de {@code c}. As alterações
+ * da época {@code c + 1} seguem normalmente durante a varredura; como uma transferência grava as duas
+ * contas na mesma época, ela entra inteira ou não entra no corte. Isso vale também para a transferência
+ * em duas fases entre partições, que mantém uma alteração compartilhada aberta do débito ao crédito.
+ * Um corte por vez.
+ */
+public final class AgregadosSaldos implements ObservadorSaldos {
+
+    // Limites superiores (exclusivos) das faixas de saldo, em centavos; a última faixa não tem limite.
+    private static final long[] LIMITES_FAIXAS = {1, 100_00, 1_000_00, 10_000_00, 100_000_00};
+    private static final List<String> NOMES_FAIXAS = nomearFaixas();
+
+    // Maior quantidade de maiores saldos que um corte devolve.
+    public static final int MAIORES_MAXIMO = 1_000;
+    // Contas por tarefa da varredura paralela.
+    private static final int CONTAS_POR_TAREFA = 16_384;
+
+    // Alterações em andamento por época (par / ímpar), em listras por thread separadas por 64 bytes.
+    // Cada thread incrementa e decrementa sempre a mesma listra, então nenhuma listra fica negativa.
+    private static final int LISTRAS = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1;
+    private static final int ESPACAMENTO = 8;
+
+    /**
+     * Quantidade de contas numa faixa de saldo.
+     */
+    public record Faixa(String faixa, long contas) {
+    }
+
+    /**
+     * Agregados correntes.
+     * @param total Soma dos saldos, em centavos.
+     * @param contas Quantidade de contas.
+     * @param faixas Contas por faixa de saldo.
+     */
+    public record Resumo(@JsonSerialize(using = DinheiroJson.Serializador.class) long total,
+                         long contas,
+                         List<Faixa> faixas) {
+    }
+
+    /**
+     * Saldo de uma conta no corte.
+     */
+    public record SaldoConta(int numero, String titular,
+                             @JsonSerialize(using = DinheiroJson.Serializador.class) long saldo) {
+    }
+
+    /**
+     * Corte consistente dos saldos.
+     * @param epoca Época do corte.
+     * @param total Soma dos saldos, em centavos.
+     * @param contas Quantidade de contas.
+     * @param faixas Contas por faixa de saldo.
+     * @param maiores Maiores saldos, em ordem decrescente.
+     * @param duracaoMicros Duração do corte (espera e varredura), em microssegundos.
+     */
+    public record Corte(long epoca,
+                        @JsonSerialize(using = DinheiroJson.Serializador.class) long total,
+                        long contas,
+                        List<Faixa> faixas,
+                        List<SaldoConta> maiores,
+                        long duracaoMicros) {
+    }
+
+    private final LongAdder total = new LongAdder();
+    private final LongAdder contas = new LongAdder();
+    private final LongAdder[] faixas = new LongAdder[LIMITES_FAIXAS.length + 1];
+
+    // Época corrente; só avança em um corte.
+    private volatile long epoca = 1;
+    private final AtomicLongArray emAndamento = new AtomicLongArray(2 * LISTRAS * ESPACAMENTO);
+    // Alterações compartilhadas em andamento por época (par / ímpar); não usam listras porque
+    // podem terminar em outra thread.
+    private final AtomicLongArray compartilhadas = new AtomicLongArray(2 * ESPACAMENTO);
+    private final ReentrantLock cortes = new ReentrantLock();
+
+    public AgregadosSaldos() {
+        for (int i = 0; i < faixas.length; i++) {
+            faixas[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public long iniciarAlteracao() {
+        int listra = listra();
+        while (true) {
+            long atual = epoca;
+            int indice = indice(atual, listra);
+            emAndamento.getAndIncrement(indice);
+            // Se um corte avançou a época nesse meio tempo, ele pode não ter visto o incremento: tenta de novo.
+            if (epoca == atual) return atual;
+            emAndamento.getAndDecrement(indice);
+        }
+    }
+
+    @Override
+    public void concluirAlteracao(long epocaAlteracao) {
+        emAndamento.getAndDecrement(indice(epocaAlteracao, listra()));
+    }
+
+    @Override
+    public long iniciarAlteracaoCompartilhada() {
+        while (true) {
+            long atual = epoca;
+            int indice = ((int) atual & 1) * ESPACAMENTO;
+            compartilhadas.getAndIncrement(indice);
+            if (epoca == atual) return atual;
+            compartilhadas.getAndDecrement(indice);
+        }
+    }
+
+    @Override
+    public void concluirAlteracaoCompartilhada(long epocaAlteracao) {
+        compartilhadas.getAndDecrement(((int) epocaAlteracao & 1) * ESPACAMENTO);
+    }
+
+    @Override
+    public void contaIncluida(long saldo) {
+        contas.increment();
+        total.add(saldo);
+        faixas[faixa(saldo)].increment();
+    }
+
+    @Override
+    public void saldoAlterado(long anterior, long novo) {
+        total.add(novo - anterior);
+        int faixaAnterior = faixa(anterior);
+        int faixaNova = faixa(novo);
+        if (faixaAnterior != faixaNova) {
+            faixas[faixaAnterior].decrement();
+            faixas[faixaNova].increment();
+        }
+    }
+
+    /**
+     * Lê os agregados correntes, sem percorrer as contas.
+     */
+    public Resumo resumir() {
+        long[] quantidades = new long[faixas.length];
+        for (int i = 0; i < faixas.length; i++) {
+            quantidades[i] = faixas[i].sum();
+        }
+        return new Resumo(total.sum(), contas.sum(), listarFaixas(quantidades));
+    }
+
+    /**
+     * Faz um corte consistente dos saldos das contas informadas.
+     * @param todas Visão das contas do banco; só é percorrida depois de iniciado o corte.
+     * @param maiores Quantidade de maiores saldos a incluir (0 a {@value #MAIORES_MAXIMO}).
+     * @return Os totais e os maiores saldos no corte.
+     */
+    public Corte cortar(Collection<Conta> todas, int maiores) {
+        if (maiores < 0 || maiores > MAIORES_MAXIMO) {
+            throw new IllegalArgumentException("Quantidade de maiores saldos deve estar entre 0 e " + MAIORES_MAXIMO + ".");
+        }
+        long inicio = System.nanoTime();
+        cortes.lock();
+        try {
+            long corte = abrirCorte();
+            Conta[] vetor = todas.toArray(new Conta[0]);
+            Parcial parcial = ForkJoinPool.commonPool().invoke(new Varredura(vetor, 0, vetor.length, corte, maiores));
+            List<SaldoConta> ordenados = new ArrayList<>(parcial.maiores);
+            ordenados.sort(ORDEM_DECRESCENTE);
+            return new Corte(corte, parcial.total, parcial.contas, listarFaixas(parcial.faixas), ordenados,
+                    (System.nanoTime() - inicio) / 1_000);
+        } finally {
+            cortes.unlock();
+        }
+    }
+
+    /**
+     * Recebe as contas de um corte percorrido por {@link #percorrerCorte}.
+     */
+    @FunctionalInterface
+    public interface LeitorCorte {
+        /**
+         * @param conta A conta.
+         * @param saldo Saldo da conta no corte, em centavos.
+         */
+        void conta(Conta conta, long saldo) throws IOException;
+    }
+
+    /**
+     * Percorre as contas informadas, na ordem da coleção, entregando a cada uma o seu saldo em um corte
+     * consistente. Usado para exportar o estado completo: as operações continuam durante o percurso;
+     * apenas outros cortes esperam ele terminar.
+     * @param todas Visão das contas do banco; só é percorrida depois de iniciado o corte.
+     * @param leitor Recebe cada conta incluída no corte.
+     * @return A época do corte.
+     */
+    public long percorrerCorte(Collection<Conta> todas, LeitorCorte leitor) throws IOException {
+        cortes.lock();
+        try {
+            long corte = abrirCorte();
+            for (Conta conta : todas) {
+                if (conta.incluidaAte(corte)) {
+                    leitor.conta(conta, conta.saldoNoCorte(corte));
+                }
+            }
+            return corte;
+        } finally {
+            cortes.unlock();
+        }
+    }
+
+    /**
+     * Avança a época e espera as alterações da época anterior, que passa a ser a do corte.
+     * Chamado com a trava de cortes.
+     */
+    private long abrirCorte() {
+        long corte = epoca;
+        epoca = corte + 1;
+        aguardarAlteracoes(corte);
+        return corte;
+    }
+
+    /**
+     * Espera terminarem as alterações da época do corte; as que começarem depois já estão na época seguinte.
+     */
+    private void aguardarAlteracoes(long corte) {
+        int tentativas = 0;
+        for (int listra = 0; listra < LISTRAS; listra++) {
+            int indice = indice(corte, listra);
+            while (emAndamento.get(indice) != 0) {
+                tentativas = esperar(tentativas);
+            }
+        }
+        // As compartilhadas atravessam a fila de outra partição, então podem demorar mais.
+        int indice = ((int) corte & 1) * ESPACAMENTO;
+        while (compartilhadas.get(indice) != 0) {
+            tentativas = esperar(tentativas);
+        }
+    }
+
+    private static int esperar(int tentativas) {
+        if (tentativas < 100) {
+            Thread.onSpinWait();
+        } else {
+            LockSupport.parkNanos(10_000);
+        }
+        return tentativas + 1;
+    }
+
+    private static final Comparator<SaldoConta> ORDEM_DECRESCENTE =
+            Comparator.comparingLong(SaldoConta::saldo).reversed().thenComparingInt(SaldoConta::numero);
+
+    /**
+     * Totais de um trecho das contas.
+     */
+    private static final class Parcial {
+        long total;
+        long contas;
+        final long[] faixas = new long[LIMITES_FAIXAS.length + 1];
+        // Menor saldo no topo, para descartar rápido as contas que não entram entre as maiores.
+        final PriorityQueue<SaldoConta> maiores = new PriorityQueue<>(ORDEM_DECRESCENTE.reversed());
+
+        void incluirMaior(Conta conta, long saldo, int limite) {
+            if (maiores.size() < limite) {
+                maiores.add(new SaldoConta(conta.getNumero(), conta.getTitular().getNome(), saldo));
+            } else if (limite > 0 && saldo > maiores.peek().saldo()) {
+                maiores.poll();
+                maiores.add(new SaldoConta(conta.getNumero(), conta.getTitular().getNome(), saldo));
+            }
+        }
+
+        Parcial juntar(Parcial outra, int limite) {
+            total += outra.total;
+            contas += outra.contas;
+            for (int i = 0; i < faixas.length; i++) {
+                faixas[i] += outra.faixas[i];
+            }
+            for (SaldoConta saldo : outra.maiores) {
+                maiores.add(saldo);
+                if (maiores.size() > limite) maiores.poll();
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Varredura de um trecho do vetor de contas, dividido ao meio até {@value #CONTAS_POR_TAREFA} contas.
+     */
+    private static final class Varredura extends RecursiveTask<Parcial> {
+        private final Conta[] contas;
+        private final int inicio;
+        private final int fim;
+        private final long corte;
+        private final int maiores;
+
+        Varredura(Conta[] contas, int inicio, int fim, long corte, int maiores) {
+            this.contas = contas;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.corte = corte;
+            this.maiores = maiores;
+        }
+
+        @Override
+        protected Parcial compute() {
+            if (fim - inicio > CONTAS_POR_TAREFA) {
+                int meio = (inicio + fim) >>> 1;
+                Varredura esquerda = new Varredura(contas, inicio, meio, corte, maiores);
+                esquerda.fork();
+                Parcial direita = new Varredura(contas, meio, fim, corte, maiores).compute();
+                return esquerda.join().juntar(direita, maiores);
+            }
+            Parcial parcial = new Parcial();
+            for (int i = inicio; i < fim; i++) {
+                Conta conta = contas[i];
+                if (!conta.incluidaAte(corte)) continue;
+                long saldo = conta.saldoNoCorte(corte);
+                parcial.total += saldo;
+                parcial.contas++;
+                parcial.faixas[faixa(saldo)]++;
+                parcial.incluirMaior(conta, saldo, maiores);
+            }
+            return parcial;
+        }
+    }
+
+    static int faixa(long saldo) {
+        int faixa = 0;
+        while (faixa < LIMITES_FAIXAS.length && saldo >= LIMITES_FAIXAS[faixa]) {
+            faixa++;
+        }
+        return faixa;
+    }
+
+    private static List<Faixa> listarFaixas(long[] quantidades) {
+        List<Faixa> lista = new ArrayList<>(quantidades.length);
+        for (int i = 0; i < quantidades.length; i++) {
+            lista.add(new Faixa(NOMES_FAIXAS.get(i), quantidades[i]));
+        }
+        return lista;
+    }
+
+    private static List<String> nomearFaixas() {
+        List<String> nomes = new ArrayList<>(LIMITES_FAIXAS.length + 1);
+        nomes.add("até " + Dinheiro.formatarReal(LIMITES_FAIXAS[0] - 1));
+        for (int i = 1; i < LIMITES_FAIXAS.length; i++) {
+            nomes.add(Dinheiro.formatarReal(LIMITES_FAIXAS[i - 1]) + " a " + Dinheiro.formatarReal(LIMITES_FAIXAS[i] - 1));
+        }
+        nomes.add(Dinheiro.formatarReal(LIMITES_FAIXAS[LIMITES_FAIXAS.length - 1]) + " ou mais");
+        return List.copyOf(nomes);
+    }
+
+    private static int listra() {
+        return (int) Thread.currentThread().getId() & (LISTRAS - 1);
+    }
+
+    private static int indice(long epocaAlteracao, int listra) {
+        return (((int) epocaAlteracao & 1) * LISTRAS + listra) * ESPACAMENTO;
+    }
+}
@@ -0,0 +1,371 @@
+// Define o pacote para os serviços da aplicação.
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.exception.OperacaoNaoExecutadaException;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.model.StatusOperacao;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @Component: Executa depósitos, saques e transferências por um anel de comandos pré-alocado,
+ * no estilo do Disruptor, em vez de alterar as contas na thread da requisição.
+ * <p>
+ * Experimental e desligado por padrão ({@code banco.anel.ativo}): nenhum ganho de vazão sobre
+ * chamar o {@link Banco} direto foi demonstrado (compare com {@code AnelComandosBenchmark}).
+ * <p>
+ * As requisições reservam uma sequência do anel, preenchem a célula correspondente e a publicam.
+ * Duas threads consomem o anel em ordem, cada uma em lotes de tudo o que já está disponível:
+ * <ol>
+ *     <li>o aplicador altera as contas e anexa as operações ao journal (uma cópia para a memória
+ *     mapeada), sob as travas das contas — que continuam sendo disputadas com os lotes e os
+ *     lançamentos em lote, que alteram saldos pelo {@link Banco} direto;</li>
+ *     <li>o estágio de durabilidade espera o fsync uma vez por lote, avisa os ouvintes e conclui os
+ *     futuros, enquanto o aplicador já trabalha no lote seguinte.</li>
+ * </ol>
+ * As células só são reaproveitadas depois de concluídas; com o anel cheio, as requisições esperam.
+ * As estruturas são alocadas uma vez, na criação; por operação só é criado o futuro da resposta.
+ * <p>
+ * O encerramento publica uma célula sem operação que marca o fim do anel: o aplicador para nela,
+ * depois de aplicar todas as sequências anteriores, e as reservadas depois dela são recusadas.
+ */
+@Component
+@ConditionalOnProperty(name = "banco.anel.ativo", havingValue = "true")
+public class AnelComandos implements ExecutorOperacoes, AutoCloseable {
+
+    private static final int LOTE_MAXIMO = 1024;
+    private static final int ESPERA_ATIVA = 100;
+    private static final long ESPERA_MAXIMA_NANOS = 1_000_000;
+
+    /**
+     * Célula do anel, reaproveitada a cada volta. Preenchida pela requisição antes da publicação,
+     * completada pelo aplicador e esvaziada pelo estágio de durabilidade.
+     */
+    private static final class Celula {
+        OperacaoLote operacao;
+        Conta origem;
+        Conta destino;
+        CompletableFuture<StatusOperacao> resultado;
+        StatusOperacao status;
+        RuntimeException erro;
+        long posicaoJournal;
+        // Saldos gravados pela operação, para avisar os ouvintes depois do fsync.
+        long saldoOrigem;
+        long saldoDestino;
+    }
+
+    private final Banco banco;
+    private final Celula[] celulas;
+    private final int mascara;
+    // Sequência publicada em cada célula; a escrita volátil torna o conteúdo da célula visível ao aplicador.
+    private final AtomicLongArray publicadas;
+    // Próxima sequência a ser reservada pelas requisições.
+    private final AtomicLong proxima = new AtomicLong();
+    // As sequências abaixo destas já foram aplicadas / concluídas (e as suas células liberadas).
+    private volatile long aplicadas;
+    private volatile long concluidas;
+    // Escritos apenas pelo aplicador.
+    private volatile long lotes;
+    private volatile int maiorLote;
+
+    private final Thread aplicador;
+    private final Thread duravel;
+    private volatile boolean aplicadorEsperando;
+    private volatile boolean duravelEsperando;
+    private volatile boolean encerrado;
+    // Sequência da célula que marca o fim do anel; definida pelo encerramento.
+    private volatile long ultima = Long.MAX_VALUE;
+
+    /**
+     * Cria o anel e inicia as suas threads.
+     * @param banco Banco cujas contas são alteradas.
+     * @param capacidade Quantidade de células, arredondada para a potência de 2 seguinte.
+     */
+    public AnelComandos(Banco banco, @Value("${banco.anel.capacidade:65536}") int capacidade) {
+        this.banco = banco;
+        int tamanho = Integer.highestOneBit(Math.max(capacidade - 1, 1)) << 1;
+        this.celulas = new Celula[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            celulas[i] = new Celula();
+        }
+        this.mascara = tamanho - 1;
+        this.publicadas = new AtomicLongArray(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            publicadas.set(i, -1);
+        }
+        this.aplicador = new Thread(this::aplicar, "anel-aplicador");
+        this.duravel = new Thread(this::concluir, "anel-journal");
+        aplicador.setDaemon(true);
+        duravel.setDaemon(true);
+        aplicador.start();
+        duravel.start();
+    }
+
+    /**
+     * Publica a operação no anel.
+     * @param operacao Depósito, saque ou transferência.
+     * @return O status da operação, concluído depois que ela está durável no journal.
+     */
+    @Override
+    public CompletableFuture<StatusOperacao> executar(OperacaoLote operacao) {
+        if (operacao == null || operacao.tipo() == null) {
+            return CompletableFuture.completedFuture(StatusOperacao.OPERACAO_INVALIDA);
+        }
+        if (operacao.valor() <= 0) {
+            return CompletableFuture.completedFuture(StatusOperacao.VALOR_INVALIDO);
+        }
+        Conta origem = banco.buscarConta(operacao.conta()).orElse(null);
+        if (origem == null) {
+            return CompletableFuture.completedFuture(StatusOperacao.CONTA_INEXISTENTE);
+        }
+        Conta destino = null;
+        if (operacao.tipo() == OperacaoLote.Tipo.TRANSFERENCIA) {
+            if (operacao.destino() == null) {
+                return CompletableFuture.completedFuture(StatusOperacao.OPERACAO_INVALIDA);
+            }
+            destino = banco.buscarConta(operacao.destino()).orElse(null);
+            if (destino == null) {
+                return CompletableFuture.completedFuture(StatusOperacao.CONTA_INEXISTENTE);
+            }
+        }
+        if (encerrado) {
+            return encerradoFalha();
+        }
+
+        long sequencia = proxima.getAndIncrement();
+        // O encerramento pode ter reservado a célula de fim depois da conferência acima: a sequência só
+        // é publicada se vier antes dela, pois o aplicador não passa da célula de fim.
+        if (encerrado && sequencia > ultimaSequencia()) {
+            return encerradoFalha();
+        }
+        CompletableFuture<StatusOperacao> resultado = new CompletableFuture<>();
+        esperarCelulaLivre(sequencia);
+        Celula celula = celulas[indice(sequencia)];
+        celula.operacao = operacao;
+        celula.origem = origem;
+        celula.destino = destino;
+        celula.resultado = resultado;
+        publicadas.set(indice(sequencia), sequencia);
+        if (aplicadorEsperando) {
+            LockSupport.unpark(aplicador);
+        }
+        return resultado;
+    }
+
+    public int getCapacidade() {
+        return celulas.length;
+    }
+
+    /**
+     * Quantidade de operações publicadas no anel.
+     */
+    public long getPublicadas() {
+        // Depois do encerramento, a célula de fim e as sequências recusadas não contam.
+        return Math.min(proxima.get(), ultima);
+    }
+
+    /**
+     * Quantidade de operações concluídas (duráveis e respondidas).
+     */
+    public long getConcluidas() {
+        return concluidas;
+    }
+
+    /**
+     * Quantidade de lotes aplicados; publicadas / lotes dá o tamanho médio do lote.
+     */
+    public long getLotes() {
+        return lotes;
+    }
+
+    public int getMaiorLote() {
+        return maiorLote;
+    }
+
+    /**
+     * Recusa novas operações, conclui as que já estão no anel e encerra as threads.
+     */
+    @PreDestroy
+    @Override
+    public synchronized void close() {
+        if (encerrado) return;
+        encerrado = true;
+        // Célula de fim: as sequências reservadas antes dela são aplicadas; as seguintes, recusadas.
+        long sequencia = proxima.getAndIncrement();
+        ultima = sequencia;
+        esperarCelulaLivre(sequencia);
+        publicadas.set(indice(sequencia), sequencia);
+        LockSupport.unpark(aplicador);
+        LockSupport.unpark(duravel);
+        try {
+            aplicador.join();
+            duravel.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static CompletableFuture<StatusOperacao> encerradoFalha() {
+        return CompletableFuture.failedFuture(new OperacaoNaoExecutadaException("O anel de comandos foi encerrado."));
+    }
+
+    /**
+     * Sequência da célula de fim; chamado só depois de ver o anel encerrado, quando ela está para ser definida.
+     */
+    private long ultimaSequencia() {
+        long sequencia;
+        while ((sequencia = ultima) == Long.MAX_VALUE) {
+            Thread.onSpinWait();
+        }
+        return sequencia;
+    }
+
+    /**
+     * Espera até a célula da sequência ter sido concluída na volta anterior do anel.
+     */
+    private void esperarCelulaLivre(long sequencia) {
+        int tentativas = 0;
+        while (sequencia - concluidas >= celulas.length) {
+            if (tentativas++ < ESPERA_ATIVA) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(this, ESPERA_MAXIMA_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Laço do aplicador: aplica, em ordem, as sequências publicadas, até a célula de fim.
+     */
+    private void aplicar() {
+        long inicio = 0;
+        boolean parar = false;
+        long[] saldos = new long[3];
+        while (!parar) {
+            long fim = inicio;
+            while (fim - inicio < LOTE_MAXIMO && publicadas.get(indice(fim)) == fim) {
+                fim++;
+            }
+            if (fim == inicio) {
+                esperarPublicacao(inicio);
+                continue;
+            }
+            for (long sequencia = inicio; sequencia < fim; sequencia++) {
+                Celula celula = celulas[indice(sequencia)];
+                if (celula.operacao == null) {
+                    // Célula de fim: não é concluída, e nada depois dela foi publicado.
+                    fim = sequencia;
+                    parar = true;
+                    break;
+                }
+                try {
+                    celula.status = banco.aplicar(celula.operacao, celula.origem, celula.destino, saldos);
+                    celula.posicaoJournal = saldos[2];
+                    celula.saldoOrigem = saldos[0];
+                    celula.saldoDestino = saldos[1];
+                } catch (RuntimeException e) {
+                    celula.erro = e;
+                }
+            }
+            int tamanho = (int) (fim - inicio);
+            if (tamanho == 0) break;
+            if (tamanho > maiorLote) maiorLote = tamanho;
+            lotes = lotes + 1;
+            aplicadas = fim;
+            if (duravelEsperando) {
+                LockSupport.unpark(duravel);
+            }
+            inicio = fim;
+        }
+    }
+
+    private void esperarPublicacao(long sequencia) {
+        for (int i = 0; i < ESPERA_ATIVA; i++) {
+            if (publicadas.get(indice(sequencia)) == sequencia) return;
+            Thread.onSpinWait();
+        }
+        aplicadorEsperando = true;
+        // Confere de novo depois de se declarar esperando, para não perder o aviso da requisição.
+        if (publicadas.get(indice(sequencia)) != sequencia && !encerrado) {
+            LockSupport.parkNanos(this, ESPERA_MAXIMA_NANOS);
+        }
+        aplicadorEsperando = false;
+    }
+
+    /**
+     * Laço do estágio de durabilidade: espera o fsync de cada lote aplicado e responde.
+     */
+    private void concluir() {
+        long inicio = 0;
+        while (true) {
+            long fim = aplicadas;
+            if (fim == inicio) {
+                if (!aplicador.isAlive() && aplicadas == inicio) break;
+                esperarAplicacao(inicio);
+                continue;
+            }
+            long posicao = 0;
+            for (long sequencia = inicio; sequencia < fim; sequencia++) {
+                posicao = Math.max(posicao, celulas[indice(sequencia)].posicaoJournal);
+            }
+            RuntimeException erroJournal = null;
+            try {
+                // Um único fsync para todo o lote.
+                banco.aguardarJournal(posicao);
+            } catch (RuntimeException e) {
+                erroJournal = e;
+            }
+            for (long sequencia = inicio; sequencia < fim; sequencia++) {
+                Celula celula = celulas[indice(sequencia)];
+                CompletableFuture<StatusOperacao> resultado = celula.resultado;
+                RuntimeException erro = celula.erro != null ? celula.erro : erroJournal;
+                StatusOperacao status = celula.status;
+                if (erro == null && status == StatusOperacao.APLICADA) {
+                    // Os ouvintes só veem a operação depois do fsync, como em Banco#executar.
+                    try {
+                        banco.avisarOperacao(celula.operacao, celula.origem, celula.destino, celula.saldoOrigem,
+                                celula.saldoDestino);
+                    } catch (RuntimeException e) {
+                        erro = e;
+                    }
+                }
+                celula.operacao = null;
+                celula.origem = null;
+                celula.destino = null;
+                celula.resultado = null;
+                celula.status = null;
+                celula.erro = null;
+                if (erro != null) {
+                    resultado.completeExceptionally(erro);
+                } else {
+                    resultado.complete(status);
+                }
+            }
+            concluidas = fim;
+            inicio = fim;
+        }
+    }
+
+    private void esperarAplicacao(long sequencia) {
+        for (int i = 0; i < ESPERA_ATIVA; i++) {
+            if (aplicadas != sequencia) return;
+            Thread.onSpinWait();
+        }
+        duravelEsperando = true;
+        if (aplicadas == sequencia && aplicador.isAlive()) {
+            LockSupport.parkNanos(this, ESPERA_MAXIMA_NANOS);
+        }
+        duravelEsperando = false;
+    }
+
+    private int indice(long sequencia) {
+        return (int) sequencia & mascara;
+    }
+}
@@ -2,11 +2,33 @@
 package PrjBank.Banco.Digital.service;
 
 // Importações dos modelos, do framework Spring e de utilitários do Java.
+import PrjBank.Banco.Digital.exception.CpfJaCadastradoException;
+import PrjBank.Banco.Digital.exception.SaldoInsuficienteException;
+import PrjBank.Banco.Digital.model.Cliente;
 import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.model.Dinheiro;
+import PrjBank.Banco.Digital.model.StatusOperacao;
+import PrjBank.Banco.Digital.persistencia.Journal;
+import PrjBank.Banco.Digital.persistencia.Snapshots;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * @Service: Gerencia as operações e a lógica de negócio relacionadas às contas do banco.
@@ -15,27 +37,246 @@ import java.util.Optional;
 @Service
 public class Banco {
 
+    // Retorno de abrirContaSeLivre quando o número já tem conta.
+    static final long NUMERO_OCUPADO = -1;
+    private static final int TRAVAS_INCLUSAO = 64;
+
     // Nome da instituição bancária.
     private String nome;
 
-    // Lista que armazena todas as contas gerenciadas pelo banco.
-    private List<Conta> contas;
+    // Índice concorrente das contas, indexado pelo número da conta.
+    // Permite busca em O(1) e inserções seguras a partir de várias requisições simultâneas.
+    private final Map<Integer, Conta> contas;
+
+    // Índice ordenado pelo número, usado para listar e paginar sem copiar nem ordenar as contas.
+    private final ConcurrentSkipListMap<Integer, Conta> contasOrdenadas;
+
+    // Índices pelo CPF e pelo nome do titular.
+    private final IndiceClientes indiceClientes = new IndiceClientes();
+
+    // Totais dos saldos, atualizados a cada alteração, e cortes consistentes para os relatórios.
+    private final AgregadosSaldos agregados = new AgregadosSaldos();
+
+    // Travas por número de conta: a abertura vai ao journal e a conta entra nos índices sob a mesma trava.
+    private final ReentrantLock[] travasInclusao = new ReentrantLock[TRAVAS_INCLUSAO];
+
+    // Se verdadeiro, contas novas são recusadas quando o CPF já tem conta.
+    private final boolean cpfUnico;
+
+    // Journal onde as operações são registradas; nulo quando o banco roda apenas em memória.
+    private final Journal journal;
+
+    // Interessados nas operações aceitas (sincronização com a planilha, etc.).
+    private final List<OuvinteOperacoes> ouvintes;
 
     /**
-     * Construtor: Inicializa o banco com um nome padrão e uma lista de contas vazia.
+     * Construtor: Inicializa o banco com um nome padrão e nenhuma conta cadastrada,
+     * mantendo o estado apenas em memória.
      */
     public Banco() {
+        this(null);
+    }
+
+    /**
+     * Construtor: quando há um journal, reconstrói o estado do banco reproduzindo as operações
+     * registradas nele.
+     * @param journal Journal de operações, ou nulo para manter o estado apenas em memória.
+     */
+    public Banco(@Nullable Journal journal) {
+        this(journal, List.of());
+    }
+
+    /**
+     * Construtor usado pelo Spring, com o journal (se configurado) e os ouvintes de operações.
+     */
+    @Autowired
+    public Banco(ObjectProvider<Journal> journal, ObjectProvider<Snapshots> snapshots,
+                 ObjectProvider<OuvinteOperacoes> ouvintes,
+                 @Value("${banco.contas.cpf-unico:false}") boolean cpfUnico) {
+        this(journal.getIfAvailable(), snapshots.getIfAvailable(), ouvintes.orderedStream().toList(), cpfUnico);
+    }
+
+    /**
+     * Construtor sem snapshots: o estado é reconstruído reproduzindo o journal inteiro.
+     * @param journal Journal de operações, ou nulo para manter o estado apenas em memória.
+     * @param ouvintes Interessados nas operações aceitas.
+     */
+    public Banco(@Nullable Journal journal, List<OuvinteOperacoes> ouvintes) {
+        this(journal, null, ouvintes);
+    }
+
+    /**
+     * Construtor que aceita mais de uma conta por CPF.
+     * @param journal Journal de operações, ou nulo para manter o estado apenas em memória.
+     * @param snapshots Snapshots do journal; quando há um utilizável, só o journal posterior a ele é reproduzido.
+     * @param ouvintes Interessados nas operações aceitas.
+     */
+    public Banco(@Nullable Journal journal, @Nullable Snapshots snapshots, List<OuvinteOperacoes> ouvintes) {
+        this(journal, snapshots, ouvintes, false);
+    }
+
+    /**
+     * Construtor completo.
+     * @param journal Journal de operações, ou nulo para manter o estado apenas em memória.
+     * @param snapshots Snapshots do journal; quando há um utilizável, só o journal posterior a ele é reproduzido.
+     * @param ouvintes Interessados nas operações aceitas.
+     * @param cpfUnico Se verdadeiro, {@link #adicionarConta} recusa CPFs que já têm conta. Contas
+     *                 carregadas e restauradas não são verificadas.
+     */
+    public Banco(@Nullable Journal journal, @Nullable Snapshots snapshots, List<OuvinteOperacoes> ouvintes,
+                 boolean cpfUnico) {
         this.nome = "Banco Digital";
-        this.contas = new ArrayList<>();
+        this.cpfUnico = cpfUnico;
+        this.contas = new ConcurrentHashMap<>();
+        this.contasOrdenadas = new ConcurrentSkipListMap<>();
+        for (int i = 0; i < TRAVAS_INCLUSAO; i++) {
+            this.travasInclusao[i] = new ReentrantLock();
+        }
+        this.journal = journal;
+        this.ouvintes = List.copyOf(ouvintes);
+        if (journal != null) {
+            reconstruir(journal, snapshots);
+        }
     }
 
     /**
-     * Adiciona uma nova conta à lista do banco.
+     * Adiciona uma nova conta ao banco.
      * @param conta O objeto Conta a ser adicionado.
+     * @throws IllegalStateException Se já existir uma conta com o mesmo número.
+     * @throws CpfJaCadastradoException Se o banco exige CPF único e o CPF já tem conta.
      */
     public void adicionarConta(Conta conta) {
-        this.contas.add(conta);
-        System.out.printf("Conta de %s adicionada com sucesso.%n", conta.getTitular().getNome());
+        aguardarJournal(abrirConta(conta));
+    }
+
+    /**
+     * Adiciona a conta e a anexa ao journal sem esperar pelo fsync.
+     * @return A posição do journal após o registro, ou 0 sem journal.
+     * @throws IllegalStateException Se já existir uma conta com o mesmo número.
+     * @throws CpfJaCadastradoException Se o banco exige CPF único e o CPF já tem conta.
+     */
+    long abrirConta(Conta conta) {
+        long posicao = abrirContaSeLivre(conta);
+        if (posicao == NUMERO_OCUPADO) {
+            throw new IllegalStateException("Já existe uma conta com o número " + conta.getNumero() + ".");
+        }
+        return posicao;
+    }
+
+    /**
+     * Recusa de antemão o CPF que já tem conta, quando o banco exige CPF único, para que uma abertura
+     * recusada não gaste um número de conta. A reserva do CPF continua sendo feita na abertura.
+     * @throws CpfJaCadastradoException Se o banco exige CPF único e o CPF já tem conta.
+     */
+    public void conferirCpfLivre(Cliente titular) {
+        if (cpfUnico && !indiceClientes.buscarPorCpf(titular.getCpf()).isEmpty()) {
+            throw new CpfJaCadastradoException(titular.getCpf());
+        }
+    }
+
+    /**
+     * Como {@link #abrirConta}, mas sem lançar exceção quando o número já tem conta; usado pelas
+     * {@link Particoes}, que então tentam o próximo número do bloco.
+     * @return A posição do journal após o registro, 0 sem journal, ou {@link #NUMERO_OCUPADO}.
+     * @throws CpfJaCadastradoException Se o banco exige CPF único e o CPF já tem conta.
+     */
+    long abrirContaSeLivre(Conta conta) {
+        // O CPF é reservado antes, para que duas aberturas simultâneas com o mesmo CPF não passem juntas.
+        if (!indiceClientes.incluirCpf(conta, cpfUnico)) {
+            throw new CpfJaCadastradoException(conta.getTitular().getCpf());
+        }
+        long posicao;
+        try {
+            posicao = incluirConta(conta);
+        } catch (RuntimeException | Error e) {
+            // A conta não entrou no banco: a reserva do CPF não pode ficar apontando para ela.
+            indiceClientes.removerCpf(conta);
+            throw e;
+        }
+        if (posicao == NUMERO_OCUPADO) {
+            indiceClientes.removerCpf(conta);
+            return NUMERO_OCUPADO;
+        }
+        indiceClientes.incluirNome(conta);
+        for (OuvinteOperacoes ouvinte : ouvintes) {
+            ouvinte.contaAdicionada(conta);
+        }
+        return posicao;
+    }
+
+    /**
+     * Anexa a abertura ao journal e só então torna a conta visível, sob a trava do número: nenhuma
+     * operação na conta chega ao journal antes da abertura, e um número já usado não chega a ele.
+     * @return A posição do journal após a abertura, 0 sem journal, ou {@link #NUMERO_OCUPADO}.
+     */
+    private long incluirConta(Conta conta) {
+        ReentrantLock trava = travasInclusao[conta.getNumero() & (TRAVAS_INCLUSAO - 1)];
+        trava.lock();
+        try {
+            if (this.contas.containsKey(conta.getNumero())) {
+                return NUMERO_OCUPADO;
+            }
+            long posicao = 0;
+            if (journal != null) {
+                posicao = journal.anexarAbertura(conta.getNumero(), conta.getAgencia(), conta.getSaldo(),
+                        conta.getTitular().getNome(), conta.getTitular().getCpf());
+            }
+            indexarConta(conta);
+            return posicao;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Inclui a conta nos índices por número e a vincula aos agregados, numa mesma alteração: um corte
+     * dos saldos ou já a vê nos índices, ou não a inclui.
+     */
+    private void indexarConta(Conta conta) {
+        long epoca = agregados.iniciarAlteracao();
+        try {
+            this.contas.put(conta.getNumero(), conta);
+            this.contasOrdenadas.put(conta.getNumero(), conta);
+            conta.vincular(agregados, epoca);
+        } finally {
+            agregados.concluirAlteracao(epoca);
+        }
+    }
+
+    /**
+     * Aguarda a durabilidade do journal até a posição informada (nada faz sem journal ou com posição 0).
+     */
+    void aguardarJournal(long posicao) {
+        if (journal != null && posicao > 0) {
+            journal.aguardar(posicao);
+        }
+    }
+
+    /**
+     * Carrega uma conta já existente (vinda, por exemplo, da planilha) preservando o seu número.
+     * A conta é registrada no journal sem esperar pelo fsync; ao final da carga, chame
+     * {@link #concluirCarga()}. Os ouvintes são avisados por {@link OuvinteOperacoes#contaCarregada}.
+     * @param conta A conta a ser carregada.
+     * @return {@code false} se já existir uma conta com o mesmo número.
+     */
+    public boolean carregarConta(Conta conta) {
+        if (incluirConta(conta) == NUMERO_OCUPADO) {
+            return false;
+        }
+        indiceClientes.incluir(conta);
+        for (OuvinteOperacoes ouvinte : ouvintes) {
+            ouvinte.contaCarregada(conta);
+        }
+        return true;
+    }
+
+    /**
+     * Garante que as contas carregadas por {@link #carregarConta} estejam gravadas no disco.
+     */
+    public void concluirCarga() {
+        if (journal != null) {
+            journal.sincronizar();
+        }
     }
 
     /**
@@ -44,24 +285,532 @@ public class Banco {
      * @return Um Optional contendo a conta se encontrada, ou vazio caso contrário.
      */
     public Optional<Conta> buscarConta(int numero) {
-        // Usa a Stream API para uma busca mais eficiente e declarativa.
-        return this.contas.stream()
-                .filter(conta -> conta.getNumero() == numero)
-                .findFirst();
+        // Acesso direto pelo índice, sem percorrer as demais contas.
+        return Optional.ofNullable(this.contas.get(numero));
+    }
+
+    /**
+     * Deposita um valor na conta e registra a operação no journal.
+     * @param conta Conta que recebe o depósito.
+     * @param valor Valor em centavos.
+     * @throws ArithmeticException Se o novo saldo estourar o limite de um {@code long}.
+     */
+    public void depositar(Conta conta, long valor) {
+        long[] saldos = new long[3];
+        StatusOperacao status = aplicar(OperacaoLote.deposito(conta.getNumero(), valor), conta, null, saldos);
+        if (status == StatusOperacao.VALOR_INVALIDO) return;
+        if (status == StatusOperacao.LIMITE_EXCEDIDO) throw new ArithmeticException("long overflow");
+        aguardarJournal(saldos[2]);
+        for (OuvinteOperacoes ouvinte : ouvintes) {
+            ouvinte.deposito(conta, valor, saldos[0]);
+        }
+    }
+
+    /**
+     * Saca um valor da conta e registra a operação no journal.
+     * @param conta Conta de onde o valor sai.
+     * @param valor Valor em centavos.
+     * @throws SaldoInsuficienteException Se o saldo for menor que o valor.
+     */
+    public void sacar(Conta conta, long valor) throws SaldoInsuficienteException {
+        long[] saldos = new long[3];
+        StatusOperacao status = aplicar(OperacaoLote.saque(conta.getNumero(), valor), conta, null, saldos);
+        if (status == StatusOperacao.VALOR_INVALIDO) return;
+        if (status == StatusOperacao.SALDO_INSUFICIENTE) throw conta.saldoInsuficiente(valor);
+        aguardarJournal(saldos[2]);
+        for (OuvinteOperacoes ouvinte : ouvintes) {
+            ouvinte.saque(conta, valor, saldos[0]);
+        }
+    }
+
+    /**
+     * Transfere um valor entre duas contas e registra a operação no journal.
+     * @param origem Conta de onde o valor sai.
+     * @param destino Conta que recebe o valor.
+     * @param valor Valor em centavos.
+     * @throws SaldoInsuficienteException Se o saldo da origem for menor que o valor.
+     * @throws ArithmeticException Se o saldo do destino estourar o limite de um {@code long}.
+     */
+    public void transferir(Conta origem, Conta destino, long valor) throws SaldoInsuficienteException {
+        long[] saldos = new long[3];
+        StatusOperacao status = aplicar(OperacaoLote.transferencia(origem.getNumero(), destino.getNumero(), valor),
+                origem, destino, saldos);
+        switch (status) {
+            case VALOR_INVALIDO -> {
+                return;
+            }
+            case SALDO_INSUFICIENTE -> throw origem.saldoInsuficiente(valor);
+            case LIMITE_EXCEDIDO -> throw new ArithmeticException("long overflow");
+            default -> {
+            }
+        }
+        aguardarJournal(saldos[2]);
+        for (OuvinteOperacoes ouvinte : ouvintes) {
+            ouvinte.transferencia(origem, destino, valor, saldos[0], saldos[1]);
+        }
     }
 
     /**
-     * Retorna a lista completa de contas do banco.
+     * Executa um depósito, saque ou transferência sem lançar exceções: valores inválidos, contas
+     * inexistentes e saldo insuficiente são devolvidos como status, sem montar mensagens. Uma operação
+     * aplicada já está durável no journal no retorno, como em {@link #depositar}.
+     * @param operacao A operação, com as contas pelo número.
+     * @return O status da operação.
+     */
+    public StatusOperacao executar(OperacaoLote operacao) {
+        if (operacao == null || operacao.tipo() == null) return StatusOperacao.OPERACAO_INVALIDA;
+        if (operacao.valor() <= 0) return StatusOperacao.VALOR_INVALIDO;
+        Conta origem = this.contas.get(operacao.conta());
+        if (origem == null) return StatusOperacao.CONTA_INEXISTENTE;
+        Conta destino = null;
+        if (operacao.tipo() == OperacaoLote.Tipo.TRANSFERENCIA) {
+            if (operacao.destino() == null) return StatusOperacao.OPERACAO_INVALIDA;
+            destino = this.contas.get(operacao.destino());
+            if (destino == null) return StatusOperacao.CONTA_INEXISTENTE;
+        }
+        long[] saldos = new long[3];
+        StatusOperacao status = aplicar(operacao, origem, destino, saldos);
+        if (status == StatusOperacao.APLICADA) {
+            // Os ouvintes só veem a operação depois de ela estar no disco, como em depositar.
+            aguardarJournal(saldos[2]);
+            avisarOperacao(operacao, origem, destino, saldos[0], saldos[1]);
+        }
+        return status;
+    }
+
+    /**
+     * Executa um lote de depósitos, saques e transferências, resolvendo cada conta uma única vez.
+     * <p>
+     * Os registros do lote são anexados ao journal sem esperar pelo fsync, e o método aguarda a
+     * durabilidade uma única vez ao final, em vez de uma vez por operação. Os ouvintes são avisados
+     * das operações aplicadas só depois disso, na ordem do lote.
+     * <ul>
+     *   <li>{@link ModoLote#MELHOR_ESFORCO}: cada operação é aplicada ou rejeitada sozinha, na ordem do lote.
+     *   Com {@code paralelo}, operações sem contas em comum (direta ou indiretamente, via transferências)
+     *   são processadas em paralelo; a ordem entre operações de uma mesma conta é sempre preservada.</li>
+     *   <li>{@link ModoLote#TUDO_OU_NADA}: todas as contas envolvidas são travadas, o lote é validado sobre
+     *   os saldos projetados e só então aplicado; se alguma operação falhar, nenhum saldo muda.
+     *   O {@code paralelo} é ignorado.</li>
+     * </ul>
+     * @param operacoes Operações, na ordem em que devem ser aplicadas.
+     * @param modo Comportamento diante de operações rejeitadas.
+     * @param paralelo Se grupos de contas independentes podem ser processados em paralelo.
+     * @return O status de cada operação.
+     */
+    public ResultadoLote executarLote(List<OperacaoLote> operacoes, ModoLote modo, boolean paralelo) {
+        int quantidade = operacoes.size();
+        StatusOperacao[] status = new StatusOperacao[quantidade];
+        Conta[] origens = new Conta[quantidade];
+        Conta[] destinos = new Conta[quantidade];
+
+        // Resolve as contas do lote uma única vez; operações inválidas já recebem o seu status aqui.
+        Map<Integer, Conta> resolvidas = new HashMap<>();
+        for (int i = 0; i < quantidade; i++) {
+            status[i] = resolver(operacoes.get(i), resolvidas, origens, destinos, i);
+        }
+
+        // Saldos de cada operação aplicada, para avisar os ouvintes depois do fsync.
+        long[] saldosOrigem = new long[quantidade];
+        long[] saldosDestino = new long[quantidade];
+        long posicao;
+        if (modo == ModoLote.TUDO_OU_NADA) {
+            posicao = executarTudoOuNada(operacoes, origens, destinos, status, resolvidas.values(),
+                    saldosOrigem, saldosDestino);
+        } else if (paralelo) {
+            posicao = executarParalelo(operacoes, origens, destinos, status, saldosOrigem, saldosDestino);
+        } else {
+            posicao = executarEmOrdem(operacoes, origens, destinos, status, null, saldosOrigem, saldosDestino);
+        }
+        aguardarJournal(posicao);
+        for (int i = 0; i < quantidade; i++) {
+            if (status[i] == StatusOperacao.APLICADA) {
+                avisarOperacao(operacoes.get(i), origens[i], destinos[i], saldosOrigem[i], saldosDestino[i]);
+            }
+        }
+        return ResultadoLote.de(status);
+    }
+
+    /**
+     * Valida a operação e resolve as suas contas.
+     * @return O status de rejeição, ou {@code null} se a operação puder ser tentada.
+     */
+    private StatusOperacao resolver(OperacaoLote operacao, Map<Integer, Conta> resolvidas,
+                                    Conta[] origens, Conta[] destinos, int i) {
+        if (operacao == null || operacao.tipo() == null) return StatusOperacao.OPERACAO_INVALIDA;
+        if (operacao.valor() <= 0) return StatusOperacao.VALOR_INVALIDO;
+        origens[i] = resolvidas.computeIfAbsent(operacao.conta(), contas::get);
+        if (origens[i] == null) return StatusOperacao.CONTA_INEXISTENTE;
+        if (operacao.tipo() == OperacaoLote.Tipo.TRANSFERENCIA) {
+            if (operacao.destino() == null) return StatusOperacao.OPERACAO_INVALIDA;
+            destinos[i] = resolvidas.computeIfAbsent(operacao.destino(), contas::get);
+            if (destinos[i] == null) return StatusOperacao.CONTA_INEXISTENTE;
+        }
+        return null;
+    }
+
+    /**
+     * Aplica, em ordem, as operações indicadas (ou todas, se {@code indices} for nulo) que ainda não têm status,
+     * guardando os saldos de cada operação aplicada na sua posição de {@code saldosOrigem} e {@code saldosDestino}.
+     * @return A maior posição do journal escrita, ou 0.
+     */
+    private long executarEmOrdem(List<OperacaoLote> operacoes, Conta[] origens, Conta[] destinos,
+                                 StatusOperacao[] status, List<Integer> indices, long[] saldosOrigem,
+                                 long[] saldosDestino) {
+        long posicao = 0;
+        long[] saldos = new long[3];
+        int total = indices == null ? operacoes.size() : indices.size();
+        for (int k = 0; k < total; k++) {
+            int i = indices == null ? k : indices.get(k);
+            if (status[i] != null) continue;
+            OperacaoLote operacao = operacoes.get(i);
+            status[i] = aplicar(operacao, origens[i], destinos[i], saldos);
+            if (status[i] == StatusOperacao.APLICADA) {
+                posicao = Math.max(posicao, saldos[2]);
+                saldosOrigem[i] = saldos[0];
+                saldosDestino[i] = saldos[1];
+            }
+        }
+        return posicao;
+    }
+
+    /**
+     * Aplica nas contas uma operação já resolvida e, se ela for aplicada, anexa o seu registro ao journal
+     * ainda com as travas das contas, sem esperar pelo fsync nem avisar os ouvintes (veja
+     * {@link #avisarOperacao}). Assim o journal registra cada conta na ordem em que ela foi alterada: um
+     * saque que só passou por causa de um depósito concorrente nunca fica durável antes do depósito.
+     * Uma recusa por saldo insuficiente é avisada.
+     * @param saldos Recebe os saldos gravados pela operação (o da origem na posição 0 e o do destino na 1)
+     *               e, na posição 2, a posição do journal após o registro (0 sem journal ou se não foi aplicada).
+     * @return O status da operação.
+     */
+    StatusOperacao aplicar(OperacaoLote operacao, Conta origem, @Nullable Conta destino, long[] saldos) {
+        saldos[2] = 0;
+        StatusOperacao status;
+        if (journal == null) {
+            status = aplicarNasContas(operacao, origem, destino, saldos);
+        } else {
+            status = Conta.comTravas(origem, destino, () -> {
+                StatusOperacao aplicada = aplicarNasContas(operacao, origem, destino, saldos);
+                if (aplicada == StatusOperacao.APLICADA) {
+                    saldos[2] = escreverOperacao(operacao, origem, destino);
+                }
+                return aplicada;
+            });
+        }
+        if (status == StatusOperacao.SALDO_INSUFICIENTE) {
+            avisarSaldoInsuficiente(origem, operacao.valor());
+        }
+        return status;
+    }
+
+    private static StatusOperacao aplicarNasContas(OperacaoLote operacao, Conta origem, @Nullable Conta destino,
+                                                   long[] saldos) {
+        return switch (operacao.tipo()) {
+            case DEPOSITO -> origem.tentarDepositar(operacao.valor(), saldos);
+            case SAQUE -> origem.tentarSacar(operacao.valor(), saldos);
+            case TRANSFERENCIA -> origem.tentarTransferir(operacao.valor(), destino, saldos);
+        };
+    }
+
+    /**
+     * Separa as operações em grupos de contas conectadas (uma transferência une as suas duas contas)
+     * e processa cada grupo, em ordem, em paralelo com os demais.
+     */
+    private long executarParalelo(List<OperacaoLote> operacoes, Conta[] origens, Conta[] destinos,
+                                  StatusOperacao[] status, long[] saldosOrigem, long[] saldosDestino) {
+        Map<Integer, Integer> representantes = new HashMap<>();
+        for (int i = 0; i < status.length; i++) {
+            if (status[i] == null && destinos[i] != null) {
+                unir(representantes, origens[i].getNumero(), destinos[i].getNumero());
+            }
+        }
+        Map<Integer, List<Integer>> grupos = new LinkedHashMap<>();
+        for (int i = 0; i < status.length; i++) {
+            if (status[i] == null) {
+                int grupo = representante(representantes, origens[i].getNumero());
+                grupos.computeIfAbsent(grupo, g -> new ArrayList<>()).add(i);
+            }
+        }
+        return grupos.values().parallelStream()
+                .mapToLong(indices -> executarEmOrdem(operacoes, origens, destinos, status, indices, saldosOrigem,
+                        saldosDestino))
+                .max()
+                .orElse(0);
+    }
+
+    private static int representante(Map<Integer, Integer> representantes, int numero) {
+        int raiz = numero;
+        for (Integer pai = representantes.get(raiz); pai != null; pai = representantes.get(raiz)) {
+            raiz = pai;
+        }
+        // Encurta o caminho: todos os números percorridos passam a apontar direto para a raiz.
+        while (numero != raiz) {
+            int proximo = representantes.put(numero, raiz);
+            numero = proximo;
+        }
+        return raiz;
+    }
+
+    private static void unir(Map<Integer, Integer> representantes, int a, int b) {
+        int raizA = representante(representantes, a);
+        int raizB = representante(representantes, b);
+        if (raizA != raizB) {
+            representantes.put(raizA, raizB);
+        }
+    }
+
+    /**
+     * Valida o lote inteiro sobre os saldos projetados, com as travas de todas as contas envolvidas,
+     * e só então grava os saldos finais. Se alguma operação falhar, nenhum saldo é alterado.
+     */
+    private long executarTudoOuNada(List<OperacaoLote> operacoes, Conta[] origens, Conta[] destinos,
+                                    StatusOperacao[] status, Collection<Conta> envolvidas, long[] saldosOrigem,
+                                    long[] saldosDestino) {
+        for (StatusOperacao s : status) {
+            if (s != null) {
+                marcarNaoExecutadas(status);
+                return 0;
+            }
+        }
+
+        long[] posicao = new long[1];
+        boolean aplicado = Conta.comTravas(envolvidas, () -> {
+            Map<Conta, Long> saldos = new IdentityHashMap<>();
+            for (int i = 0; i < status.length; i++) {
+                OperacaoLote operacao = operacoes.get(i);
+                Conta origem = origens[i];
+                long saldoOrigem = saldos.getOrDefault(origem, origem.getSaldo());
+                try {
+                    switch (operacao.tipo()) {
+                        case DEPOSITO -> saldos.put(origem, Dinheiro.somar(saldoOrigem, operacao.valor()));
+                        case SAQUE, TRANSFERENCIA -> {
+                            if (saldoOrigem < operacao.valor()) {
+                                status[i] = StatusOperacao.SALDO_INSUFICIENTE;
+                                return false;
+                            }
+                            Conta destino = destinos[i];
+                            if (destino != null && destino != origem) {
+                                long saldoDestino = saldos.getOrDefault(destino, destino.getSaldo());
+                                saldos.put(destino, Dinheiro.somar(saldoDestino, operacao.valor()));
+                                saldos.put(origem, saldoOrigem - operacao.valor());
+                            } else if (destino == null) {
+                                saldos.put(origem, saldoOrigem - operacao.valor());
+                            }
+                        }
+                    }
+                } catch (ArithmeticException e) {
+                    status[i] = StatusOperacao.LIMITE_EXCEDIDO;
+                    return false;
+                }
+                saldosOrigem[i] = saldos.getOrDefault(origem, origem.getSaldo());
+                Conta destino = destinos[i];
+                if (destino != null) saldosDestino[i] = saldos.getOrDefault(destino, destino.getSaldo());
+            }
+            // As travas são reentrantes, então os saldos finais podem ser gravados aqui mesmo.
+            Conta.definirSaldos(saldos);
+            // O journal também recebe o lote antes de as contas serem liberadas (veja aplicar).
+            for (int i = 0; i < status.length; i++) {
+                posicao[0] = Math.max(posicao[0], escreverOperacao(operacoes.get(i), origens[i], destinos[i]));
+            }
+            return true;
+        });
+
+        if (!aplicado) {
+            for (int i = 0; i < status.length; i++) {
+                if (status[i] == StatusOperacao.SALDO_INSUFICIENTE) {
+                    avisarSaldoInsuficiente(origens[i], operacoes.get(i).valor());
+                }
+            }
+            marcarNaoExecutadas(status);
+            return 0;
+        }
+        Arrays.fill(status, StatusOperacao.APLICADA);
+        return posicao[0];
+    }
+
+    private static void marcarNaoExecutadas(StatusOperacao[] status) {
+        for (int i = 0; i < status.length; i++) {
+            if (status[i] == null) status[i] = StatusOperacao.NAO_EXECUTADA;
+        }
+    }
+
+    /**
+     * Inicia uma alteração de saldos que outra thread conclui, para as duas fases de uma transferência
+     * entre {@link Particoes}: um corte dos saldos espera a conclusão e vê a transferência inteira ou não a vê.
+     * @return A época da alteração, para {@link Conta#tentarSacar(long, long)} e {@link Conta#tentarDepositar(long, long)}.
+     */
+    long iniciarAlteracaoCompartilhada() {
+        return agregados.iniciarAlteracaoCompartilhada();
+    }
+
+    /**
+     * Conclui a alteração iniciada por {@link #iniciarAlteracaoCompartilhada()}.
+     */
+    void concluirAlteracaoCompartilhada(long epoca) {
+        agregados.concluirAlteracaoCompartilhada(epoca);
+    }
+
+    void avisarSaldoInsuficiente(Conta conta, long valor) {
+        for (OuvinteOperacoes ouvinte : ouvintes) {
+            ouvinte.saldoInsuficiente(conta, valor);
+        }
+    }
+
+    /**
+     * Anexa ao journal, sem esperar pelo fsync nem avisar os ouvintes, uma operação já aplicada. Usado
+     * quando as contas não podem ficar travadas até o registro, como na segunda fase de uma
+     * transferência entre {@link Particoes}; nos demais casos, {@link #aplicar} já anexa o registro.
+     * Depois do fsync, quem chamou avisa os ouvintes com {@link #avisarOperacao}.
+     * @return A posição do journal após o registro, ou 0 sem journal.
+     */
+    long anexarOperacao(OperacaoLote operacao, Conta origem, @Nullable Conta destino) {
+        return escreverOperacao(operacao, origem, destino);
+    }
+
+    /**
+     * Anexa ao journal, sem esperar pelo fsync, o registro de uma operação aplicada.
+     * @return A posição do journal após o registro, ou 0 sem journal.
+     */
+    private long escreverOperacao(OperacaoLote operacao, Conta origem, @Nullable Conta destino) {
+        if (journal == null) return 0;
+        return switch (operacao.tipo()) {
+            case DEPOSITO -> journal.anexarDeposito(origem.getNumero(), operacao.valor());
+            case SAQUE -> journal.anexarSaque(origem.getNumero(), operacao.valor());
+            case TRANSFERENCIA -> journal.anexarTransferencia(origem.getNumero(), destino.getNumero(), operacao.valor());
+        };
+    }
+
+    /**
+     * Avisa os ouvintes de uma operação aplicada.
+     * @param saldoOrigem Saldo em que a operação deixou a origem, lido sob a trava ao aplicá-la.
+     * @param saldoDestino Saldo em que a transferência deixou o destino (ignorado nas demais operações).
+     */
+    void avisarOperacao(OperacaoLote operacao, Conta origem, @Nullable Conta destino, long saldoOrigem,
+                        long saldoDestino) {
+        long valor = operacao.valor();
+        switch (operacao.tipo()) {
+            case DEPOSITO -> {
+                for (OuvinteOperacoes ouvinte : ouvintes) ouvinte.deposito(origem, valor, saldoOrigem);
+            }
+            case SAQUE -> {
+                for (OuvinteOperacoes ouvinte : ouvintes) ouvinte.saque(origem, valor, saldoOrigem);
+            }
+            case TRANSFERENCIA -> {
+                for (OuvinteOperacoes ouvinte : ouvintes) {
+                    ouvinte.transferencia(origem, destino, valor, saldoOrigem, saldoDestino);
+                }
+            }
+        }
+    }
+
+    /**
+     * Anexa ao journal, sem esperar pelo fsync nem avisar os ouvintes, um lançamento de lote já aplicado
+     * por {@link Conta#tentarLancar}. Deve ser chamado ainda com a trava da conta, pelo mesmo motivo de
+     * {@link #aplicar}: um saque que só passou por causa do lançamento não pode ir antes dele para o journal.
+     * @param valor Valor em centavos: positivo credita, negativo debita.
+     * @param lote Identificador do lote, gravado junto do lançamento.
+     * @return A posição do journal após o registro, ou 0 sem journal.
+     */
+    long anexarLancamento(Conta conta, long valor, long lote) {
+        return journal != null ? journal.anexarLancamento(conta.getNumero(), valor, lote) : 0;
+    }
+
+    /**
+     * Avisa os ouvintes de um lançamento de lote como um depósito (crédito) ou saque (débito).
+     * @param valor Valor em centavos: positivo credita, negativo debita.
+     * @param saldo Saldo em que o lançamento deixou a conta, lido sob a trava ao aplicá-lo.
+     */
+    void avisarLancamento(Conta conta, long valor, long saldo) {
+        for (OuvinteOperacoes ouvinte : ouvintes) {
+            if (valor > 0) {
+                ouvinte.deposito(conta, valor, saldo);
+            } else {
+                ouvinte.saque(conta, -valor, saldo);
+            }
+        }
+    }
+
+    /**
+     * Retorna a quantidade de contas cadastradas.
+     * @return O total de contas.
+     */
+    public int getQuantidadeContas() {
+        return this.contas.size();
+    }
+
+    /**
+     * Retorna uma cópia estável da lista de contas do banco, ordenada pelo número da conta.
+     * Alterações posteriores no banco não afetam a lista devolvida.
      * @return A lista de contas.
      */
     public List<Conta> getContas() {
-        return this.contas;
+        return new ArrayList<>(this.contasOrdenadas.values());
+    }
+
+    /**
+     * Retorna uma visão, em ordem crescente de número, das contas com número maior que {@code numero}.
+     * A visão não copia as contas: é percorrida sob demanda e reflete inclusões feitas durante o percurso.
+     * @param numero Cursor exclusivo; use {@code null} para começar da primeira conta.
+     * @return As contas após o cursor.
+     */
+    public Collection<Conta> contasApos(@Nullable Integer numero) {
+        return numero == null ? this.contasOrdenadas.values() : this.contasOrdenadas.tailMap(numero, false).values();
+    }
+
+    /**
+     * Busca as contas de um CPF, com ou sem pontuação.
+     * @param cpf O CPF.
+     * @return As contas do CPF, em ordem de abertura (vazia se não houver).
+     */
+    public List<Conta> buscarPorCpf(String cpf) {
+        return indiceClientes.buscarPorCpf(cpf);
+    }
+
+    /**
+     * Retorna uma visão, em ordem de nome e número, das contas cujo titular tem o nome começando pelo
+     * prefixo, sem diferenciar maiúsculas e acentos. Como {@link #contasApos}, não copia as contas.
+     * @param prefixo Início do nome.
+     * @param numero Número da última conta da página anterior (exclusivo), ou {@code null}.
+     * @return As contas encontradas após o cursor.
+     */
+    public Collection<Conta> buscarPorNome(String prefixo, @Nullable Integer numero) {
+        Conta apos = numero == null ? null : contas.get(numero);
+        return indiceClientes.buscarPorNome(prefixo, apos);
+    }
+
+    /**
+     * Agregados correntes dos saldos (soma, quantidade de contas e contas por faixa de saldo), lidos
+     * sem percorrer as contas.
+     */
+    public AgregadosSaldos.Resumo resumirSaldos() {
+        return agregados.resumir();
+    }
+
+    /**
+     * Corte consistente dos saldos de todas as contas, varridas em paralelo sem travar as operações.
+     * @param maiores Quantidade de maiores saldos a incluir (0 a {@value AgregadosSaldos#MAIORES_MAXIMO}).
+     * @return Os totais e os maiores saldos no corte.
+     * @throws IllegalArgumentException Se {@code maiores} estiver fora do intervalo.
+     */
+    public AgregadosSaldos.Corte cortarSaldos(int maiores) {
+        return agregados.cortar(contasOrdenadas.values(), maiores);
+    }
+
+    /**
+     * Percorre todas as contas, em ordem de número, com os saldos de um corte consistente; as operações
+     * continuam durante o percurso.
+     * @param leitor Recebe cada conta com o saldo no corte.
+     * @return A época do corte.
+     */
+    public long percorrerCorte(AgregadosSaldos.LeitorCorte leitor) throws IOException {
+        return agregados.percorrerCorte(contasOrdenadas.values(), leitor);
     }
 
     /**
      * Imprime no console um relatório com as informações de todas as contas cadastradas.
      */
     public void listarContas() {
+        List<Conta> contas = getContas();
         if (contas.isEmpty()) {
             System.out.println("Nenhuma conta cadastrada no banco.");
             return;
@@ -69,9 +818,143 @@ public class Banco {
         System.out.println("\n=== Lista de Contas do Banco " + this.nome + " ===");
         for (Conta conta : contas) {
             // Imprime os detalhes formatados de cada conta.
-            System.out.printf("Ag: %d | CC: %d | Titular: %s | Saldo: R$ %.2f%n",
-                    conta.getAgencia(), conta.getNumero(), conta.getTitular().getNome(), conta.getSaldo());
+            System.out.printf("Ag: %d | CC: %d | Titular: %s | Saldo: %s%n",
+                    conta.getAgencia(), conta.getNumero(), conta.getTitular().getNome(),
+                    Dinheiro.formatarReal(conta.getSaldo()));
         }
         System.out.println("=========================================");
     }
-}
\ No newline at end of file
+
+    /**
+     * Reconstrói as contas e saldos reproduzindo o journal.
+     * <p>
+     * O journal só contém operações que foram aceitas, então os movimentos são reaplicados
+     * diretamente no saldo, sem revalidar o saldo disponível. Como somas são comutativas,
+     * o saldo final não depende da ordem em que operações concorrentes foram registradas.
+     * Cada movimento reproduzido é entregue aos ouvintes por {@link OuvinteOperacoes#movimentoReproduzido},
+     * com o instante do seu registro. Os que um snapshot restaurado já inclui não são lidos aqui: os ouvintes
+     * recebem um {@link OuvinteOperacoes.HistoricoAnterior} para lê-los do journal sob demanda, conta a conta.
+     */
+    private void reconstruir(Journal journal, @Nullable Snapshots snapshots) {
+        Journal.Leitor leitor = new LeitorMovimentos() {
+            @Override
+            public void abertura(int numero, int agencia, long saldo, String nomeTitular, String cpf) {
+                Conta conta = new Conta(new Cliente(nomeTitular, cpf), numero, agencia, saldo);
+                contas.put(numero, conta);
+                contasOrdenadas.put(numero, conta);
+                indiceClientes.incluir(conta);
+            }
+
+            @Override
+            void movimento(int numero, long delta, int contraparte, long instante) {
+                reproduzir(numero, delta, contraparte, instante);
+            }
+        };
+
+        try {
+            long inicio = System.nanoTime();
+            Snapshots.Restauracao restauracao = snapshots != null ? snapshots.restaurar(leitor) : null;
+            if (restauracao != null) {
+                System.out.printf("Snapshot %s restaurado: %d contas e %d registros do journal em %d ms.%n",
+                        restauracao.arquivo().getFileName(), restauracao.contas(), restauracao.registrosJournal(),
+                        (System.nanoTime() - inicio) / 1_000_000);
+                OuvinteOperacoes.HistoricoAnterior historico = historicoAnterior(journal, restauracao.posicao());
+                for (OuvinteOperacoes ouvinte : ouvintes) {
+                    ouvinte.historicoAnterior(historico);
+                }
+            } else {
+                long registros = journal.reproduzir(leitor);
+                System.out.printf("Journal reproduzido: %d registros, %d contas restauradas.%n", registros, contas.size());
+            }
+            long epoca = agregados.iniciarAlteracao();
+            try {
+                for (Conta conta : contas.values()) {
+                    conta.vincular(agregados, epoca);
+                }
+            } finally {
+                agregados.concluirAlteracao(epoca);
+            }
+            for (Conta conta : contas.values()) {
+                for (OuvinteOperacoes ouvinte : ouvintes) {
+                    ouvinte.contaCarregada(conta);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao reproduzir o journal.", e);
+        }
+    }
+
+    /**
+     * Histórico até a posição do snapshot, lido do journal a cada chamada e filtrado pela conta. O saldo de
+     * cada movimento é acumulado a partir da abertura da conta, como na reprodução do journal inteiro.
+     */
+    private OuvinteOperacoes.HistoricoAnterior historicoAnterior(Journal journal, long posicao) {
+        return (numero, destino) -> {
+            Conta conta = contas.get(numero);
+            if (conta == null) return;
+            journal.reproduzirAte(new LeitorMovimentos() {
+                private long saldo;
+                private boolean aberta;
+
+                @Override
+                public void abertura(int numeroAberto, int agencia, long saldoInicial, String nomeTitular, String cpf) {
+                    if (numeroAberto != numero) return;
+                    saldo = saldoInicial;
+                    aberta = true;
+                }
+
+                @Override
+                void movimento(int numeroMovimento, long delta, int contraparte, long instante) {
+                    if (numeroMovimento != numero || !aberta) return;
+                    saldo = Dinheiro.somar(saldo, delta);
+                    destino.movimentoReproduzido(conta, delta, saldo, contraparte, instante);
+                }
+            }, posicao);
+        };
+    }
+
+    private void reproduzir(int numero, long delta, int contraparte, long instante) {
+        Conta conta = contas.get(numero);
+        if (conta == null) {
+            System.err.printf("Aviso: journal referencia a conta inexistente %d.%n", numero);
+            return;
+        }
+        long saldo = Dinheiro.somar(conta.getSaldo(), delta);
+        conta.setSaldo(saldo);
+        for (OuvinteOperacoes ouvinte : ouvintes) {
+            ouvinte.movimentoReproduzido(conta, delta, saldo, contraparte, instante);
+        }
+    }
+
+    /**
+     * Leitor do journal que entrega depósitos, saques e cada perna de transferência como um movimento
+     * com sinal, no instante do seu registro.
+     */
+    private abstract static class LeitorMovimentos implements Journal.Leitor {
+        private long instante;
+
+        @Override
+        public void inicioRegistro(long instante) {
+            this.instante = instante;
+        }
+
+        @Override
+        public void deposito(int numero, long valor) {
+            movimento(numero, valor, 0, instante);
+        }
+
+        @Override
+        public void saque(int numero, long valor) {
+            movimento(numero, -valor, 0, instante);
+        }
+
+        @Override
+        public void transferencia(int origem, int destino, long valor) {
+            if (origem == destino) return; // não altera o saldo
+            movimento(origem, -valor, destino, instante);
+            movimento(destino, valor, origem, instante);
+        }
+
+        abstract void movimento(int numero, long delta, int contraparte, long instante);
+    }
+}
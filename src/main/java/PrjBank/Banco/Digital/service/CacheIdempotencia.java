@@ -0,0 +1,221 @@
+// Define o pacote para os serviços da aplicação.
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.exception.ChaveIdempotenciaReutilizadaException;
+import PrjBank.Banco.Digital.exception.OperacaoNaoExecutadaException;
+import PrjBank.Banco.Digital.exception.ResultadoIndeterminadoException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * @Component: Guarda o resultado das operações feitas com um cabeçalho {@code Idempotency-Key},
+ * para que a repetição de uma requisição (por timeout no cliente ou no gateway) devolva a
+ * resposta original em vez de aplicar a operação de novo.
+ * <p>
+ * As chaves ficam divididas em segmentos, escolhidos pelo hash da chave, cada um com a sua
+ * própria trava e o seu {@link LinkedHashMap} em ordem de inserção; consulta e inserção são
+ * O(1) e só disputam a trava com chaves do mesmo segmento. Como todas as entradas têm o mesmo
+ * prazo de validade, a ordem de inserção é também a ordem de expiração: cada inserção remove do
+ * início do segmento as entradas vencidas e, se o segmento estiver cheio, a mais antiga. Assim a
+ * memória fica limitada a {@code capacidade} entradas, mais as operações ainda em andamento, que
+ * nunca são removidas, sem thread de limpeza.
+ * <p>
+ * A operação roda fora da trava. Requisições simultâneas com a mesma chave encontram a entrada
+ * em andamento e esperam pelo mesmo resultado, então a operação é executada uma única vez.
+ * <p>
+ * Uma falha só libera a chave para uma nova execução quando garante que nada foi aplicado
+ * ({@link OperacaoNaoExecutadaException}). Qualquer outra pode ter vindo depois de a operação alterar os
+ * saldos (um fsync do journal que falhou, por exemplo), então fica guardada como resultado da chave, e as
+ * repetições recebem {@link ResultadoIndeterminadoException} até ela vencer.
+ */
+@Component
+public class CacheIdempotencia {
+
+    private static final int SEGMENTOS = 64;
+
+    /**
+     * Resultado (ou resultado futuro) guardado para uma chave. {@code assinatura} descreve a
+     * operação, para recusar a mesma chave usada em outra operação.
+     */
+    private record Entrada(String assinatura, long expiraEm, CompletableFuture<Object> resultado) {
+    }
+
+    private static final class Segmento extends LinkedHashMap<String, Entrada> {
+    }
+
+    private final Segmento[] segmentos = new Segmento[SEGMENTOS];
+    private final int capacidadeSegmento;
+    private final long validadeMs;
+    private final LongSupplier relogio;
+
+    // Estatísticas.
+    private final LongAdder executadas = new LongAdder();
+    private final LongAdder repetidas = new LongAdder();
+    private final LongAdder removidas = new LongAdder();
+
+    /**
+     * Cria o cache a partir das propriedades da aplicação.
+     * @param capacidade Quantidade máxima de chaves guardadas.
+     * @param validadeMs Por quanto tempo o resultado de uma chave é guardado.
+     */
+    @Autowired
+    public CacheIdempotencia(@Value("${banco.idempotencia.capacidade:250000}") int capacidade,
+                             @Value("${banco.idempotencia.validade-ms:3600000}") long validadeMs) {
+        this(capacidade, validadeMs, System::currentTimeMillis);
+    }
+
+    /**
+     * Construtor com relógio configurável, usado nos testes.
+     */
+    CacheIdempotencia(int capacidade, long validadeMs, LongSupplier relogio) {
+        for (int i = 0; i < SEGMENTOS; i++) {
+            segmentos[i] = new Segmento();
+        }
+        this.capacidadeSegmento = Math.max(capacidade / SEGMENTOS, 1);
+        this.validadeMs = validadeMs;
+        this.relogio = relogio;
+    }
+
+    /**
+     * Executa a operação uma única vez por chave, devolvendo o resultado guardado nas repetições.
+     * Se a operação lançar uma {@link OperacaoNaoExecutadaException}, nada é guardado e a próxima
+     * requisição com a mesma chave executa de novo; qualquer outra exceção fica guardada (veja a classe).
+     * Repetições simultâneas recebem o mesmo desfecho da execução original, sem executar de novo.
+     *
+     * @param chave Valor do cabeçalho {@code Idempotency-Key}.
+     * @param assinatura Descrição da operação (tipo, contas e valor).
+     * @param operacao A operação a executar.
+     * @return O resultado da operação, novo ou guardado.
+     * @throws ChaveIdempotenciaReutilizadaException Se a chave já foi usada com outra assinatura.
+     * @throws ResultadoIndeterminadoException Se a execução original da chave falhou e pode ter aplicado a operação.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T executar(String chave, String assinatura, Supplier<T> operacao) {
+        Segmento segmento = segmentos[indice(chave)];
+        CompletableFuture<Object> novo = new CompletableFuture<>();
+        Entrada existente;
+        long agora = relogio.getAsLong();
+        synchronized (segmento) {
+            existente = segmento.get(chave);
+            if (existente != null && existente.expiraEm() <= agora && existente.resultado().isDone()) {
+                segmento.remove(chave);
+                existente = null;
+            }
+            if (existente == null) {
+                segmento.put(chave, new Entrada(assinatura, agora + validadeMs, novo));
+                limpar(segmento, agora);
+            }
+        }
+
+        if (existente != null) {
+            if (!existente.assinatura().equals(assinatura)) {
+                throw new ChaveIdempotenciaReutilizadaException(chave);
+            }
+            repetidas.increment();
+            try {
+                return (T) existente.resultado().join();
+            } catch (CompletionException e) {
+                // A falha da execução original, já na forma que as repetições devem receber.
+                if (e.getCause() instanceof RuntimeException causa) throw causa;
+                throw e;
+            }
+        }
+
+        try {
+            T resultado = operacao.get();
+            executadas.increment();
+            novo.complete(resultado);
+            return resultado;
+        } catch (RuntimeException | Error e) {
+            if (naoExecutada(e)) {
+                synchronized (segmento) {
+                    Entrada atual = segmento.get(chave);
+                    if (atual != null && atual.resultado() == novo) {
+                        segmento.remove(chave);
+                    }
+                }
+                novo.completeExceptionally(e);
+            } else {
+                executadas.increment();
+                novo.completeExceptionally(new ResultadoIndeterminadoException(chave, e));
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Se a falha garante que a operação não foi aplicada; a exceção pode vir embrulhada pelo futuro de um executor.
+     */
+    private static boolean naoExecutada(Throwable erro) {
+        for (Throwable causa = erro; causa != null; causa = causa.getCause()) {
+            if (causa instanceof OperacaoNaoExecutadaException) return true;
+            if (!(causa instanceof CompletionException)) return false;
+        }
+        return false;
+    }
+
+    /**
+     * Quantidade de chaves guardadas no momento.
+     */
+    public int getTamanho() {
+        int tamanho = 0;
+        for (Segmento segmento : segmentos) {
+            synchronized (segmento) {
+                tamanho += segmento.size();
+            }
+        }
+        return tamanho;
+    }
+
+    /**
+     * Quantidade de operações executadas com uma chave nova.
+     */
+    public long getExecutadas() {
+        return executadas.sum();
+    }
+
+    /**
+     * Quantidade de requisições respondidas com um resultado já guardado (ou em andamento).
+     */
+    public long getRepetidas() {
+        return repetidas.sum();
+    }
+
+    /**
+     * Quantidade de chaves removidas por expiração ou por falta de espaço.
+     */
+    public long getRemovidas() {
+        return removidas.sum();
+    }
+
+    /**
+     * Remove do início do segmento as entradas vencidas e, acima da capacidade, as mais antigas.
+     * As operações em andamento ficam: sem a entrada, uma repetição executaria a operação de novo.
+     * Chamado com a trava do segmento.
+     */
+    private void limpar(Segmento segmento, long agora) {
+        Iterator<Entrada> entradas = segmento.values().iterator();
+        while (entradas.hasNext()) {
+            Entrada entrada = entradas.next();
+            if (entrada.expiraEm() > agora && segmento.size() <= capacidadeSegmento) break;
+            if (!entrada.resultado().isDone()) continue;
+            entradas.remove();
+            removidas.increment();
+        }
+    }
+
+    private static int indice(String chave) {
+        int hash = chave.hashCode();
+        return (hash ^ (hash >>> 16)) & (SEGMENTOS - 1);
+    }
+}
@@ -0,0 +1,71 @@
+// Define o pacote para os serviços da aplicação.
+package PrjBank.Banco.Digital.service;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @Component: Carrega as contas da planilha para o {@link Banco} durante a inicialização.
+ * <p>
+ * A carga roda antes de o servidor web começar a atender requisições e só acontece quando o
+ * banco ainda está vazio (ou seja, quando o journal não restaurou nenhuma conta). As linhas são
+ * lidas em páginas e cada conta vai direto para o banco, preservando o número original.
+ */
+@Component
+@ConditionalOnProperty(name = "banco.planilha.carga-inicial.ativa", havingValue = "true", matchIfMissing = true)
+public class CargaInicialPlanilha implements SmartInitializingSingleton {
+
+    private final Banco banco;
+    private final GoogleSheetsService sheets;
+    private final int tamanhoPagina;
+
+    public CargaInicialPlanilha(Banco banco, GoogleSheetsService sheets,
+                                @Value("${banco.planilha.carga-inicial.tamanho-pagina:5000}") int tamanhoPagina) {
+        this.banco = banco;
+        this.sheets = sheets;
+        this.tamanhoPagina = tamanhoPagina;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (banco.getQuantidadeContas() > 0) {
+            System.out.println("Carga inicial da planilha ignorada: o banco já foi restaurado pelo journal.");
+            return;
+        }
+        try {
+            carregar();
+        } catch (IOException | RuntimeException e) {
+            // Sem a planilha, a aplicação ainda sobe, apenas sem as contas pré-existentes.
+            System.err.println("Aviso: não foi possível carregar as contas da planilha: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lê a planilha e carrega as contas no banco.
+     * @return O resultado da leitura, já descontando as contas com número repetido.
+     */
+    public GoogleSheetsService.ResultadoLeitura carregar() throws IOException {
+        long inicio = System.nanoTime();
+        AtomicInteger repetidas = new AtomicInteger();
+        GoogleSheetsService.ResultadoLeitura resultado = sheets.lerContas(tamanhoPagina, conta -> {
+            if (!banco.carregarConta(conta)) {
+                repetidas.incrementAndGet();
+            }
+        });
+        banco.concluirCarga();
+
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        System.out.printf("Carga inicial da planilha: %d contas em %d ms, %d linhas rejeitadas, %d números repetidos.%n",
+                resultado.contas() - repetidas.get(), duracaoMs, resultado.rejeitadas(), repetidas.get());
+        for (String exemplo : resultado.exemplosRejeitados()) {
+            System.err.println("Aviso: " + exemplo);
+        }
+        return new GoogleSheetsService.ResultadoLeitura(resultado.contas() - repetidas.get(),
+                resultado.rejeitadas() + repetidas.get(), resultado.exemplosRejeitados());
+    }
+}
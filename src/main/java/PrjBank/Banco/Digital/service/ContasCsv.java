@@ -0,0 +1,540 @@
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.model.Dinheiro;
+import PrjBank.Banco.Digital.persistencia.Journal;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * @Service: Importação e exportação em massa das contas em arquivos CSV, para migrações e conciliação.
+ * <p>
+ * O arquivo usa as mesmas colunas da aba "Contas" da planilha — número, agência, saldo, titular e CPF —,
+ * em UTF-8, com o cabeçalho {@value #CABECALHO}. O saldo vai com ponto decimal ({@code 1234.56}) e os
+ * textos com vírgula, aspas ou quebra de linha vão entre aspas, com as aspas internas duplicadas.
+ * <ul>
+ *   <li>A importação mapeia o arquivo em memória e o divide em trechos terminados em fim de registro — uma
+ *   quebra de linha fora de aspas —, convertidos em paralelo e carregados direto no {@link Banco}, preservando
+ *   os números das contas. Registros inválidos são contados e alguns guardados como exemplo, com o número da
+ *   linha em que começam, sem interromper a importação.</li>
+ *   <li>A exportação grava um corte consistente dos saldos, em ordem de número, montando as linhas direto
+ *   em um buffer fora do heap, sem textos intermediários; o arquivo só aparece completo (renomeação atômica).</li>
+ * </ul>
+ */
+@Service
+public class ContasCsv {
+
+    public static final String CABECALHO = "numero,agencia,saldo,titular,cpf";
+    private static final int COLUNAS = 5;
+    private static final int MAXIMO_EXEMPLOS_REJEITADOS = 20;
+    private static final int TAMANHO_MAXIMO_EXEMPLO = 200;
+    // Trechos da importação: pequenos o bastante para dividir o trabalho, e abaixo do limite de 2 GiB de um mapeamento.
+    private static final long TAMANHO_MINIMO_TRECHO = 1 << 20;
+    private static final long TAMANHO_MAXIMO_TRECHO = 1 << 30;
+    private static final int TAMANHO_BUFFER_ESCRITA = 4 << 20;
+
+    private final Banco banco;
+
+    public ContasCsv(Banco banco) {
+        this.banco = banco;
+    }
+
+    /**
+     * Resultado de uma importação.
+     * @param contas Contas carregadas no banco.
+     * @param rejeitadas Linhas inválidas ignoradas.
+     * @param repetidas Linhas válidas ignoradas porque o banco já tinha uma conta com o mesmo número.
+     * @param exemplosRejeitados Algumas das linhas rejeitadas, com o número da linha e o motivo.
+     * @param duracaoMs Duração da importação, em milissegundos.
+     */
+    public record ResultadoImportacao(long contas, long rejeitadas, long repetidas,
+                                      List<String> exemplosRejeitados, long duracaoMs) {
+    }
+
+    /**
+     * Resultado de uma exportação.
+     * @param epoca Época do corte dos saldos exportados.
+     * @param contas Contas exportadas.
+     * @param bytes Tamanho do arquivo.
+     * @param duracaoMs Duração da exportação, em milissegundos.
+     */
+    public record ResultadoExportacao(long epoca, long contas, long bytes, long duracaoMs) {
+    }
+
+    /**
+     * Importa as contas do arquivo para o banco e aguarda que estejam gravadas no journal.
+     * @param arquivo Arquivo CSV, com ou sem cabeçalho.
+     * @return Totais de contas carregadas, linhas rejeitadas e números repetidos.
+     */
+    public ResultadoImportacao importar(Path arquivo) throws IOException {
+        long inicio = System.nanoTime();
+        List<Trecho> trechos;
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            trechos = dividir(canal);
+            List<Callable<Void>> tarefas = new ArrayList<>(trechos.size());
+            for (Trecho trecho : trechos) {
+                tarefas.add(() -> {
+                    trecho.importar(canal);
+                    return null;
+                });
+            }
+            for (Future<Void> tarefa : ForkJoinPool.commonPool().invokeAll(tarefas)) {
+                aguardar(tarefa);
+            }
+        }
+        banco.concluirCarga();
+
+        long contas = 0;
+        long rejeitadas = 0;
+        long repetidas = 0;
+        long linhasAnteriores = 0;
+        List<String> exemplos = new ArrayList<>();
+        for (Trecho trecho : trechos) {
+            contas += trecho.contas;
+            rejeitadas += trecho.rejeitadas;
+            repetidas += trecho.repetidas;
+            // Cada trecho numera as próprias linhas; o número no arquivo soma as linhas dos trechos anteriores.
+            for (Rejeicao rejeicao : trecho.exemplos) {
+                if (exemplos.size() < MAXIMO_EXEMPLOS_REJEITADOS) {
+                    exemplos.add("linha " + (linhasAnteriores + rejeicao.linha()) + ": " + rejeicao.motivo()
+                            + " [" + rejeicao.conteudo() + "]");
+                }
+            }
+            linhasAnteriores += trecho.linhas;
+        }
+        return new ResultadoImportacao(contas, rejeitadas, repetidas, exemplos,
+                (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Exporta todas as contas, com os saldos de um corte consistente, substituindo o arquivo se ele existir.
+     * As operações continuam durante a exportação.
+     * @param arquivo Arquivo CSV de destino.
+     * @return A época do corte, a quantidade de contas e o tamanho do arquivo.
+     */
+    public ResultadoExportacao exportar(Path arquivo) throws IOException {
+        long inicio = System.nanoTime();
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        Escritor escritor;
+        long epoca;
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            escritor = new Escritor(canal);
+            escritor.cabecalho();
+            epoca = banco.percorrerCorte(escritor::linha);
+            escritor.descarregar();
+            canal.force(true);
+        }
+        Files.move(temporario, arquivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return new ResultadoExportacao(epoca, escritor.contas, escritor.bytes,
+                (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private static <T> T aguardar(Future<T> tarefa) throws IOException {
+        try {
+            return tarefa.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Importação interrompida.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Divide o arquivo em trechos de tamanho parecido, cada um começando logo após um fim de registro.
+     * <p>
+     * Uma quebra de linha só termina o registro fora de aspas, e isso depende de quantas aspas vieram antes
+     * dela no arquivo. As aspas de cada parte são contadas em paralelo; a paridade acumulada diz se o início
+     * de cada parte cai dentro de um texto entre aspas, e a busca pelo fim de registro parte desse estado.
+     */
+    private List<Trecho> dividir(FileChannel canal) throws IOException {
+        long tamanho = canal.size();
+        int partes = (int) Math.min(4L * Runtime.getRuntime().availableProcessors(), tamanho / TAMANHO_MINIMO_TRECHO);
+        partes = (int) Math.max(Math.max(partes, 1), (tamanho + TAMANHO_MAXIMO_TRECHO - 1) / TAMANHO_MAXIMO_TRECHO);
+
+        List<Callable<Long>> contagens = new ArrayList<>(partes);
+        for (int parte = 0; parte < partes; parte++) {
+            long inicioParte = tamanho * parte / partes;
+            long fimParte = tamanho * (parte + 1) / partes;
+            contagens.add(() -> contarAspas(canal, inicioParte, fimParte));
+        }
+        List<Future<Long>> aspas = ForkJoinPool.commonPool().invokeAll(contagens);
+
+        List<Trecho> trechos = new ArrayList<>();
+        ByteBuffer leitura = ByteBuffer.allocate(8192);
+        long inicio = 0;
+        long aspasAntes = 0;
+        for (int parte = 1; parte <= partes && inicio < tamanho; parte++) {
+            aspasAntes += aguardar(aspas.get(parte - 1));
+            long fim = parte == partes ? tamanho
+                    : inicioDoRegistro(canal, leitura, tamanho * parte / partes, (aspasAntes & 1) == 1, tamanho);
+            // Um trecho pode acabar maior que o previsto se um registro for longo; nunca maior que o limite de um mapeamento.
+            if (fim - inicio > Integer.MAX_VALUE) {
+                throw new IOException("Registro com mais de 2 GiB a partir do byte " + inicio + ".");
+            }
+            if (fim > inicio) {
+                trechos.add(new Trecho(inicio, fim, trechos.isEmpty()));
+                inicio = fim;
+            }
+        }
+        return trechos;
+    }
+
+    private static long contarAspas(FileChannel canal, long inicio, long fim) throws IOException {
+        MappedByteBuffer conteudo = canal.map(FileChannel.MapMode.READ_ONLY, inicio, fim - inicio);
+        long aspas = 0;
+        for (int i = 0, limite = conteudo.limit(); i < limite; i++) {
+            if (conteudo.get(i) == '"') aspas++;
+        }
+        return aspas;
+    }
+
+    /**
+     * Posição do primeiro registro que começa em {@code posicao} ou depois dela.
+     * @param entreAspas Se há um número ímpar de aspas antes de {@code posicao}.
+     */
+    private static long inicioDoRegistro(FileChannel canal, ByteBuffer leitura, long posicao, boolean entreAspas,
+                                         long tamanho) throws IOException {
+        long atual = posicao - 1;
+        while (atual < tamanho) {
+            leitura.clear();
+            int lidos = canal.read(leitura, atual);
+            if (lidos <= 0) break;
+            for (int i = 0; i < lidos; i++) {
+                byte b = leitura.get(i);
+                // O byte anterior a posicao já foi contado em entreAspas.
+                if (b == '"' && atual + i >= posicao) entreAspas = !entreAspas;
+                else if (b == '\n' && !entreAspas) return atual + i + 1;
+            }
+            atual += lidos;
+        }
+        return tamanho;
+    }
+
+    /**
+     * Registro rejeitado, com o número da linha em que ele começa dentro do trecho.
+     */
+    private record Rejeicao(long linha, String motivo, String conteudo) {
+    }
+
+    /**
+     * Parte do arquivo convertida por uma única thread. Os totais só são lidos depois que todas terminam.
+     */
+    private final class Trecho {
+        private final long inicio;
+        private final long fim;
+        private final boolean primeiro;
+
+        long linhas;
+        long contas;
+        long rejeitadas;
+        long repetidas;
+        final List<Rejeicao> exemplos = new ArrayList<>();
+
+        // Posições de início e fim de cada coluna da linha atual, e se a coluna estava entre aspas.
+        private final int[] inicios = new int[COLUNAS];
+        private final int[] fins = new int[COLUNAS];
+        private final boolean[] aspas = new boolean[COLUNAS];
+
+        Trecho(long inicio, long fim, boolean primeiro) {
+            this.inicio = inicio;
+            this.fim = fim;
+            this.primeiro = primeiro;
+        }
+
+        void importar(FileChannel canal) throws IOException {
+            MappedByteBuffer conteudo = canal.map(FileChannel.MapMode.READ_ONLY, inicio, fim - inicio);
+            TextoAscii texto = new TextoAscii(conteudo);
+            int limite = conteudo.limit();
+            int linha = 0;
+            while (linha < limite) {
+                // O registro vai até a primeira quebra de linha fora de aspas; as de dentro fazem parte do texto.
+                int proxima = linha;
+                int quebras = 0;
+                boolean entreAspas = false;
+                for (; proxima < limite; proxima++) {
+                    byte b = conteudo.get(proxima);
+                    if (b == '"') {
+                        entreAspas = !entreAspas;
+                    } else if (b == '\n') {
+                        if (!entreAspas) break;
+                        quebras++;
+                    }
+                }
+                int fimLinha = proxima > linha && conteudo.get(proxima - 1) == '\r' ? proxima - 1 : proxima;
+                long primeiraLinha = linhas + 1;
+                linhas += 1 + quebras;
+                if (fimLinha > linha && !(primeiro && primeiraLinha == 1 && cabecalho(conteudo, linha, fimLinha))) {
+                    importarLinha(conteudo, texto, primeiraLinha, linha, fimLinha);
+                }
+                linha = proxima + 1;
+            }
+        }
+
+        private void importarLinha(ByteBuffer conteudo, TextoAscii texto, long numeroLinha, int inicioLinha, int fimLinha) {
+            String motivo = separarColunas(conteudo, inicioLinha, fimLinha);
+            int numero = -1;
+            int agencia = -1;
+            long saldo = Dinheiro.INVALIDO;
+            if (motivo == null) {
+                numero = GoogleSheetsService.lerInteiroPositivo(texto.trecho(inicios[0], fins[0]));
+                agencia = GoogleSheetsService.lerInteiroPositivo(texto.trecho(inicios[1], fins[1]));
+                saldo = Dinheiro.lerDecimal(texto.trecho(inicios[2], fins[2]));
+                if (numero < 0) motivo = "número inválido";
+                else if (agencia < 0) motivo = "agência inválida";
+                else if (saldo == Dinheiro.INVALIDO || saldo < 0) motivo = "saldo inválido";
+            }
+            if (motivo != null) {
+                rejeitar(conteudo, numeroLinha, inicioLinha, fimLinha, motivo);
+                return;
+            }
+            Cliente titular = new Cliente(coluna(conteudo, 3), coluna(conteudo, 4));
+            if (!Journal.cabeNoRegistro(titular.getNome()) || !Journal.cabeNoRegistro(titular.getCpf())) {
+                rejeitar(conteudo, numeroLinha, inicioLinha, fimLinha, "titular ou CPF longo demais");
+                return;
+            }
+            try {
+                if (banco.carregarConta(new Conta(titular, numero, agencia, saldo))) {
+                    contas++;
+                } else {
+                    repetidas++;
+                }
+            } catch (RuntimeException e) {
+                // Uma conta que o banco não aceita é rejeitada como as demais linhas, sem interromper a importação.
+                rejeitar(conteudo, numeroLinha, inicioLinha, fimLinha, "conta recusada: " + e.getMessage());
+            }
+        }
+
+        private void rejeitar(ByteBuffer conteudo, long numeroLinha, int inicioLinha, int fimLinha, String motivo) {
+            rejeitadas++;
+            if (exemplos.size() < MAXIMO_EXEMPLOS_REJEITADOS) {
+                String linha = decodificar(conteudo, inicioLinha, Math.min(fimLinha, inicioLinha + TAMANHO_MAXIMO_EXEMPLO));
+                exemplos.add(new Rejeicao(numeroLinha, motivo, linha));
+            }
+        }
+
+        /**
+         * Localiza as colunas da linha, respeitando as aspas.
+         * @return O motivo da rejeição, ou {@code null} se a linha tiver as cinco colunas.
+         */
+        private String separarColunas(ByteBuffer conteudo, int inicioLinha, int fimLinha) {
+            int posicao = inicioLinha;
+            for (int coluna = 0; coluna < COLUNAS; coluna++) {
+                if (posicao < fimLinha && conteudo.get(posicao) == '"') {
+                    int fechamento = posicao + 1;
+                    while (true) {
+                        while (fechamento < fimLinha && conteudo.get(fechamento) != '"') fechamento++;
+                        if (fechamento >= fimLinha) return "aspas sem fechamento";
+                        if (fechamento + 1 < fimLinha && conteudo.get(fechamento + 1) == '"') {
+                            fechamento += 2; // aspas duplicadas dentro do texto
+                        } else {
+                            break;
+                        }
+                    }
+                    inicios[coluna] = posicao + 1;
+                    fins[coluna] = fechamento;
+                    aspas[coluna] = true;
+                    posicao = fechamento + 1;
+                    if (posicao < fimLinha && conteudo.get(posicao) != ',') return "texto após as aspas";
+                } else {
+                    inicios[coluna] = posicao;
+                    while (posicao < fimLinha && conteudo.get(posicao) != ',') posicao++;
+                    fins[coluna] = posicao;
+                    aspas[coluna] = false;
+                }
+                if (coluna < COLUNAS - 1) {
+                    if (posicao >= fimLinha) return "colunas faltando";
+                    posicao++; // pula a vírgula
+                }
+            }
+            return posicao < fimLinha ? "colunas a mais" : null;
+        }
+
+        private String coluna(ByteBuffer conteudo, int coluna) {
+            String texto = decodificar(conteudo, inicios[coluna], fins[coluna]);
+            return aspas[coluna] ? texto.replace("\"\"", "\"") : texto;
+        }
+    }
+
+    private static boolean cabecalho(ByteBuffer conteudo, int inicio, int fim) {
+        return fim - inicio >= 6 && decodificar(conteudo, inicio, inicio + 6).equalsIgnoreCase("numero");
+    }
+
+    private static String decodificar(ByteBuffer conteudo, int inicio, int fim) {
+        byte[] bytes = new byte[fim - inicio];
+        conteudo.get(inicio, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Visão de um trecho do buffer como texto, um byte por caractere, para os conversores de números
+     * sem copiar os bytes. Bytes fora do ASCII viram caracteres que os conversores rejeitam.
+     */
+    private static final class TextoAscii implements CharSequence {
+        private final ByteBuffer conteudo;
+        private int inicio;
+        private int tamanho;
+
+        TextoAscii(ByteBuffer conteudo) {
+            this.conteudo = conteudo;
+        }
+
+        /**
+         * Reposiciona a visão; devolve a própria instância, que não deve ser guardada.
+         */
+        TextoAscii trecho(int inicio, int fim) {
+            this.inicio = inicio;
+            this.tamanho = fim - inicio;
+            return this;
+        }
+
+        @Override
+        public int length() {
+            return tamanho;
+        }
+
+        @Override
+        public char charAt(int indice) {
+            return (char) (conteudo.get(inicio + indice) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int inicio, int fim) {
+            return decodificar(conteudo, this.inicio + inicio, this.inicio + fim);
+        }
+
+        @Override
+        public String toString() {
+            return decodificar(conteudo, inicio, inicio + tamanho);
+        }
+    }
+
+    /**
+     * Monta as linhas da exportação em um buffer direto, gravado no canal quando enche.
+     */
+    private static final class Escritor {
+        private final FileChannel canal;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER_ESCRITA);
+        private final char[] numero = new char[24];
+
+        long contas;
+        long bytes;
+
+        Escritor(FileChannel canal) {
+            this.canal = canal;
+        }
+
+        void cabecalho() throws IOException {
+            escreverAscii(CABECALHO);
+            buffer.put((byte) '\n');
+        }
+
+        void linha(Conta conta, long saldo) throws IOException {
+            Cliente titular = conta.getTitular();
+            // Números e separadores cabem em 64 bytes; os textos garantem o próprio espaço.
+            if (buffer.remaining() < 64) descarregar();
+            escreverInteiro(conta.getNumero());
+            buffer.put((byte) ',');
+            escreverInteiro(conta.getAgencia());
+            buffer.put((byte) ',');
+            int tamanho = Dinheiro.formatarDecimal(saldo, numero);
+            for (int i = 0; i < tamanho; i++) {
+                buffer.put((byte) numero[i]);
+            }
+            buffer.put((byte) ',');
+            escreverTexto(titular.getNome());
+            garantir(1);
+            buffer.put((byte) ',');
+            escreverTexto(titular.getCpf());
+            garantir(1);
+            buffer.put((byte) '\n');
+            contas++;
+        }
+
+        private void escreverInteiro(int valor) {
+            int posicao = numero.length;
+            do {
+                numero[--posicao] = (char) ('0' + valor % 10);
+                valor /= 10;
+            } while (valor != 0);
+            for (int i = posicao; i < numero.length; i++) {
+                buffer.put((byte) numero[i]);
+            }
+        }
+
+        /**
+         * Escreve o texto em UTF-8, entre aspas se necessário. Textos ASCII sem caracteres especiais,
+         * o caso comum, vão direto para o buffer.
+         */
+        private void escreverTexto(String texto) throws IOException {
+            String valor = texto == null ? "" : texto;
+            boolean ascii = true;
+            boolean aspas = false;
+            for (int i = 0; i < valor.length(); i++) {
+                char c = valor.charAt(i);
+                ascii &= c < 0x80;
+                aspas |= c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (ascii && !aspas) {
+                escreverAscii(valor);
+                return;
+            }
+            byte[] codificado = (aspas ? '"' + valor.replace("\"", "\"\"") + '"' : valor).getBytes(StandardCharsets.UTF_8);
+            if (codificado.length > buffer.capacity()) {
+                descarregar();
+                gravar(ByteBuffer.wrap(codificado));
+                return;
+            }
+            garantir(codificado.length);
+            buffer.put(codificado);
+        }
+
+        private void escreverAscii(String texto) throws IOException {
+            if (texto.length() > buffer.capacity()) {
+                descarregar();
+                gravar(ByteBuffer.wrap(texto.getBytes(StandardCharsets.US_ASCII)));
+                return;
+            }
+            garantir(texto.length());
+            for (int i = 0; i < texto.length(); i++) {
+                buffer.put((byte) texto.charAt(i));
+            }
+        }
+
+        private void garantir(int espaco) throws IOException {
+            if (buffer.remaining() < espaco) descarregar();
+        }
+
+        void descarregar() throws IOException {
+            buffer.flip();
+            gravar(buffer);
+            buffer.clear();
+        }
+
+        private void gravar(ByteBuffer origem) throws IOException {
+            bytes += origem.remaining();
+            while (origem.hasRemaining()) {
+                canal.write(origem);
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+// Define o pacote para os serviços da aplicação.
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.model.StatusOperacao;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Executa depósitos, saques e transferências fora da thread da requisição.
+ * Implementado pelas {@link Particoes} e pelo {@link AnelComandos}.
+ */
+public interface ExecutorOperacoes {
+
+    /**
+     * Envia a operação para execução.
+     * @param operacao Depósito, saque ou transferência.
+     * @return O status da operação, concluído depois que ela está durável no journal.
+     */
+    CompletableFuture<StatusOperacao> executar(OperacaoLote operacao);
+}
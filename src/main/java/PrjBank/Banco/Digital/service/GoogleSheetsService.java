@@ -1,130 +1,308 @@
 // Define o pacote para os serviços da aplicação.
 package PrjBank.Banco.Digital.service;
 
-// Importações de bibliotecas do Google API, Spring e Java.
-import com.google.api.client.googleapis.auth.oauth2.GoogleCredential;
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
-import com.google.api.client.json.jackson2.JacksonFactory;
-import com.google.api.services.sheets.v4.Sheets;
-import com.google.api.services.sheets.v4.SheetsScopes;
-import com.google.api.services.sheets.v4.model.ValueRange;
+// Importações do Spring, dos modelos e de utilitários do Java.
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import PrjBank.Banco.Digital.model.Cliente;
 import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.model.Dinheiro;
 import java.io.IOException;
-import java.io.InputStream;
-import java.security.GeneralSecurityException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * @Service: Marca a classe como um serviço do Spring para gerenciar a lógica de negócio.
- * Este serviço é responsável pela comunicação com a API do Google Sheets.
+ * Este serviço é responsável por converter contas de/para linhas da planilha do Google Sheets.
+ * <p>
+ * Cada conta ocupa a linha {@code numero + 1} da aba "Contas" (a linha 1 é o cabeçalho), com as
+ * colunas número, agência, saldo, titular e CPF. Assim uma conta pode ser escrita ou ter o saldo
+ * atualizado diretamente, sem precisar procurar a sua linha.
+ * <p>
+ * Com {@code banco.threads.virtuais=true} (e Java 21), a leitura pede até {@code banco.planilha.leituras-simultaneas}
+ * páginas ao mesmo tempo, cada chamada em uma thread virtual: a espera pela API não ocupa threads de
+ * plataforma. As contas continuam sendo entregues em ordem, na thread que chamou a leitura. Sem threads
+ * virtuais, as páginas são lidas uma por vez.
  */
 @Service
 public class GoogleSheetsService {
 
-    // Constantes para configurar a conexão com a API.
-    private static final String APPLICATION_NAME = "Banco Digital GFT";
-    private static final JacksonFactory JSON_FACTORY = JacksonFactory.getDefaultInstance();
-    private static final String SPREADSHEET_RANGE = "Contas!A2:E"; // Aba "Contas", da célula A2 até a coluna E.
+    // Quantidade de linhas lidas por chamada à planilha.
+    public static final int TAMANHO_PAGINA_PADRAO = 5_000;
+    /**
+     * Última linha que a aba de contas pode ter: o Google Sheets limita a planilha a 10 milhões de células,
+     * e cada conta ocupa as cinco colunas de A a E.
+     */
+    public static final long LINHA_MAXIMA = 10_000_000 / 5;
+    private static final int MAXIMO_EXEMPLOS_REJEITADOS = 20;
 
-    // Injeta o ID da planilha do seu arquivo 'application.properties'.
-    @Value("${google.spreadsheet.id}")
-    private String SPREADSHEET_ID;
+    // Acesso à planilha (API real ou implementação em memória).
+    private final PlanilhaTransporte transporte;
+    // Cria o executor de cada leitura com páginas simultâneas, ou null para ler uma página por vez.
+    private final Supplier<ExecutorService> executorLeituras;
+    private final int leiturasSimultaneas;
 
-    // Objeto principal para interagir com a API do Google Sheets.
-    private Sheets sheetsService;
+    /**
+     * Construtor que recebe o transporte usado para falar com a planilha; as páginas são lidas uma por vez.
+     * @param transporte Implementação das chamadas à planilha.
+     */
+    public GoogleSheetsService(PlanilhaTransporte transporte) {
+        this(transporte, null, 1);
+    }
 
     /**
-     * Construtor que inicializa a conexão com a API do Google Sheets
-     * usando as credenciais do arquivo 'credentials.json'.
+     * Construtor usado pelo Spring.
+     * @param threadsVirtuais Se as páginas devem ser lidas em threads virtuais, quando disponíveis.
+     * @param leiturasSimultaneas Máximo de páginas pedidas ao mesmo tempo em threads virtuais.
      */
-    public GoogleSheetsService() {
-        try {
-            InputStream in = GoogleSheetsService.class.getResourceAsStream("/credentials.json");
-            GoogleCredential credential = GoogleCredential.fromStream(in)
-                    .createScoped(Collections.singleton(SheetsScopes.SPREADSHEETS));
-
-            sheetsService = new Sheets.Builder(GoogleNetHttpTransport.newTrustedTransport(), JSON_FACTORY, credential)
-                    .setApplicationName(APPLICATION_NAME)
-                    .build();
-        } catch (IOException | GeneralSecurityException e) {
-            e.printStackTrace();
+    @Autowired
+    public GoogleSheetsService(PlanilhaTransporte transporte,
+                               @Value("${banco.threads.virtuais:false}") boolean threadsVirtuais,
+                               @Value("${banco.planilha.leituras-simultaneas:4}") int leiturasSimultaneas) {
+        this(transporte, threadsVirtuais && ThreadsVirtuais.verificar("a leitura da planilha")
+                ? ThreadsVirtuais::executorPorTarefa : null, leiturasSimultaneas);
+    }
+
+    /**
+     * @param executorLeituras Cria o executor das chamadas de uma leitura (encerrado ao fim dela), ou
+     *                         {@code null} para ler as páginas uma por vez na thread que chama.
+     * @param leiturasSimultaneas Máximo de páginas pedidas ao mesmo tempo.
+     */
+    GoogleSheetsService(PlanilhaTransporte transporte, @Nullable Supplier<ExecutorService> executorLeituras,
+                        int leiturasSimultaneas) {
+        if (leiturasSimultaneas < 1) {
+            throw new IllegalArgumentException("leiturasSimultaneas deve ser pelo menos 1.");
         }
+        this.transporte = transporte;
+        this.executorLeituras = leiturasSimultaneas > 1 ? executorLeituras : null;
+        this.leiturasSimultaneas = leiturasSimultaneas;
+    }
+
+    /**
+     * Resultado de uma leitura da planilha.
+     * @param contas Quantidade de contas lidas com sucesso.
+     * @param rejeitadas Quantidade de linhas inválidas ignoradas.
+     * @param exemplosRejeitados Algumas das linhas rejeitadas, com o motivo, para diagnóstico.
+     */
+    public record ResultadoLeitura(int contas, int rejeitadas, List<String> exemplosRejeitados) {
     }
 
     /**
-     * Lê todas as linhas da planilha e as converte em uma lista de objetos 'Conta'.
+     * Lê todas as linhas da planilha e as converte em uma lista de objetos 'Conta',
+     * preservando o número e a agência gravados.
      * @return Uma lista de contas.
      */
     public List<Conta> lerContas() throws IOException {
-        // Executa a requisição para buscar os valores da planilha.
-        ValueRange response = sheetsService.spreadsheets().values()
-                .get(SPREADSHEET_ID, SPREADSHEET_RANGE)
-                .execute();
-
-        List<List<Object>> values = response.getValues();
         List<Conta> contas = new ArrayList<>();
+        lerContas(TAMANHO_PAGINA_PADRAO, contas::add);
+        return contas;
+    }
+
+    /**
+     * Lê a planilha em páginas de {@code tamanhoPagina} linhas, até a última linha da aba, entregando
+     * cada conta ao {@code destino} assim que a sua linha é convertida, sem montar uma lista intermediária.
+     * <p>
+     * Linhas inválidas não interrompem a leitura: são contadas e algumas delas são guardadas
+     * no resultado. A conversão não usa expressões regulares nem exceções.
+     * @param tamanhoPagina Quantidade de linhas pedidas por chamada à planilha.
+     * @param destino Recebe cada conta lida.
+     * @return Totais de linhas aceitas e rejeitadas.
+     */
+    public ResultadoLeitura lerContas(int tamanhoPagina, Consumer<Conta> destino) throws IOException {
+        Leitura leitura = new Leitura(destino);
+        // A leitura vai até a última linha da aba, e não até a primeira página curta ou vazia: a API omite
+        // as linhas vazias do fim de cada intervalo, e um número de conta não usado deixa a sua linha vazia.
+        int totalLinhas = transporte.contarLinhas("Contas");
+        if (executorLeituras == null) {
+            // A primeira linha de dados é a 2 (a linha 1 é o cabeçalho).
+            for (int inicio = 2; inicio <= totalLinhas; inicio += tamanhoPagina) {
+                leitura.converter(inicio, transporte.ler(intervalo(inicio, tamanhoPagina, totalLinhas)));
+            }
+        } else {
+            lerSimultaneas(tamanhoPagina, totalLinhas, leitura);
+        }
+        return new ResultadoLeitura(leitura.lidas, leitura.rejeitadas, leitura.exemplos);
+    }
+
+    /**
+     * Mantém até {@code leiturasSimultaneas} páginas pedidas à frente da que está sendo convertida.
+     */
+    private void lerSimultaneas(int tamanhoPagina, int totalLinhas, Leitura leitura) throws IOException {
+        ExecutorService executor = executorLeituras.get();
+        Deque<Future<List<List<Object>>>> pedidas = new ArrayDeque<>();
+        try {
+            int proxima = 2;
+            for (int inicio = 2; inicio <= totalLinhas; inicio += tamanhoPagina) {
+                while (proxima <= totalLinhas && pedidas.size() < leiturasSimultaneas) {
+                    String intervalo = intervalo(proxima, tamanhoPagina, totalLinhas);
+                    pedidas.add(executor.submit(() -> transporte.ler(intervalo)));
+                    proxima += tamanhoPagina;
+                }
+                leitura.converter(inicio, aguardar(pedidas.remove()));
+            }
+        } finally {
+            for (Future<?> pedida : pedidas) pedida.cancel(true);
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<List<Object>> aguardar(Future<List<List<Object>>> pagina) throws IOException {
+        try {
+            return pagina.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Leitura da planilha interrompida.");
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException io) throw io;
+            if (causa instanceof RuntimeException runtime) throw runtime;
+            if (causa instanceof Error erro) throw erro;
+            throw new IOException(causa);
+        }
+    }
+
+    private static String intervalo(int inicio, int tamanhoPagina, int totalLinhas) {
+        int fim = Math.min(inicio + tamanhoPagina - 1, totalLinhas);
+        return "Contas!A" + inicio + ":E" + fim;
+    }
 
-        if (values == null || values.isEmpty()) {
-            return contas; // Retorna lista vazia se a planilha não tiver dados.
+    /**
+     * Converte as páginas, em ordem, entregando as contas ao destino e contando as linhas rejeitadas.
+     */
+    private static final class Leitura {
+        private final Consumer<Conta> destino;
+        private int lidas;
+        private int rejeitadas;
+        private final List<String> exemplos = new ArrayList<>();
+
+        Leitura(Consumer<Conta> destino) {
+            this.destino = destino;
         }
 
-        // Itera sobre cada linha ('row') da planilha.
-        for (List<Object> row : values) {
-            try {
-                if (row.isEmpty() || row.get(0).toString().isEmpty()) continue; // Pula linhas vazias.
+        /**
+         * @param inicio Linha da planilha da primeira linha da página.
+         */
+        void converter(int inicio, @Nullable List<List<Object>> values) {
+            if (values == null) {
+                return; // Página sem nenhuma conta.
+            }
+
+            // Itera sobre cada linha ('row') da página.
+            for (int i = 0; i < values.size(); i++) {
+                List<Object> row = values.get(i);
+                if (row.isEmpty() || texto(row, 0).isEmpty()) continue; // Pula linhas vazias.
 
+                String motivo = null;
                 // Converte os dados de cada coluna para os tipos corretos.
-                int numero = Integer.parseInt(row.get(0).toString());
-                int agencia = Integer.parseInt(row.get(1).toString());
-                // Trata o formato de moeda (ex: "R$ 1.234,56") para converter para double.
-                double saldo = Double.parseDouble(row.get(2).toString().replaceAll("[^0-9,]", "").replace(",", "."));
-                String nomeTitular = row.get(3).toString();
-                String cpfTitular = row.get(4).toString();
-
-                // Cria os objetos do modelo.
-                Cliente titular = new Cliente(nomeTitular, cpfTitular);
-                Conta conta = new Conta(titular); // OBS: Este construtor pode precisar de mais parâmetros.
-
-                // TODO: Corrigir na classe 'Conta'. Os erros que você marcou indicam
-                // que a classe 'Conta' provavelmente não tem esses métodos 'set'.
-                // Uma solução é criar um construtor que aceite todos os parâmetros, como:
-                // new Conta(titular, numero, agencia, saldo);
-
-                conta.setSaldo(saldo);
-
-                contas.add(conta);
-            } catch (Exception e) {
-                System.err.println("Aviso: Erro ao processar a linha da planilha: " + row);
+                int numero = lerInteiroPositivo(texto(row, 0));
+                int agencia = lerInteiroPositivo(texto(row, 1));
+                // Trata o formato de moeda (ex: "R$ 1.234,56") convertendo direto para centavos.
+                long saldo = Dinheiro.lerReal(texto(row, 2));
+                if (numero < 0) motivo = "número inválido";
+                else if (agencia < 0) motivo = "agência inválida";
+                else if (saldo == Dinheiro.INVALIDO) motivo = "saldo inválido";
+                else if (row.size() < 5) motivo = "colunas faltando";
+
+                if (motivo != null) {
+                    rejeitadas++;
+                    if (exemplos.size() < MAXIMO_EXEMPLOS_REJEITADOS) {
+                        exemplos.add("linha " + (inicio + i) + ": " + motivo + " " + row);
+                    }
+                    continue;
+                }
+
+                // Cria os objetos do modelo preservando o número e a agência da planilha.
+                Cliente titular = new Cliente(texto(row, 3), texto(row, 4));
+                destino.accept(new Conta(titular, numero, agencia, saldo));
+                lidas++;
             }
         }
-        return contas;
     }
 
     /**
-     * Adiciona os dados de um objeto 'Conta' como uma nova linha na planilha.
+     * Escreve os dados de um objeto 'Conta' na sua linha da planilha, com uma chamada por conta.
+     * Para gravar muitas alterações, prefira o {@link SincronizadorPlanilha}, que agrupa as escritas.
      * @param conta O objeto Conta a ser adicionado.
      */
     public void adicionarLinha(Conta conta) throws IOException {
-        // Monta a lista de valores que formará a nova linha.
-        List<Object> novaLinha = List.of(
+        transporte.atualizarEmLote(List.of(escritaLinha(conta)));
+    }
+
+    /**
+     * Monta a escrita da linha completa da conta (número, agência, saldo, titular e CPF).
+     * @param conta A conta a ser escrita.
+     * @return A escrita correspondente à linha da conta.
+     * @throws IllegalArgumentException Se a linha da conta ficar fora da planilha.
+     */
+    public static PlanilhaTransporte.Escrita escritaLinha(Conta conta) {
+        long linha = linhaDaConta(conta.getNumero());
+        // Monta a lista de valores que formará a linha.
+        List<Object> valores = List.of(
                 conta.getNumero(),
                 conta.getAgencia(),
-                String.format("R$ %.2f", conta.getSaldo()), // Formata o saldo como moeda.
+                Dinheiro.formatarReal(conta.getSaldo()), // Formata o saldo como moeda (ex: "R$ 1.234,56").
                 conta.getTitular().getNome(),
                 conta.getTitular().getCpf()
         );
+        return new PlanilhaTransporte.Escrita("Contas!A" + linha + ":E" + linha, List.of(valores));
+    }
+
+    /**
+     * Monta a escrita apenas da célula de saldo da conta.
+     * @param conta A conta cujo saldo será escrito.
+     * @return A escrita correspondente à célula de saldo.
+     * @throws IllegalArgumentException Se a linha da conta ficar fora da planilha.
+     */
+    public static PlanilhaTransporte.Escrita escritaSaldo(Conta conta) {
+        long linha = linhaDaConta(conta.getNumero());
+        return new PlanilhaTransporte.Escrita("Contas!C" + linha,
+                List.of(List.of(Dinheiro.formatarReal(conta.getSaldo()))));
+    }
+
+    /**
+     * Retorna o texto da coluna, ou vazio se a linha não tiver essa coluna.
+     */
+    private static String texto(List<Object> row, int coluna) {
+        return coluna < row.size() ? row.get(coluna).toString() : "";
+    }
 
-        ValueRange body = new ValueRange().setValues(List.of(novaLinha));
+    /**
+     * Converte um número inteiro positivo sem lançar exceção.
+     * @return O número, ou -1 se o texto não for um inteiro positivo válido.
+     */
+    static int lerInteiroPositivo(CharSequence texto) {
+        int tamanho = texto.length();
+        if (tamanho == 0 || tamanho > 10) return -1;
+        long valor = 0;
+        for (int i = 0; i < tamanho; i++) {
+            char c = texto.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            valor = valor * 10 + (c - '0');
+        }
+        return valor <= Integer.MAX_VALUE ? (int) valor : -1;
+    }
 
-        // Executa a requisição 'append' para adicionar a linha no final da aba.
-        sheetsService.spreadsheets().values()
-                .append(SPREADSHEET_ID, "Contas!A:E", body)
-                .setValueInputOption("USER_ENTERED") // Garante que o Google Sheets interprete os dados corretamente.
-                .execute();
+    /**
+     * Retorna a linha da planilha ocupada pela conta (a linha 1 é o cabeçalho).
+     * @throws IllegalArgumentException Se a linha ficar fora da planilha (número não positivo ou acima de
+     *                                  {@link #LINHA_MAXIMA} - 1).
+     */
+    static long linhaDaConta(int numero) {
+        // Em long: numero + 1 estouraria um int para Integer.MAX_VALUE.
+        long linha = (long) numero + 1;
+        if (linha < 2 || linha > LINHA_MAXIMA) {
+            throw new IllegalArgumentException("A conta " + numero + " não cabe na planilha (linha " + linha + ").");
+        }
+        return linha;
     }
-}
\ No newline at end of file
+}
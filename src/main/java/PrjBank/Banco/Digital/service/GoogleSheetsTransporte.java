@@ -0,0 +1,132 @@
+// Define o pacote para os serviços da aplicação.
+package PrjBank.Banco.Digital.service;
+
+// Importações de bibliotecas do Google API, Spring e Java.
+import PrjBank.Banco.Digital.metricas.Metricas;
+import com.google.api.client.googleapis.auth.oauth2.GoogleCredential;
+import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.services.sheets.v4.Sheets;
+import com.google.api.services.sheets.v4.SheetsScopes;
+import com.google.api.services.sheets.v4.model.BatchUpdateValuesRequest;
+import com.google.api.services.sheets.v4.model.GridProperties;
+import com.google.api.services.sheets.v4.model.Sheet;
+import com.google.api.services.sheets.v4.model.Spreadsheet;
+import com.google.api.services.sheets.v4.model.ValueRange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @Component: Implementação de {@link PlanilhaTransporte} que conversa com a API do Google Sheets.
+ */
+@Component
+public class GoogleSheetsTransporte implements PlanilhaTransporte {
+
+    // Constantes para configurar a conexão com a API.
+    private static final String APPLICATION_NAME = "Banco Digital GFT";
+    private static final JacksonFactory JSON_FACTORY = JacksonFactory.getDefaultInstance();
+
+    // ID da planilha, vindo do arquivo 'application.properties'.
+    private final String spreadsheetId;
+
+    // Objeto principal para interagir com a API do Google Sheets.
+    private Sheets sheetsService;
+
+    // Tempo e falhas de cada chamada à API.
+    private final Metricas metricas;
+
+    /**
+     * Construtor que inicializa a conexão com a API do Google Sheets
+     * usando as credenciais do arquivo 'credentials.json'.
+     * @param spreadsheetId ID da planilha.
+     * @param metricas Onde registrar a duração das chamadas.
+     */
+    public GoogleSheetsTransporte(@Value("${google.spreadsheet.id}") String spreadsheetId, Metricas metricas) {
+        this.spreadsheetId = spreadsheetId;
+        this.metricas = metricas;
+        try {
+            InputStream in = GoogleSheetsTransporte.class.getResourceAsStream("/credentials.json");
+            GoogleCredential credential = GoogleCredential.fromStream(in)
+                    .createScoped(Collections.singleton(SheetsScopes.SPREADSHEETS));
+
+            sheetsService = new Sheets.Builder(GoogleNetHttpTransport.newTrustedTransport(), JSON_FACTORY, credential)
+                    .setApplicationName(APPLICATION_NAME)
+                    .build();
+        } catch (IOException | GeneralSecurityException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public List<List<Object>> ler(String intervalo) throws IOException {
+        long inicio = System.nanoTime();
+        boolean sucesso = false;
+        try {
+            ValueRange response = sheetsService.spreadsheets().values()
+                    .get(spreadsheetId, intervalo)
+                    .execute();
+            List<List<Object>> values = response.getValues();
+            sucesso = true;
+            return values != null ? values : List.of();
+        } finally {
+            metricas.registrarLeituraPlanilha(System.nanoTime() - inicio, sucesso);
+        }
+    }
+
+    @Override
+    public int contarLinhas(String aba) throws IOException {
+        long inicio = System.nanoTime();
+        boolean sucesso = false;
+        try {
+            // Pede só o título e a quantidade de linhas de cada aba, sem os dados.
+            Spreadsheet planilha = sheetsService.spreadsheets().get(spreadsheetId)
+                    .setFields("sheets.properties(title,gridProperties.rowCount)")
+                    .execute();
+            for (Sheet sheet : planilha.getSheets()) {
+                if (aba.equals(sheet.getProperties().getTitle())) {
+                    GridProperties grade = sheet.getProperties().getGridProperties();
+                    sucesso = true;
+                    return grade != null && grade.getRowCount() != null ? grade.getRowCount() : 0;
+                }
+            }
+            throw new IOException("Aba não encontrada na planilha: " + aba);
+        } finally {
+            metricas.registrarLeituraPlanilha(System.nanoTime() - inicio, sucesso);
+        }
+    }
+
+    @Override
+    public void atualizarEmLote(List<Escrita> escritas) throws IOException {
+        List<ValueRange> dados = new ArrayList<>(escritas.size());
+        for (Escrita escrita : escritas) {
+            dados.add(new ValueRange().setRange(escrita.intervalo()).setValues(escrita.valores()));
+        }
+        BatchUpdateValuesRequest body = new BatchUpdateValuesRequest()
+                .setValueInputOption("USER_ENTERED") // Garante que o Google Sheets interprete os dados corretamente.
+                .setData(dados);
+        long inicio = System.nanoTime();
+        boolean sucesso = false;
+        try {
+            sheetsService.spreadsheets().values()
+                    .batchUpdate(spreadsheetId, body)
+                    .execute();
+            sucesso = true;
+        } catch (GoogleJsonResponseException e) {
+            // 4xx, exceto o limite de requisições (429), é recusa do conteúdo: o mesmo lote falharia de novo.
+            int status = e.getStatusCode();
+            if (status >= 400 && status < 500 && status != 429) {
+                throw new EscritaRecusadaException(e.getMessage(), e);
+            }
+            throw e;
+        } finally {
+            metricas.registrarEscritaPlanilha(System.nanoTime() - inicio, sucesso);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+// Define o pacote para os serviços da aplicação.
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.model.Conta;
+import org.springframework.lang.Nullable;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índices secundários das contas pelo titular, mantidos pelo {@link Banco} a cada conta incluída:
+ * <ul>
+ *     <li>CPF normalizado (só os dígitos) → contas do CPF, em um mapa hash;</li>
+ *     <li>nome normalizado (minúsculas, sem acentos e com espaços simples) → contas, em um mapa
+ *     ordenado, para buscar pelo início do nome.</li>
+ * </ul>
+ * Consultas e inclusões são O(1) e O(log n), sem travas globais. As contas nunca são removidas e o
+ * titular de uma conta não muda, então os índices não precisam de atualização além da inclusão.
+ */
+final class IndiceClientes {
+
+    private static final Conta[] NENHUMA = new Conta[0];
+    // Separa o nome do número na chave do índice de nomes; menor que qualquer caractere de um nome.
+    private static final char SEPARADOR = '\u0000';
+    private static final char MAIOR_CARACTERE = '\uffff';
+
+    // Quase todo CPF tem uma única conta; um vetor por CPF ocupa menos memória que uma lista.
+    private final ConcurrentHashMap<String, Conta[]> porCpf = new ConcurrentHashMap<>();
+    // Chave: nome normalizado + separador + número com 10 dígitos, para ordenar por nome e depois por número.
+    private final ConcurrentSkipListMap<String, Conta> porNome = new ConcurrentSkipListMap<>();
+
+    /**
+     * Inclui a conta nos dois índices.
+     */
+    void incluir(Conta conta) {
+        incluirCpf(conta, false);
+        incluirNome(conta);
+    }
+
+    /**
+     * Inclui a conta no índice de CPF.
+     * @param unico Se verdadeiro, não inclui quando o CPF já tem conta.
+     * @return {@code false} se a conta não foi incluída porque o CPF já tem conta.
+     */
+    boolean incluirCpf(Conta conta, boolean unico) {
+        String cpf = normalizarCpf(conta.getTitular().getCpf());
+        if (cpf.isEmpty()) return true;
+        boolean[] incluida = {true};
+        porCpf.compute(cpf, (chave, contas) -> {
+            if (contas == null) return new Conta[]{conta};
+            if (unico) {
+                incluida[0] = false;
+                return contas;
+            }
+            Conta[] novas = Arrays.copyOf(contas, contas.length + 1);
+            novas[contas.length] = conta;
+            return novas;
+        });
+        return incluida[0];
+    }
+
+    /**
+     * Desfaz a última inclusão da conta no índice de CPF.
+     */
+    void removerCpf(Conta conta) {
+        String cpf = normalizarCpf(conta.getTitular().getCpf());
+        if (cpf.isEmpty()) return;
+        porCpf.computeIfPresent(cpf, (chave, contas) -> {
+            for (int i = contas.length - 1; i >= 0; i--) {
+                if (contas[i] == conta) {
+                    if (contas.length == 1) return null;
+                    Conta[] restantes = new Conta[contas.length - 1];
+                    System.arraycopy(contas, 0, restantes, 0, i);
+                    System.arraycopy(contas, i + 1, restantes, i, contas.length - i - 1);
+                    return restantes;
+                }
+            }
+            return contas;
+        });
+    }
+
+    void incluirNome(Conta conta) {
+        porNome.put(chaveNome(conta), conta);
+    }
+
+    /**
+     * Contas do CPF, na ordem de inclusão.
+     */
+    List<Conta> buscarPorCpf(String cpf) {
+        return List.of(porCpf.getOrDefault(normalizarCpf(cpf), NENHUMA));
+    }
+
+    /**
+     * Visão, em ordem de nome e número, das contas cujo nome normalizado começa pelo prefixo.
+     * @param apos Conta a partir da qual continuar (exclusiva), ou {@code null} para começar do início.
+     */
+    Collection<Conta> buscarPorNome(String prefixo, @Nullable Conta apos) {
+        String inicio = normalizarNome(prefixo);
+        String fim = inicio + MAIOR_CARACTERE;
+        if (apos == null) {
+            return porNome.subMap(inicio, true, fim, false).values();
+        }
+        String cursor = chaveNome(apos);
+        if (cursor.compareTo(inicio) < 0) {
+            return porNome.subMap(inicio, true, fim, false).values();
+        }
+        if (cursor.compareTo(fim) >= 0) {
+            return List.of();
+        }
+        return porNome.subMap(cursor, false, fim, false).values();
+    }
+
+    private static String chaveNome(Conta conta) {
+        String nome = normalizarNome(conta.getTitular().getNome());
+        StringBuilder chave = new StringBuilder(nome.length() + 11).append(nome).append(SEPARADOR);
+        String numero = Integer.toString(conta.getNumero());
+        for (int i = numero.length(); i < 10; i++) chave.append('0');
+        return chave.append(numero).toString();
+    }
+
+    /**
+     * Mantém só os dígitos do CPF ("123.456.789-09" → "12345678909").
+     */
+    static String normalizarCpf(@Nullable String cpf) {
+        if (cpf == null) return "";
+        StringBuilder digitos = new StringBuilder(11);
+        for (int i = 0; i < cpf.length(); i++) {
+            char c = cpf.charAt(i);
+            if (c >= '0' && c <= '9') digitos.append(c);
+        }
+        return digitos.toString();
+    }
+
+    /**
+     * Converte o nome para minúsculas, sem acentos e com um único espaço entre as palavras
+     * ("  José  da Silva" → "jose da silva").
+     */
+    static String normalizarNome(@Nullable String nome) {
+        if (nome == null) return "";
+        String texto = nome;
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) >= 0x80) {
+                // Só os nomes com acentos pagam a decomposição Unicode.
+                texto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+                break;
+            }
+        }
+        StringBuilder normalizado = new StringBuilder(texto.length());
+        boolean espaco = false;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+            if (Character.isWhitespace(c)) {
+                espaco = normalizado.length() > 0;
+                continue;
+            }
+            if (espaco) {
+                normalizado.append(' ');
+                espaco = false;
+            }
+            normalizado.append(Character.toLowerCase(c));
+        }
+        return normalizado.toString();
+    }
+}
@@ -0,0 +1,25 @@
+// Define o pacote para os serviços da aplicação.
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.model.DinheiroJson;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.time.Instant;
+
+/**
+ * Um lançamento do extrato, montado sob demanda a partir das colunas do {@link LivroRazao}.
+ * @param sequencia Posição do lançamento no extrato da conta (começa em 0); serve de cursor.
+ * @param data Momento em que a operação foi registrada.
+ * @param tipo Tipo do lançamento.
+ * @param valor Valor em centavos, negativo para débitos.
+ * @param saldo Saldo da conta após o lançamento, em centavos.
+ * @param contraparte Número da outra conta, nas transferências.
+ */
+public record Lancamento(long sequencia,
+                         Instant data,
+                         TipoLancamento tipo,
+                         @JsonSerialize(using = DinheiroJson.Serializador.class) long valor,
+                         @JsonSerialize(using = DinheiroJson.Serializador.class) long saldo,
+                         @JsonInclude(JsonInclude.Include.NON_NULL) Integer contraparte) {
+}
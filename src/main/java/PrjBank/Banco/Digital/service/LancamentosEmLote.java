@@ -0,0 +1,618 @@
+// Define o pacote para os serviços da aplicação.
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.model.DinheiroJson;
+import PrjBank.Banco.Digital.model.StatusOperacao;
+import PrjBank.Banco.Digital.persistencia.Journal;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * @Service: Lotes de lançamentos em todas as contas (rendimentos, tarifas), aplicados em paralelo e com
+ * checkpoint, para que um lote interrompido por uma queda seja retomado sem lançar duas vezes na mesma conta.
+ * <p>
+ * As contas do lote (as existentes no início, até o maior número de então) são divididas em faixas
+ * consecutivas de número, percorridas em paralelo no pool comum do fork-join. Cada lançamento trava só a
+ * sua conta, pelo tempo de ler o saldo, aplicar a {@link RegraLancamento}, gravar o saldo novo e anexar o
+ * lançamento ao journal; as operações nas demais contas seguem normalmente. Os lançamentos vão para o journal
+ * sem esperar pelo fsync, marcados com o identificador do lote, e os ouvintes os recebem como depósitos e
+ * saques depois de a conta ser liberada.
+ * <p>
+ * Checkpoint: o arquivo {@code <nome>.lote} guarda a regra, as faixas e, de cada faixa, a última conta
+ * processada, os totais e uma posição do journal anterior a todo lançamento ainda não coberto. É gravado
+ * (com renomeação atômica) antes do primeiro lançamento, periodicamente e ao final, sempre depois de forçar
+ * o journal para o disco, então nunca está à frente dele. Na retomada, os lançamentos do lote gravados no
+ * journal após essas posições são lidos de volta: as suas contas são puladas e os valores entram nos totais.
+ * Sem journal não há checkpoint, já que os próprios saldos não sobrevivem a uma queda.
+ */
+@Service
+public class LancamentosEmLote {
+
+    public static final String SUFIXO = ".lote";
+    private static final Pattern NOME_VALIDO = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0,99}");
+    private static final int CONTAS_POR_BLOCO = 1024;
+    private static final int CONTAS_MINIMAS_POR_FAIXA = 1024;
+    private static final int MAXIMO_EXEMPLOS_RECUSADOS = 20;
+
+    private final Banco banco;
+    private final Journal journal;
+    private final Path diretorio;
+    private final long intervaloCheckpointMs;
+
+    // Nomes dos lotes em execução; um mesmo lote nunca roda duas vezes ao mesmo tempo.
+    private final Set<String> emExecucao = ConcurrentHashMap.newKeySet();
+    // Lotes concluídos sem journal (e portanto sem checkpoint), para que também não rodem duas vezes.
+    private final Map<String, Execucao> concluidosEmMemoria = new ConcurrentHashMap<>();
+
+    /**
+     * Construtor usado pelo Spring, com o journal (se configurado).
+     */
+    @Autowired
+    public LancamentosEmLote(Banco banco, ObjectProvider<Journal> journal,
+                             @Value("${banco.lancamentos.diretorio:dados/lancamentos}") String diretorio,
+                             @Value("${banco.lancamentos.intervalo-checkpoint-ms:1000}") long intervaloCheckpointMs) {
+        this(banco, journal.getIfAvailable(), Path.of(diretorio), intervaloCheckpointMs);
+    }
+
+    /**
+     * @param banco Banco cujas contas recebem os lançamentos.
+     * @param journal Journal do banco, ou nulo para lotes sem checkpoint.
+     * @param diretorio Diretório dos arquivos de checkpoint.
+     * @param intervaloCheckpointMs Intervalo mínimo entre duas gravações do checkpoint durante um lote.
+     */
+    public LancamentosEmLote(Banco banco, @Nullable Journal journal, Path diretorio, long intervaloCheckpointMs) {
+        this.banco = banco;
+        this.journal = journal;
+        this.diretorio = diretorio;
+        this.intervaloCheckpointMs = intervaloCheckpointMs;
+    }
+
+    /**
+     * Resultado de um lote. Os totais incluem as execuções anteriores de um lote retomado; a duração e a
+     * vazão são só desta execução.
+     * @param nome Nome do lote.
+     * @param lote Identificador do lote gravado no journal.
+     * @param regra Descrição da regra aplicada.
+     * @param contas Contas avaliadas.
+     * @param aplicadas Contas que receberam o lançamento.
+     * @param recusadas Contas recusadas (débito maior que o saldo ou crédito acima do limite).
+     * @param ignoradas Contas em que a regra não tinha o que lançar.
+     * @param creditado Soma dos créditos, em centavos (em reais no JSON).
+     * @param debitado Soma dos débitos, em centavos (em reais no JSON).
+     * @param retomado Se o lote continuou de um checkpoint.
+     * @param jaConcluido Se o lote já estava concluído e nada foi lançado agora.
+     * @param duracaoMs Duração desta execução, em milissegundos.
+     * @param contasPorSegundo Contas avaliadas por segundo nesta execução.
+     * @param exemplosRecusados Algumas das contas recusadas nesta execução, com o motivo.
+     */
+    public record Resultado(String nome, long lote, String regra, long contas, long aplicadas, long recusadas,
+                            long ignoradas,
+                            @JsonSerialize(using = DinheiroJson.Serializador.class) long creditado,
+                            @JsonSerialize(using = DinheiroJson.Serializador.class) long debitado,
+                            boolean retomado, boolean jaConcluido, long duracaoMs, long contasPorSegundo,
+                            List<String> exemplosRecusados) {
+    }
+
+    /**
+     * Executa o lote, ou o retoma do checkpoint se um lote com o mesmo nome foi interrompido. Um lote já
+     * concluído não é executado de novo: o resultado gravado é devolvido com {@code jaConcluido}.
+     * @param nome Nome do lote (letras, dígitos, ponto, hífen e sublinhado), como {@code rendimento-2026-10}.
+     * @param regra Regra aplicada a cada conta.
+     * @return Os totais do lote.
+     * @throws IllegalArgumentException Se o nome for inválido.
+     * @throws IllegalStateException Se o lote já estiver em execução ou existir com outra regra.
+     */
+    public Resultado executar(String nome, RegraLancamento regra) throws IOException {
+        if (!NOME_VALIDO.matcher(nome).matches()) {
+            throw new IllegalArgumentException("Nome de lote inválido: " + nome);
+        }
+        if (!emExecucao.add(nome)) {
+            throw new IllegalStateException("O lote " + nome + " já está em execução.");
+        }
+        try {
+            return executarSozinho(nome, regra);
+        } finally {
+            emExecucao.remove(nome);
+        }
+    }
+
+    /**
+     * Retoma os lotes interrompidos encontrados no diretório de checkpoints; usado na inicialização.
+     * @return O resultado de cada lote retomado.
+     */
+    public List<Resultado> retomarPendentes() throws IOException {
+        List<Resultado> resultados = new ArrayList<>();
+        if (journal == null || !Files.isDirectory(diretorio)) return resultados;
+        List<Path> arquivos;
+        try (Stream<Path> listagem = Files.list(diretorio)) {
+            arquivos = listagem.filter(arquivo -> arquivo.getFileName().toString().endsWith(SUFIXO)).sorted().toList();
+        }
+        for (Path arquivo : arquivos) {
+            Execucao execucao = ler(arquivo);
+            if (!execucao.concluido) {
+                resultados.add(executar(execucao.nome, RegraLancamento.de(execucao.regra)));
+            }
+        }
+        return resultados;
+    }
+
+    private Resultado executarSozinho(String nome, RegraLancamento regra) throws IOException {
+        long inicio = System.nanoTime();
+        Path arquivo = journal == null ? null : diretorio.resolve(nome + SUFIXO);
+        Execucao execucao = arquivo == null ? concluidosEmMemoria.get(nome) : Files.exists(arquivo) ? ler(arquivo) : null;
+        boolean retomado = execucao != null;
+        if (execucao != null) {
+            if (!execucao.regra.equals(regra.descricao())) {
+                throw new IllegalStateException("O lote " + nome + " já existe com a regra " + execucao.regra + ".");
+            }
+            if (execucao.concluido) {
+                return execucao.resultado(true, false, execucao.duracaoAnteriorMs, 0);
+            }
+            recuperar(execucao);
+        } else {
+            execucao = planejar(nome, regra.descricao());
+            if (arquivo != null) {
+                Files.createDirectories(diretorio);
+                gravar(execucao, arquivo);
+            }
+        }
+        execucao.arquivo = arquivo;
+
+        Execucao emCurso = execucao;
+        List<Callable<Void>> tarefas = new ArrayList<>();
+        for (Faixa faixa : execucao.faixas) {
+            if (!faixa.concluida) {
+                tarefas.add(() -> {
+                    percorrer(emCurso, faixa, regra);
+                    return null;
+                });
+            }
+        }
+        for (Future<Void> tarefa : ForkJoinPool.commonPool().invokeAll(tarefas)) {
+            aguardar(tarefa);
+        }
+
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        execucao.concluido = true;
+        execucao.duracaoAnteriorMs += duracaoMs;
+        if (arquivo != null) {
+            execucao.gravacao.lock();
+            try {
+                gravar(execucao, arquivo);
+            } finally {
+                execucao.gravacao.unlock();
+            }
+        } else {
+            concluidosEmMemoria.put(nome, execucao);
+        }
+        long avaliadas = execucao.avaliadasAgora.sum();
+        Resultado resultado = execucao.resultado(false, retomado, duracaoMs, avaliadas * 1000 / Math.max(duracaoMs, 1));
+        System.out.printf("Lote %s (%s): %d contas em %d ms (%d contas/s), %d lançamentos, %d recusadas, %d ignoradas.%n",
+                nome, resultado.regra(), avaliadas, duracaoMs, resultado.contasPorSegundo(), resultado.aplicadas(),
+                resultado.recusadas(), resultado.ignoradas());
+        return resultado;
+    }
+
+    /**
+     * Divide as contas atuais em faixas de número com quantidades parecidas de contas.
+     */
+    private Execucao planejar(String nome, String regra) {
+        long lote;
+        do {
+            lote = ThreadLocalRandom.current().nextLong();
+        } while (lote == 0);
+        Execucao execucao = new Execucao(nome, lote, regra);
+
+        int contas = banco.getQuantidadeContas();
+        long quantidadeFaixas = Math.max(1, Math.min(16L * Runtime.getRuntime().availableProcessors(),
+                contas / CONTAS_MINIMAS_POR_FAIXA));
+        long porFaixa = Math.max(1, (contas + quantidadeFaixas - 1) / quantidadeFaixas);
+        long posicao = journal != null ? journal.getPosicaoEscrita() : 0;
+        long percorridas = 0;
+        int ultima = Integer.MIN_VALUE;
+        int anterior = Integer.MIN_VALUE;
+        for (Conta conta : banco.contasApos(null)) {
+            ultima = conta.getNumero();
+            if (++percorridas % porFaixa == 0) {
+                execucao.faixas.add(new Faixa(anterior, ultima, posicao));
+                anterior = ultima;
+            }
+        }
+        if (ultima != anterior) {
+            execucao.faixas.add(new Faixa(anterior, ultima, posicao));
+        }
+        return execucao;
+    }
+
+    /**
+     * Lê do journal os lançamentos do lote posteriores ao checkpoint, para que as suas contas sejam puladas.
+     */
+    private void recuperar(Execucao execucao) throws IOException {
+        long inicio = Long.MAX_VALUE;
+        for (Faixa faixa : execucao.faixas) {
+            if (!faixa.concluida) inicio = Math.min(inicio, faixa.posicaoJournal);
+        }
+        if (inicio == Long.MAX_VALUE) return;
+        // Lançamentos de uma execução anterior no mesmo processo podem ainda não estar duráveis.
+        journal.sincronizar();
+        long[] recuperados = new long[1];
+        journal.ler(new Journal.Leitor() {
+            @Override
+            public void abertura(int numero, int agencia, long saldo, String nome, String cpf) {
+            }
+
+            @Override
+            public void deposito(int numero, long valor) {
+            }
+
+            @Override
+            public void saque(int numero, long valor) {
+            }
+
+            @Override
+            public void transferencia(int origem, int destino, long valor) {
+            }
+
+            @Override
+            public void lancamento(int numero, long valor, long lote) {
+                if (lote != execucao.lote) return;
+                Faixa faixa = execucao.faixaDe(numero);
+                if (faixa != null && !faixa.concluida && numero > faixa.ultima) {
+                    if (faixa.lancadas == null) faixa.lancadas = new HashMap<>();
+                    faixa.lancadas.put(numero, valor);
+                    faixa.maiorLancada = Math.max(faixa.maiorLancada, numero);
+                    recuperados[0]++;
+                }
+            }
+        }, inicio);
+        if (recuperados[0] > 0) {
+            System.out.printf("Lote %s: %d lançamentos posteriores ao checkpoint encontrados no journal.%n",
+                    execucao.nome, recuperados[0]);
+        }
+    }
+
+    /**
+     * Percorre as contas da faixa após a última processada, publicando o progresso a cada bloco.
+     */
+    private void percorrer(Execucao execucao, Faixa faixa, RegraLancamento regra) throws IOException {
+        faixa.regra = regra;
+        faixa.banco = banco;
+        faixa.lote = execucao.lote;
+        Contagem contagem = new Contagem();
+        int ultima = faixa.ultima;
+        int noBloco = 0;
+        for (Conta conta : banco.contasApos(faixa.ultima)) {
+            int numero = conta.getNumero();
+            if (numero > faixa.ate) break;
+            ultima = numero;
+            Long recuperado = faixa.lancadas == null ? null : faixa.lancadas.get(numero);
+            if (recuperado != null) {
+                // Lançado antes da queda: só entra nos totais.
+                contagem.aplicada(recuperado);
+            } else {
+                faixa.atual = conta;
+                // Com journal, o registro é anexado ainda com a trava da conta (veja Faixa#get).
+                StatusOperacao status = journal == null ? conta.tentarLancar(faixa) : Conta.comTravas(conta, null, faixa);
+                switch (status) {
+                    case APLICADA -> {
+                        banco.avisarLancamento(conta, faixa.valor, faixa.saldo + faixa.valor);
+                        contagem.aplicada(faixa.valor);
+                    }
+                    case VALOR_INVALIDO -> contagem.ignoradas++;
+                    default -> {
+                        contagem.recusadas++;
+                        execucao.registrarRecusa(numero, status);
+                    }
+                }
+            }
+            if (++noBloco == CONTAS_POR_BLOCO) {
+                faixa.publicar(ultima, contagem, false, journal);
+                execucao.avaliadasAgora.add(noBloco);
+                contagem = new Contagem();
+                noBloco = 0;
+                gravarPeriodico(execucao);
+            }
+        }
+        faixa.atual = null;
+        faixa.publicar(ultima, contagem, true, journal);
+        execucao.avaliadasAgora.add(noBloco);
+    }
+
+    /**
+     * Grava o checkpoint se o intervalo já passou e nenhuma outra faixa estiver gravando.
+     */
+    private void gravarPeriodico(Execucao execucao) throws IOException {
+        if (execucao.arquivo == null) return;
+        long agora = System.nanoTime();
+        if (agora - execucao.ultimaGravacao < intervaloCheckpointMs * 1_000_000 || !execucao.gravacao.tryLock()) {
+            return;
+        }
+        try {
+            execucao.ultimaGravacao = agora;
+            gravar(execucao, execucao.arquivo);
+        } finally {
+            execucao.gravacao.unlock();
+        }
+    }
+
+    /**
+     * Copia o progresso das faixas, força o journal (que já contém tudo que a cópia cobre) e grava o
+     * checkpoint em um arquivo temporário renomeado ao final.
+     */
+    private void gravar(Execucao execucao, Path arquivo) throws IOException {
+        StringBuilder texto = new StringBuilder();
+        texto.append("nome=").append(execucao.nome).append('\n');
+        texto.append("lote=").append(execucao.lote).append('\n');
+        texto.append("regra=").append(execucao.regra).append('\n');
+        texto.append("concluido=").append(execucao.concluido).append('\n');
+        texto.append("duracao-ms=").append(execucao.duracaoAnteriorMs).append('\n');
+        texto.append("faixas=").append(execucao.faixas.size()).append('\n');
+        for (int i = 0; i < execucao.faixas.size(); i++) {
+            texto.append("faixa.").append(i).append('=');
+            execucao.faixas.get(i).escrever(texto);
+            texto.append('\n');
+        }
+        journal.sincronizar();
+
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer conteudo = ByteBuffer.wrap(texto.toString().getBytes(StandardCharsets.UTF_8));
+            while (conteudo.hasRemaining()) {
+                canal.write(conteudo);
+            }
+            canal.force(true);
+        }
+        Files.move(temporario, arquivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static Execucao ler(Path arquivo) throws IOException {
+        Properties propriedades = new Properties();
+        try (Reader leitor = new StringReader(Files.readString(arquivo, StandardCharsets.UTF_8))) {
+            propriedades.load(leitor);
+        }
+        try {
+            Execucao execucao = new Execucao(propriedades.getProperty("nome"),
+                    Long.parseLong(propriedades.getProperty("lote")), propriedades.getProperty("regra"));
+            execucao.concluido = Boolean.parseBoolean(propriedades.getProperty("concluido"));
+            execucao.duracaoAnteriorMs = Long.parseLong(propriedades.getProperty("duracao-ms", "0"));
+            int faixas = Integer.parseInt(propriedades.getProperty("faixas"));
+            int anterior = Integer.MIN_VALUE;
+            for (int i = 0; i < faixas; i++) {
+                Faixa faixa = Faixa.ler(anterior, propriedades.getProperty("faixa." + i));
+                execucao.faixas.add(faixa);
+                anterior = faixa.ate;
+            }
+            if (execucao.nome == null || execucao.regra == null) throw new IllegalArgumentException("campos faltando");
+            return execucao;
+        } catch (RuntimeException e) {
+            throw new IOException("Checkpoint de lote inválido: " + arquivo + " (" + e.getMessage() + ")", e);
+        }
+    }
+
+    private static void aguardar(Future<Void> tarefa) throws IOException {
+        try {
+            tarefa.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Lote interrompido.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Estado de um lote: a parte gravada no checkpoint e o que só existe durante a execução.
+     */
+    private static final class Execucao {
+        final String nome;
+        final long lote;
+        final String regra;
+        final List<Faixa> faixas = new ArrayList<>();
+        boolean concluido;
+        long duracaoAnteriorMs;
+
+        // Apenas durante a execução.
+        Path arquivo;
+        final ReentrantLock gravacao = new ReentrantLock();
+        volatile long ultimaGravacao = System.nanoTime();
+        final LongAdder avaliadasAgora = new LongAdder();
+        final Queue<String> exemplosRecusados = new ConcurrentLinkedQueue<>();
+        final AtomicInteger quantidadeExemplos = new AtomicInteger();
+
+        Execucao(String nome, long lote, String regra) {
+            this.nome = nome;
+            this.lote = lote;
+            this.regra = regra;
+        }
+
+        /**
+         * Faixa que contém a conta, ou {@code null} se a conta estiver além do lote.
+         */
+        Faixa faixaDe(int numero) {
+            int baixo = 0;
+            int alto = faixas.size() - 1;
+            while (baixo <= alto) {
+                int meio = (baixo + alto) >>> 1;
+                if (faixas.get(meio).ate < numero) {
+                    baixo = meio + 1;
+                } else {
+                    alto = meio - 1;
+                }
+            }
+            return baixo < faixas.size() ? faixas.get(baixo) : null;
+        }
+
+        void registrarRecusa(int numero, StatusOperacao status) {
+            if (quantidadeExemplos.incrementAndGet() <= MAXIMO_EXEMPLOS_RECUSADOS) {
+                exemplosRecusados.add("conta " + numero + ": " + status);
+            }
+        }
+
+        Resultado resultado(boolean jaConcluido, boolean retomado, long duracaoMs, long contasPorSegundo) {
+            Contagem total = new Contagem();
+            for (Faixa faixa : faixas) {
+                synchronized (faixa) {
+                    total.somar(faixa.total);
+                }
+            }
+            return new Resultado(nome, lote, regra, total.aplicadas + total.recusadas + total.ignoradas,
+                    total.aplicadas, total.recusadas, total.ignoradas, total.creditado, total.debitado,
+                    retomado, jaConcluido, duracaoMs, contasPorSegundo, List.copyOf(exemplosRecusados));
+        }
+    }
+
+    /**
+     * Contas de números em (anterior, {@code ate}], percorridas em ordem por uma única thread.
+     * <p>
+     * O progresso ({@code ultima}, totais e posição do journal) é publicado ao fim de cada bloco com o
+     * monitor da faixa, de onde o checkpoint o copia. A faixa também é a função passada a
+     * {@link Conta#tentarLancar}, para avaliar a regra sem criar um objeto por conta.
+     */
+    private static final class Faixa implements LongUnaryOperator, Supplier<StatusOperacao> {
+        final int ate;
+        int ultima;
+        boolean concluida;
+        long posicaoJournal;
+        final Contagem total = new Contagem();
+
+        // Lançamentos do lote encontrados no journal após o checkpoint, e o maior número entre eles.
+        Map<Integer, Long> lancadas;
+        int maiorLancada = Integer.MIN_VALUE;
+
+        // Usados apenas pela thread que percorre a faixa.
+        RegraLancamento regra;
+        Banco banco;
+        long lote;
+        Conta atual;
+        // Saldo lido sob a trava da conta e valor lançado sobre ele.
+        long saldo;
+        long valor;
+
+        Faixa(int anterior, int ate, long posicaoJournal) {
+            this.ultima = anterior;
+            this.ate = ate;
+            this.posicaoJournal = posicaoJournal;
+        }
+
+        @Override
+        public long applyAsLong(long saldo) {
+            this.saldo = saldo;
+            valor = regra.valor(atual, saldo);
+            return valor;
+        }
+
+        /**
+         * Lança na conta atual e, se aplicado, anexa o lançamento ao journal antes de a trava da conta
+         * ser liberada. Chamado com a trava já adquirida ({@link Conta#comTravas}); as travas são reentrantes.
+         */
+        @Override
+        public StatusOperacao get() {
+            StatusOperacao status = atual.tentarLancar(this);
+            if (status == StatusOperacao.APLICADA) {
+                banco.anexarLancamento(atual, valor, lote);
+            }
+            return status;
+        }
+
+        /**
+         * Publica o progresso até a conta {@code ultima}. A posição do journal só avança quando não resta
+         * nenhum lançamento recuperado à frente do cursor, para que uma nova retomada ainda os encontre.
+         */
+        synchronized void publicar(int ultima, Contagem contagem, boolean concluida, @Nullable Journal journal) {
+            this.ultima = ultima;
+            this.concluida = concluida;
+            total.somar(contagem);
+            if (journal != null && ultima >= maiorLancada) {
+                posicaoJournal = journal.getPosicaoEscrita();
+            }
+        }
+
+        synchronized void escrever(StringBuilder texto) {
+            texto.append(ate).append(',').append(ultima).append(',').append(concluida).append(',')
+                    .append(posicaoJournal).append(',').append(total.aplicadas).append(',')
+                    .append(total.recusadas).append(',').append(total.ignoradas).append(',')
+                    .append(total.creditado).append(',').append(total.debitado);
+        }
+
+        static Faixa ler(int anterior, String texto) {
+            String[] campos = texto.split(",");
+            Faixa faixa = new Faixa(anterior, Integer.parseInt(campos[0]), Long.parseLong(campos[3]));
+            faixa.ultima = Integer.parseInt(campos[1]);
+            faixa.concluida = Boolean.parseBoolean(campos[2]);
+            faixa.total.aplicadas = Long.parseLong(campos[4]);
+            faixa.total.recusadas = Long.parseLong(campos[5]);
+            faixa.total.ignoradas = Long.parseLong(campos[6]);
+            faixa.total.creditado = Long.parseLong(campos[7]);
+            faixa.total.debitado = Long.parseLong(campos[8]);
+            return faixa;
+        }
+    }
+
+    /**
+     * Totais de um trecho do lote.
+     */
+    private static final class Contagem {
+        long aplicadas;
+        long recusadas;
+        long ignoradas;
+        long creditado;
+        long debitado;
+
+        void aplicada(long valor) {
+            aplicadas++;
+            if (valor > 0) {
+                creditado += valor;
+            } else {
+                debitado -= valor;
+            }
+        }
+
+        void somar(Contagem outra) {
+            aplicadas += outra.aplicadas;
+            recusadas += outra.recusadas;
+            ignoradas += outra.ignoradas;
+            creditado += outra.creditado;
+            debitado += outra.debitado;
+        }
+    }
+}
@@ -0,0 +1,359 @@
+// Define o pacote para os serviços da aplicação.
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.model.Conta;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * @Component: Livro-razão com o histórico de lançamentos de cada conta, usado no extrato.
+ * <p>
+ * Cada depósito, saque e perna de transferência vira um lançamento. Os lançamentos não são objetos:
+ * ficam em colunas de tipos primitivos (data, valor, saldo, contraparte e tipo), em blocos de
+ * {@value #TAMANHO_BLOCO} posições, cerca de 29 bytes por lançamento. Os objetos {@link Lancamento}
+ * só são criados para as páginas consultadas.
+ * <p>
+ * Cada conta tem um único escritor por vez (a inclusão é sincronizada por conta). Os leitores não usam
+ * travas: leem a quantidade publicada e os blocos, que nunca mudam nas posições já publicadas.
+ * <p>
+ * O saldo de cada lançamento é o que a própria operação gravou, lido sob a trava da conta: os avisos de
+ * operações concorrentes numa mesma conta podem chegar fora de ordem, e acumular os valores na ordem de
+ * chegada mostraria saldos que a conta nunca teve.
+ * <p>
+ * O histórico é mantido em memória e refeito com os movimentos reproduzidos do journal, nas datas em que
+ * foram registrados. Quando os saldos vêm de um snapshot, só os movimentos posteriores a ele são
+ * reproduzidos na inicialização; os anteriores de cada conta são lidos do journal na sua primeira consulta,
+ * para que a inicialização não dependa do tamanho do histórico nem o traga inteiro para a memória.
+ */
+@Component
+public class LivroRazao implements OuvinteOperacoes {
+
+    private static final int BITS_BLOCO = 12;
+    static final int TAMANHO_BLOCO = 1 << BITS_BLOCO;
+    private static final int MASCARA_BLOCO = TAMANHO_BLOCO - 1;
+    // O primeiro bloco começa pequeno e cresce até TAMANHO_BLOCO; a maioria das contas tem poucos lançamentos.
+    private static final int CAPACIDADE_INICIAL = 8;
+    private static final TipoLancamento[] TIPOS = TipoLancamento.values();
+
+    /**
+     * Colunas de um bloco de lançamentos.
+     */
+    private static final class Bloco {
+        final long[] instantes;
+        final long[] valores;
+        final long[] saldos;
+        final int[] contrapartes;
+        final byte[] tipos;
+
+        Bloco(int capacidade) {
+            instantes = new long[capacidade];
+            valores = new long[capacidade];
+            saldos = new long[capacidade];
+            contrapartes = new int[capacidade];
+            tipos = new byte[capacidade];
+        }
+
+        private Bloco(Bloco anterior, int capacidade) {
+            instantes = Arrays.copyOf(anterior.instantes, capacidade);
+            valores = Arrays.copyOf(anterior.valores, capacidade);
+            saldos = Arrays.copyOf(anterior.saldos, capacidade);
+            contrapartes = Arrays.copyOf(anterior.contrapartes, capacidade);
+            tipos = Arrays.copyOf(anterior.tipos, capacidade);
+        }
+
+        int capacidade() {
+            return tipos.length;
+        }
+    }
+
+    /**
+     * Lançamentos de uma conta. {@code tamanho} é escrito por último a cada inclusão e publica
+     * o lançamento (e eventuais blocos novos) para os leitores.
+     */
+    private static final class Lancamentos {
+        private volatile Bloco[] blocos = {new Bloco(CAPACIDADE_INICIAL)};
+        private volatile int tamanho;
+        // Acessados apenas pelo escritor, sob o monitor do objeto.
+        private long saldo;
+        private long ultimoInstante;
+        // Histórico anterior ao snapshot ainda não lido; os leitores o carregam antes de ler os blocos.
+        private volatile boolean anteriorPendente;
+        private final Object carga = new Object();
+
+        Lancamentos(long saldoInicial) {
+            this.saldo = saldoInicial;
+        }
+
+        /**
+         * Anexa um lançamento sem saldo informado, somando o valor ao saldo do lançamento anterior.
+         */
+        synchronized void acumular(TipoLancamento tipo, long valor, int contraparte, long instante) {
+            anexar(tipo, valor, contraparte, instante, saldo + valor);
+        }
+
+        synchronized void anexar(TipoLancamento tipo, long valor, int contraparte, long instante, long saldo) {
+            int n = tamanho;
+            int indiceBloco = n >>> BITS_BLOCO;
+            int posicao = n & MASCARA_BLOCO;
+
+            Bloco[] atuais = blocos;
+            if (indiceBloco == atuais.length) {
+                atuais = Arrays.copyOf(atuais, atuais.length * 2);
+                blocos = atuais;
+            }
+            Bloco bloco = atuais[indiceBloco];
+            if (bloco == null) {
+                bloco = new Bloco(TAMANHO_BLOCO);
+                atuais[indiceBloco] = bloco;
+            } else if (posicao == bloco.capacidade()) {
+                bloco = new Bloco(bloco, Math.min(bloco.capacidade() * 2, TAMANHO_BLOCO));
+                atuais[indiceBloco] = bloco;
+            }
+
+            // Mantém as datas em ordem mesmo que o relógio do sistema volte, para permitir a busca binária.
+            ultimoInstante = Math.max(instante, ultimoInstante);
+            this.saldo = saldo;
+            bloco.instantes[posicao] = ultimoInstante;
+            bloco.valores[posicao] = valor;
+            bloco.saldos[posicao] = saldo;
+            bloco.contrapartes[posicao] = contraparte;
+            bloco.tipos[posicao] = (byte) tipo.ordinal();
+            tamanho = n + 1;
+        }
+
+        /**
+         * Põe os lançamentos {@code anteriores} antes dos atuais. Só é chamado enquanto o histórico anterior
+         * está pendente, então nenhum leitor viu ainda os blocos trocados aqui.
+         */
+        synchronized void antepor(Lancamentos anteriores) {
+            Bloco[] atuais = blocos;
+            for (int i = 0, n = tamanho; i < n; i++) {
+                Bloco bloco = atuais[i >>> BITS_BLOCO];
+                int posicao = i & MASCARA_BLOCO;
+                anteriores.anexar(TIPOS[bloco.tipos[posicao]], bloco.valores[posicao], bloco.contrapartes[posicao],
+                        bloco.instantes[posicao], bloco.saldos[posicao]);
+            }
+            ultimoInstante = anteriores.ultimoInstante;
+            blocos = anteriores.blocos;
+            tamanho = anteriores.tamanho;
+        }
+    }
+
+    private final Map<Integer, Lancamentos> porConta = new ConcurrentHashMap<>();
+    private final LongAdder total = new LongAdder();
+    private final LongSupplier relogio;
+    private volatile HistoricoAnterior historicoAnterior;
+
+    @Autowired
+    public LivroRazao() {
+        this(System::currentTimeMillis);
+    }
+
+    /**
+     * @param relogio Fonte do instante de cada lançamento, em milissegundos desde a época.
+     */
+    LivroRazao(LongSupplier relogio) {
+        this.relogio = relogio;
+    }
+
+    @Override
+    public void contaAdicionada(Conta conta) {
+        iniciar(conta);
+    }
+
+    @Override
+    public void contaCarregada(Conta conta) {
+        iniciar(conta);
+    }
+
+    @Override
+    public void deposito(Conta conta, long valor, long saldo) {
+        anexar(conta, TipoLancamento.DEPOSITO, valor, 0, relogio.getAsLong(), saldo);
+    }
+
+    @Override
+    public void saque(Conta conta, long valor, long saldo) {
+        anexar(conta, TipoLancamento.SAQUE, -valor, 0, relogio.getAsLong(), saldo);
+    }
+
+    @Override
+    public void transferencia(Conta origem, Conta destino, long valor, long saldoOrigem, long saldoDestino) {
+        if (origem == destino) return; // não altera o saldo
+        long instante = relogio.getAsLong();
+        anexar(origem, TipoLancamento.TRANSFERENCIA_ENVIADA, -valor, destino.getNumero(), instante, saldoOrigem);
+        anexar(destino, TipoLancamento.TRANSFERENCIA_RECEBIDA, valor, origem.getNumero(), instante, saldoDestino);
+    }
+
+    // Avisos sem o saldo da operação (feitos fora do Banco): o saldo é acumulado a partir do lançamento anterior.
+
+    @Override
+    public void deposito(Conta conta, long valor) {
+        acumular(conta, TipoLancamento.DEPOSITO, valor, 0);
+    }
+
+    @Override
+    public void saque(Conta conta, long valor) {
+        acumular(conta, TipoLancamento.SAQUE, -valor, 0);
+    }
+
+    @Override
+    public void transferencia(Conta origem, Conta destino, long valor) {
+        if (origem == destino) return;
+        acumular(origem, TipoLancamento.TRANSFERENCIA_ENVIADA, -valor, destino.getNumero());
+        acumular(destino, TipoLancamento.TRANSFERENCIA_RECEBIDA, valor, origem.getNumero());
+    }
+
+    @Override
+    public void movimentoReproduzido(Conta conta, long valor, long saldo, int contraparte, long instante) {
+        anexar(conta, tipoReproduzido(valor, contraparte), valor, contraparte, instante, saldo);
+    }
+
+    @Override
+    public void historicoAnterior(HistoricoAnterior historico) {
+        this.historicoAnterior = historico;
+    }
+
+    /**
+     * Quantidade de lançamentos da conta.
+     */
+    public int getQuantidade(int numero) {
+        Lancamentos lancamentos = carregados(numero);
+        return lancamentos == null ? 0 : lancamentos.tamanho;
+    }
+
+    /**
+     * Quantidade de lançamentos de todas as contas, sem os anteriores ao snapshot que ainda não foram consultados.
+     */
+    public long getTotalLancamentos() {
+        return total.sum();
+    }
+
+    /**
+     * Consulta os lançamentos da conta em ordem cronológica, sem bloquear novas inclusões.
+     * @param numero Número da conta.
+     * @param de Início do período (inclusivo), ou nulo.
+     * @param ate Fim do período (exclusivo), ou nulo.
+     * @param apos Cursor: sequência do último lançamento já lido, ou nulo para começar do início.
+     * @param limite Quantidade máxima de lançamentos.
+     * @return Os lançamentos encontrados.
+     */
+    public List<Lancamento> consultar(int numero, @Nullable Instant de, @Nullable Instant ate,
+                                      @Nullable Long apos, int limite) {
+        Lancamentos lancamentos = carregados(numero);
+        if (lancamentos == null || limite <= 0) return List.of();
+        // Lê a quantidade antes dos blocos: tudo até ela já está publicado.
+        int tamanho = lancamentos.tamanho;
+        Bloco[] blocos = lancamentos.blocos;
+
+        long inicio = de == null ? 0 : primeiroAPartirDe(blocos, tamanho, de.toEpochMilli());
+        if (apos != null) inicio = Math.max(inicio, apos + 1);
+        long fim = ate == null ? Long.MAX_VALUE : ate.toEpochMilli();
+
+        List<Lancamento> pagina = new ArrayList<>(Math.min(limite, 256));
+        for (long i = inicio; i < tamanho && pagina.size() < limite; i++) {
+            Bloco bloco = blocos[(int) (i >>> BITS_BLOCO)];
+            int posicao = (int) (i & MASCARA_BLOCO);
+            long instante = bloco.instantes[posicao];
+            if (instante >= fim) break;
+            int contraparte = bloco.contrapartes[posicao];
+            pagina.add(new Lancamento(i, Instant.ofEpochMilli(instante), TIPOS[bloco.tipos[posicao]],
+                    bloco.valores[posicao], bloco.saldos[posicao], contraparte != 0 ? contraparte : null));
+        }
+        return pagina;
+    }
+
+    private void iniciar(Conta conta) {
+        Lancamentos lancamentos = porConta.computeIfAbsent(conta.getNumero(), numero -> new Lancamentos(conta.getSaldo()));
+        if (historicoAnterior != null) {
+            lancamentos.anteriorPendente = true;
+        }
+    }
+
+    /**
+     * Lançamentos da conta para leitura, com o histórico anterior ao snapshot já carregado.
+     * A leitura do journal acontece fora do monitor dos lançamentos, sem atrasar os avisos de novas operações.
+     */
+    @Nullable
+    private Lancamentos carregados(int numero) {
+        Lancamentos lancamentos = porConta.get(numero);
+        if (lancamentos == null || !lancamentos.anteriorPendente) return lancamentos;
+        synchronized (lancamentos.carga) {
+            if (!lancamentos.anteriorPendente) return lancamentos;
+            Lancamentos anteriores = new Lancamentos(0);
+            try {
+                historicoAnterior.reproduzir(numero, new OuvinteOperacoes() {
+                    @Override
+                    public void movimentoReproduzido(Conta conta, long valor, long saldo, int contraparte, long instante) {
+                        anteriores.anexar(tipoReproduzido(valor, contraparte), valor, contraparte, instante, saldo);
+                    }
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao ler o histórico da conta " + numero + " no journal.", e);
+            }
+            int quantidade = anteriores.tamanho;
+            lancamentos.antepor(anteriores);
+            total.add(quantidade);
+            lancamentos.anteriorPendente = false;
+        }
+        return lancamentos;
+    }
+
+    private static TipoLancamento tipoReproduzido(long valor, int contraparte) {
+        if (contraparte != 0) {
+            return valor > 0 ? TipoLancamento.TRANSFERENCIA_RECEBIDA : TipoLancamento.TRANSFERENCIA_ENVIADA;
+        }
+        return valor > 0 ? TipoLancamento.DEPOSITO : TipoLancamento.SAQUE;
+    }
+
+    private void anexar(Conta conta, TipoLancamento tipo, long valor, int contraparte, long instante, long saldo) {
+        lancamentos(conta, saldo - valor).anexar(tipo, valor, contraparte, instante, saldo);
+        total.increment();
+    }
+
+    private void acumular(Conta conta, TipoLancamento tipo, long valor, int contraparte) {
+        // O saldo atual já inclui esta operação.
+        lancamentos(conta, conta.getSaldo() - valor).acumular(tipo, valor, contraparte, relogio.getAsLong());
+        total.increment();
+    }
+
+    /**
+     * Lançamentos da conta, criados no saldo anterior ao primeiro lançamento se a conta ainda não tiver
+     * sido avisada (criada fora do banco, por exemplo em testes, ou reproduzida do journal).
+     */
+    private Lancamentos lancamentos(Conta conta, long saldoInicial) {
+        Lancamentos lancamentos = porConta.get(conta.getNumero());
+        if (lancamentos == null) {
+            lancamentos = porConta.computeIfAbsent(conta.getNumero(), n -> new Lancamentos(saldoInicial));
+        }
+        return lancamentos;
+    }
+
+    /**
+     * Busca binária pelo primeiro lançamento com data maior ou igual a {@code instante}.
+     */
+    private static long primeiroAPartirDe(Bloco[] blocos, int tamanho, long instante) {
+        int baixo = 0;
+        int alto = tamanho;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (blocos[meio >>> BITS_BLOCO].instantes[meio & MASCARA_BLOCO] < instante) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+}
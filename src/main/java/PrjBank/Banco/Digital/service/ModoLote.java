@@ -0,0 +1,19 @@
+// Define o pacote para os serviços da aplicação.
+package PrjBank.Banco.Digital.service;
+
+/**
+ * Define o que acontece com um lote de operações quando alguma delas é rejeitada.
+ */
+public enum ModoLote {
+
+    /**
+     * Cada operação é aplicada ou rejeitada de forma independente.
+     */
+    MELHOR_ESFORCO,
+
+    /**
+     * O lote é aplicado por inteiro ou não é aplicado: se qualquer operação for rejeitada,
+     * nenhum saldo é alterado.
+     */
+    TUDO_OU_NADA
+}
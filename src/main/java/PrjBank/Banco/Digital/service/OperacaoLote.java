@@ -0,0 +1,36 @@
+// Define o pacote para os serviços da aplicação.
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.model.DinheiroJson;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+/**
+ * Uma operação de um lote executado por {@link Banco#executarLote}.
+ * @param tipo Tipo da operação.
+ * @param conta Número da conta movimentada (a origem, nas transferências).
+ * @param destino Número da conta de destino; usado apenas nas transferências.
+ * @param valor Valor em centavos (em reais no JSON).
+ */
+public record OperacaoLote(Tipo tipo,
+                           int conta,
+                           Integer destino,
+                           @JsonDeserialize(using = DinheiroJson.Desserializador.class) long valor) {
+
+    public enum Tipo {
+        DEPOSITO,
+        SAQUE,
+        TRANSFERENCIA
+    }
+
+    public static OperacaoLote deposito(int conta, long valor) {
+        return new OperacaoLote(Tipo.DEPOSITO, conta, null, valor);
+    }
+
+    public static OperacaoLote saque(int conta, long valor) {
+        return new OperacaoLote(Tipo.SAQUE, conta, null, valor);
+    }
+
+    public static OperacaoLote transferencia(int origem, int destino, long valor) {
+        return new OperacaoLote(Tipo.TRANSFERENCIA, origem, destino, valor);
+    }
+}
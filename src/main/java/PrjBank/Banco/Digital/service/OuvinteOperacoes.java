@@ -0,0 +1,97 @@
+// Define o pacote para os serviços da aplicação.
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.model.Conta;
+
+import java.io.IOException;
+
+/**
+ * Recebe notificações das operações aceitas pelo {@link Banco}.
+ * <p>
+ * As notificações acontecem na thread da requisição, logo após a operação ser aplicada,
+ * então as implementações devem ser rápidas e nunca bloquear (por exemplo, apenas
+ * enfileirando o trabalho para outra thread).
+ */
+public interface OuvinteOperacoes {
+
+    /**
+     * Movimentos que um snapshot restaurado já inclui. Não são reproduzidos na inicialização, que assim
+     * não depende do tamanho do histórico: quem precisa deles os lê do journal, uma conta por vez.
+     */
+    @FunctionalInterface
+    interface HistoricoAnterior {
+
+        /**
+         * Entrega a {@code destino}, por {@link OuvinteOperacoes#movimentoReproduzido}, os movimentos da conta
+         * incluídos no snapshot, em ordem. Lê o journal até a posição do snapshot a cada chamada.
+         */
+        void reproduzir(int numero, OuvinteOperacoes destino) throws IOException;
+    }
+
+    default void contaAdicionada(Conta conta) {
+    }
+
+    /**
+     * Conta já existente que foi restaurada (do journal, da planilha etc.), com o seu saldo atual.
+     * Não representa uma operação nova.
+     */
+    default void contaCarregada(Conta conta) {
+    }
+
+    default void deposito(Conta conta, long valor) {
+    }
+
+    default void saque(Conta conta, long valor) {
+    }
+
+    default void transferencia(Conta origem, Conta destino, long valor) {
+    }
+
+    /**
+     * Depósito com o saldo em que deixou a conta, lido sob a trava da conta na própria operação: avisos
+     * de operações concorrentes podem chegar fora de ordem, e o saldo atual da conta já pode incluir outras.
+     * Por padrão é entregue como {@link #deposito(Conta, long)}.
+     */
+    default void deposito(Conta conta, long valor, long saldo) {
+        deposito(conta, valor);
+    }
+
+    /**
+     * Saque com o saldo em que deixou a conta; veja {@link #deposito(Conta, long, long)}.
+     */
+    default void saque(Conta conta, long valor, long saldo) {
+        saque(conta, valor);
+    }
+
+    /**
+     * Transferência com os saldos em que deixou as duas contas; veja {@link #deposito(Conta, long, long)}.
+     */
+    default void transferencia(Conta origem, Conta destino, long valor, long saldoOrigem, long saldoDestino) {
+        transferencia(origem, destino, valor);
+    }
+
+    /**
+     * Movimento já existente, reproduzido do journal na reconstrução do banco, antes de
+     * {@link #contaCarregada}, ou lido depois por um {@link HistoricoAnterior}. Não representa uma operação nova.
+     * @param valor Valor em centavos: positivo credita e negativo debita a conta.
+     * @param saldo Saldo da conta logo após o movimento.
+     * @param contraparte Outra conta, numa perna de transferência; 0 nos demais movimentos.
+     * @param instante Momento em que o movimento foi registrado, em milissegundos desde a época.
+     */
+    default void movimentoReproduzido(Conta conta, long valor, long saldo, int contraparte, long instante) {
+    }
+
+    /**
+     * Avisado na reconstrução do banco a partir de um snapshot, depois dos movimentos posteriores a ele e
+     * antes de {@link #contaCarregada}: os movimentos anteriores não foram reproduzidos e podem ser lidos
+     * sob demanda por {@code historico}.
+     */
+    default void historicoAnterior(HistoricoAnterior historico) {
+    }
+
+    /**
+     * Saque ou transferência recusado por falta de saldo na conta.
+     */
+    default void saldoInsuficiente(Conta conta, long valor) {
+    }
+}
@@ -0,0 +1,574 @@
+// Define o pacote para os serviços da aplicação.
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.exception.OperacaoNaoExecutadaException;
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.model.StatusOperacao;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @Component: Divide as contas do {@link Banco} em partições, cada uma com uma única thread que
+ * executa, em ordem, as operações recebidas para as suas contas.
+ * <p>
+ * Experimental e desligado por padrão ({@code banco.particoes.ativo}): nenhum ganho de vazão sobre
+ * chamar o {@link Banco} direto foi demonstrado (compare com {@code ParticoesBenchmark}).
+ * <p>
+ * A conta pertence à partição indicada pelo hash do seu número, e a thread da partição executa as
+ * operações que chegam por {@link #executar}. Ela não é a única a mexer nessas contas: os lotes de
+ * {@code POST /api/contas/lote} e os lançamentos em lote ({@link LancamentosEmLote}) alteram saldos
+ * pelo {@link Banco} direto, na thread da requisição, disputando as mesmas travas das contas, e a
+ * importação de CSV ({@link ContasCsv}) carrega contas com saldo sem passar pelas partições.
+ * Continua correto, já que toda alteração de saldo é feita sob a trava da conta; só não há garantia
+ * de que as travas fiquem livres para a partição.
+ * <p>
+ * Cada thread retira da fila todos os comandos pendentes de uma vez, aplica-os, anexa-os ao journal
+ * e espera o fsync uma única vez por lote antes de avisar os ouvintes e responder; se o fsync falhar,
+ * o lote inteiro responde com o erro, sem avisar os ouvintes, e a thread segue para o próximo.
+ * <p>
+ * Uma transferência entre contas de partições diferentes é feita em duas fases: a partição da
+ * origem debita o valor e entrega o crédito à partição do destino, que credita, registra a
+ * transferência no journal e responde. Se o crédito for recusado (saldo do destino no limite),
+ * o valor volta para a origem. Entre as duas fases o valor não aparece em nenhuma das contas, mas as
+ * duas fases são uma única alteração compartilhada dos saldos ({@link Banco#iniciarAlteracaoCompartilhada}):
+ * um corte consistente espera a segunda fase e vê a transferência inteira ou não a vê.
+ * <p>
+ * Os lotes não passam pelas partições porque a ordem do lote entre contas de partições diferentes e
+ * o modo tudo ou nada não cabem em filas independentes.
+ * <p>
+ * Contas novas recebem números de blocos reservados por partição ({@link Conta#reservarNumeros}),
+ * então a criação de contas não disputa o sequencial compartilhado; números de um bloco não usado
+ * até o desligamento ficam sem conta, e números que uma importação carregou depois da reserva
+ * ({@link Banco#carregarConta}) são pulados.
+ */
+@Component
+@ConditionalOnProperty(name = "banco.particoes.ativo", havingValue = "true")
+public class Particoes implements ExecutorOperacoes, AutoCloseable {
+
+    private static final int TAMANHO_BLOCO_NUMEROS = 1024;
+    private static final int LOTE_MAXIMO = 1024;
+    private static final long ESPERA_ENCERRAMENTO_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * Trabalho executado pela thread de uma partição.
+     */
+    private interface Comando {
+        /**
+         * Aplica o comando.
+         * @return A posição do journal escrita, ou 0.
+         */
+        long executar(Particao particao);
+
+        /**
+         * Chamado depois que o lote do comando está durável no journal, ou com o erro do journal se o
+         * fsync do lote falhou.
+         */
+        void concluir(@Nullable RuntimeException erroJournal);
+
+        void falhar(Throwable erro);
+    }
+
+    private final Banco banco;
+    private final Particao[] particoes;
+    private final LongAdder executadas = new LongAdder();
+    private final LongAdder entreParticoes = new LongAdder();
+    // Operações aceitas e respondidas; a diferença são as que ainda estão em andamento.
+    private final LongAdder aceitas = new LongAdder();
+    private final LongAdder respondidas = new LongAdder();
+    private volatile boolean encerrado;
+
+    /**
+     * Cria as partições e inicia as suas threads.
+     * @param banco Banco cujas contas são divididas.
+     * @param quantidade Quantidade de partições; zero ou negativo usa uma por processador.
+     */
+    public Particoes(Banco banco, @Value("${banco.particoes.quantidade:0}") int quantidade) {
+        this.banco = banco;
+        int total = quantidade > 0 ? quantidade : Runtime.getRuntime().availableProcessors();
+        this.particoes = new Particao[total];
+        for (int i = 0; i < total; i++) {
+            particoes[i] = new Particao(i);
+        }
+    }
+
+    /**
+     * Envia a operação à partição da conta (ou da conta de origem, nas transferências).
+     * @param operacao Depósito, saque ou transferência.
+     * @return O status da operação, concluído depois que ela está durável no journal.
+     */
+    @Override
+    public CompletableFuture<StatusOperacao> executar(OperacaoLote operacao) {
+        if (operacao == null || operacao.tipo() == null) {
+            return CompletableFuture.completedFuture(StatusOperacao.OPERACAO_INVALIDA);
+        }
+        if (operacao.valor() <= 0) {
+            return CompletableFuture.completedFuture(StatusOperacao.VALOR_INVALIDO);
+        }
+        Conta origem = banco.buscarConta(operacao.conta()).orElse(null);
+        if (origem == null) {
+            return CompletableFuture.completedFuture(StatusOperacao.CONTA_INEXISTENTE);
+        }
+        Conta destino = null;
+        if (operacao.tipo() == OperacaoLote.Tipo.TRANSFERENCIA) {
+            if (operacao.destino() == null) {
+                return CompletableFuture.completedFuture(StatusOperacao.OPERACAO_INVALIDA);
+            }
+            destino = banco.buscarConta(operacao.destino()).orElse(null);
+            if (destino == null) {
+                return CompletableFuture.completedFuture(StatusOperacao.CONTA_INEXISTENTE);
+            }
+        }
+
+        if (encerrado) {
+            return CompletableFuture.failedFuture(new OperacaoNaoExecutadaException("As partições do banco foram encerradas."));
+        }
+        aceitas.increment();
+        CompletableFuture<StatusOperacao> resultado = new CompletableFuture<>();
+        Particao dona = particaoDe(origem);
+        if (destino == null || particaoDe(destino) == dona) {
+            dona.enviar(new Operacao(operacao, origem, destino, resultado));
+        } else {
+            entreParticoes.increment();
+            dona.enviar(new Debito(operacao, origem, destino, resultado));
+        }
+        return resultado;
+    }
+
+    /**
+     * Cria uma conta nova em uma das partições, com número do bloco reservado por ela.
+     * @param titular Cliente titular.
+     * @return A conta criada, concluída depois que a abertura está durável no journal.
+     */
+    public CompletableFuture<Conta> criarConta(Cliente titular) {
+        if (encerrado) {
+            return CompletableFuture.failedFuture(new OperacaoNaoExecutadaException("As partições do banco foram encerradas."));
+        }
+        aceitas.increment();
+        CompletableFuture<Conta> resultado = new CompletableFuture<>();
+        particoes[ThreadLocalRandom.current().nextInt(particoes.length)].enviar(new Abertura(titular, resultado));
+        return resultado;
+    }
+
+    public int getQuantidade() {
+        return particoes.length;
+    }
+
+    /**
+     * Quantidade de comandos executados pelas partições.
+     */
+    public long getExecutadas() {
+        return executadas.sum();
+    }
+
+    /**
+     * Quantidade de transferências entre contas de partições diferentes (feitas em duas fases).
+     */
+    public long getTransferenciasEntreParticoes() {
+        return entreParticoes.sum();
+    }
+
+    /**
+     * Quantidade de comandos aguardando nas filas das partições.
+     */
+    public int getPendentes() {
+        int pendentes = 0;
+        for (Particao particao : particoes) {
+            pendentes += particao.fila.size();
+        }
+        return pendentes;
+    }
+
+    /**
+     * Recusa novas operações, espera as que estão em andamento (inclusive transferências entre
+     * partições) e encerra as threads das partições.
+     */
+    @PreDestroy
+    @Override
+    public void close() {
+        if (encerrado) return;
+        encerrado = true;
+        long limite = System.nanoTime() + ESPERA_ENCERRAMENTO_NANOS;
+        while (respondidas.sum() < aceitas.sum() && System.nanoTime() < limite) {
+            LockSupport.parkNanos(1_000_000);
+        }
+        for (Particao particao : particoes) {
+            particao.fila.add(PARAR);
+        }
+        for (Particao particao : particoes) {
+            try {
+                particao.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Particao particaoDe(Conta conta) {
+        // Espalha números consecutivos entre as partições.
+        int hash = conta.getNumero() * 0x9E3779B9;
+        return particoes[(hash >>> 1) % particoes.length];
+    }
+
+    /**
+     * Uma partição: fila de comandos consumida por uma única thread.
+     */
+    private final class Particao {
+        private final BlockingQueue<Comando> fila = new LinkedBlockingQueue<>();
+        private final Thread thread;
+
+        // Bloco de números de conta da partição; acessado apenas pela sua thread.
+        private int proximoNumero;
+        private int fimBloco;
+        // Saldos gravados pela operação em execução (veja Banco#aplicar); acessados apenas pela sua thread.
+        final long[] saldos = new long[3];
+
+        Particao(int indice) {
+            this.thread = new Thread(this::executar, "particao-" + indice);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        void enviar(Comando comando) {
+            fila.add(comando);
+        }
+
+        int proximoNumero() {
+            if (proximoNumero == fimBloco) {
+                proximoNumero = Conta.reservarNumeros(TAMANHO_BLOCO_NUMEROS);
+                fimBloco = proximoNumero + TAMANHO_BLOCO_NUMEROS;
+            }
+            return proximoNumero++;
+        }
+
+        private void executar() {
+            List<Comando> lote = new ArrayList<>(LOTE_MAXIMO);
+            boolean parar = false;
+            while (!parar) {
+                try {
+                    lote.add(fila.take());
+                } catch (InterruptedException e) {
+                    return;
+                }
+                fila.drainTo(lote, LOTE_MAXIMO - 1);
+
+                long posicao = 0;
+                for (Comando comando : lote) {
+                    if (comando == PARAR) {
+                        parar = true;
+                        continue;
+                    }
+                    try {
+                        posicao = Math.max(posicao, comando.executar(this));
+                    } catch (RuntimeException e) {
+                        comando.falhar(e);
+                    }
+                }
+                RuntimeException erroJournal = null;
+                try {
+                    // Um único fsync para todo o lote.
+                    banco.aguardarJournal(posicao);
+                } catch (RuntimeException e) {
+                    // A partição continua: o lote inteiro recebe o erro, e os próximos também, se o journal não voltar.
+                    erroJournal = e;
+                }
+                executadas.add(parar ? lote.size() - 1 : lote.size());
+                for (Comando comando : lote) {
+                    comando.concluir(erroJournal);
+                }
+                lote.clear();
+            }
+            // Comandos que chegaram depois do pedido de encerramento.
+            for (Comando comando = fila.poll(); comando != null; comando = fila.poll()) {
+                comando.falhar(new IllegalStateException("As partições do banco foram encerradas."));
+            }
+        }
+    }
+
+    private static final Comando PARAR = new Comando() {
+        @Override
+        public long executar(Particao particao) {
+            return 0;
+        }
+
+        @Override
+        public void concluir(RuntimeException erroJournal) {
+        }
+
+        @Override
+        public void falhar(Throwable erro) {
+        }
+    };
+
+    /**
+     * Base dos comandos que respondem com um status.
+     */
+    private abstract class ComandoStatus implements Comando {
+        final CompletableFuture<StatusOperacao> resultado;
+        // Status a responder no concluir(); nulo enquanto a operação continua em outra partição.
+        StatusOperacao status;
+        // Operação registrada no journal por este comando, avisada aos ouvintes só depois do fsync.
+        private OperacaoLote registrada;
+        private Conta origemRegistrada;
+        private Conta destinoRegistrada;
+        private long saldoOrigem;
+        private long saldoDestino;
+
+        ComandoStatus(CompletableFuture<StatusOperacao> resultado) {
+            this.resultado = resultado;
+        }
+
+        /**
+         * Guarda a operação aplicada para avisar os ouvintes no {@link #concluir}.
+         */
+        void registrar(OperacaoLote operacao, Conta origem, @Nullable Conta destino, long saldoOrigem,
+                       long saldoDestino) {
+            this.registrada = operacao;
+            this.origemRegistrada = origem;
+            this.destinoRegistrada = destino;
+            this.saldoOrigem = saldoOrigem;
+            this.saldoDestino = saldoDestino;
+        }
+
+        @Override
+        public void concluir(RuntimeException erroJournal) {
+            RuntimeException erro = erroJournal;
+            if (registrada != null && erro == null) {
+                try {
+                    banco.avisarOperacao(registrada, origemRegistrada, destinoRegistrada, saldoOrigem, saldoDestino);
+                } catch (RuntimeException e) {
+                    erro = e;
+                }
+            }
+            if (status != null) {
+                if (erro != null) {
+                    resultado.completeExceptionally(erro);
+                } else {
+                    resultado.complete(status);
+                }
+                respondidas.increment();
+            }
+        }
+
+        @Override
+        public void falhar(Throwable erro) {
+            status = null;
+            registrada = null;
+            resultado.completeExceptionally(erro);
+            respondidas.increment();
+        }
+    }
+
+    /**
+     * Operação cujas contas estão todas na mesma partição.
+     */
+    private final class Operacao extends ComandoStatus {
+        private final OperacaoLote operacao;
+        private final Conta origem;
+        private final Conta destino;
+
+        Operacao(OperacaoLote operacao, Conta origem, Conta destino, CompletableFuture<StatusOperacao> resultado) {
+            super(resultado);
+            this.operacao = operacao;
+            this.origem = origem;
+            this.destino = destino;
+        }
+
+        @Override
+        public long executar(Particao particao) {
+            long[] saldos = particao.saldos;
+            status = banco.aplicar(operacao, origem, destino, saldos);
+            if (status == StatusOperacao.APLICADA) {
+                registrar(operacao, origem, destino, saldos[0], saldos[1]);
+            }
+            return saldos[2];
+        }
+    }
+
+    /**
+     * Primeira fase de uma transferência entre partições, na partição da origem.
+     */
+    private final class Debito extends ComandoStatus {
+        private final OperacaoLote transferencia;
+        private final Conta origem;
+        private final Conta destino;
+
+        Debito(OperacaoLote transferencia, Conta origem, Conta destino, CompletableFuture<StatusOperacao> resultado) {
+            super(resultado);
+            this.transferencia = transferencia;
+            this.origem = origem;
+            this.destino = destino;
+        }
+
+        @Override
+        public long executar(Particao particao) {
+            long epoca = banco.iniciarAlteracaoCompartilhada();
+            StatusOperacao debito;
+            try {
+                debito = origem.tentarSacar(transferencia.valor(), epoca, particao.saldos);
+            } catch (RuntimeException e) {
+                banco.concluirAlteracaoCompartilhada(epoca);
+                throw e;
+            }
+            if (debito == StatusOperacao.APLICADA) {
+                particaoDe(destino).enviar(new Credito(transferencia, origem, destino, epoca, particao.saldos[0],
+                        resultado));
+            } else {
+                banco.concluirAlteracaoCompartilhada(epoca);
+                if (debito == StatusOperacao.SALDO_INSUFICIENTE) {
+                    banco.avisarSaldoInsuficiente(origem, transferencia.valor());
+                }
+                status = debito;
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Segunda fase, na partição do destino: credita, registra a transferência e conclui a alteração
+     * compartilhada aberta pelo débito.
+     */
+    private final class Credito extends ComandoStatus {
+        private final OperacaoLote transferencia;
+        private final Conta origem;
+        private final Conta destino;
+        private final long epoca;
+        // Saldo em que o débito deixou a origem.
+        private final long saldoOrigem;
+
+        Credito(OperacaoLote transferencia, Conta origem, Conta destino, long epoca, long saldoOrigem,
+                CompletableFuture<StatusOperacao> resultado) {
+            super(resultado);
+            this.transferencia = transferencia;
+            this.origem = origem;
+            this.destino = destino;
+            this.epoca = epoca;
+            this.saldoOrigem = saldoOrigem;
+        }
+
+        @Override
+        public long executar(Particao particao) {
+            StatusOperacao credito;
+            try {
+                credito = destino.tentarDepositar(transferencia.valor(), epoca, particao.saldos);
+            } catch (RuntimeException e) {
+                credito = StatusOperacao.OPERACAO_INVALIDA;
+            }
+            if (credito != StatusOperacao.APLICADA) {
+                particaoDe(origem).enviar(new Estorno(transferencia, origem, epoca, saldoOrigem, credito, resultado));
+                return 0;
+            }
+            banco.concluirAlteracaoCompartilhada(epoca);
+            status = credito;
+            long posicao = banco.anexarOperacao(transferencia, origem, destino);
+            registrar(transferencia, origem, destino, saldoOrigem, particao.saldos[0]);
+            return posicao;
+        }
+    }
+
+    /**
+     * Devolve à origem, na mesma alteração compartilhada, o valor de uma transferência cujo crédito foi recusado.
+     * <p>
+     * O débito não foi para o journal, então o estorno também não vai. Se nem o estorno couber (créditos
+     * recebidos pela origem entre as fases levaram o saldo ao limite de um {@code long}), o débito é
+     * registrado no journal como um saque, para que a memória e o journal continuem iguais, e avisado no log.
+     */
+    private final class Estorno extends ComandoStatus {
+        private final OperacaoLote transferencia;
+        private final Conta origem;
+        private final long epoca;
+        private final long saldoOrigem;
+        private final StatusOperacao motivo;
+
+        Estorno(OperacaoLote transferencia, Conta origem, long epoca, long saldoOrigem, StatusOperacao motivo,
+                CompletableFuture<StatusOperacao> resultado) {
+            super(resultado);
+            this.transferencia = transferencia;
+            this.origem = origem;
+            this.epoca = epoca;
+            this.saldoOrigem = saldoOrigem;
+            this.motivo = motivo;
+        }
+
+        @Override
+        public long executar(Particao particao) {
+            status = motivo;
+            StatusOperacao estorno;
+            try {
+                estorno = origem.tentarDepositar(transferencia.valor(), epoca, particao.saldos);
+            } finally {
+                banco.concluirAlteracaoCompartilhada(epoca);
+            }
+            if (estorno == StatusOperacao.APLICADA) {
+                return 0;
+            }
+            System.err.printf("Erro: estorno de %d centavos recusado (%s) na conta %d; o débito da transferência "
+                    + "para a conta %d foi mantido como saque.%n", transferencia.valor(), estorno,
+                    origem.getNumero(), transferencia.destino());
+            OperacaoLote saque = OperacaoLote.saque(origem.getNumero(), transferencia.valor());
+            long posicao = banco.anexarOperacao(saque, origem, null);
+            registrar(saque, origem, null, saldoOrigem, 0);
+            return posicao;
+        }
+    }
+
+    /**
+     * Abertura de uma conta com número do bloco da partição.
+     */
+    private final class Abertura implements Comando {
+        private final Cliente titular;
+        private final CompletableFuture<Conta> resultado;
+        private Conta conta;
+
+        Abertura(Cliente titular, CompletableFuture<Conta> resultado) {
+            this.titular = titular;
+            this.resultado = resultado;
+        }
+
+        @Override
+        public long executar(Particao particao) {
+            // O número só é tirado do bloco depois de o CPF passar.
+            banco.conferirCpfLivre(titular);
+            Conta nova;
+            long posicao;
+            do {
+                nova = new Conta(titular, particao.proximoNumero());
+                posicao = banco.abrirContaSeLivre(nova);
+            } while (posicao == Banco.NUMERO_OCUPADO);
+            conta = nova;
+            return posicao;
+        }
+
+        @Override
+        public void concluir(RuntimeException erroJournal) {
+            if (conta != null) {
+                if (erroJournal != null) {
+                    resultado.completeExceptionally(erroJournal);
+                } else {
+                    resultado.complete(conta);
+                }
+                respondidas.increment();
+            }
+        }
+
+        @Override
+        public void falhar(Throwable erro) {
+            conta = null;
+            resultado.completeExceptionally(erro);
+            respondidas.increment();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+// Define o pacote para os serviços da aplicação.
+package PrjBank.Banco.Digital.service;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Abstração das chamadas feitas à planilha de contas.
+ * <p>
+ * A implementação real ({@link GoogleSheetsTransporte}) usa a API do Google Sheets; testes e
+ * benchmarks podem usar uma implementação em memória que registra as chamadas e simula
+ * latência ou falhas.
+ */
+public interface PlanilhaTransporte {
+
+    /**
+     * Conjunto de valores a ser escrito em um intervalo da planilha (ex.: {@code "Contas!C5"}).
+     */
+    record Escrita(String intervalo, List<List<Object>> valores) {
+    }
+
+    /**
+     * Lançada quando a API recusa o lote pelo seu conteúdo (um intervalo fora da aba, por exemplo), e não
+     * por uma falha transitória: repetir o mesmo lote falharia de novo.
+     */
+    class EscritaRecusadaException extends IOException {
+        public EscritaRecusadaException(String mensagem, Throwable causa) {
+            super(mensagem, causa);
+        }
+    }
+
+    /**
+     * Lê os valores de um intervalo da planilha.
+     * @param intervalo Intervalo no formato A1 (ex.: {@code "Contas!A2:E"}).
+     * @return As linhas lidas, sem as linhas vazias do fim do intervalo; vazia se não houver dados.
+     */
+    List<List<Object>> ler(String intervalo) throws IOException;
+
+    /**
+     * Retorna a quantidade de linhas da aba ({@code gridProperties.rowCount}), contando o cabeçalho e as
+     * linhas vazias. Diferente de {@link #ler}, que omite as linhas vazias do fim do intervalo, é um limite
+     * seguro para saber até onde ler.
+     * @param aba Nome da aba (ex.: {@code "Contas"}).
+     * @return A quantidade de linhas da aba.
+     */
+    int contarLinhas(String aba) throws IOException;
+
+    /**
+     * Escreve vários intervalos de uma só vez, em uma única chamada ({@code batchUpdate}). O lote é
+     * aplicado inteiro ou recusado inteiro.
+     * @param escritas Intervalos e valores a serem escritos.
+     * @throws EscritaRecusadaException Se a API recusar o lote pelo conteúdo de alguma escrita.
+     */
+    void atualizarEmLote(List<Escrita> escritas) throws IOException;
+}
@@ -0,0 +1,18 @@
+// Define o pacote para os serviços da aplicação.
+package PrjBank.Banco.Digital.service;
+
+/**
+ * O que o {@link RegistroEventos} faz quando o buffer de eventos está cheio.
+ */
+public enum PoliticaBufferCheio {
+
+    /**
+     * O evento é descartado e contado; a requisição nunca espera pelo registro.
+     */
+    DESCARTAR,
+
+    /**
+     * A requisição espera até haver espaço no buffer; nenhum evento é perdido.
+     */
+    BLOQUEAR
+}
@@ -0,0 +1,407 @@
+// Define o pacote para os serviços da aplicação.
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.model.DinheiroJson;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Component: Envia aos navegadores, por Server-Sent Events, os saldos das contas alteradas, para
+ * que a tela atualize só o que mudou em vez de buscar a lista inteira a cada operação.
+ * <p>
+ * As operações apenas marcam a conta como alterada em um mapa por número, então várias operações
+ * na mesma conta dentro da janela viram um único evento com o saldo atual. A cada janela uma thread
+ * monta os eventos uma vez (texto SSE pronto) e os entrega a todos os assinantes. As conexões são
+ * assíncronas ({@link SseEmitter}); as escritas são feitas por um pequeno grupo de threads, sem uma
+ * thread por cliente. Uma escrita presa (cliente que parou de ler) não ocupa as threads dos demais:
+ * o grupo cresce enquanto houver escritas em andamento, até {@code threadsEnvioMaximo}, e volta ao
+ * tamanho inicial depois. Um assinante cujo envio não consegue thread é desconectado (o navegador reconecta).
+ * <p>
+ * Um assinante lento não atrasa os demais: enquanto o envio anterior não termina, as alterações
+ * seguintes são acumuladas para ele, também por conta. Se acumular mais de {@code limitePendentes}
+ * contas, as pendências são descartadas e ele recebe um evento {@code recarregar}, para buscar a
+ * lista completa. Se um único envio demorar mais que {@code prazoEnvioMs}, o assinante é descartado:
+ * sai da lista e a conexão é encerrada com erro assim que a escrita terminar (o navegador reconecta).
+ * <p>
+ * Eventos: {@code saldos} (array de {@code {numero, saldo}}), {@code contas} (contas novas,
+ * completas) e {@code recarregar}.
+ */
+@Component
+@ConditionalOnProperty(name = "banco.sse.ativo", havingValue = "true", matchIfMissing = true)
+public class PublicadorSaldos implements OuvinteOperacoes, AutoCloseable {
+
+    private static final MediaType TEXTO_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> EVENTO_RECARREGAR =
+            Set.of(new ResponseBodyEmitter.DataWithMediaType("event: recarregar\ndata: {}\n\n", TEXTO_UTF8));
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> MANTER_CONEXAO =
+            Set.of(new ResponseBodyEmitter.DataWithMediaType(":\n\n", TEXTO_UTF8));
+    private static final long INTERVALO_MANTER_CONEXAO_NANOS = TimeUnit.SECONDS.toNanos(15);
+
+    /**
+     * Saldo atual de uma conta alterada.
+     */
+    public record SaldoConta(int numero, @JsonSerialize(using = DinheiroJson.Serializador.class) long saldo) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final int limitePendentes;
+    private final long prazoEnvioNanos;
+    private final long timeoutMs;
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+    // Contas alteradas / criadas desde a última janela, por número.
+    private final Map<Integer, Conta> alteradas = new ConcurrentHashMap<>();
+    private final Map<Integer, Conta> novas = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService agendador;
+    private final ExecutorService envio;
+    private long ultimoEnvioNanos = System.nanoTime();
+
+    // Estatísticas.
+    private final LongAdder eventos = new LongAdder();
+    private final LongAdder recargas = new LongAdder();
+    private final LongAdder descartados = new LongAdder();
+
+    /**
+     * Cria o publicador a partir das propriedades da aplicação.
+     * @param janelaMs Intervalo em que as alterações são agrupadas antes do envio.
+     * @param limitePendentes Quantidade de contas acumuladas para um assinante lento antes de mandá-lo recarregar.
+     * @param threadsEnvio Threads mantidas para escrever nas conexões.
+     * @param threadsEnvioMaximo Limite de threads de escrita, contando as criadas para desviar de escritas presas.
+     * @param prazoEnvioMs Tempo máximo de um envio antes de o assinante ser descartado.
+     * @param timeoutMs Duração máxima de uma conexão (o navegador reconecta sozinho).
+     */
+    @Autowired
+    public PublicadorSaldos(ObjectMapper objectMapper,
+                            @Value("${banco.sse.janela-ms:100}") long janelaMs,
+                            @Value("${banco.sse.limite-pendentes:10000}") int limitePendentes,
+                            @Value("${banco.sse.threads-envio:2}") int threadsEnvio,
+                            @Value("${banco.sse.threads-envio-maximo:64}") int threadsEnvioMaximo,
+                            @Value("${banco.sse.prazo-envio-ms:10000}") long prazoEnvioMs,
+                            @Value("${banco.sse.timeout-ms:1800000}") long timeoutMs) {
+        this.objectMapper = objectMapper;
+        this.limitePendentes = limitePendentes;
+        this.prazoEnvioNanos = TimeUnit.MILLISECONDS.toNanos(prazoEnvioMs);
+        this.timeoutMs = timeoutMs;
+        AtomicInteger contador = new AtomicInteger();
+        // Sem fila: cada assinante tem no máximo um envio em andamento, e um envio que não acha
+        // thread livre ganha uma nova, em vez de esperar atrás de uma escrita presa.
+        int minimo = Math.max(threadsEnvio, 1);
+        this.envio = new ThreadPoolExecutor(minimo, Math.max(threadsEnvioMaximo, minimo), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), tarefa -> {
+            Thread thread = new Thread(tarefa, "sse-envio-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "sse-saldos");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Janela zero: a publicação é feita apenas por publicar(), como nos testes.
+        if (janelaMs > 0) {
+            agendador.scheduleWithFixedDelay(this::publicarComSeguranca, janelaMs, janelaMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Abre uma conexão SSE que passa a receber os eventos das próximas janelas.
+     */
+    public SseEmitter assinar() {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        registrar(emitter);
+        return emitter;
+    }
+
+    /**
+     * Registra a conexão e remove-a quando ela terminar, por qualquer motivo.
+     */
+    void registrar(SseEmitter emitter) {
+        Assinante assinante = new Assinante(emitter);
+        emitter.onCompletion(() -> assinantes.remove(assinante));
+        emitter.onTimeout(() -> {
+            assinantes.remove(assinante);
+            emitter.complete();
+        });
+        emitter.onError(erro -> assinantes.remove(assinante));
+        assinantes.add(assinante);
+    }
+
+    @Override
+    public void contaAdicionada(Conta conta) {
+        if (!assinantes.isEmpty()) novas.put(conta.getNumero(), conta);
+    }
+
+    @Override
+    public void deposito(Conta conta, long valor) {
+        marcar(conta);
+    }
+
+    @Override
+    public void saque(Conta conta, long valor) {
+        marcar(conta);
+    }
+
+    @Override
+    public void transferencia(Conta origem, Conta destino, long valor) {
+        marcar(origem);
+        marcar(destino);
+    }
+
+    private void marcar(Conta conta) {
+        // Sem assinantes não há a quem avisar; a tela busca a lista ao conectar.
+        if (!assinantes.isEmpty()) alteradas.put(conta.getNumero(), conta);
+    }
+
+    public int getAssinantes() {
+        return assinantes.size();
+    }
+
+    /**
+     * Quantidade de envios feitos aos assinantes (cada um pode conter vários eventos).
+     */
+    public long getEventosEnviados() {
+        return eventos.sum();
+    }
+
+    /**
+     * Quantidade de vezes que um assinante lento foi mandado recarregar a lista.
+     */
+    public long getRecargas() {
+        return recargas.sum();
+    }
+
+    /**
+     * Quantidade de assinantes descartados por um envio que passou do prazo.
+     */
+    public long getDescartados() {
+        return descartados.sum();
+    }
+
+    /**
+     * Monta os eventos das alterações da janela e os entrega a todos os assinantes.
+     */
+    void publicar() {
+        descartarLentos();
+        List<Conta> contasNovas = drenar(novas);
+        List<Conta> contasAlteradas = drenar(alteradas);
+        if (contasNovas.isEmpty() && contasAlteradas.isEmpty()) {
+            if (System.nanoTime() - ultimoEnvioNanos >= INTERVALO_MANTER_CONEXAO_NANOS) {
+                // Comentário SSE periódico: mantém a conexão aberta em proxies e detecta clientes que saíram.
+                ultimoEnvioNanos = System.nanoTime();
+                for (Assinante assinante : assinantes) {
+                    assinante.entregar(MANTER_CONEXAO, List.of(), List.of());
+                }
+            }
+            return;
+        }
+        ultimoEnvioNanos = System.nanoTime();
+        Set<ResponseBodyEmitter.DataWithMediaType> texto = montar(contasNovas, contasAlteradas);
+        for (Assinante assinante : assinantes) {
+            assinante.entregar(texto, contasNovas, contasAlteradas);
+        }
+    }
+
+    /**
+     * Tira da lista os assinantes com um envio em andamento há mais tempo que o prazo; a conexão é
+     * encerrada pela própria thread de envio quando a escrita terminar.
+     */
+    private void descartarLentos() {
+        long agora = System.nanoTime();
+        for (Assinante assinante : assinantes) {
+            long inicio = assinante.inicioEnvioNanos;
+            if (inicio != 0 && agora - inicio > prazoEnvioNanos && assinantes.remove(assinante)) {
+                assinante.descartado = true;
+                descartados.increment();
+            }
+        }
+    }
+
+    private void publicarComSeguranca() {
+        try {
+            publicar();
+        } catch (RuntimeException e) {
+            // Uma falha não pode cancelar o agendamento das próximas janelas.
+            System.err.println("Aviso: falha ao publicar os saldos alterados: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Retira todas as contas do mapa; uma alteração que chegue durante a retirada fica para a próxima janela.
+     */
+    private static List<Conta> drenar(Map<Integer, Conta> mapa) {
+        if (mapa.isEmpty()) return List.of();
+        List<Conta> contas = new ArrayList<>();
+        Iterator<Conta> iterador = mapa.values().iterator();
+        while (iterador.hasNext()) {
+            contas.add(iterador.next());
+            iterador.remove();
+        }
+        return contas;
+    }
+
+    /**
+     * Escreve os eventos SSE com os saldos lidos agora.
+     */
+    private Set<ResponseBodyEmitter.DataWithMediaType> montar(Iterable<Conta> contasNovas, Iterable<Conta> contasAlteradas) {
+        try {
+            StringBuilder texto = new StringBuilder();
+            if (contasNovas.iterator().hasNext()) {
+                texto.append("event: contas\ndata: ").append(objectMapper.writeValueAsString(contasNovas)).append("\n\n");
+            }
+            List<SaldoConta> saldos = new ArrayList<>();
+            for (Conta conta : contasAlteradas) {
+                saldos.add(new SaldoConta(conta.getNumero(), conta.getSaldo()));
+            }
+            if (!saldos.isEmpty()) {
+                texto.append("event: saldos\ndata: ").append(objectMapper.writeValueAsString(saldos)).append("\n\n");
+            }
+            return Set.of(new ResponseBodyEmitter.DataWithMediaType(texto.toString(), TEXTO_UTF8));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Encerra as conexões abertas e as threads do publicador.
+     */
+    @PreDestroy
+    @Override
+    public void close() {
+        agendador.shutdownNow();
+        for (Assinante assinante : assinantes) {
+            assinante.emitter.complete();
+        }
+        assinantes.clear();
+        envio.shutdown();
+    }
+
+    /**
+     * Conexão de um navegador, com o que ainda falta enviar a ela.
+     */
+    private final class Assinante {
+        private final SseEmitter emitter;
+        // Campos abaixo guardados pela trava do assinante.
+        private boolean enviando;
+        private boolean recarregar;
+        private final Map<Integer, Conta> novasPendentes = new LinkedHashMap<>();
+        private final Map<Integer, Conta> alteradasPendentes = new LinkedHashMap<>();
+        // Início do envio em andamento (zero quando não há envio) e se o prazo dele já passou.
+        private volatile long inicioEnvioNanos;
+        private volatile boolean descartado;
+
+        Assinante(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Envia o texto já montado ou, se o envio anterior ainda não terminou, acumula as contas.
+         */
+        void entregar(Set<ResponseBodyEmitter.DataWithMediaType> texto, List<Conta> contasNovas,
+                      List<Conta> contasAlteradas) {
+            synchronized (this) {
+                if (enviando) {
+                    acumular(contasNovas, contasAlteradas);
+                    return;
+                }
+                enviando = true;
+            }
+            try {
+                envio.execute(() -> enviar(texto));
+            } catch (RejectedExecutionException e) {
+                // Sem thread para o envio (limite atingido ou publicador encerrado): o assinante sai da
+                // lista em vez de ficar marcado como enviando para sempre.
+                synchronized (this) {
+                    enviando = false;
+                }
+                assinantes.remove(this);
+                emitter.completeWithError(e);
+            }
+        }
+
+        private void acumular(List<Conta> contasNovas, List<Conta> contasAlteradas) {
+            if (recarregar) return;
+            for (Conta conta : contasNovas) novasPendentes.put(conta.getNumero(), conta);
+            for (Conta conta : contasAlteradas) alteradasPendentes.put(conta.getNumero(), conta);
+            if (novasPendentes.size() + alteradasPendentes.size() > limitePendentes) {
+                novasPendentes.clear();
+                alteradasPendentes.clear();
+                recarregar = true;
+                recargas.increment();
+            }
+        }
+
+        /**
+         * Envia o texto e, em seguida, o que foi acumulado durante o envio, até não sobrar nada.
+         */
+        private void enviar(Set<ResponseBodyEmitter.DataWithMediaType> texto) {
+            Set<ResponseBodyEmitter.DataWithMediaType> proximo = texto;
+            while (true) {
+                try {
+                    inicioEnvioNanos = System.nanoTime();
+                    emitter.send(proximo);
+                    eventos.increment();
+                } catch (IOException | IllegalStateException e) {
+                    // Conexão fechada pelo cliente.
+                    inicioEnvioNanos = 0;
+                    assinantes.remove(this);
+                    emitter.completeWithError(e);
+                    return;
+                }
+                if (descartado) {
+                    inicioEnvioNanos = 0;
+                    emitter.completeWithError(new IOException("Envio de eventos SSE passou do prazo."));
+                    return;
+                }
+                List<Conta> contasNovas;
+                List<Conta> contasAlteradas;
+                synchronized (this) {
+                    if (recarregar) {
+                        recarregar = false;
+                        proximo = EVENTO_RECARREGAR;
+                        continue;
+                    }
+                    if (novasPendentes.isEmpty() && alteradasPendentes.isEmpty()) {
+                        inicioEnvioNanos = 0;
+                        enviando = false;
+                        return;
+                    }
+                    contasNovas = new ArrayList<>(novasPendentes.values());
+                    contasAlteradas = new ArrayList<>(alteradasPendentes.values());
+                    novasPendentes.clear();
+                    alteradasPendentes.clear();
+                }
+                // Até terminar de montar, novas alterações continuam sendo acumuladas.
+                proximo = montar(contasNovas, contasAlteradas);
+            }
+        }
+    }
+}
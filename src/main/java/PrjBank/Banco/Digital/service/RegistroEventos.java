@@ -0,0 +1,285 @@
+// Define o pacote para os serviços da aplicação.
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.model.Dinheiro;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @Component: Registro das operações aceitas pelo banco (trilha de auditoria), escrito em segundo plano.
+ * <p>
+ * As threads das requisições apenas preenchem um evento em um buffer circular de tamanho fixo, com
+ * os eventos alocados uma única vez na criação; nenhum texto é formatado e nenhuma trava é disputada
+ * na requisição. Uma thread própria percorre o buffer em ordem, formata cada evento e o escreve no
+ * console ou em um arquivo, descarregando a saída sempre que o buffer fica vazio.
+ * <p>
+ * Quando o buffer enche, o comportamento segue a {@link PoliticaBufferCheio}: descartar e contar o
+ * evento, ou fazer a requisição esperar por espaço.
+ */
+@Component
+@ConditionalOnProperty(name = "banco.eventos.ativo", havingValue = "true", matchIfMissing = true)
+public class RegistroEventos implements OuvinteOperacoes, AutoCloseable {
+
+    private static final byte ABERTURA = 1;
+    private static final byte DEPOSITO = 2;
+    private static final byte SAQUE = 3;
+    private static final byte TRANSFERENCIA = 4;
+
+    private static final long ESPERA_OCIOSA_NANOS = 500_000;
+    private static final long ESPERA_BUFFER_CHEIO_NANOS = 10_000;
+
+    /**
+     * Posição do buffer, reaproveitada a cada volta. {@code sequencia} é escrita por último e
+     * indica qual evento a posição contém, tornando os demais campos visíveis à thread de escrita.
+     */
+    private static final class Evento {
+        volatile long sequencia = -1;
+        byte tipo;
+        Conta conta;
+        Conta destino;
+        long valor;
+        long instante;
+    }
+
+    private final Evento[] eventos;
+    private final int mascara;
+    private final PoliticaBufferCheio politica;
+    private final Writer saida;
+    private final boolean fecharSaida;
+    private final Thread escritor;
+
+    // Próxima sequência a ser reservada pelas requisições.
+    private final AtomicLong proxima = new AtomicLong();
+    // Quantidade de eventos já escritos; as posições abaixo dela podem ser reaproveitadas.
+    private final AtomicLong escritos = new AtomicLong();
+    private final LongAdder descartados = new LongAdder();
+    private final LongAdder falhasEscrita = new LongAdder();
+    private volatile boolean encerrado;
+
+    /**
+     * Cria o registro a partir das propriedades da aplicação.
+     * @param destino "console" ou o caminho de um arquivo, ao qual os eventos são acrescentados.
+     */
+    @Autowired
+    public RegistroEventos(@Value("${banco.eventos.destino:console}") String destino,
+                           @Value("${banco.eventos.capacidade:65536}") int capacidade,
+                           @Value("${banco.eventos.politica:DESCARTAR}") PoliticaBufferCheio politica) throws IOException {
+        this(abrir(destino), !"console".equals(destino), capacidade, politica);
+    }
+
+    /**
+     * Cria o registro escrevendo na saída informada.
+     * @param saida Destino das linhas de evento.
+     * @param fecharSaida Se a saída deve ser fechada no {@link #close()}.
+     * @param capacidade Quantidade de eventos do buffer, arredondada para a próxima potência de 2.
+     * @param politica O que fazer quando o buffer estiver cheio.
+     */
+    public RegistroEventos(Writer saida, boolean fecharSaida, int capacidade, PoliticaBufferCheio politica) {
+        int tamanho = Integer.highestOneBit(Math.max(capacidade - 1, 1)) << 1;
+        this.eventos = new Evento[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            eventos[i] = new Evento();
+        }
+        this.mascara = tamanho - 1;
+        this.politica = politica;
+        this.saida = saida;
+        this.fecharSaida = fecharSaida;
+        this.escritor = new Thread(this::escrever, "registro-eventos");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    private static Writer abrir(String destino) throws IOException {
+        if ("console".equals(destino)) {
+            return new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 64 * 1024);
+        }
+        Path arquivo = Path.of(destino);
+        if (arquivo.getParent() != null) {
+            Files.createDirectories(arquivo.getParent());
+        }
+        return Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public void contaAdicionada(Conta conta) {
+        publicar(ABERTURA, conta, null, conta.getSaldo());
+    }
+
+    @Override
+    public void deposito(Conta conta, long valor) {
+        publicar(DEPOSITO, conta, null, valor);
+    }
+
+    @Override
+    public void saque(Conta conta, long valor) {
+        publicar(SAQUE, conta, null, valor);
+    }
+
+    @Override
+    public void transferencia(Conta origem, Conta destino, long valor) {
+        publicar(TRANSFERENCIA, origem, destino, valor);
+    }
+
+    /**
+     * Quantidade de eventos aceitos no buffer.
+     */
+    public long getPublicados() {
+        return proxima.get();
+    }
+
+    /**
+     * Quantidade de eventos já escritos na saída.
+     */
+    public long getEscritos() {
+        return escritos.get();
+    }
+
+    /**
+     * Quantidade de eventos descartados por buffer cheio.
+     */
+    public long getDescartados() {
+        return descartados.sum();
+    }
+
+    public long getFalhasEscrita() {
+        return falhasEscrita.sum();
+    }
+
+    public int getCapacidade() {
+        return eventos.length;
+    }
+
+    public PoliticaBufferCheio getPolitica() {
+        return politica;
+    }
+
+    /**
+     * Escreve os eventos que ainda estão no buffer e encerra a thread de escrita.
+     */
+    @PreDestroy
+    @Override
+    public void close() {
+        if (encerrado) return;
+        encerrado = true;
+        LockSupport.unpark(escritor);
+        try {
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (fecharSaida) {
+                saida.close();
+            } else {
+                saida.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao fechar o registro de eventos.", e);
+        }
+    }
+
+    /**
+     * Reserva a próxima posição do buffer e preenche o evento. Não aloca nem formata nada.
+     */
+    private void publicar(byte tipo, Conta conta, Conta destino, long valor) {
+        if (encerrado) {
+            descartados.increment();
+            return;
+        }
+        long sequencia;
+        while (true) {
+            sequencia = proxima.get();
+            if (sequencia - escritos.get() >= eventos.length) {
+                if (politica == PoliticaBufferCheio.DESCARTAR || encerrado) {
+                    descartados.increment();
+                    return;
+                }
+                LockSupport.parkNanos(ESPERA_BUFFER_CHEIO_NANOS);
+                continue;
+            }
+            if (proxima.compareAndSet(sequencia, sequencia + 1)) break;
+        }
+        Evento evento = eventos[(int) (sequencia & mascara)];
+        evento.tipo = tipo;
+        evento.conta = conta;
+        evento.destino = destino;
+        evento.valor = valor;
+        evento.instante = System.currentTimeMillis();
+        evento.sequencia = sequencia; // publica o evento para a thread de escrita
+    }
+
+    /**
+     * Laço da thread de escrita: consome os eventos em ordem de sequência.
+     */
+    private void escrever() {
+        StringBuilder linha = new StringBuilder(160);
+        long sequencia = 0;
+        boolean pendente = false;
+        while (true) {
+            Evento evento = eventos[(int) (sequencia & mascara)];
+            if (evento.sequencia == sequencia) {
+                linha.setLength(0);
+                formatar(evento, linha);
+                try {
+                    saida.append(linha);
+                } catch (IOException e) {
+                    falhasEscrita.increment();
+                }
+                escritos.set(++sequencia);
+                pendente = true;
+                continue;
+            }
+            if (pendente) {
+                // Buffer vazio: envia o que foi escrito, em vez de uma escrita por evento.
+                try {
+                    saida.flush();
+                } catch (IOException e) {
+                    falhasEscrita.increment();
+                }
+                pendente = false;
+                continue;
+            }
+            // Encerra só depois de escrever todos os eventos já reservados.
+            if (encerrado && proxima.get() == sequencia) return;
+            LockSupport.parkNanos(ESPERA_OCIOSA_NANOS);
+        }
+    }
+
+    private static void formatar(Evento evento, StringBuilder linha) {
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(evento.instante), linha);
+        switch (evento.tipo) {
+            case ABERTURA -> linha.append(" ABERTURA conta=").append(evento.conta.getNumero())
+                    .append(" agencia=").append(evento.conta.getAgencia())
+                    .append(" titular=").append(evento.conta.getTitular().getNome());
+            case DEPOSITO -> linha.append(" DEPOSITO conta=").append(evento.conta.getNumero());
+            case SAQUE -> linha.append(" SAQUE conta=").append(evento.conta.getNumero());
+            case TRANSFERENCIA -> linha.append(" TRANSFERENCIA conta=").append(evento.conta.getNumero())
+                    .append(" destino=").append(evento.destino.getNumero());
+            default -> linha.append(" DESCONHECIDO");
+        }
+        if (evento.tipo != ABERTURA) {
+            Dinheiro.formatarReal(evento.valor, linha.append(" valor="));
+        }
+        linha.append('\n');
+    }
+}
@@ -0,0 +1,107 @@
+// Define o pacote para os serviços da aplicação.
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.model.Dinheiro;
+
+/**
+ * Regra de um lote de lançamentos ({@link LancamentosEmLote}): calcula, a partir do saldo, quanto lançar
+ * em cada conta.
+ * <p>
+ * A regra é avaliada sob a trava da conta, então deve ser rápida e não pode acessar outras contas.
+ * A {@link #descricao()} é gravada no checkpoint do lote; as regras de {@link #de(String)} podem ser
+ * reconstruídas a partir dela para retomar um lote interrompido.
+ */
+public interface RegraLancamento {
+
+    /**
+     * Valor a lançar na conta.
+     * @param conta A conta avaliada.
+     * @param saldo Saldo atual da conta, em centavos.
+     * @return Valor em centavos: positivo credita, negativo debita e zero deixa a conta como está.
+     */
+    long valor(Conta conta, long saldo);
+
+    /**
+     * Texto que identifica a regra, como {@code "rendimento:50"} ou {@code "tarifa:12.90"}.
+     */
+    String descricao();
+
+    /**
+     * Rendimento sobre o saldo positivo, arredondado para baixo até o centavo.
+     * @param pontosBase Taxa em centésimos de ponto percentual (50 = 0,50%).
+     */
+    static RegraLancamento rendimento(int pontosBase) {
+        if (pontosBase <= 0 || pontosBase > 10_000) {
+            throw new IllegalArgumentException("A taxa do rendimento deve estar entre 1 e 10000 pontos-base.");
+        }
+        return new Rendimento(pontosBase);
+    }
+
+    /**
+     * Tarifa fixa debitada de todas as contas; contas sem saldo suficiente são recusadas.
+     * @param valor Valor da tarifa, em centavos.
+     */
+    static RegraLancamento tarifa(long valor) {
+        if (valor <= 0) {
+            throw new IllegalArgumentException("O valor da tarifa deve ser positivo.");
+        }
+        return new Tarifa(valor);
+    }
+
+    /**
+     * Reconstrói uma regra a partir da sua descrição: {@code rendimento:<pontos-base>} ou
+     * {@code tarifa:<valor em reais com ponto decimal>}.
+     * @throws IllegalArgumentException Se a descrição não for de uma regra conhecida.
+     */
+    static RegraLancamento de(String descricao) {
+        int separador = descricao.indexOf(':');
+        String tipo = separador < 0 ? descricao.strip() : descricao.substring(0, separador).strip();
+        String parametro = separador < 0 ? "" : descricao.substring(separador + 1).strip();
+        switch (tipo) {
+            case "rendimento" -> {
+                try {
+                    return rendimento(Integer.parseInt(parametro));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Taxa de rendimento inválida: " + parametro);
+                }
+            }
+            case "tarifa" -> {
+                long valor = Dinheiro.lerDecimal(parametro);
+                if (valor == Dinheiro.INVALIDO) {
+                    throw new IllegalArgumentException("Valor de tarifa inválido: " + parametro);
+                }
+                return tarifa(valor);
+            }
+            default -> throw new IllegalArgumentException("Regra de lançamento desconhecida: " + descricao);
+        }
+    }
+
+    record Rendimento(int pontosBase) implements RegraLancamento {
+
+        @Override
+        public long valor(Conta conta, long saldo) {
+            if (saldo <= 0) return 0;
+            // Divide antes de multiplicar para não estourar o long com saldos muito altos.
+            return saldo / 10_000 * pontosBase + saldo % 10_000 * pontosBase / 10_000;
+        }
+
+        @Override
+        public String descricao() {
+            return "rendimento:" + pontosBase;
+        }
+    }
+
+    record Tarifa(long centavos) implements RegraLancamento {
+
+        @Override
+        public long valor(Conta conta, long saldo) {
+            return -centavos;
+        }
+
+        @Override
+        public String descricao() {
+            return "tarifa:" + Dinheiro.formatarDecimal(centavos);
+        }
+    }
+}
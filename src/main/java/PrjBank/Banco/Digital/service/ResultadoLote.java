@@ -0,0 +1,24 @@
+// Define o pacote para os serviços da aplicação.
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.model.StatusOperacao;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Resultado de um lote de operações.
+ * @param aplicadas Quantidade de operações aplicadas.
+ * @param rejeitadas Quantidade de operações não aplicadas.
+ * @param status Situação de cada operação, na mesma ordem do lote.
+ */
+public record ResultadoLote(int aplicadas, int rejeitadas, List<StatusOperacao> status) {
+
+    static ResultadoLote de(StatusOperacao[] status) {
+        int aplicadas = 0;
+        for (StatusOperacao s : status) {
+            if (s == StatusOperacao.APLICADA) aplicadas++;
+        }
+        return new ResultadoLote(aplicadas, status.length - aplicadas, Arrays.asList(status));
+    }
+}
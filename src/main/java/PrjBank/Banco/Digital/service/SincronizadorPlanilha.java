@@ -0,0 +1,262 @@
+// Define o pacote para os serviços da aplicação.
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.model.Conta;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @Component: Sincroniza a planilha de contas em segundo plano (write-behind).
+ * <p>
+ * As threads das requisições apenas marcam a conta como pendente, sem nunca esperar pela
+ * planilha. Uma thread própria descarrega as pendências periodicamente, ou assim que
+ * {@code loteMaximo} contas se acumulam, em uma única chamada {@code batchUpdate}:
+ * <ul>
+ *   <li>contas novas geram a escrita da linha completa;</li>
+ *   <li>contas já existentes geram apenas a escrita da célula de saldo.</li>
+ * </ul>
+ * Várias alterações de uma mesma conta entre dois descarregamentos viram uma única escrita com o
+ * saldo mais recente. Se a chamada falhar, as pendências voltam para a fila e o envio é
+ * tentado novamente com espera exponencial.
+ * <p>
+ * Uma escrita que nunca pode dar certo não trava as demais: contas cuja linha fica fora da planilha
+ * nem são enviadas, e se a API recusar um lote pelo conteúdo
+ * ({@link PlanilhaTransporte.EscritaRecusadaException}) ele é dividido ao meio até isolar as escritas
+ * recusadas. Essas são descartadas e contadas em {@link #getDescartadas()}; a próxima alteração da
+ * conta tenta de novo.
+ */
+@Component
+@ConditionalOnProperty(name = "banco.planilha.sincronizacao.ativa", havingValue = "true", matchIfMissing = true)
+public class SincronizadorPlanilha implements OuvinteOperacoes, AutoCloseable {
+
+    /**
+     * Conta aguardando envio. {@code linhaCompleta} indica que a linha ainda não existe na planilha.
+     */
+    private record Pendencia(Conta conta, boolean linhaCompleta) {
+        Pendencia juntar(Pendencia outra) {
+            return linhaCompleta || outra.linhaCompleta ? new Pendencia(conta, true) : this;
+        }
+    }
+
+    private final PlanilhaTransporte transporte;
+    private final int loteMaximo;
+    private final long esperaInicialMs;
+    private final long esperaMaximaMs;
+
+    private final Map<Integer, Pendencia> pendentes = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean descargaAgendada = new AtomicBoolean();
+
+    // Estado de novas tentativas; acessado apenas pela thread de descarga.
+    private long esperaAtualMs;
+    private long proximaTentativaNanos;
+
+    // Estatísticas.
+    private final AtomicLong lotesEnviados = new AtomicLong();
+    private final AtomicLong escritasEnviadas = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+    private final AtomicLong descartadas = new AtomicLong();
+
+    /**
+     * Cria o sincronizador a partir das propriedades da aplicação.
+     */
+    @Autowired
+    public SincronizadorPlanilha(PlanilhaTransporte transporte,
+                                 @Value("${banco.planilha.sincronizacao.lote-maximo:500}") int loteMaximo,
+                                 @Value("${banco.planilha.sincronizacao.intervalo-ms:1000}") long intervaloMs,
+                                 @Value("${banco.planilha.sincronizacao.espera-inicial-ms:200}") long esperaInicialMs,
+                                 @Value("${banco.planilha.sincronizacao.espera-maxima-ms:30000}") long esperaMaximaMs) {
+        this.transporte = transporte;
+        this.loteMaximo = loteMaximo;
+        this.esperaInicialMs = esperaInicialMs;
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.esperaAtualMs = esperaInicialMs;
+        this.executor = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "planilha-sincronizacao");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.scheduleWithFixedDelay(this::descarregar, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void contaAdicionada(Conta conta) {
+        marcar(conta, true);
+    }
+
+    @Override
+    public void deposito(Conta conta, long valor) {
+        marcar(conta, false);
+    }
+
+    @Override
+    public void saque(Conta conta, long valor) {
+        marcar(conta, false);
+    }
+
+    @Override
+    public void transferencia(Conta origem, Conta destino, long valor) {
+        marcar(origem, false);
+        marcar(destino, false);
+    }
+
+    /**
+     * Quantidade de contas aguardando envio.
+     */
+    public int getPendentes() {
+        return pendentes.size();
+    }
+
+    public long getLotesEnviados() {
+        return lotesEnviados.get();
+    }
+
+    public long getEscritasEnviadas() {
+        return escritasEnviadas.get();
+    }
+
+    public long getFalhas() {
+        return falhas.get();
+    }
+
+    /**
+     * Quantidade de escritas descartadas por não caberem na planilha ou serem recusadas pela API.
+     */
+    public long getDescartadas() {
+        return descartadas.get();
+    }
+
+    /**
+     * Envia imediatamente as pendências, na thread de descarga, e aguarda o término.
+     * Usado no desligamento e em testes.
+     */
+    public void descarregarAgora() {
+        try {
+            executor.submit(() -> {
+                proximaTentativaNanos = 0;
+                descarregar();
+            }).get();
+        } catch (Exception e) {
+            System.err.println("Aviso: falha ao descarregar a sincronização da planilha: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        if (executor.isShutdown()) return;
+        descarregarAgora();
+        executor.shutdown();
+    }
+
+    private void marcar(Conta conta, boolean linhaCompleta) {
+        Pendencia nova = new Pendencia(conta, linhaCompleta);
+        pendentes.merge(conta.getNumero(), nova, Pendencia::juntar);
+        if (pendentes.size() >= loteMaximo && descargaAgendada.compareAndSet(false, true)) {
+            executor.execute(this::descarregar);
+        }
+    }
+
+    /**
+     * Envia as pendências em lotes de até {@code loteMaximo} escritas. Executa sempre na thread
+     * de descarga, então nunca há dois envios simultâneos.
+     */
+    private void descarregar() {
+        descargaAgendada.set(false);
+        if (System.nanoTime() < proximaTentativaNanos) return; // ainda aguardando após uma falha
+
+        while (!pendentes.isEmpty()) {
+            List<Pendencia> retiradas = retirarLote();
+            List<Pendencia> lote = new ArrayList<>(retiradas.size());
+            List<PlanilhaTransporte.Escrita> escritas = new ArrayList<>(retiradas.size());
+            for (Pendencia pendencia : retiradas) {
+                // O saldo é lido no momento do envio, então sempre vai o valor mais recente.
+                try {
+                    escritas.add(pendencia.linhaCompleta()
+                            ? GoogleSheetsService.escritaLinha(pendencia.conta())
+                            : GoogleSheetsService.escritaSaldo(pendencia.conta()));
+                    lote.add(pendencia);
+                } catch (IllegalArgumentException e) {
+                    descartar(e.getMessage());
+                }
+            }
+            if (!lote.isEmpty() && !enviar(lote, escritas)) return;
+        }
+    }
+
+    /**
+     * Envia as escritas em uma chamada. Se a API recusar o lote pelo conteúdo, divide-o ao meio e envia
+     * cada metade, até isolar e descartar as escritas recusadas.
+     * @return {@code false} se uma falha transitória interrompeu o envio; as pendências não enviadas já
+     * voltaram para a fila e a próxima tentativa foi agendada.
+     */
+    private boolean enviar(List<Pendencia> lote, List<PlanilhaTransporte.Escrita> escritas) {
+        try {
+            transporte.atualizarEmLote(escritas);
+            lotesEnviados.incrementAndGet();
+            escritasEnviadas.addAndGet(escritas.size());
+            esperaAtualMs = esperaInicialMs;
+            return true;
+        } catch (PlanilhaTransporte.EscritaRecusadaException e) {
+            falhas.incrementAndGet();
+            if (lote.size() == 1) {
+                descartar("escrita " + escritas.get(0).intervalo() + " recusada (" + e.getMessage() + ")");
+                return true;
+            }
+            int meio = lote.size() / 2;
+            if (!enviar(lote.subList(0, meio), escritas.subList(0, meio))) {
+                devolver(lote.subList(meio, lote.size()));
+                return false;
+            }
+            return enviar(lote.subList(meio, lote.size()), escritas.subList(meio, escritas.size()));
+        } catch (Exception e) {
+            falhas.incrementAndGet();
+            devolver(lote);
+            proximaTentativaNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(esperaAtualMs);
+            System.err.printf("Aviso: falha ao sincronizar a planilha (%s); nova tentativa em %d ms.%n",
+                    e.getMessage(), esperaAtualMs);
+            esperaAtualMs = Math.min(esperaAtualMs * 2, esperaMaximaMs);
+            return false;
+        }
+    }
+
+    /**
+     * Devolve as pendências à fila sem perder alterações que chegaram enquanto elas eram enviadas.
+     */
+    private void devolver(List<Pendencia> lote) {
+        for (Pendencia pendencia : lote) {
+            pendentes.merge(pendencia.conta().getNumero(), pendencia, Pendencia::juntar);
+        }
+    }
+
+    private void descartar(String motivo) {
+        descartadas.incrementAndGet();
+        System.err.println("Aviso: sincronização da planilha descartou uma escrita: " + motivo);
+    }
+
+    private List<Pendencia> retirarLote() {
+        List<Pendencia> lote = new ArrayList<>(Math.min(loteMaximo, pendentes.size()));
+        Iterator<Integer> numeros = pendentes.keySet().iterator();
+        while (numeros.hasNext() && lote.size() < loteMaximo) {
+            Pendencia pendencia = pendentes.remove(numeros.next());
+            if (pendencia != null) {
+                lote.add(pendencia);
+            }
+        }
+        return lote;
+    }
+}
@@ -0,0 +1,75 @@
+package PrjBank.Banco.Digital.service;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Verificação e criação de threads virtuais sem depender da versão do Java usada na compilação.
+ * <p>
+ * O projeto compila para Java 17, que não tem threads virtuais; a API ({@code Thread.ofVirtual()})
+ * é procurada por reflexão na inicialização. Assim o modo virtual pode ser ligado na configuração
+ * sem quebrar nada: em um Java anterior ao 21 a aplicação apenas avisa e segue com threads de plataforma.
+ */
+public final class ThreadsVirtuais {
+
+    // Thread.ofVirtual(), ou null se a JVM não oferece threads virtuais.
+    private static final Method OF_VIRTUAL = localizar();
+    // Executors.newVirtualThreadPerTaskExecutor(), procurado só quando há threads virtuais.
+    private static final Method EXECUTOR_POR_TAREFA = OF_VIRTUAL == null ? null : localizarExecutor();
+
+    private ThreadsVirtuais() {
+    }
+
+    /**
+     * Indica se a JVM em execução oferece threads virtuais.
+     */
+    public static boolean disponiveis() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Verifica se o modo virtual pedido para um componente pode ser atendido e, se não puder, avisa.
+     * @return Se as threads virtuais serão de fato usadas.
+     */
+    public static boolean verificar(String componente) {
+        if (disponiveis()) return true;
+        System.err.printf("Aviso: banco.threads.virtuais=true, mas o Java %s não tem threads virtuais (requer Java 21); "
+                + "%s continua com threads de plataforma.%n", Runtime.version().feature(), componente);
+        return false;
+    }
+
+    /**
+     * Executor que cria uma thread virtual para cada tarefa ({@code Executors.newVirtualThreadPerTaskExecutor()}).
+     * @throws IllegalStateException Se a JVM não oferece threads virtuais (veja {@link #disponiveis()}).
+     */
+    public static ExecutorService executorPorTarefa() {
+        if (EXECUTOR_POR_TAREFA == null) {
+            throw new IllegalStateException("A JVM não oferece threads virtuais.");
+        }
+        try {
+            return (ExecutorService) EXECUTOR_POR_TAREFA.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Falha ao criar o executor de threads virtuais.", e);
+        }
+    }
+
+    private static Method localizarExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static Method localizar() {
+        try {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            // No Java 19 e 20 o método existe, mas lança exceção sem --enable-preview.
+            ofVirtual.invoke(null);
+            return ofVirtual;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
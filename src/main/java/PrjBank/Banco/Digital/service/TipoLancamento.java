@@ -0,0 +1,12 @@
+// Define o pacote para os serviços da aplicação.
+package PrjBank.Banco.Digital.service;
+
+/**
+ * Tipo de um lançamento do extrato de uma conta.
+ */
+public enum TipoLancamento {
+    DEPOSITO,
+    SAQUE,
+    TRANSFERENCIA_ENVIADA,
+    TRANSFERENCIA_RECEBIDA
+}
@@ -1,9 +1,22 @@
 // URL base da nossa API. Facilita a manutenção se a URL mudar.
 const API_BASE_URL = 'http://localhost:8080/api';
 
+/**
+ * Monta a linha da tabela de uma conta. O atributo data-numero permite achar a linha quando o saldo muda.
+ */
+function criarLinhaConta(conta) {
+    return `
+        <tr data-numero="${conta.numero}">
+            <td>${conta.numero}</td>
+            <td>${conta.titular.nome}</td>
+            <td class="saldo">${conta.saldo.toFixed(2)}</td>
+        </tr>
+    `;
+}
+
 /**
  * Função principal para buscar as contas da API e atualizar a tabela no HTML.
- * Esta é a função que faz as atualizações aparecerem na tela.
+ * Com o fluxo de eventos conectado, só é chamada ao conectar e quando o servidor pede.
  */
 async function carregarContas() {
     try {
@@ -14,23 +27,14 @@ async function carregarContas() {
         const contas = await response.json();
 
         const corpoTabela = document.getElementById('corpo-tabela-contas');
-        corpoTabela.innerHTML = ''; // Limpa a tabela antes de preencher com os dados novos.
 
         if (contas.length === 0) {
-            corpoTabela.innerHTML = `<tr><td colspan="3">Nenhuma conta cadastrada ainda.</td></tr>`;
+            corpoTabela.innerHTML = `<tr id="sem-contas"><td colspan="3">Nenhuma conta cadastrada ainda.</td></tr>`;
             return;
         }
 
-        contas.forEach(conta => {
-            const linha = `
-                <tr>
-                    <td>${conta.numero}</td>
-                    <td>${conta.titular.nome}</td>
-                    <td>${conta.saldo.toFixed(2)}</td>
-                </tr>
-            `;
-            corpoTabela.innerHTML += linha;
-        });
+        // Monta todas as linhas e atualiza a tabela uma única vez.
+        corpoTabela.innerHTML = contas.map(criarLinhaConta).join('');
 
     } catch (error) {
         console.error("Erro ao carregar contas:", error);
@@ -38,6 +42,53 @@ async function carregarContas() {
     }
 }
 
+/**
+ * Conecta ao fluxo de eventos do servidor (SSE), que envia apenas os saldos alterados e as contas
+ * novas. Ao conectar (e a cada reconexão automática do navegador) a tabela é carregada inteira uma vez.
+ */
+let eventosConectados = false;
+
+function conectarEventos() {
+    if (!window.EventSource) {
+        carregarContas();
+        return;
+    }
+    const eventos = new EventSource(`${API_BASE_URL}/contas/eventos`);
+    const corpoTabela = document.getElementById('corpo-tabela-contas');
+
+    eventos.addEventListener('open', () => {
+        eventosConectados = true;
+        carregarContas();
+    });
+    eventos.addEventListener('error', () => {
+        eventosConectados = false;
+    });
+
+    eventos.addEventListener('saldos', (evento) => {
+        JSON.parse(evento.data).forEach(({ numero, saldo }) => {
+            const celula = corpoTabela.querySelector(`[data-numero="${numero}"] .saldo`);
+            if (celula) celula.textContent = saldo.toFixed(2);
+        });
+    });
+    eventos.addEventListener('contas', (evento) => {
+        document.getElementById('sem-contas')?.remove();
+        JSON.parse(evento.data).forEach(conta => {
+            if (!corpoTabela.querySelector(`[data-numero="${conta.numero}"]`)) {
+                corpoTabela.insertAdjacentHTML('beforeend', criarLinhaConta(conta));
+            }
+        });
+    });
+    // O servidor descartou alterações acumuladas para esta conexão: busca a lista completa.
+    eventos.addEventListener('recarregar', carregarContas);
+}
+
+/**
+ * Atualiza a tabela depois de uma operação; com o fluxo de eventos conectado, a atualização chega por ele.
+ */
+function atualizarAposOperacao() {
+    if (!eventosConectados) carregarContas();
+}
+
 /**
  * Função para lidar com a criação de uma nova conta.
  */
@@ -56,7 +107,7 @@ async function criarConta() {
 
         if (response.ok) {
             alert('Conta criada com sucesso!');
-            carregarContas(); // <-- PONTO CHAVE: Atualiza a tabela após a operação.
+            atualizarAposOperacao(); // <-- PONTO CHAVE: Atualiza a tabela após a operação.
         } else {
             alert('Falha ao criar conta.');
         }
@@ -85,7 +136,7 @@ async function depositar() {
         const resultado = await response.text();
         alert(resultado);
 
-        if (response.ok) carregarContas(); // <-- PONTO CHAVE: Atualiza a tabela.
+        if (response.ok) atualizarAposOperacao(); // <-- PONTO CHAVE: Atualiza a tabela.
     } catch (error) {
         console.error("Erro ao depositar:", error);
         alert('Ocorreu um erro na comunicação com o servidor.');
@@ -111,7 +162,7 @@ async function sacar() {
         const resultado = await response.text();
         alert(resultado);
 
-        if (response.ok) carregarContas(); // <-- PONTO CHAVE: Atualiza a tabela.
+        if (response.ok) atualizarAposOperacao(); // <-- PONTO CHAVE: Atualiza a tabela.
     } catch (error) {
         console.error("Erro ao sacar:", error);
         alert('Ocorreu um erro na comunicação com o servidor.');
@@ -143,7 +194,7 @@ async function transferir() {
         const resultado = await response.text();
         alert(resultado);
 
-        if (response.ok) carregarContas(); // <-- PONTO CHAVE: Atualiza a tabela.
+        if (response.ok) atualizarAposOperacao(); // <-- PONTO CHAVE: Atualiza a tabela.
 
     } catch (error) {
         console.error("Erro ao transferir:", error);
@@ -188,7 +239,7 @@ async function emitirExtrato() {
 // --- Event Listeners ---
 // Conecta todas as nossas funções aos botões do HTML.
 
-document.addEventListener('DOMContentLoaded', carregarContas);
+document.addEventListener('DOMContentLoaded', conectarEventos);
 document.getElementById('btn-criar-conta').addEventListener('click', criarConta);
 document.getElementById('btn-depositar').addEventListener('click', depositar);
 document.getElementById('btn-sacar').addEventListener('click', sacar);
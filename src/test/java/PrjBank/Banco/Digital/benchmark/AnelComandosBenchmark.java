@@ -0,0 +1,137 @@
+package PrjBank.Banco.Digital.benchmark;
+
+import PrjBank.Banco.Digital.exception.SaldoInsuficienteException;
+import PrjBank.Banco.Digital.metricas.Histograma;
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.model.Dinheiro;
+import PrjBank.Banco.Digital.model.StatusOperacao;
+import PrjBank.Banco.Digital.service.AnelComandos;
+import PrjBank.Banco.Digital.service.Banco;
+import PrjBank.Banco.Digital.service.OperacaoLote;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compara transferências entre 64 contas aleatórias feitas direto no {@link Banco} e pelo
+ * {@link AnelComandos}, com 1 até N threads clientes (N = 2 × núcleos disponíveis), medindo a vazão
+ * e a latência de cada chamada (p50/p99/p999). No modo "anel" cada cliente espera a resposta antes
+ * da próxima operação, como uma requisição; no modo "anel em janela" mantém até {@value #JANELA}
+ * operações em andamento, como várias requisições simultâneas (só a vazão é medida).
+ * <p>
+ * Execução: {@code java -cp target/classes:target/test-classes PrjBank.Banco.Digital.benchmark.AnelComandosBenchmark}
+ */
+public class AnelComandosBenchmark {
+
+    private static final int CONTAS = 64;
+    private static final int OPERACOES_POR_THREAD = 200_000;
+    private static final int JANELA = 256;
+
+    private interface Carga {
+        void executar(int[] numeros, Histograma latencias);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int maximo = 2 * Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= maximo; threads *= 2) {
+            Banco direto = new Banco();
+            List<Conta> contas = criarContas(direto);
+            imprimir("direto", threads, medir(threads, contas, (numeros, latencias) -> {
+                ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                for (int i = 0; i < OPERACOES_POR_THREAD; i++) {
+                    Conta origem = contas.get(aleatorio.nextInt(CONTAS));
+                    Conta destino = contas.get(aleatorio.nextInt(CONTAS));
+                    long inicio = System.nanoTime();
+                    try {
+                        direto.transferir(origem, destino, 100);
+                    } catch (SaldoInsuficienteException e) {
+                        // Não deve ocorrer com os saldos iniciais usados.
+                    }
+                    latencias.registrar(System.nanoTime() - inicio);
+                }
+            }));
+
+            Banco banco = new Banco();
+            List<Conta> contasAnel = criarContas(banco);
+            try (AnelComandos anel = new AnelComandos(banco, 65_536)) {
+                imprimir("anel", threads, medir(threads, contasAnel, (numeros, latencias) -> {
+                    ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                    for (int i = 0; i < OPERACOES_POR_THREAD; i++) {
+                        OperacaoLote operacao = OperacaoLote.transferencia(
+                                numeros[aleatorio.nextInt(CONTAS)], numeros[aleatorio.nextInt(CONTAS)], 100);
+                        long inicio = System.nanoTime();
+                        anel.executar(operacao).join();
+                        latencias.registrar(System.nanoTime() - inicio);
+                    }
+                }));
+                imprimir("anel em janela", threads, medir(threads, contasAnel, (numeros, latencias) -> {
+                    ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                    ArrayDeque<CompletableFuture<StatusOperacao>> emAndamento = new ArrayDeque<>(JANELA);
+                    for (int i = 0; i < OPERACOES_POR_THREAD; i++) {
+                        if (emAndamento.size() == JANELA) {
+                            emAndamento.poll().join();
+                        }
+                        emAndamento.add(anel.executar(OperacaoLote.transferencia(
+                                numeros[aleatorio.nextInt(CONTAS)], numeros[aleatorio.nextInt(CONTAS)], 100)));
+                    }
+                    emAndamento.forEach(CompletableFuture::join);
+                }));
+            }
+        }
+    }
+
+    private record Resultado(double opsPorSegundo, Histograma.Resumo latencias) {
+    }
+
+    private static Resultado medir(int threads, List<Conta> contas, Carga carga) throws Exception {
+        int[] numeros = contas.stream().mapToInt(Conta::getNumero).toArray();
+        Histograma latencias = new Histograma();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                carga.executar(numeros, latencias);
+                return null;
+            }));
+        }
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        long duracao = System.nanoTime() - inicio;
+        executor.shutdown();
+        return new Resultado(threads * (double) OPERACOES_POR_THREAD / (duracao / 1e9), latencias.resumir());
+    }
+
+    private static void imprimir(String modo, int threads, Resultado resultado) {
+        Histograma.Resumo l = resultado.latencias();
+        if (l.contagem() == 0) {
+            System.out.printf("%-14s | %2d threads | %,12.0f ops/s%n", modo, threads, resultado.opsPorSegundo());
+        } else {
+            System.out.printf("%-14s | %2d threads | %,12.0f ops/s | p50 %,8d ns | p99 %,10d ns | p999 %,10d ns%n",
+                    modo, threads, resultado.opsPorSegundo(), l.p50Ns(), l.p99Ns(), l.p999Ns());
+        }
+    }
+
+    private static List<Conta> criarContas(Banco banco) {
+        List<Conta> contas = new ArrayList<>(CONTAS);
+        for (int i = 0; i < CONTAS; i++) {
+            Conta conta = new Conta(new Cliente("Titular " + i, "000"));
+            conta.setSaldo(Dinheiro.deReais(1_000_000_000L));
+            banco.adicionarConta(conta);
+            contas.add(conta);
+        }
+        return contas;
+    }
+}
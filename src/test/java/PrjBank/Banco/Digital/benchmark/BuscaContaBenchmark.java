@@ -0,0 +1,133 @@
+package PrjBank.Banco.Digital.benchmark;
+
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.service.Banco;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compara a busca de contas por número no índice do {@link Banco} com a varredura
+ * linear via Stream usada anteriormente, para 10 mil, 100 mil e 1 milhão de contas, e mede as
+ * buscas pelos índices de CPF e de início do nome do titular (primeira página de 50 contas).
+ * <p>
+ * Execução: {@code java -cp target/classes:target/test-classes PrjBank.Banco.Digital.benchmark.BuscaContaBenchmark}
+ */
+public class BuscaContaBenchmark {
+
+    private static final int[] TAMANHOS = {10_000, 100_000, 1_000_000};
+    private static final int BUSCAS = 2_000;
+
+    public static void main(String[] args) {
+        for (int tamanho : TAMANHOS) {
+            Banco banco = new Banco();
+            List<Conta> lista = new ArrayList<>(tamanho);
+            int primeiro = -1;
+            int ultimo = -1;
+
+            // Silencia o log de criação de contas durante a preparação.
+            PrintStream saida = System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            try {
+                for (int i = 0; i < tamanho; i++) {
+                    Conta conta = new Conta(new Cliente("Cliente " + i, String.valueOf(i)));
+                    banco.adicionarConta(conta);
+                    lista.add(conta);
+                    if (primeiro < 0) primeiro = conta.getNumero();
+                    ultimo = conta.getNumero();
+                }
+            } finally {
+                System.setOut(saida);
+            }
+
+            int[] alvos = new int[BUSCAS];
+            for (int i = 0; i < BUSCAS; i++) {
+                alvos[i] = ThreadLocalRandom.current().nextInt(primeiro, ultimo + 1);
+            }
+
+            // Aquecimento das duas estratégias antes da medição.
+            medirLinear(lista, alvos);
+            medirIndice(banco, alvos);
+
+            double nsLinear = medirLinear(lista, alvos);
+            double nsIndice = medirIndice(banco, alvos);
+            System.out.printf("%,9d contas | stream: %,12.0f ns/busca | índice: %,8.0f ns/busca%n",
+                    tamanho, nsLinear, nsIndice);
+
+            String[] cpfs = new String[BUSCAS];
+            String[] nomes = new String[BUSCAS];
+            for (int i = 0; i < BUSCAS; i++) {
+                int cliente = ThreadLocalRandom.current().nextInt(tamanho);
+                cpfs[i] = String.valueOf(cliente);
+                nomes[i] = "cliente " + cliente;
+            }
+            medirCpf(banco, cpfs);
+            medirNome(banco, nomes);
+            System.out.printf("%,9d contas | cpf:    %,12.0f ns/busca | nome:   %,8.0f ns/busca%n",
+                    tamanho, medirCpf(banco, cpfs), medirNome(banco, nomes));
+        }
+    }
+
+    private static double medirLinear(List<Conta> lista, int[] alvos) {
+        long encontrados = 0;
+        long inicio = System.nanoTime();
+        for (int alvo : alvos) {
+            Optional<Conta> conta = lista.stream().filter(c -> c.getNumero() == alvo).findFirst();
+            if (conta.isPresent()) encontrados++;
+        }
+        long duracao = System.nanoTime() - inicio;
+        if (encontrados != alvos.length) throw new IllegalStateException("Busca linear falhou.");
+        return (double) duracao / alvos.length;
+    }
+
+    private static double medirIndice(Banco banco, int[] alvos) {
+        long encontrados = 0;
+        long inicio = System.nanoTime();
+        // O índice é rápido demais para uma única passada; repete para estabilizar a medição.
+        for (int repeticao = 0; repeticao < 1_000; repeticao++) {
+            for (int alvo : alvos) {
+                if (banco.buscarConta(alvo).isPresent()) encontrados++;
+            }
+        }
+        long duracao = System.nanoTime() - inicio;
+        if (encontrados != alvos.length * 1_000L) throw new IllegalStateException("Busca no índice falhou.");
+        return (double) duracao / (alvos.length * 1_000L);
+    }
+
+    private static double medirCpf(Banco banco, String[] cpfs) {
+        long encontrados = 0;
+        long inicio = System.nanoTime();
+        for (int repeticao = 0; repeticao < 100; repeticao++) {
+            for (String cpf : cpfs) {
+                encontrados += banco.buscarPorCpf(cpf).size();
+            }
+        }
+        long duracao = System.nanoTime() - inicio;
+        if (encontrados != cpfs.length * 100L) throw new IllegalStateException("Busca por CPF falhou.");
+        return (double) duracao / (cpfs.length * 100L);
+    }
+
+    private static double medirNome(Banco banco, String[] nomes) {
+        long encontrados = 0;
+        long inicio = System.nanoTime();
+        for (int repeticao = 0; repeticao < 100; repeticao++) {
+            for (String nome : nomes) {
+                // "cliente 1" também é o início de "cliente 10", "cliente 100"...: lê até uma página.
+                Iterator<Conta> contas = banco.buscarPorNome(nome, null).iterator();
+                for (int i = 0; i < 50 && contas.hasNext(); i++) {
+                    contas.next();
+                    encontrados++;
+                }
+            }
+        }
+        long duracao = System.nanoTime() - inicio;
+        if (encontrados < nomes.length * 100L) throw new IllegalStateException("Busca por nome falhou.");
+        return (double) duracao / (nomes.length * 100L);
+    }
+}
@@ -0,0 +1,279 @@
+package PrjBank.Banco.Digital.benchmark;
+
+import PrjBank.Banco.Digital.metricas.Histograma;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gerador de carga para a API REST de uma aplicação já em execução.
+ * <p>
+ * Cria {@code contas} contas (com saldo inicial) e então {@code clientes} threads enviam requisições
+ * em laço fechado — cada uma espera a resposta antes de enviar a próxima — durante {@code duracao}
+ * segundos, sorteando a operação conforme os pesos de {@code mistura}. Os primeiros {@code aquecimento}
+ * segundos não entram nas medições. No fim, mostra a vazão e os percentis de latência por operação.
+ * <p>
+ * Para comparar threads de plataforma e threads virtuais, rode a mesma carga contra a aplicação iniciada
+ * com {@code banco.threads.virtuais=false} e com {@code banco.threads.virtuais=true} (em Java 21). Use
+ * {@code clientes} acima de {@code server.tomcat.threads.max} (200) para ver o efeito das chamadas bloqueantes.
+ * <p>
+ * Parâmetros no formato {@code nome=valor}, todos opcionais:
+ * <pre>
+ * url=http://localhost:8080 contas=1000 clientes=64 duracao=30 aquecimento=5
+ * mistura=criar:2,deposito:30,saque:25,transferencia:35,listar:8
+ * </pre>
+ * Execução: {@code java -cp target/classes:target/test-classes:<dependências> PrjBank.Banco.Digital.benchmark.CargaApiBenchmark clientes=256}
+ */
+public class CargaApiBenchmark {
+
+    private enum Operacao { CRIAR, DEPOSITO, SAQUE, TRANSFERENCIA, LISTAR }
+
+    private static final long SALDO_INICIAL = 1_000_000_00L;
+    private static final int TAMANHO_PAGINA = 20;
+
+    /**
+     * Medições de um tipo de operação.
+     */
+    private static final class Medicao {
+        final Histograma latencias = new Histograma();
+        final LongAdder recusadas = new LongAdder();
+        final LongAdder erros = new LongAdder();
+    }
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    // Prefixo dos CPFs gerados, diferente a cada execução (a aplicação pode exigir CPF único).
+    private static final long BASE_CPF = (System.currentTimeMillis() % 100_000) * 1_000_000L;
+    private static final AtomicLong SEQUENCIA_CPF = new AtomicLong();
+
+    private final HttpClient cliente;
+    private final String url;
+    private final Map<Operacao, Medicao> medicoes = new EnumMap<>(Operacao.class);
+    private final Medicao total = new Medicao();
+    private final List<Integer> contas = new ArrayList<>();
+
+    private CargaApiBenchmark(String url, int clientes) {
+        this.url = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        this.cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(2, clientes / 8), tarefa -> {
+                    Thread thread = new Thread(tarefa, "carga-http");
+                    thread.setDaemon(true);
+                    return thread;
+                }))
+                .build();
+        for (Operacao operacao : Operacao.values()) {
+            medicoes.put(operacao, new Medicao());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> parametros = new LinkedHashMap<>();
+        parametros.put("url", "http://localhost:8080");
+        parametros.put("contas", "1000");
+        parametros.put("clientes", "64");
+        parametros.put("duracao", "30");
+        parametros.put("aquecimento", "5");
+        parametros.put("mistura", "criar:2,deposito:30,saque:25,transferencia:35,listar:8");
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (igual < 0 || !parametros.containsKey(arg.substring(0, igual))) {
+                throw new IllegalArgumentException("Parâmetro desconhecido: " + arg + ". Válidos: " + parametros.keySet());
+            }
+            parametros.put(arg.substring(0, igual), arg.substring(igual + 1));
+        }
+        int quantidadeContas = Integer.parseInt(parametros.get("contas"));
+        int clientes = Integer.parseInt(parametros.get("clientes"));
+        long duracaoNs = Duration.ofSeconds(Long.parseLong(parametros.get("duracao"))).toNanos();
+        long aquecimentoNs = Duration.ofSeconds(Long.parseLong(parametros.get("aquecimento"))).toNanos();
+        int[] pesos = lerMistura(parametros.get("mistura"));
+        System.out.println("Carga: " + parametros);
+
+        CargaApiBenchmark carga = new CargaApiBenchmark(parametros.get("url"), clientes);
+        carga.prepararContas(quantidadeContas, clientes);
+        carga.executar(clientes, pesos, aquecimentoNs, duracaoNs);
+        System.exit(0);
+    }
+
+    /**
+     * Lê a mistura no formato {@code operacao:peso,...}; operações omitidas ficam com peso zero.
+     * @return Pesos acumulados, na ordem de {@link Operacao}.
+     */
+    private static int[] lerMistura(String mistura) {
+        int[] pesos = new int[Operacao.values().length];
+        for (String item : mistura.split(",")) {
+            String[] partes = item.trim().split(":");
+            Operacao operacao = Operacao.valueOf(partes[0].trim().toUpperCase(Locale.ROOT));
+            pesos[operacao.ordinal()] = Integer.parseInt(partes[1].trim());
+        }
+        for (int i = 1; i < pesos.length; i++) {
+            pesos[i] += pesos[i - 1];
+        }
+        if (pesos[pesos.length - 1] <= 0) throw new IllegalArgumentException("Mistura sem operações: " + mistura);
+        return pesos;
+    }
+
+    private void prepararContas(int quantidade, int clientes) throws Exception {
+        long inicio = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(clientes);
+        try {
+            List<Future<Integer>> criadas = new ArrayList<>(quantidade);
+            for (int i = 0; i < quantidade; i++) {
+                criadas.add(executor.submit(() -> {
+                    int numero = criarConta();
+                    HttpResponse<Void> resposta = enviar(post("/api/contas/" + numero + "/deposito",
+                            "{\"valor\":" + reais(SALDO_INICIAL) + "}"));
+                    if (resposta.statusCode() != 200) {
+                        throw new IllegalStateException("Depósito inicial recusado: HTTP " + resposta.statusCode());
+                    }
+                    return numero;
+                }));
+            }
+            for (Future<Integer> criada : criadas) {
+                contas.add(criada.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        System.out.printf("%,d contas criadas em %.1f s%n", quantidade, (System.nanoTime() - inicio) / 1e9);
+    }
+
+    private void executar(int clientes, int[] pesos, long aquecimentoNs, long duracaoNs) throws Exception {
+        long inicio = System.nanoTime();
+        long inicioMedicao = inicio + aquecimentoNs;
+        long fim = inicioMedicao + duracaoNs;
+        ExecutorService executor = Executors.newFixedThreadPool(clientes);
+        List<Future<?>> tarefas = new ArrayList<>(clientes);
+        for (int c = 0; c < clientes; c++) {
+            tarefas.add(executor.submit(() -> {
+                ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                long agora;
+                while ((agora = System.nanoTime()) < fim) {
+                    Operacao operacao = sortear(pesos, aleatorio.nextInt(pesos[pesos.length - 1]));
+                    int status;
+                    try {
+                        status = enviar(operacao, aleatorio);
+                    } catch (Exception e) {
+                        status = -1;
+                    }
+                    long depois = System.nanoTime();
+                    if (agora < inicioMedicao) continue;
+                    registrar(medicoes.get(operacao), status, depois - agora);
+                    registrar(total, status, depois - agora);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        executor.shutdown();
+        imprimir(clientes, (System.nanoTime() - inicioMedicao) / 1e9);
+    }
+
+    private static void registrar(Medicao medicao, int status, long nanos) {
+        if (status >= 200 && status < 300) {
+            medicao.latencias.registrar(nanos);
+        } else if (status >= 400 && status < 500) {
+            medicao.recusadas.increment();
+        } else {
+            medicao.erros.increment();
+        }
+    }
+
+    private static Operacao sortear(int[] pesos, int sorteio) {
+        Operacao[] operacoes = Operacao.values();
+        for (int i = 0; i < pesos.length; i++) {
+            if (sorteio < pesos[i]) return operacoes[i];
+        }
+        return operacoes[operacoes.length - 1];
+    }
+
+    /**
+     * Envia uma operação sobre contas sorteadas e devolve o status HTTP da resposta.
+     */
+    private int enviar(Operacao operacao, ThreadLocalRandom aleatorio) throws Exception {
+        int conta = contas.get(aleatorio.nextInt(contas.size()));
+        String valor = reais(100 + aleatorio.nextInt(10_000));
+        return switch (operacao) {
+            case CRIAR -> enviar(post("/api/contas", novaConta())).statusCode();
+            case DEPOSITO -> enviar(post("/api/contas/" + conta + "/deposito", "{\"valor\":" + valor + "}")).statusCode();
+            case SAQUE -> enviar(post("/api/contas/" + conta + "/saque", "{\"valor\":" + valor + "}")).statusCode();
+            case TRANSFERENCIA -> {
+                int destino = contas.get(aleatorio.nextInt(contas.size()));
+                yield enviar(post("/api/contas/" + conta + "/transferencia",
+                        "{\"valor\":" + valor + ",\"numeroDestino\":" + destino + "}")).statusCode();
+            }
+            case LISTAR -> enviar(HttpRequest.newBuilder(URI.create(url + "/api/contas?limit=" + TAMANHO_PAGINA
+                    + "&after=" + conta)).GET().build()).statusCode();
+        };
+    }
+
+    /**
+     * Cria uma conta com um CPF ainda não usado e devolve o número dela.
+     * @throws IllegalStateException Se a aplicação recusar a criação.
+     */
+    private int criarConta() throws Exception {
+        HttpResponse<String> resposta = cliente.send(post("/api/contas", novaConta()), HttpResponse.BodyHandlers.ofString());
+        if (resposta.statusCode() != 200) {
+            throw new IllegalStateException("Criação de conta recusada: HTTP " + resposta.statusCode() + " " + resposta.body());
+        }
+        return JSON.readTree(resposta.body()).get("numero").asInt();
+    }
+
+    private static String novaConta() {
+        long sequencia = SEQUENCIA_CPF.incrementAndGet();
+        return String.format("{\"nome\":\"Carga %d\",\"cpf\":\"%011d\"}", sequencia, BASE_CPF + sequencia);
+    }
+
+    private HttpRequest post(String caminho, String corpo) {
+        return HttpRequest.newBuilder(URI.create(url + caminho))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+    }
+
+    private HttpResponse<Void> enviar(HttpRequest requisicao) throws Exception {
+        return cliente.send(requisicao, HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static String reais(long centavos) {
+        return String.format(Locale.ROOT, "%d.%02d", centavos / 100, centavos % 100);
+    }
+
+    private void imprimir(int clientes, double segundos) {
+        System.out.printf("%n%d clientes, %.1f s medidos%n", clientes, segundos);
+        System.out.printf("%-14s | %10s | %9s | %9s | %9s | %9s | %9s | %9s%n",
+                "operação", "req/s", "p50 ms", "p99 ms", "p99,9 ms", "máx ms", "recusadas", "erros");
+        for (Map.Entry<Operacao, Medicao> entrada : medicoes.entrySet()) {
+            imprimirLinha(entrada.getKey().name().toLowerCase(Locale.ROOT), entrada.getValue(), segundos);
+        }
+        imprimirLinha("total", total, segundos);
+    }
+
+    private static void imprimirLinha(String nome, Medicao medicao, double segundos) {
+        Histograma.Resumo resumo = medicao.latencias.resumir();
+        long recusadas = medicao.recusadas.sum();
+        long erros = medicao.erros.sum();
+        if (resumo.contagem() + recusadas + erros == 0) return;
+        System.out.printf("%-14s | %,10.0f | %9.2f | %9.2f | %9.2f | %9.2f | %,9d | %,9d%n",
+                nome, resumo.contagem() / segundos, resumo.p50Ns() / 1e6, resumo.p99Ns() / 1e6,
+                resumo.p999Ns() / 1e6, resumo.maximoNs() / 1e6, recusadas, erros);
+    }
+}
@@ -0,0 +1,83 @@
+package PrjBank.Banco.Digital.benchmark;
+
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.service.Banco;
+import PrjBank.Banco.Digital.service.CargaInicialPlanilha;
+import PrjBank.Banco.Digital.service.GoogleSheetsService;
+import PrjBank.Banco.Digital.service.PlanilhaTransporteFalso;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mede o tempo até o banco ficar pronto com 100 mil linhas vindas de uma planilha em memória
+ * (1% delas inválidas), comparando a carga paginada com a conversão anterior, que usava
+ * {@code replaceAll} e exceções por linha.
+ * <p>
+ * Execução: {@code java -cp target/classes:target/test-classes PrjBank.Banco.Digital.benchmark.CargaPlanilhaBenchmark}
+ */
+public class CargaPlanilhaBenchmark {
+
+    private static final int LINHAS = 100_000;
+    private static final int RODADAS = 5;
+
+    public static void main(String[] args) throws Exception {
+        List<List<Object>> linhas = new ArrayList<>(LINHAS);
+        for (int i = 1; i <= LINHAS; i++) {
+            String saldo = i % 100 == 0 ? "inválido" : "R$ " + (i % 5000) + "." + (100 + i % 900) + "," + (10 + i % 90);
+            linhas.add(List.of(String.valueOf(i), "1", saldo, "Cliente " + i, String.format("%011d", i)));
+        }
+        PlanilhaTransporteFalso transporte = new PlanilhaTransporteFalso().comLinhas(linhas);
+
+        PrintStream saida = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        PrintStream erros = System.err;
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            for (int rodada = 1; rodada <= RODADAS; rodada++) {
+                long inicio = System.nanoTime();
+                Banco anterior = new Banco();
+                for (Conta conta : converterComoAntes(transporte.ler("Contas!A2:E"))) {
+                    anterior.adicionarConta(conta);
+                }
+                double msAnterior = (System.nanoTime() - inicio) / 1e6;
+
+                inicio = System.nanoTime();
+                Banco banco = new Banco();
+                new CargaInicialPlanilha(banco, new GoogleSheetsService(transporte),
+                        GoogleSheetsService.TAMANHO_PAGINA_PADRAO).carregar();
+                double msCarga = (System.nanoTime() - inicio) / 1e6;
+
+                saida.printf("rodada %d | anterior: %,8.1f ms (%,d contas) | carga paginada: %,8.1f ms (%,d contas)%n",
+                        rodada, msAnterior, anterior.getQuantidadeContas(), msCarga, banco.getQuantidadeContas());
+            }
+        } finally {
+            System.setOut(saida);
+            System.setErr(erros);
+        }
+    }
+
+    /**
+     * Reprodução da conversão original de {@code lerContas}, mantida aqui apenas como referência.
+     */
+    private static List<Conta> converterComoAntes(List<List<Object>> values) {
+        List<Conta> contas = new ArrayList<>();
+        for (List<Object> row : values) {
+            try {
+                if (row.isEmpty() || row.get(0).toString().isEmpty()) continue;
+                Integer.parseInt(row.get(0).toString());
+                Integer.parseInt(row.get(1).toString());
+                double saldo = Double.parseDouble(row.get(2).toString().replaceAll("[^0-9,]", "").replace(",", "."));
+                Conta conta = new Conta(new Cliente(row.get(3).toString(), row.get(4).toString()));
+                conta.setSaldo(Math.round(saldo * 100));
+                contas.add(conta);
+            } catch (Exception e) {
+                System.err.println("Aviso: Erro ao processar a linha da planilha: " + row);
+            }
+        }
+        return contas;
+    }
+}
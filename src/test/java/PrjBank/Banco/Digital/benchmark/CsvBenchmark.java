@@ -0,0 +1,77 @@
+package PrjBank.Banco.Digital.benchmark;
+
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.service.Banco;
+import PrjBank.Banco.Digital.service.ContasCsv;
+
+import java.io.BufferedReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Mede a exportação e a importação de 1 milhão de contas em CSV, comparando a importação com uma leitura
+ * linha a linha ({@link BufferedReader} e {@code String.split}), sequencial, como seria sem o mapeamento.
+ * <p>
+ * Execução: {@code java -Xmx2g -cp target/classes:target/test-classes PrjBank.Banco.Digital.benchmark.CsvBenchmark [diretório]}
+ */
+public class CsvBenchmark {
+
+    private static final int CONTAS = 1_000_000;
+
+    public static void main(String[] args) throws Exception {
+        Path diretorio = args.length > 0 ? Path.of(args[0]) : Files.createTempDirectory("csv-bench");
+        Path arquivo = diretorio.resolve("contas.csv");
+        Banco origem = new Banco();
+        PrintStream saida = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            for (int i = 0; i < CONTAS; i++) {
+                origem.carregarConta(new Conta(new Cliente("Cliente " + i, String.format("%011d", i)),
+                        10_000_000 + i, 1, 100_00 + i));
+            }
+        } finally {
+            System.setOut(saida);
+        }
+
+        try {
+            for (int rodada = 0; rodada < 3; rodada++) {
+                ContasCsv.ResultadoExportacao exportacao = new ContasCsv(origem).exportar(arquivo);
+                imprimir("exportação", exportacao.contas(), exportacao.duracaoMs(),
+                        String.format("%,d MiB", exportacao.bytes() >> 20));
+
+                ContasCsv.ResultadoImportacao importacao = new ContasCsv(new Banco()).importar(arquivo);
+                imprimir("importação", importacao.contas(), importacao.duracaoMs(),
+                        importacao.rejeitadas() + " rejeitadas");
+
+                long inicio = System.nanoTime();
+                Banco banco = new Banco();
+                long contas = 0;
+                try (BufferedReader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+                    leitor.readLine();
+                    String linha;
+                    while ((linha = leitor.readLine()) != null) {
+                        String[] colunas = linha.split(",");
+                        long saldo = Math.round(Double.parseDouble(colunas[2]) * 100);
+                        if (banco.carregarConta(new Conta(new Cliente(colunas[3], colunas[4]),
+                                Integer.parseInt(colunas[0]), Integer.parseInt(colunas[1]), saldo))) {
+                            contas++;
+                        }
+                    }
+                }
+                imprimir("linha a linha", contas, (System.nanoTime() - inicio) / 1_000_000, "");
+                System.out.println();
+            }
+        } finally {
+            Files.deleteIfExists(arquivo);
+        }
+    }
+
+    private static void imprimir(String forma, long contas, long duracaoMs, String detalhe) {
+        System.out.printf("%-14s | %,10d contas | %,6d ms | %,12.0f linhas/s | %s%n",
+                forma, contas, duracaoMs, contas * 1000.0 / Math.max(duracaoMs, 1), detalhe);
+    }
+}
@@ -0,0 +1,98 @@
+package PrjBank.Banco.Digital.benchmark;
+
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.model.Dinheiro;
+import PrjBank.Banco.Digital.service.Banco;
+import PrjBank.Banco.Digital.service.OuvinteOperacoes;
+import PrjBank.Banco.Digital.service.PoliticaBufferCheio;
+import PrjBank.Banco.Digital.service.RegistroEventos;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Compara a vazão de transferências com o registro das operações feito na própria requisição,
+ * com {@code printf} sincronizado (como era antes), e com o {@link RegistroEventos} assíncrono.
+ * Cada thread movimenta o seu próprio par de contas; a única disputa é a do registro.
+ * <p>
+ * Execução: {@code java -cp target/classes:target/test-classes PrjBank.Banco.Digital.benchmark.EventosBenchmark}
+ */
+public class EventosBenchmark {
+
+    private static final int TRANSFERENCIAS_POR_THREAD = 200_000;
+
+    /**
+     * Registro síncrono equivalente às mensagens impressas antes em {@code Conta.transferir}.
+     */
+    private static final class RegistroSincrono implements OuvinteOperacoes {
+        private final PrintStream saida = new PrintStream(OutputStream.nullOutputStream());
+
+        @Override
+        public void transferencia(Conta origem, Conta destino, long valor) {
+            String valorFormatado = Dinheiro.formatarReal(valor);
+            saida.printf("Saque de %s realizado com sucesso.%n", valorFormatado);
+            saida.printf("Depósito de %s realizado com sucesso.%n", valorFormatado);
+            saida.printf("Transferência de %s para %s realizada com sucesso.%n",
+                    valorFormatado, destino.getTitular().getNome());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= nucleos; threads *= 2) {
+            double sincrono = medir(threads, new RegistroSincrono());
+
+            RegistroEventos descartar = new RegistroEventos(Writer.nullWriter(), true, 65_536, PoliticaBufferCheio.DESCARTAR);
+            double assincrono = medir(threads, descartar);
+            descartar.close();
+
+            RegistroEventos bloquear = new RegistroEventos(Writer.nullWriter(), true, 65_536, PoliticaBufferCheio.BLOQUEAR);
+            double bloqueante = medir(threads, bloquear);
+            bloquear.close();
+
+            System.out.printf("%2d threads | printf: %,12.0f ops/s | DESCARTAR: %,12.0f ops/s (%,d descartados)"
+                            + " | BLOQUEAR: %,12.0f ops/s%n",
+                    threads, sincrono, assincrono, descartar.getDescartados(), bloqueante);
+        }
+    }
+
+    private static double medir(int threads, OuvinteOperacoes registro) throws Exception {
+        Banco banco = new Banco(null, List.of(registro));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Conta a = new Conta(new Cliente("A" + t, "000"));
+            Conta b = new Conta(new Cliente("B" + t, "000"));
+            a.setSaldo(Dinheiro.deReais(1_000_000));
+            b.setSaldo(Dinheiro.deReais(1_000_000));
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < TRANSFERENCIAS_POR_THREAD; i++) {
+                    if ((i & 1) == 0) {
+                        banco.transferir(a, b, 100);
+                    } else {
+                        banco.transferir(b, a, 100);
+                    }
+                }
+                return null;
+            }));
+        }
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        executor.shutdown();
+        return threads * TRANSFERENCIAS_POR_THREAD / segundos;
+    }
+}
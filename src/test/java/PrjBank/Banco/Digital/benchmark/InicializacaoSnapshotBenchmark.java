@@ -0,0 +1,126 @@
+package PrjBank.Banco.Digital.benchmark;
+
+import PrjBank.Banco.Digital.persistencia.Journal;
+import PrjBank.Banco.Digital.persistencia.PoliticaFsync;
+import PrjBank.Banco.Digital.persistencia.Snapshots;
+import PrjBank.Banco.Digital.service.Banco;
+import PrjBank.Banco.Digital.service.CargaInicialPlanilha;
+import PrjBank.Banco.Digital.service.GoogleSheetsService;
+import PrjBank.Banco.Digital.service.LivroRazao;
+import PrjBank.Banco.Digital.service.ModoLote;
+import PrjBank.Banco.Digital.service.OperacaoLote;
+import PrjBank.Banco.Digital.service.PlanilhaTransporteFalso;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Compara o tempo até o banco ficar pronto, com 1 milhão de contas (ou a quantidade informada),
+ * por três caminhos: carga da planilha (em memória, sem a latência da rede), reprodução do journal
+ * inteiro e restauração do snapshot seguida do journal posterior a ele. O journal recebe 2 milhões
+ * de depósitos antes do snapshot, como acontece depois de algum tempo de uso, e os tempos incluem
+ * a abertura do journal. Os dois caminhos pelo journal incluem o {@link LivroRazao}, como em produção; no
+ * do snapshot, o histórico anterior a ele só é lido na primeira consulta de cada conta, medida à parte.
+ * Rode com heap fixo (ex.: {@code -Xms4g -Xmx4g}) para não medir o crescimento do heap.
+ * <p>
+ * Execução: {@code java -cp target/classes:target/test-classes PrjBank.Banco.Digital.benchmark.InicializacaoSnapshotBenchmark [contas]}
+ */
+public class InicializacaoSnapshotBenchmark {
+
+    private static final int RODADAS = 5;
+    private static final int OPERACOES_ANTES_SNAPSHOT = 2_000_000;
+    private static final int OPERACOES_APOS_SNAPSHOT = 10_000;
+    private static final int TAMANHO_LOTE = 100_000;
+
+    public static void main(String[] args) throws Exception {
+        int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path diretorio = Files.createTempDirectory("snapshot-bench");
+        Path arquivoJournal = diretorio.resolve("journal.dat");
+        Path diretorioSnapshots = diretorio.resolve("snapshots");
+
+        List<List<Object>> linhas = new ArrayList<>(quantidade);
+        for (int i = 1; i <= quantidade; i++) {
+            linhas.add(List.of(String.valueOf(i), "1", "R$ " + (i % 5000) + "," + (10 + i % 90),
+                    "Cliente " + i, String.format("%011d", i)));
+        }
+        PlanilhaTransporteFalso transporte = new PlanilhaTransporteFalso().comLinhas(linhas);
+
+        PrintStream saida = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            // Prepara o journal com a carga e algumas operações, tira o snapshot e acrescenta mais operações.
+            try (Journal journal = new Journal(arquivoJournal, PoliticaFsync.GRUPO, 5, Journal.TAMANHO_REGIAO_PADRAO)) {
+                Snapshots snapshots = new Snapshots(journal, diretorioSnapshots, 0, 1);
+                Banco banco = new Banco(journal, snapshots, List.of(new LivroRazao()));
+                new CargaInicialPlanilha(banco, new GoogleSheetsService(transporte),
+                        GoogleSheetsService.TAMANHO_PAGINA_PADRAO).carregar();
+                movimentar(banco, quantidade, OPERACOES_ANTES_SNAPSHOT);
+                journal.sincronizar();
+                long inicio = System.nanoTime();
+                Path arquivo = snapshots.gerarAgora();
+                saida.printf("snapshot gerado em %,.1f ms (%,d bytes)%n",
+                        (System.nanoTime() - inicio) / 1e6, Files.size(arquivo));
+                movimentar(banco, quantidade, OPERACOES_APOS_SNAPSHOT);
+            }
+
+            for (int rodada = 1; rodada <= RODADAS; rodada++) {
+                // Cada caminho começa com o heap limpo, para não pagar a coleta das contas do anterior.
+                System.gc();
+                long inicio = System.nanoTime();
+                new CargaInicialPlanilha(new Banco(), new GoogleSheetsService(transporte),
+                        GoogleSheetsService.TAMANHO_PAGINA_PADRAO).carregar();
+                double msPlanilha = (System.nanoTime() - inicio) / 1e6;
+
+                double msJournal;
+                double msSnapshot;
+                double msPrimeiroExtrato;
+                int contas;
+                System.gc();
+                inicio = System.nanoTime();
+                try (Journal journal = new Journal(arquivoJournal, PoliticaFsync.GRUPO, 5, Journal.TAMANHO_REGIAO_PADRAO)) {
+                    new Banco(journal, List.of(new LivroRazao()));
+                    msJournal = (System.nanoTime() - inicio) / 1e6;
+                }
+                System.gc();
+                inicio = System.nanoTime();
+                try (Journal journal = new Journal(arquivoJournal, PoliticaFsync.GRUPO, 5, Journal.TAMANHO_REGIAO_PADRAO)) {
+                    LivroRazao livro = new LivroRazao();
+                    Banco banco = new Banco(journal, new Snapshots(journal, diretorioSnapshots, 0, 1), List.of(livro));
+                    msSnapshot = (System.nanoTime() - inicio) / 1e6;
+                    contas = banco.getQuantidadeContas();
+                    inicio = System.nanoTime();
+                    livro.consultar(1 + rodada, null, null, null, 100);
+                    msPrimeiroExtrato = (System.nanoTime() - inicio) / 1e6;
+                }
+
+                saida.printf("rodada %d | %,d contas | planilha: %,8.1f ms | journal inteiro: %,8.1f ms | snapshot: %,8.1f ms"
+                                + " | 1º extrato de uma conta: %,8.1f ms%n",
+                        rodada, contas, msPlanilha, msJournal, msSnapshot, msPrimeiroExtrato);
+            }
+        } finally {
+            System.setOut(saida);
+            try (Stream<Path> caminhos = Files.walk(diretorio)) {
+                for (Path caminho : caminhos.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(caminho);
+                }
+            }
+        }
+    }
+
+    private static void movimentar(Banco banco, int quantidade, int total) {
+        for (int feitas = 0; feitas < total; feitas += TAMANHO_LOTE) {
+            int tamanho = Math.min(TAMANHO_LOTE, total - feitas);
+            List<OperacaoLote> operacoes = new ArrayList<>(tamanho);
+            for (int i = 0; i < tamanho; i++) {
+                operacoes.add(OperacaoLote.deposito(1 + (feitas + i) % quantidade, 100));
+            }
+            banco.executarLote(operacoes, ModoLote.MELHOR_ESFORCO, false);
+        }
+    }
+}
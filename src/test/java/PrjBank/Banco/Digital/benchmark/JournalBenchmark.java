@@ -0,0 +1,68 @@
+package PrjBank.Banco.Digital.benchmark;
+
+import PrjBank.Banco.Digital.persistencia.Journal;
+import PrjBank.Banco.Digital.persistencia.PoliticaFsync;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Mede registros por segundo no {@link Journal} para cada {@link PoliticaFsync}, com 1, 4 e 16
+ * threads escrevendo ao mesmo tempo. Com {@code GRUPO}, o número de fsyncs deve ficar bem abaixo
+ * do número de registros à medida que a concorrência aumenta.
+ * <p>
+ * Execução: {@code java -cp target/classes:target/test-classes PrjBank.Banco.Digital.benchmark.JournalBenchmark [diretório]}
+ */
+public class JournalBenchmark {
+
+    private static final int[] THREADS = {1, 4, 16};
+    private static final long DURACAO_NANOS = 2_000_000_000L;
+
+    public static void main(String[] args) throws Exception {
+        Path diretorio = args.length > 0 ? Path.of(args[0]) : Files.createTempDirectory("journal-bench");
+        for (PoliticaFsync politica : PoliticaFsync.values()) {
+            for (int threads : THREADS) {
+                Path arquivo = diretorio.resolve("journal-" + politica + "-" + threads + ".dat");
+                Files.deleteIfExists(arquivo);
+                try (Journal journal = new Journal(arquivo, politica, 5, Journal.TAMANHO_REGIAO_PADRAO)) {
+                    long registros = executar(journal, threads);
+                    System.out.printf("%-9s | %2d threads | %,12.0f registros/s | %,10d fsyncs%n",
+                            politica, threads, registros / (DURACAO_NANOS / 1e9), journal.getQuantidadeFsyncs());
+                }
+                Files.deleteIfExists(arquivo);
+            }
+        }
+    }
+
+    private static long executar(Journal journal, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Long>> tarefas = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int conta = t;
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                long limite = System.nanoTime() + DURACAO_NANOS;
+                long registros = 0;
+                while (System.nanoTime() < limite) {
+                    journal.registrarDeposito(conta, 100);
+                    registros++;
+                }
+                return registros;
+            }));
+        }
+        largada.countDown();
+        long total = 0;
+        for (Future<Long> tarefa : tarefas) {
+            total += tarefa.get();
+        }
+        executor.shutdown();
+        return total;
+    }
+}
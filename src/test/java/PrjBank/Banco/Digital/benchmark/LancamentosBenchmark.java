@@ -0,0 +1,93 @@
+package PrjBank.Banco.Digital.benchmark;
+
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.persistencia.Journal;
+import PrjBank.Banco.Digital.persistencia.PoliticaFsync;
+import PrjBank.Banco.Digital.service.Banco;
+import PrjBank.Banco.Digital.service.LancamentosEmLote;
+import PrjBank.Banco.Digital.service.RegraLancamento;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Mede um lote de rendimento e um de tarifa sobre 1 milhão de contas, em memória e com journal (commit em
+ * grupo) e checkpoint, comparando com o laço de {@link Banco#depositar} conta a conta.
+ * <p>
+ * Execução: {@code java -Xmx3g -cp target/classes:target/test-classes PrjBank.Banco.Digital.benchmark.LancamentosBenchmark}
+ */
+public class LancamentosBenchmark {
+
+    private static final int CONTAS = 1_000_000;
+
+    public static void main(String[] args) throws Exception {
+        Path diretorio = Files.createTempDirectory("lancamentos-bench");
+        PrintStream saida = System.out;
+        try {
+            for (int rodada = 0; rodada < 3; rodada++) {
+                System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+                Banco memoria = criarBanco(null);
+                LancamentosEmLote.Resultado emMemoria = new LancamentosEmLote(memoria, null, diretorio, 1000)
+                        .executar("rendimento-" + rodada, RegraLancamento.rendimento(50));
+                System.setOut(saida);
+                imprimir("lote em memória", emMemoria);
+
+                Path arquivo = diretorio.resolve("journal-" + rodada + ".dat");
+                try (Journal journal = new Journal(arquivo, PoliticaFsync.GRUPO, 5, Journal.TAMANHO_REGIAO_PADRAO)) {
+                    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+                    Banco banco = criarBanco(journal);
+                    LancamentosEmLote lancamentos = new LancamentosEmLote(banco, journal, diretorio, 1000);
+                    LancamentosEmLote.Resultado rendimento = lancamentos.executar("rendimento-j" + rodada,
+                            RegraLancamento.rendimento(50));
+                    LancamentosEmLote.Resultado tarifa = lancamentos.executar("tarifa-j" + rodada,
+                            RegraLancamento.tarifa(1_290));
+                    System.setOut(saida);
+                    imprimir("lote + journal", rendimento);
+                    imprimir("tarifa + journal", tarifa);
+
+                    // A forma anterior: um depósito por conta, cada um esperando o próprio fsync em grupo.
+                    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+                    List<Conta> contas = banco.getContas().subList(0, 2_000);
+                    long inicio = System.nanoTime();
+                    for (Conta conta : contas) {
+                        banco.depositar(conta, conta.getSaldo() / 200 + 1);
+                    }
+                    long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+                    System.setOut(saida);
+                    System.out.printf("%-18s | %,10d contas | %,6d ms | %,12d contas/s%n", "depositar (2 mil)",
+                            contas.size(), duracaoMs, contas.size() * 1000L / Math.max(duracaoMs, 1));
+                }
+                System.out.println();
+            }
+        } finally {
+            System.setOut(saida);
+            try (Stream<Path> caminhos = Files.walk(diretorio)) {
+                for (Path caminho : caminhos.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(caminho);
+                }
+            }
+        }
+    }
+
+    private static Banco criarBanco(Journal journal) {
+        Banco banco = new Banco(journal);
+        for (int i = 0; i < CONTAS; i++) {
+            banco.carregarConta(new Conta(new Cliente("Cliente " + i, String.format("%011d", i)),
+                    10_000_000 + i, 1, i % 7 == 0 ? 0 : 100_00 + i));
+        }
+        banco.concluirCarga();
+        return banco;
+    }
+
+    private static void imprimir(String forma, LancamentosEmLote.Resultado resultado) {
+        System.out.printf("%-18s | %,10d contas | %,6d ms | %,12d contas/s | %,d lançamentos, %,d recusadas%n",
+                forma, resultado.contas(), resultado.duracaoMs(), resultado.contasPorSegundo(),
+                resultado.aplicadas(), resultado.recusadas());
+    }
+}
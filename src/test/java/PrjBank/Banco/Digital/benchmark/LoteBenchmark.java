@@ -0,0 +1,90 @@
+package PrjBank.Banco.Digital.benchmark;
+
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.persistencia.Journal;
+import PrjBank.Banco.Digital.persistencia.PoliticaFsync;
+import PrjBank.Banco.Digital.service.Banco;
+import PrjBank.Banco.Digital.service.ModoLote;
+import PrjBank.Banco.Digital.service.OperacaoLote;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compara a vazão de depósitos e transferências feitos um a um pelo {@link Banco} com a de
+ * {@link Banco#executarLote} (em ordem e em paralelo), com o journal em {@link PoliticaFsync#GRUPO}.
+ * Um a um, cada operação espera pelo seu fsync; no lote, o fsync é aguardado uma única vez.
+ * <p>
+ * Execução: {@code java -cp target/classes:target/test-classes PrjBank.Banco.Digital.benchmark.LoteBenchmark [diretório]}
+ */
+public class LoteBenchmark {
+
+    private static final int CONTAS = 1_000;
+    private static final int OPERACOES = 20_000;
+
+    public static void main(String[] args) throws Exception {
+        Path diretorio = args.length > 0 ? Path.of(args[0]) : Files.createTempDirectory("lote-bench");
+        double umAUm = medir(diretorio, null, false);
+        double emOrdem = medir(diretorio, ModoLote.MELHOR_ESFORCO, false);
+        double paralelo = medir(diretorio, ModoLote.MELHOR_ESFORCO, true);
+        double tudoOuNada = medir(diretorio, ModoLote.TUDO_OU_NADA, false);
+        System.out.printf("um a um        | %,12.0f ops/s%n", umAUm);
+        System.out.printf("lote em ordem  | %,12.0f ops/s%n", emOrdem);
+        System.out.printf("lote paralelo  | %,12.0f ops/s%n", paralelo);
+        System.out.printf("tudo ou nada   | %,12.0f ops/s%n", tudoOuNada);
+    }
+
+    private static double medir(Path diretorio, ModoLote modo, boolean paralelo) throws Exception {
+        Path arquivo = diretorio.resolve("journal-lote.dat");
+        Files.deleteIfExists(arquivo);
+        try (Journal journal = new Journal(arquivo, PoliticaFsync.GRUPO, 5, Journal.TAMANHO_REGIAO_PADRAO)) {
+            Banco banco = new Banco(journal);
+            List<Conta> contas = new ArrayList<>();
+            for (int i = 0; i < CONTAS; i++) {
+                Conta conta = new Conta(new Cliente("Cliente " + i, "000"));
+                banco.carregarConta(conta);
+                contas.add(conta);
+            }
+            banco.concluirCarga();
+            List<OperacaoLote> operacoes = gerarOperacoes(contas);
+
+            long inicio = System.nanoTime();
+            if (modo == null) {
+                for (OperacaoLote operacao : operacoes) {
+                    Conta origem = banco.buscarConta(operacao.conta()).orElseThrow();
+                    if (operacao.tipo() == OperacaoLote.Tipo.DEPOSITO) {
+                        banco.depositar(origem, operacao.valor());
+                    } else {
+                        banco.transferir(origem, banco.buscarConta(operacao.destino()).orElseThrow(), operacao.valor());
+                    }
+                }
+            } else {
+                banco.executarLote(operacoes, modo, paralelo);
+            }
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+            return operacoes.size() / segundos;
+        } finally {
+            Files.deleteIfExists(arquivo);
+        }
+    }
+
+    /**
+     * Gera pares de depósito seguido de transferência do mesmo valor, que nunca falham por saldo.
+     */
+    private static List<OperacaoLote> gerarOperacoes(List<Conta> contas) {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        List<OperacaoLote> operacoes = new ArrayList<>(OPERACOES);
+        while (operacoes.size() < OPERACOES) {
+            int origem = contas.get(aleatorio.nextInt(contas.size())).getNumero();
+            int destino = contas.get(aleatorio.nextInt(contas.size())).getNumero();
+            long valor = 1 + aleatorio.nextInt(10_000);
+            operacoes.add(OperacaoLote.deposito(origem, valor));
+            operacoes.add(OperacaoLote.transferencia(origem, destino, valor));
+        }
+        return operacoes;
+    }
+}
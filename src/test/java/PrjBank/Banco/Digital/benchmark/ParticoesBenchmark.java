@@ -0,0 +1,110 @@
+package PrjBank.Banco.Digital.benchmark;
+
+import PrjBank.Banco.Digital.exception.SaldoInsuficienteException;
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.model.Dinheiro;
+import PrjBank.Banco.Digital.model.StatusOperacao;
+import PrjBank.Banco.Digital.service.Banco;
+import PrjBank.Banco.Digital.service.OperacaoLote;
+import PrjBank.Banco.Digital.service.Particoes;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compara a vazão de transferências entre contas aleatórias chamando o {@link Banco} direto
+ * (threads disputando as travas das contas) e pelas {@link Particoes} (uma thread por partição),
+ * com 1 até N threads clientes (N = núcleos disponíveis). Pelas partições, cada cliente mantém até
+ * {@value #JANELA} operações em andamento, como fariam várias requisições simultâneas.
+ * <p>
+ * Execução: {@code java -cp target/classes:target/test-classes PrjBank.Banco.Digital.benchmark.ParticoesBenchmark}
+ */
+public class ParticoesBenchmark {
+
+    private static final int CONTAS = 10_000;
+    private static final int OPERACOES_POR_THREAD = 500_000;
+    private static final int JANELA = 256;
+
+    public static void main(String[] args) throws Exception {
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= nucleos; threads *= 2) {
+            Banco direto = new Banco();
+            List<Conta> contas = criarContas(direto);
+            double vazaoDireta = medir(threads, () -> operar(direto, contas));
+            double particionado;
+            Banco banco = new Banco();
+            int[] numeros = criarContas(banco).stream().mapToInt(Conta::getNumero).toArray();
+            try (Particoes particoes = new Particoes(banco, nucleos)) {
+                particionado = medir(threads, () -> operar(particoes, numeros));
+            }
+            System.out.printf("%2d threads | direto: %,12.0f ops/s | particoes (%d): %,12.0f ops/s%n",
+                    threads, vazaoDireta, nucleos, particionado);
+        }
+    }
+
+    private static double medir(int threads, Runnable tarefa) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                tarefa.run();
+                return null;
+            }));
+        }
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for (Future<?> f : tarefas) {
+            f.get();
+        }
+        long duracao = System.nanoTime() - inicio;
+        executor.shutdown();
+        return threads * (double) OPERACOES_POR_THREAD / (duracao / 1e9);
+    }
+
+    private static void operar(Banco banco, List<Conta> contas) {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        for (int i = 0; i < OPERACOES_POR_THREAD; i++) {
+            Conta origem = contas.get(aleatorio.nextInt(contas.size()));
+            Conta destino = contas.get(aleatorio.nextInt(contas.size()));
+            try {
+                banco.transferir(origem, destino, 100);
+            } catch (SaldoInsuficienteException e) {
+                // Não deve ocorrer com os saldos iniciais usados.
+            }
+        }
+    }
+
+    private static void operar(Particoes particoes, int[] numeros) {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        ArrayDeque<CompletableFuture<StatusOperacao>> emAndamento = new ArrayDeque<>(JANELA);
+        for (int i = 0; i < OPERACOES_POR_THREAD; i++) {
+            if (emAndamento.size() == JANELA) {
+                emAndamento.poll().join();
+            }
+            emAndamento.add(particoes.executar(OperacaoLote.transferencia(
+                    numeros[aleatorio.nextInt(numeros.length)], numeros[aleatorio.nextInt(numeros.length)], 100)));
+        }
+        emAndamento.forEach(CompletableFuture::join);
+    }
+
+    private static List<Conta> criarContas(Banco banco) {
+        List<Conta> contas = new ArrayList<>(CONTAS);
+        for (int i = 0; i < CONTAS; i++) {
+            Conta conta = new Conta(new Cliente("Titular " + i, "000"));
+            conta.setSaldo(Dinheiro.deReais(1_000_000_000L));
+            banco.adicionarConta(conta);
+            contas.add(conta);
+        }
+        return contas;
+    }
+}
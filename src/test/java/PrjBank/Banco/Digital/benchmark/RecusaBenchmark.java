@@ -0,0 +1,99 @@
+package PrjBank.Banco.Digital.benchmark;
+
+import PrjBank.Banco.Digital.exception.SaldoInsuficienteException;
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.model.Dinheiro;
+import PrjBank.Banco.Digital.model.StatusOperacao;
+import PrjBank.Banco.Digital.service.Banco;
+import PrjBank.Banco.Digital.service.OperacaoLote;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Mede o custo de recusar saques por saldo insuficiente (tempo e bytes alocados por recusa):
+ * <ul>
+ *     <li>antes: exceção com pilha de chamadas e mensagem montada com {@code String.format}, como o
+ *     {@code Conta.sacar} fazia;</li>
+ *     <li>exceção sem pilha: o {@link Conta#sacar} atual, que ainda lança a exceção, agora sem pilha;</li>
+ *     <li>status: {@link Banco#executar}, que devolve {@link StatusOperacao#SALDO_INSUFICIENTE} sem exceção.</li>
+ * </ul>
+ * As chamadas passam por alguns níveis de métodos, como numa requisição, para que a pilha capturada
+ * tenha um tamanho realista.
+ * <p>
+ * Execução: {@code java -cp target/classes:target/test-classes PrjBank.Banco.Digital.benchmark.RecusaBenchmark}
+ */
+public class RecusaBenchmark {
+
+    private static final int RECUSAS = 1_000_000;
+    private static final int PROFUNDIDADE = 40;
+
+    private interface Recusa {
+        boolean executar();
+    }
+
+    public static void main(String[] args) {
+        Banco banco = new Banco();
+        Conta conta = new Conta(new Cliente("Titular", "000"));
+        conta.setSaldo(100);
+        banco.adicionarConta(conta);
+        OperacaoLote saque = OperacaoLote.saque(conta.getNumero(), 1_000);
+
+        Recusa antes = () -> {
+            try {
+                if (conta.getSaldo() < 1_000) {
+                    throw new ExcecaoComPilha(String.format(
+                            "Saldo insuficiente. Saldo atual: %s, Tentativa de saque: %s",
+                            Dinheiro.formatarReal(conta.getSaldo()), Dinheiro.formatarReal(1_000)));
+                }
+                return false;
+            } catch (ExcecaoComPilha e) {
+                return e.getMessage() != null;
+            }
+        };
+        Recusa semPilha = () -> {
+            try {
+                conta.sacar(1_000);
+                return false;
+            } catch (SaldoInsuficienteException e) {
+                return e.getMessage() != null;
+            }
+        };
+        Recusa status = () -> banco.executar(saque) == StatusOperacao.SALDO_INSUFICIENTE;
+
+        for (int rodada = 0; rodada < 3; rodada++) {
+            medir("antes (pilha)", antes);
+            medir("sem pilha", semPilha);
+            medir("status", status);
+            System.out.println();
+        }
+    }
+
+    private static void medir(String modo, Recusa recusa) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long bytesAntes = threads.getCurrentThreadAllocatedBytes();
+        long inicio = System.nanoTime();
+        int recusadas = 0;
+        for (int i = 0; i < RECUSAS; i++) {
+            if (aprofundar(PROFUNDIDADE, recusa)) recusadas++;
+        }
+        long duracao = System.nanoTime() - inicio;
+        long bytes = threads.getCurrentThreadAllocatedBytes() - bytesAntes;
+        if (recusadas != RECUSAS) throw new IllegalStateException("Nem todas as operações foram recusadas.");
+        System.out.printf("%-14s | %,8.0f ns/recusa | %,6d bytes/recusa%n",
+                modo, (double) duracao / RECUSAS, bytes / RECUSAS);
+    }
+
+    private static boolean aprofundar(int niveis, Recusa recusa) {
+        return niveis == 0 ? recusa.executar() : aprofundar(niveis - 1, recusa);
+    }
+
+    /**
+     * Exceção com pilha de chamadas, como a {@link SaldoInsuficienteException} era antes.
+     */
+    private static final class ExcecaoComPilha extends Exception {
+        ExcecaoComPilha(String mensagem) {
+            super(mensagem);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package PrjBank.Banco.Digital.benchmark;
+
+import PrjBank.Banco.Digital.exception.SaldoInsuficienteException;
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.service.AgregadosSaldos;
+import PrjBank.Banco.Digital.service.Banco;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mede os relatórios sobre 1 milhão de contas enquanto threads fazem transferências aleatórias
+ * (o total do banco não muda): a soma percorrendo {@link Banco#getContas()}, como antes, a leitura dos
+ * agregados correntes e o corte consistente paralelo. Para cada forma, mostra o tempo de leitura e o
+ * maior desvio do total observado; no fim, a vazão das transferências.
+ * <p>
+ * Execução: {@code java -Xmx2g -cp target/classes:target/test-classes PrjBank.Banco.Digital.benchmark.RelatorioSaldosBenchmark}
+ */
+public class RelatorioSaldosBenchmark {
+
+    private static final int CONTAS = 1_000_000;
+    private static final long SALDO_INICIAL = 1_000_00;
+    private static final int LEITURAS = 20;
+
+    public static void main(String[] args) throws Exception {
+        Banco banco = new Banco();
+        List<Conta> contas = new ArrayList<>(CONTAS);
+        PrintStream saida = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            for (int i = 0; i < CONTAS; i++) {
+                Conta conta = new Conta(new Cliente("Cliente " + i, String.valueOf(i)));
+                conta.setSaldo(SALDO_INICIAL);
+                banco.adicionarConta(conta);
+                contas.add(conta);
+            }
+        } finally {
+            System.setOut(saida);
+        }
+        long totalEsperado = CONTAS * SALDO_INICIAL;
+
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        AtomicBoolean parar = new AtomicBoolean();
+        LongAdder transferencias = new LongAdder();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            tarefas.add(executor.submit(() -> {
+                ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                while (!parar.get()) {
+                    try {
+                        banco.transferir(contas.get(aleatorio.nextInt(CONTAS)), contas.get(aleatorio.nextInt(CONTAS)), 100);
+                    } catch (SaldoInsuficienteException e) {
+                        // Não deve ocorrer com os saldos iniciais usados.
+                    }
+                    transferencias.increment();
+                }
+                return null;
+            }));
+        }
+
+        long inicio = System.nanoTime();
+        try {
+            for (int rodada = 0; rodada < 2; rodada++) {
+                long desvio = 0;
+                long tempo = 0;
+                for (int i = 0; i < LEITURAS; i++) {
+                    long t0 = System.nanoTime();
+                    long total = 0;
+                    for (Conta conta : banco.getContas()) {
+                        total += conta.getSaldo();
+                    }
+                    tempo += System.nanoTime() - t0;
+                    desvio = Math.max(desvio, Math.abs(total - totalEsperado));
+                }
+                imprimir("getContas()", tempo, desvio);
+
+                desvio = 0;
+                tempo = 0;
+                for (int i = 0; i < LEITURAS * 1_000; i++) {
+                    long t0 = System.nanoTime();
+                    AgregadosSaldos.Resumo resumo = banco.resumirSaldos();
+                    tempo += System.nanoTime() - t0;
+                    desvio = Math.max(desvio, Math.abs(resumo.total() - totalEsperado));
+                }
+                imprimir("agregados", tempo / 1_000, desvio);
+
+                desvio = 0;
+                tempo = 0;
+                for (int i = 0; i < LEITURAS; i++) {
+                    long t0 = System.nanoTime();
+                    AgregadosSaldos.Corte corte = banco.cortarSaldos(10);
+                    tempo += System.nanoTime() - t0;
+                    desvio = Math.max(desvio, Math.abs(corte.total() - totalEsperado));
+                }
+                imprimir("corte", tempo, desvio);
+            }
+        } finally {
+            parar.set(true);
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+            executor.shutdown();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        System.out.printf("%d threads de transferência: %,.0f transferências/s durante as leituras%n",
+                threads, transferencias.sum() / segundos);
+    }
+
+    private static void imprimir(String forma, long nanos, long desvio) {
+        System.out.printf("%-12s | %,14.1f us/leitura | maior desvio do total: %,d centavos%n",
+                forma, nanos / 1e3 / LEITURAS, desvio);
+    }
+}
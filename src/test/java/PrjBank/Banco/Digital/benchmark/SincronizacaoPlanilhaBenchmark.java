@@ -0,0 +1,70 @@
+package PrjBank.Banco.Digital.benchmark;
+
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.service.Banco;
+import PrjBank.Banco.Digital.service.GoogleSheetsService;
+import PrjBank.Banco.Digital.service.PlanilhaTransporteFalso;
+import PrjBank.Banco.Digital.service.SincronizadorPlanilha;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compara o envio de uma linha por chamada ({@link GoogleSheetsService#adicionarLinha}) com a
+ * sincronização em lote do {@link SincronizadorPlanilha}, usando um transporte em memória com
+ * 10 ms de latência por chamada.
+ * <p>
+ * Execução: {@code java -cp target/classes:target/test-classes PrjBank.Banco.Digital.benchmark.SincronizacaoPlanilhaBenchmark}
+ */
+public class SincronizacaoPlanilhaBenchmark {
+
+    private static final int CONTAS = 500;
+    private static final int DEPOSITOS_POR_CONTA = 10;
+    private static final long LATENCIA_MS = 10;
+
+    public static void main(String[] args) throws Exception {
+        PrintStream saida = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            List<Conta> contas = new ArrayList<>();
+            for (int i = 0; i < CONTAS; i++) {
+                contas.add(new Conta(new Cliente("Cliente " + i, "000")));
+            }
+
+            // Caminho atual: uma chamada bloqueante por linha, na thread da requisição.
+            PlanilhaTransporteFalso porLinha = new PlanilhaTransporteFalso().comLatencia(LATENCIA_MS);
+            GoogleSheetsService sheets = new GoogleSheetsService(porLinha);
+            long inicio = System.nanoTime();
+            for (Conta conta : contas) {
+                sheets.adicionarLinha(conta);
+            }
+            double msPorLinha = (System.nanoTime() - inicio) / 1e6;
+            saida.printf("Por linha      | %,6d chamadas | requisições bloqueadas por %,8.1f ms%n",
+                    porLinha.getLotes().size(), msPorLinha);
+
+            // Write-behind: as requisições só marcam pendências; as escritas vão em lote.
+            PlanilhaTransporteFalso emLote = new PlanilhaTransporteFalso().comLatencia(LATENCIA_MS);
+            try (SincronizadorPlanilha sincronizador = new SincronizadorPlanilha(emLote, 500, 100, 200, 30_000)) {
+                Banco banco = new Banco(null, List.of(sincronizador));
+                inicio = System.nanoTime();
+                for (Conta conta : contas) {
+                    banco.adicionarConta(conta);
+                    for (int i = 0; i < DEPOSITOS_POR_CONTA; i++) {
+                        banco.depositar(conta, 100);
+                    }
+                }
+                double msRequisicoes = (System.nanoTime() - inicio) / 1e6;
+                sincronizador.descarregarAgora();
+                double msTotal = (System.nanoTime() - inicio) / 1e6;
+                saida.printf("Write-behind   | %,6d chamadas | requisições bloqueadas por %,8.1f ms"
+                                + " (%d operações) | planilha em dia após %,8.1f ms%n",
+                        emLote.getLotes().size(), msRequisicoes, CONTAS * (1 + DEPOSITOS_POR_CONTA), msTotal);
+            }
+        } finally {
+            System.setOut(saida);
+        }
+    }
+}
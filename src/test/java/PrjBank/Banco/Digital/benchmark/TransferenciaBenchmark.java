@@ -0,0 +1,80 @@
+package PrjBank.Banco.Digital.benchmark;
+
+import PrjBank.Banco.Digital.exception.SaldoInsuficienteException;
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.model.Dinheiro;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Mede a vazão de {@link Conta#transferir} com 1 até N threads (N = núcleos disponíveis).
+ * <p>
+ * No cenário "disjunto" cada thread movimenta apenas o seu próprio par de contas, então a
+ * vazão deve crescer com o número de núcleos. No cenário "concorrido" todas as threads
+ * disputam as mesmas 4 contas.
+ * <p>
+ * Execução: {@code java -cp target/classes:target/test-classes PrjBank.Banco.Digital.benchmark.TransferenciaBenchmark}
+ */
+public class TransferenciaBenchmark {
+
+    private static final int TRANSFERENCIAS_POR_THREAD = 500_000;
+
+    public static void main(String[] args) throws Exception {
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= nucleos; threads *= 2) {
+            double disjunto = medir(threads, false);
+            double concorrido = medir(threads, true);
+            System.out.printf("%2d threads | disjunto: %,12.0f ops/s | concorrido: %,12.0f ops/s%n",
+                    threads, disjunto, concorrido);
+        }
+    }
+
+    private static double medir(int threads, boolean concorrido) throws Exception {
+        List<Conta> compartilhadas = criarContas(4);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            List<Conta> contas = concorrido ? compartilhadas : criarContas(2);
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERENCIAS_POR_THREAD; i++) {
+                    Conta origem = contas.get(aleatorio.nextInt(contas.size()));
+                    Conta destino = contas.get(aleatorio.nextInt(contas.size()));
+                    try {
+                        origem.transferir(100, destino);
+                    } catch (SaldoInsuficienteException e) {
+                        // Não deve ocorrer com os saldos iniciais usados.
+                    }
+                }
+                return null;
+            }));
+        }
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        long duracao = System.nanoTime() - inicio;
+        executor.shutdown();
+        return threads * (double) TRANSFERENCIAS_POR_THREAD / (duracao / 1e9);
+    }
+
+    private static List<Conta> criarContas(int quantidade) {
+        List<Conta> contas = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            Conta conta = new Conta(new Cliente("Titular " + i, "000"));
+            conta.setSaldo(Dinheiro.deReais(1_000_000_000L));
+            contas.add(conta);
+        }
+        return contas;
+    }
+}
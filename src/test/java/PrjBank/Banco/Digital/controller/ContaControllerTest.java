@@ -0,0 +1,151 @@
+package PrjBank.Banco.Digital.controller;
+
+import PrjBank.Banco.Digital.controller.dto.CriarContaRequest;
+import PrjBank.Banco.Digital.controller.dto.PaginaContas;
+import PrjBank.Banco.Digital.controller.dto.TransacaoRequest;
+import PrjBank.Banco.Digital.controller.dto.TransferenciaRequest;
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.service.Banco;
+import PrjBank.Banco.Digital.service.CacheIdempotencia;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContaControllerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Banco banco;
+    private ContaController controller;
+
+    @BeforeEach
+    void criarContas() {
+        banco = new Banco();
+        for (int i = 0; i < 5; i++) {
+            banco.adicionarConta(new Conta(new Cliente("Cliente " + i, "00" + i)));
+        }
+        controller = new ContaController(banco, new CacheIdempotencia(1_000, 60_000), objectMapper);
+    }
+
+    @Test
+    void paginaPorCursor() {
+        PaginaContas primeira = controller.listarPagina(2, null).getBody();
+        assertEquals(2, primeira.contas().size());
+        assertEquals(Integer.valueOf(primeira.contas().get(1).getNumero()), primeira.proximoCursor());
+
+        PaginaContas segunda = controller.listarPagina(2, primeira.proximoCursor()).getBody();
+        assertTrue(segunda.contas().get(0).getNumero() > primeira.proximoCursor());
+
+        PaginaContas ultima = controller.listarPagina(2, segunda.proximoCursor()).getBody();
+        assertEquals(1, ultima.contas().size());
+        assertNull(ultima.proximoCursor());
+
+        assertEquals(400, controller.listarPagina(0, null).getStatusCode().value());
+    }
+
+    @Test
+    void escreveArrayJsonCompleto() throws Exception {
+        JsonNode contas = objectMapper.readTree(executar(controller.listarTodasAsContas(null)));
+
+        assertEquals(5, contas.size());
+        assertEquals("Cliente 0", contas.get(0).get("titular").get("nome").asText());
+        assertEquals(0.0, contas.get(0).get("saldo").asDouble());
+
+        // Sem limit, o after continua valendo: o array começa depois da conta informada.
+        int segunda = contas.get(1).get("numero").asInt();
+        JsonNode restantes = objectMapper.readTree(executar(controller.listarTodasAsContas(segunda)));
+        assertEquals(3, restantes.size());
+        assertEquals("Cliente 2", restantes.get(0).get("titular").get("nome").asText());
+    }
+
+    @Test
+    void escreveUmaContaPorLinhaEmNdjson() throws Exception {
+        int primeira = banco.getContas().get(0).getNumero();
+
+        String[] linhas = executar(controller.listarContasNdjson(primeira, 3)).split("\n");
+
+        assertEquals(3, linhas.length);
+        assertEquals(primeira + 1, objectMapper.readTree(linhas[0]).get("numero").asInt());
+    }
+
+    @Test
+    void depositoRepetidoComAMesmaChaveAplicaUmaVez() {
+        Conta conta = banco.getContas().get(0);
+        TransacaoRequest request = new TransacaoRequest(1_000);
+
+        ResponseEntity<String> primeira = controller.depositar(conta.getNumero(), request, "retentativa-1");
+        ResponseEntity<String> repetida = controller.depositar(conta.getNumero(), request, "retentativa-1");
+
+        assertEquals(primeira.getBody(), repetida.getBody());
+        assertEquals(1_000, conta.getSaldo());
+        assertEquals(422, controller.sacar(conta.getNumero(), request, "retentativa-1").getStatusCode().value());
+        controller.depositar(conta.getNumero(), request, null);
+        assertEquals(2_000, conta.getSaldo());
+    }
+
+    @Test
+    void buscaPorNomeComCursorERecusaCpfRepetido() {
+        PaginaContas primeira = controller.buscarPorNome("cliente", 3, null).getBody();
+        assertEquals(3, primeira.contas().size());
+        PaginaContas segunda = controller.buscarPorNome("CLIENTE", 3, primeira.proximoCursor()).getBody();
+        assertEquals("Cliente 3", segunda.contas().get(0).getTitular().getNome());
+        assertNull(segunda.proximoCursor());
+        assertEquals(400, controller.buscarPorNome(" ", 3, null).getStatusCode().value());
+
+        Banco cpfUnico = new Banco(null, null, List.of(), true);
+        ContaController unico = new ContaController(cpfUnico, new CacheIdempotencia(1_000, 60_000), objectMapper);
+        // Dados inválidos são recusados antes de chegar ao banco; o CPF é opcional.
+        assertEquals(400, unico.criarConta(new CriarContaRequest(null, "123.456.789-09")).getStatusCode().value());
+        assertEquals(400, unico.criarConta(new CriarContaRequest("A".repeat(5_000), "1")).getStatusCode().value());
+        assertEquals(400, unico.criarConta(new CriarContaRequest("Ana", "1".repeat(5_000))).getStatusCode().value());
+        assertEquals(200, unico.criarConta(new CriarContaRequest("Sem CPF", null)).getStatusCode().value());
+        ResponseEntity<?> ana = unico.criarConta(new CriarContaRequest("Ana", "123.456.789-09"));
+        assertEquals(200, ana.getStatusCode().value());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(409, unico.criarConta(new CriarContaRequest("Ana", "12345678909")).getStatusCode().value());
+        }
+        assertEquals(1, unico.buscarPorCpf("12345678909").contas().size());
+        // As aberturas recusadas não gastam números de conta.
+        Conta bia = (Conta) unico.criarConta(new CriarContaRequest("Bia", "98765432100")).getBody();
+        assertEquals(((Conta) ana.getBody()).getNumero() + 1, bia.getNumero());
+    }
+
+    @Test
+    void recusasViramStatusHttpSemExcecoes() {
+        Conta origem = banco.getContas().get(0);
+        Conta destino = banco.getContas().get(1);
+
+        assertEquals(400, controller.depositar(origem.getNumero(), new TransacaoRequest(0), null).getStatusCode().value());
+        assertEquals(0, origem.getSaldo());
+        ResponseEntity<String> semSaldo = controller.sacar(origem.getNumero(), new TransacaoRequest(100), null);
+        assertEquals(400, semSaldo.getStatusCode().value());
+        assertEquals("Saldo insuficiente.", semSaldo.getBody());
+        assertEquals(404, controller.sacar(-1, new TransacaoRequest(100), null).getStatusCode().value());
+        assertEquals(404, controller.transferir(origem.getNumero(), new TransferenciaRequest(100, -1), null)
+                .getStatusCode().value());
+        assertEquals(400, controller.transferir(origem.getNumero(), new TransferenciaRequest(100, destino.getNumero()), null)
+                .getStatusCode().value());
+
+        controller.depositar(origem.getNumero(), new TransacaoRequest(250), null);
+        ResponseEntity<String> transferencia =
+                controller.transferir(origem.getNumero(), new TransferenciaRequest(100, destino.getNumero()), null);
+        assertEquals(200, transferencia.getStatusCode().value());
+        assertTrue(transferencia.getBody().startsWith("Transferência de R$"), transferencia.getBody());
+        assertEquals(100, destino.getSaldo());
+    }
+
+    private static String executar(ResponseEntity<StreamingResponseBody> resposta) throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        resposta.getBody().writeTo(saida);
+        return saida.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,61 @@
+package PrjBank.Banco.Digital.metricas;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistogramaTest {
+
+    @Test
+    void faixasCobremTodaAEscalaComErroPequeno() {
+        long[] valores = {0, 1, 31, 32, 33, 63, 64, 1_000, 123_456, 999_999_999, Long.MAX_VALUE};
+        for (long valor : valores) {
+            int indice = Histograma.indice(valor);
+            long maior = Histograma.maiorValor(indice);
+            assertTrue(maior >= valor, "faixa de " + valor);
+            assertTrue(maior - valor <= valor / 32 + 1, "erro de " + valor);
+            if (indice > 0) {
+                assertTrue(Histograma.maiorValor(indice - 1) < valor, "faixa anterior de " + valor);
+            }
+        }
+    }
+
+    @Test
+    void calculaPercentis() {
+        Histograma histograma = new Histograma();
+        for (int i = 1; i <= 1_000; i++) {
+            histograma.registrar(i * 1_000L);
+        }
+
+        Histograma.Resumo resumo = histograma.resumir();
+
+        assertEquals(1_000, resumo.contagem());
+        assertEquals(500_500, resumo.mediaNs());
+        assertEquals(500_000, resumo.p50Ns(), 500_000 / 32.0);
+        assertEquals(990_000, resumo.p99Ns(), 990_000 / 32.0);
+        assertEquals(1_000_000, resumo.maximoNs());
+        assertTrue(resumo.p999Ns() <= resumo.maximoNs());
+    }
+
+    @Test
+    void registroConcorrenteNaoPerdeContagens() throws Exception {
+        Histograma histograma = new Histograma();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    histograma.registrar(i);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(400_000, histograma.resumir().contagem());
+        assertEquals(99_999, histograma.resumir().maximoNs());
+    }
+}
@@ -0,0 +1,25 @@
+package PrjBank.Banco.Digital.metricas;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricasTest {
+
+    @Test
+    void metodosDesconhecidosFicamNumaUnicaEntrada() {
+        Metricas metricas = new Metricas();
+        for (int i = 0; i < 1_000; i++) {
+            metricas.registrarRequisicao("(outros)", "METODO" + i, 405, 1_000);
+        }
+        metricas.registrarRequisicao("(outros)", "GET", 404, 1_000);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> endpoints = (Map<String, Object>) metricas.resumir().get("endpoints");
+        assertEquals(2, endpoints.size());
+        assertTrue(endpoints.containsKey("OUTROS (outros)"));
+        assertTrue(endpoints.containsKey("GET (outros)"));
+    }
+}
@@ -0,0 +1,167 @@
+package PrjBank.Banco.Digital.model;
+
+import PrjBank.Banco.Digital.exception.SaldoInsuficienteException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContaTest {
+
+    private PrintStream saidaOriginal;
+
+    @BeforeEach
+    void silenciarConsole() {
+        saidaOriginal = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @AfterEach
+    void restaurarConsole() {
+        System.setOut(saidaOriginal);
+    }
+
+    @Test
+    void transferenciaMoveOValorEntreAsContas() throws Exception {
+        Conta origem = novaConta(10_000);
+        Conta destino = novaConta(0);
+
+        origem.transferir(4_050, destino);
+
+        assertEquals(5_950, origem.getSaldo());
+        assertEquals(4_050, destino.getSaldo());
+    }
+
+    @Test
+    void transferenciaSemSaldoNaoAlteraNenhumaConta() {
+        Conta origem = novaConta(1_000);
+        Conta destino = novaConta(500);
+
+        assertThrows(SaldoInsuficienteException.class, () -> origem.transferir(5_000, destino));
+
+        assertEquals(1_000, origem.getSaldo());
+        assertEquals(500, destino.getSaldo());
+    }
+
+    @Test
+    void transferenciasConcorrentesPreservamOTotal() throws Exception {
+        int quantidadeContas = 16;
+        int threads = 8;
+        int transferenciasPorThread = 5_000;
+        List<Conta> contas = new ArrayList<>();
+        for (int i = 0; i < quantidadeContas; i++) {
+            contas.add(novaConta(100_000));
+        }
+        long totalInicial = somarSaldos(contas);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                for (int i = 0; i < transferenciasPorThread; i++) {
+                    Conta origem = contas.get(aleatorio.nextInt(quantidadeContas));
+                    Conta destino = contas.get(aleatorio.nextInt(quantidadeContas));
+                    try {
+                        origem.transferir(aleatorio.nextInt(1, 20_000), destino);
+                    } catch (SaldoInsuficienteException e) {
+                        // Rejeições fazem parte da carga; o total deve continuar intacto.
+                    }
+                }
+                return null;
+            }));
+        }
+        largada.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(totalInicial, somarSaldos(contas));
+        for (Conta conta : contas) {
+            assertTrue(conta.getSaldo() >= 0, "Saldo negativo na conta " + conta.getNumero());
+        }
+    }
+
+    @Test
+    void transferenciasEmSentidosOpostosNaoTravam() throws Exception {
+        Conta a = novaConta(1_000_000);
+        Conta b = novaConta(1_000_000);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<?> ida = executor.submit(() -> {
+            for (int i = 0; i < 50_000; i++) a.transferir(1, b);
+            return null;
+        });
+        Future<?> volta = executor.submit(() -> {
+            for (int i = 0; i < 50_000; i++) b.transferir(1, a);
+            return null;
+        });
+        ida.get(60, TimeUnit.SECONDS);
+        volta.get(60, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertEquals(1_000_000, a.getSaldo());
+        assertEquals(1_000_000, b.getSaldo());
+    }
+
+    @Test
+    void depositoQueEstouraOSaldoERejeitado() {
+        Conta conta = novaConta(Long.MAX_VALUE - 10);
+
+        assertThrows(ArithmeticException.class, () -> conta.depositar(11));
+        assertEquals(Long.MAX_VALUE - 10, conta.getSaldo());
+    }
+
+    @Test
+    void recusasVoltamComoStatusSemAlterarSaldos() {
+        Conta origem = novaConta(1_000);
+        Conta destino = novaConta(Long.MAX_VALUE - 10);
+
+        assertEquals(StatusOperacao.VALOR_INVALIDO, origem.tentarDepositar(0));
+        assertEquals(StatusOperacao.VALOR_INVALIDO, origem.tentarSacar(-5));
+        assertEquals(StatusOperacao.SALDO_INSUFICIENTE, origem.tentarSacar(1_001));
+        assertEquals(StatusOperacao.SALDO_INSUFICIENTE, origem.tentarTransferir(1_001, origem));
+        assertEquals(StatusOperacao.LIMITE_EXCEDIDO, origem.tentarTransferir(11, destino));
+        assertEquals(StatusOperacao.LIMITE_EXCEDIDO, destino.tentarDepositar(11));
+        assertEquals(1_000, origem.getSaldo());
+        assertEquals(Long.MAX_VALUE - 10, destino.getSaldo());
+
+        assertEquals(StatusOperacao.APLICADA, origem.tentarTransferir(10, destino));
+        assertEquals(StatusOperacao.APLICADA, origem.tentarSacar(990));
+        assertEquals(0, origem.getSaldo());
+        assertEquals(Long.MAX_VALUE, destino.getSaldo());
+
+        // A exceção que resta não guarda a pilha de chamadas.
+        SaldoInsuficienteException e = assertThrows(SaldoInsuficienteException.class, () -> origem.sacar(1));
+        assertEquals(0, e.getStackTrace().length);
+    }
+
+    private static Conta novaConta(long saldoInicial) {
+        Conta conta = new Conta(new Cliente("Titular", "000"));
+        conta.setSaldo(saldoInicial);
+        return conta;
+    }
+
+    private static long somarSaldos(List<Conta> contas) {
+        long total = 0;
+        for (Conta conta : contas) {
+            total += conta.getSaldo();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,61 @@
+package PrjBank.Banco.Digital.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DinheiroTest {
+
+    @Test
+    void leFormatoDaPlanilha() {
+        assertEquals(123_456, Dinheiro.lerReal("R$ 1.234,56"));
+        assertEquals(123_456, Dinheiro.lerReal("R$\u00A01.234,56"));
+        assertEquals(1_050, Dinheiro.lerReal("10,5"));
+        assertEquals(1_000, Dinheiro.lerReal("10"));
+        assertEquals(-250, Dinheiro.lerReal("-R$ 2,50"));
+        assertEquals(Dinheiro.INVALIDO, Dinheiro.lerReal(""));
+        assertEquals(Dinheiro.INVALIDO, Dinheiro.lerReal("R$ abc"));
+        assertEquals(Dinheiro.INVALIDO, Dinheiro.lerReal("1,234"));
+        // Símbolo da moeda e sinal só valem como prefixo.
+        assertEquals(1_000, Dinheiro.lerReal("+R$ 10"));
+        assertEquals(Dinheiro.INVALIDO, Dinheiro.lerReal("12R3"));
+        assertEquals(Dinheiro.INVALIDO, Dinheiro.lerReal("10$"));
+        assertEquals(Dinheiro.INVALIDO, Dinheiro.lerReal("1,+50"));
+    }
+
+    @Test
+    void leDecimalDaApi() {
+        assertEquals(123_456, Dinheiro.lerDecimal("1234.56"));
+        assertEquals(10, Dinheiro.lerDecimal("0.1"));
+        assertEquals(Dinheiro.INVALIDO, Dinheiro.lerDecimal("1.2.3"));
+        assertEquals(Dinheiro.INVALIDO, Dinheiro.lerDecimal("1,5"));
+        assertEquals(Dinheiro.INVALIDO, Dinheiro.lerDecimal("99999999999999999999"));
+    }
+
+    @Test
+    void formataNoPadraoBrasileiro() {
+        assertEquals("R$ 0,05", Dinheiro.formatarReal(5));
+        assertEquals("R$ 1.234,56", Dinheiro.formatarReal(123_456));
+        assertEquals("R$ 1.000.000,00", Dinheiro.formatarReal(100_000_000));
+        assertEquals("-R$ 10,01", Dinheiro.formatarReal(-1_001));
+        assertEquals("-R$ 92.233.720.368.547.758,08", Dinheiro.formatarReal(Long.MIN_VALUE));
+    }
+
+    @Test
+    void formataDecimalEReleOMesmoValor() {
+        long[] valores = {0, 1, 99, 100, 123_456, -1_001, Long.MAX_VALUE};
+        for (long valor : valores) {
+            assertEquals(valor, Dinheiro.lerDecimal(Dinheiro.formatarDecimal(valor)));
+            assertEquals(valor, Dinheiro.lerReal(Dinheiro.formatarReal(valor)));
+        }
+        assertEquals("0.05", Dinheiro.formatarDecimal(5));
+        assertEquals("-92233720368547758.08", Dinheiro.formatarDecimal(Long.MIN_VALUE));
+    }
+
+    @Test
+    void operacoesVerificamEstouro() {
+        assertThrows(ArithmeticException.class, () -> Dinheiro.somar(Long.MAX_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> Dinheiro.subtrair(Long.MIN_VALUE + 1, 2));
+        assertEquals(150, Dinheiro.somar(100, 50));
+    }
+}
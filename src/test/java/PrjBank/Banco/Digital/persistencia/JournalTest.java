@@ -0,0 +1,329 @@
+package PrjBank.Banco.Digital.persistencia;
+
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.service.Banco;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalTest {
+
+    private Path diretorio;
+    private Path arquivo;
+
+    @BeforeEach
+    void criarDiretorio() throws IOException {
+        diretorio = Files.createTempDirectory("journal-test");
+        arquivo = diretorio.resolve("journal.dat");
+    }
+
+    @AfterEach
+    void apagarDiretorio() throws IOException {
+        try (Stream<Path> caminhos = Files.walk(diretorio)) {
+            for (Path caminho : caminhos.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(caminho);
+            }
+        }
+    }
+
+    @Test
+    void reproduzRegistrosAposReabrir() throws IOException {
+        try (Journal journal = abrir(PoliticaFsync.GRUPO, Journal.TAMANHO_REGIAO_PADRAO)) {
+            journal.registrarAbertura(7, 1, 0, "Ana Souza", "123");
+            journal.registrarDeposito(7, 1_000);
+            journal.registrarSaque(7, 250);
+            journal.registrarTransferencia(7, 8, 100);
+        }
+
+        List<String> lidos = new ArrayList<>();
+        try (Journal journal = abrir(PoliticaFsync.GRUPO, Journal.TAMANHO_REGIAO_PADRAO)) {
+            assertEquals(4, journal.reproduzir(new Registrador(lidos)));
+        }
+        assertEquals(List.of("abertura 7 1 0 Ana Souza 123", "deposito 7 1000", "saque 7 250",
+                "transferencia 7 8 100"), lidos);
+    }
+
+    @Test
+    void descartaCaudaTruncadaEContinuaEscrevendo() throws IOException {
+        try (Journal journal = abrir(PoliticaFsync.SEMPRE, Journal.TAMANHO_REGIAO_PADRAO)) {
+            journal.registrarDeposito(1, 100);
+            journal.registrarDeposito(1, 200);
+        }
+        // Simula uma queda no meio da escrita do segundo registro.
+        long fimValido = tamanhoSemZeros() - 10;
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.WRITE)) {
+            canal.truncate(fimValido);
+        }
+
+        try (Journal journal = abrir(PoliticaFsync.SEMPRE, Journal.TAMANHO_REGIAO_PADRAO)) {
+            List<String> lidos = new ArrayList<>();
+            assertEquals(1, journal.reproduzir(new Registrador(lidos)));
+            journal.registrarDeposito(1, 300);
+        }
+
+        List<String> lidos = new ArrayList<>();
+        try (Journal journal = abrir(PoliticaFsync.SEMPRE, Journal.TAMANHO_REGIAO_PADRAO)) {
+            journal.reproduzir(new Registrador(lidos));
+        }
+        assertEquals(List.of("deposito 1 100", "deposito 1 300"), lidos);
+    }
+
+    @Test
+    void atravessaVariasRegioes() throws IOException {
+        int quantidade = 1_000;
+        try (Journal journal = abrir(PoliticaFsync.INTERVALO, 256)) {
+            for (int i = 0; i < quantidade; i++) {
+                journal.registrarDeposito(i, i);
+            }
+        }
+
+        List<String> lidos = new ArrayList<>();
+        try (Journal journal = abrir(PoliticaFsync.INTERVALO, 256)) {
+            assertEquals(quantidade, journal.reproduzir(new Registrador(lidos)));
+        }
+        assertEquals("deposito 999 999", lidos.get(quantidade - 1));
+    }
+
+    @Test
+    void bancoReconstroiContasESaldos() throws Exception {
+        int numeroA;
+        int numeroB;
+        try (Journal journal = abrir(PoliticaFsync.GRUPO, Journal.TAMANHO_REGIAO_PADRAO)) {
+            Banco banco = new Banco(journal);
+            Conta a = new Conta(new Cliente("Ana", "111"));
+            Conta b = new Conta(new Cliente("Bruno", "222"));
+            banco.adicionarConta(a);
+            banco.adicionarConta(b);
+            banco.depositar(a, 10_000);
+            banco.sacar(a, 1_500);
+            banco.transferir(a, b, 2_500);
+            numeroA = a.getNumero();
+            numeroB = b.getNumero();
+        }
+
+        try (Journal journal = abrir(PoliticaFsync.GRUPO, Journal.TAMANHO_REGIAO_PADRAO)) {
+            Banco banco = new Banco(journal);
+            assertEquals(6_000, banco.buscarConta(numeroA).orElseThrow().getSaldo());
+            assertEquals(2_500, banco.buscarConta(numeroB).orElseThrow().getSaldo());
+            assertEquals("Bruno", banco.buscarConta(numeroB).orElseThrow().getTitular().getNome());
+            // Contas novas não podem reutilizar números restaurados.
+            assertTrue(new Conta(new Cliente("Caio", "333")).getNumero() > numeroB);
+        }
+    }
+
+    @Test
+    void falhaNoFsyncEEntregueAQuemEsperaEmVezDeTravar() throws Exception {
+        Journal journal = new Journal(arquivo, PoliticaFsync.GRUPO, 1, Journal.TAMANHO_REGIAO_PADRAO) {
+            @Override
+            void forcar(MappedByteBuffer alvo, int inicio, int tamanho) {
+                throw new UncheckedIOException(new IOException("disco cheio"));
+            }
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> deposito = executor.submit(() -> journal.registrarDeposito(1, 100));
+            ExecutionException falha = assertThrows(ExecutionException.class, () -> deposito.get(10, TimeUnit.SECONDS));
+            assertTrue(falha.getCause() instanceof IllegalStateException, falha.toString());
+            assertTrue(falha.getCause().getCause() instanceof UncheckedIOException);
+            // Quem chega depois da falha também recebe a exceção, sem esperar.
+            assertThrows(IllegalStateException.class, () -> journal.registrarSaque(1, 10));
+        } finally {
+            executor.shutdown();
+            assertThrows(UncheckedIOException.class, journal::close);
+        }
+    }
+
+    @Test
+    void esperaInterrompidaFalhaEMantemAInterrupcao() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        Journal journal = new Journal(arquivo, PoliticaFsync.GRUPO, 1, Journal.TAMANHO_REGIAO_PADRAO) {
+            @Override
+            void forcar(MappedByteBuffer alvo, int inicio, int tamanho) {
+                aguardarSemInterrupcao(liberar);
+                super.forcar(alvo, inicio, tamanho);
+            }
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> deposito = executor.submit(() -> {
+                Thread.currentThread().interrupt();
+                try {
+                    journal.registrarDeposito(1, 100);
+                    return false;
+                } catch (IllegalStateException e) {
+                    return Thread.interrupted();
+                }
+            });
+            // Devolver normalmente faria o chamador tratar o depósito como durável.
+            assertTrue(deposito.get(10, TimeUnit.SECONDS));
+        } finally {
+            liberar.countDown();
+            executor.shutdown();
+            journal.close();
+        }
+    }
+
+    @Test
+    void closeSoAcordaQuemEsperaDepoisDoUltimoFsync() throws Exception {
+        CountDownLatch entrou = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Journal journal = new Journal(arquivo, PoliticaFsync.GRUPO, 1, Journal.TAMANHO_REGIAO_PADRAO) {
+            @Override
+            void forcar(MappedByteBuffer alvo, int inicio, int tamanho) {
+                entrou.countDown();
+                aguardarSemInterrupcao(liberar);
+                super.forcar(alvo, inicio, tamanho);
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> deposito = executor.submit(() -> journal.registrarDeposito(1, 100));
+            assertTrue(entrou.await(10, TimeUnit.SECONDS));
+            Future<?> fechamento = executor.submit(() -> {
+                journal.close();
+                return null;
+            });
+            // Enquanto o fsync não termina, quem espera continua bloqueado mesmo com o close() em andamento.
+            assertThrows(TimeoutException.class, () -> deposito.get(200, TimeUnit.MILLISECONDS));
+            liberar.countDown();
+            deposito.get(10, TimeUnit.SECONDS);
+            fechamento.get(10, TimeUnit.SECONDS);
+        } finally {
+            liberar.countDown();
+            executor.shutdown();
+        }
+        try (Journal reaberto = abrir(PoliticaFsync.GRUPO, Journal.TAMANHO_REGIAO_PADRAO)) {
+            List<String> lidos = new ArrayList<>();
+            reaberto.reproduzir(new Registrador(lidos));
+            assertEquals(List.of("deposito 1 100"), lidos);
+        }
+    }
+
+    @Test
+    void aberturaSemCpfEGravadaComCpfVazio() throws Exception {
+        try (Journal journal = abrir(PoliticaFsync.GRUPO, Journal.TAMANHO_REGIAO_PADRAO)) {
+            journal.registrarAbertura(7, 1, 0, "Ana", null);
+        }
+        try (Journal journal = abrir(PoliticaFsync.GRUPO, Journal.TAMANHO_REGIAO_PADRAO)) {
+            List<String> lidos = new ArrayList<>();
+            journal.reproduzir(new Registrador(lidos));
+            assertEquals(List.of("abertura 7 1 0 Ana "), lidos);
+        }
+        assertTrue(Journal.cabeNoRegistro(null));
+        assertTrue(Journal.cabeNoRegistro("é".repeat(2_048)));
+        assertFalse(Journal.cabeNoRegistro("é".repeat(2_049)));
+    }
+
+    @Test
+    void depositoLogoAposAAberturaNaoPrecedeAAberturaNoJournal() throws Exception {
+        int contas = 1_000;
+        int base = 700_000;
+        try (Journal journal = abrir(PoliticaFsync.INTERVALO, Journal.TAMANHO_REGIAO_PADRAO)) {
+            Banco banco = new Banco(journal);
+            // Deposita em cada conta assim que ela aparece; a próxima só é carregada depois do depósito.
+            AtomicInteger depositadas = new AtomicInteger();
+            Thread depositos = new Thread(() -> {
+                for (int numero = base; numero < base + contas; numero++) {
+                    Conta conta;
+                    while ((conta = banco.buscarConta(numero).orElse(null)) == null) {
+                        Thread.onSpinWait();
+                    }
+                    banco.depositar(conta, 1);
+                    depositadas.incrementAndGet();
+                }
+            });
+            depositos.start();
+            for (int i = 0; i < contas; i++) {
+                banco.carregarConta(new Conta(new Cliente("Cliente " + i, "000"), base + i, 1, 0));
+                while (depositadas.get() <= i) {
+                    Thread.onSpinWait();
+                }
+            }
+            depositos.join();
+        }
+
+        // Cada abertura, com o saldo zero, vem antes do depósito na conta; a reprodução não descarta nenhum.
+        List<String> esperados = new ArrayList<>();
+        for (int i = 0; i < contas; i++) {
+            esperados.add("abertura " + (base + i) + " 1 0 Cliente " + i + " 000");
+            esperados.add("deposito " + (base + i) + " 1");
+        }
+        try (Journal journal = abrir(PoliticaFsync.GRUPO, Journal.TAMANHO_REGIAO_PADRAO)) {
+            List<String> lidos = new ArrayList<>();
+            journal.reproduzir(new Registrador(lidos));
+            assertEquals(esperados, lidos);
+        }
+    }
+
+    private static void aguardarSemInterrupcao(CountDownLatch latch) {
+        boolean interrompida = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrompida = true;
+            }
+        }
+        if (interrompida) Thread.currentThread().interrupt();
+    }
+
+    private Journal abrir(PoliticaFsync politica, int tamanhoRegiao) throws IOException {
+        return new Journal(arquivo, politica, 1, tamanhoRegiao);
+    }
+
+    /**
+     * Tamanho do arquivo ignorando os zeros finais deixados pelo mapeamento da região.
+     */
+    private long tamanhoSemZeros() throws IOException {
+        byte[] conteudo = Files.readAllBytes(arquivo);
+        int fim = conteudo.length;
+        while (fim > 0 && conteudo[fim - 1] == 0) fim--;
+        return fim;
+    }
+
+    private record Registrador(List<String> lidos) implements Journal.Leitor {
+        @Override
+        public void abertura(int numero, int agencia, long saldo, String nome, String cpf) {
+            lidos.add("abertura " + numero + " " + agencia + " " + saldo + " " + nome + " " + cpf);
+        }
+
+        @Override
+        public void deposito(int numero, long valor) {
+            lidos.add("deposito " + numero + " " + valor);
+        }
+
+        @Override
+        public void saque(int numero, long valor) {
+            lidos.add("saque " + numero + " " + valor);
+        }
+
+        @Override
+        public void transferencia(int origem, int destino, long valor) {
+            lidos.add("transferencia " + origem + " " + destino + " " + valor);
+        }
+    }
+}
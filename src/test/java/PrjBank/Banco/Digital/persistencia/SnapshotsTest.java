@@ -0,0 +1,190 @@
+package PrjBank.Banco.Digital.persistencia;
+
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.service.Banco;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotsTest {
+
+    private Path diretorio;
+    private Path arquivoJournal;
+    private Path diretorioSnapshots;
+
+    @BeforeEach
+    void criarDiretorio() throws IOException {
+        diretorio = Files.createTempDirectory("snapshots-test");
+        arquivoJournal = diretorio.resolve("journal.dat");
+        diretorioSnapshots = diretorio.resolve("snapshots");
+    }
+
+    @AfterEach
+    void apagarDiretorio() throws IOException {
+        try (Stream<Path> caminhos = Files.walk(diretorio)) {
+            for (Path caminho : caminhos.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(caminho);
+            }
+        }
+    }
+
+    @Test
+    void restauraSnapshotEReproduzSoOJournalPosterior() throws Exception {
+        int numeroA;
+        int numeroB;
+        try (Journal journal = abrirJournal()) {
+            Snapshots snapshots = new Snapshots(journal, diretorioSnapshots, 0, 2);
+            Banco banco = new Banco(journal, snapshots, List.of());
+            Conta a = new Conta(new Cliente("Ana", "111"));
+            Conta b = new Conta(new Cliente("Bruno", "222"));
+            banco.adicionarConta(a);
+            banco.adicionarConta(b);
+            banco.depositar(a, 10_000);
+            assertNotNull(snapshots.gerarAgora());
+
+            // Operações depois do snapshot ficam só no journal.
+            banco.transferir(a, b, 2_500);
+            banco.sacar(b, 500);
+            numeroA = a.getNumero();
+            numeroB = b.getNumero();
+        }
+
+        try (Journal journal = abrirJournal()) {
+            Snapshots snapshots = new Snapshots(journal, diretorioSnapshots, 0, 2);
+            Contador contador = new Contador();
+            Snapshots.Restauracao restauracao = snapshots.restaurar(contador);
+            assertNotNull(restauracao);
+            assertEquals(2, restauracao.contas());
+            assertEquals(2, restauracao.registrosJournal());
+            assertEquals(2, contador.aberturas);
+        }
+
+        try (Journal journal = abrirJournal()) {
+            Banco banco = new Banco(journal, new Snapshots(journal, diretorioSnapshots, 0, 2), List.of());
+            assertEquals(7_500, banco.buscarConta(numeroA).orElseThrow().getSaldo());
+            assertEquals(2_000, banco.buscarConta(numeroB).orElseThrow().getSaldo());
+            assertEquals("Bruno", banco.buscarConta(numeroB).orElseThrow().getTitular().getNome());
+            assertTrue(new Conta(new Cliente("Caio", "333")).getNumero() > numeroB);
+        }
+    }
+
+    @Test
+    void snapshotDeEncerramentoAindaEntregaOHistoricoAnterior() throws Exception {
+        try (Journal journal = abrirJournal()) {
+            Snapshots snapshots = new Snapshots(journal, diretorioSnapshots, 0, 2);
+            Banco banco = new Banco(journal, snapshots, List.of());
+            Conta a = new Conta(new Cliente("Ana", "111"));
+            Conta b = new Conta(new Cliente("Bruno", "222"));
+            banco.adicionarConta(a);
+            banco.adicionarConta(b);
+            banco.depositar(a, 10_000);
+            banco.transferir(a, b, 2_500);
+            snapshots.close();
+        }
+
+        try (Journal journal = abrirJournal()) {
+            Contador contador = new Contador();
+            Contador anteriores = new Contador();
+            Snapshots.Restauracao restauracao = new Snapshots(journal, diretorioSnapshots, 0, 2).restaurar(contador);
+            assertNotNull(restauracao);
+            journal.reproduzirAte(anteriores, restauracao.posicao());
+            assertEquals(0, restauracao.registrosJournal());
+            assertEquals(0, contador.movimentos);
+            // O histórico que o snapshot já inclui continua disponível no journal.
+            assertEquals(2, anteriores.aberturas);
+            assertEquals(2, anteriores.movimentos);
+        }
+    }
+
+    @Test
+    void ignoraSnapshotDeOutroJournal() throws IOException {
+        try (Journal journal = abrirJournal()) {
+            Snapshots snapshots = new Snapshots(journal, diretorioSnapshots, 0, 2);
+            new Banco(journal, snapshots, List.of()).adicionarConta(new Conta(new Cliente("Ana", "111")));
+            assertNotNull(snapshots.gerarAgora());
+        }
+        Files.delete(arquivoJournal);
+
+        try (Journal journal = abrirJournal()) {
+            assertNull(new Snapshots(journal, diretorioSnapshots, 0, 2).restaurar(new Contador()));
+            assertEquals(0, new Banco(journal, new Snapshots(journal, diretorioSnapshots, 0, 2), List.of())
+                    .getQuantidadeContas());
+        }
+    }
+
+    @Test
+    void snapshotCorrompidoCaiParaOAnterior() throws IOException {
+        int numero;
+        Path maisRecente;
+        try (Journal journal = abrirJournal()) {
+            Snapshots snapshots = new Snapshots(journal, diretorioSnapshots, 0, 2);
+            Banco banco = new Banco(journal, snapshots, List.of());
+            Conta conta = new Conta(new Cliente("Ana", "111"));
+            banco.adicionarConta(conta);
+            banco.depositar(conta, 1_000);
+            assertNotNull(snapshots.gerarAgora());
+            banco.depositar(conta, 2_000);
+            maisRecente = snapshots.gerarAgora();
+            assertNotNull(maisRecente);
+            assertNull(snapshots.gerarAgora(), "sem operações novas não há snapshot novo");
+            numero = conta.getNumero();
+        }
+        try (FileChannel canal = FileChannel.open(maisRecente, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.wrap(new byte[]{0x7F}), 50);
+        }
+
+        try (Journal journal = abrirJournal()) {
+            Snapshots snapshots = new Snapshots(journal, diretorioSnapshots, 0, 2);
+            Snapshots.Restauracao restauracao = snapshots.restaurar(new Contador());
+            assertNotNull(restauracao);
+            assertNotEquals(maisRecente, restauracao.arquivo());
+            assertEquals(1, restauracao.registrosJournal());
+        }
+        try (Journal journal = abrirJournal()) {
+            Banco banco = new Banco(journal, new Snapshots(journal, diretorioSnapshots, 0, 2), List.of());
+            assertEquals(3_000, banco.buscarConta(numero).orElseThrow().getSaldo());
+        }
+    }
+
+    private Journal abrirJournal() throws IOException {
+        return new Journal(arquivoJournal, PoliticaFsync.SEMPRE, 1, Journal.TAMANHO_REGIAO_PADRAO);
+    }
+
+    private static final class Contador implements Journal.Leitor {
+        int aberturas;
+        int movimentos;
+
+        @Override
+        public void abertura(int numero, int agencia, long saldo, String nome, String cpf) {
+            aberturas++;
+        }
+
+        @Override
+        public void deposito(int numero, long valor) {
+            movimentos++;
+        }
+
+        @Override
+        public void saque(int numero, long valor) {
+            movimentos++;
+        }
+
+        @Override
+        public void transferencia(int origem, int destino, long valor) {
+            movimentos++;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.exception.SaldoInsuficienteException;
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.model.Dinheiro;
+import PrjBank.Banco.Digital.persistencia.Journal;
+import PrjBank.Banco.Digital.persistencia.PoliticaFsync;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgregadosSaldosTest {
+
+    @Test
+    void agregadosAcompanhamCadaAlteracaoDeSaldo() throws Exception {
+        Banco banco = new Banco();
+        Conta a = new Conta(new Cliente("Ana", "111"));
+        Conta b = new Conta(new Cliente("Bruno", "222"));
+        Conta c = new Conta(new Cliente("Caio", "333"));
+        c.setSaldo(Dinheiro.deReais(200_000));
+        banco.adicionarConta(a);
+        banco.adicionarConta(b);
+        banco.adicionarConta(c);
+
+        banco.depositar(a, Dinheiro.deReais(500));
+        banco.sacar(a, Dinheiro.deReais(450));
+        banco.transferir(c, b, Dinheiro.deReais(5_000));
+        assertThrows(SaldoInsuficienteException.class, () -> banco.sacar(b, Dinheiro.deReais(10_000)));
+        banco.executarLote(List.of(
+                OperacaoLote.deposito(b.getNumero(), 1),
+                OperacaoLote.transferencia(c.getNumero(), a.getNumero(), Dinheiro.deReais(1_000))),
+                ModoLote.TUDO_OU_NADA, false);
+
+        AgregadosSaldos.Resumo resumo = banco.resumirSaldos();
+        long total = a.getSaldo() + b.getSaldo() + c.getSaldo();
+        assertEquals(Dinheiro.deReais(200_050) + 1, total);
+        assertEquals(total, resumo.total());
+        assertEquals(3, resumo.contas());
+        // a: R$ 1.050,00; b: R$ 5.000,01; c: R$ 194.000,00.
+        assertEquals(List.of(0L, 0L, 0L, 2L, 0L, 1L), resumo.faixas().stream().map(AgregadosSaldos.Faixa::contas).toList());
+
+        AgregadosSaldos.Corte corte = banco.cortarSaldos(2);
+        assertEquals(resumo.total(), corte.total());
+        assertEquals(resumo.faixas(), corte.faixas());
+        assertEquals(List.of(c.getNumero(), b.getNumero()),
+                corte.maiores().stream().map(AgregadosSaldos.SaldoConta::numero).toList());
+        assertThrows(IllegalArgumentException.class, () -> banco.cortarSaldos(-1));
+    }
+
+    @Test
+    void cortesDuranteTransferenciasConcorrentesSempreFecham() throws Exception {
+        Banco banco = new Banco();
+        List<Conta> contas = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            Conta conta = new Conta(new Cliente("Cliente " + i, "000"));
+            conta.setSaldo(10_000);
+            banco.adicionarConta(conta);
+            contas.add(conta);
+        }
+        long totalInicial = 64 * 10_000L;
+
+        int threads = 4;
+        AtomicBoolean parar = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            tarefas.add(executor.submit(() -> {
+                ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                while (!parar.get()) {
+                    Conta origem = contas.get(aleatorio.nextInt(contas.size()));
+                    Conta destino = contas.get(aleatorio.nextInt(contas.size()));
+                    try {
+                        banco.transferir(origem, destino, 1 + aleatorio.nextInt(500));
+                    } catch (SaldoInsuficienteException e) {
+                        // Esperado de vez em quando; o total não muda.
+                    }
+                }
+                return null;
+            }));
+        }
+        try {
+            for (int i = 0; i < 200; i++) {
+                AgregadosSaldos.Corte corte = banco.cortarSaldos(5);
+                assertEquals(totalInicial, corte.total(), "corte " + corte.epoca());
+                assertEquals(64, corte.contas());
+                assertEquals(64, corte.faixas().stream().mapToLong(AgregadosSaldos.Faixa::contas).sum());
+            }
+        } finally {
+            parar.set(true);
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+            executor.shutdown();
+        }
+        assertEquals(totalInicial, banco.resumirSaldos().total());
+        assertEquals(64, banco.resumirSaldos().faixas().stream().mapToLong(AgregadosSaldos.Faixa::contas).sum());
+    }
+
+    @Test
+    void agregadosSaoReconstruidosAoReabrirOJournal() throws Exception {
+        Path arquivo = Files.createTempFile("agregados", ".dat");
+        Files.delete(arquivo);
+        try {
+            AgregadosSaldos.Resumo antes;
+            try (Journal journal = new Journal(arquivo, PoliticaFsync.GRUPO, 1, Journal.TAMANHO_REGIAO_PADRAO)) {
+                Banco banco = new Banco(journal);
+                Conta a = new Conta(new Cliente("Ana", "111"));
+                Conta b = new Conta(new Cliente("Bruno", "222"));
+                banco.adicionarConta(a);
+                banco.adicionarConta(b);
+                banco.depositar(a, 150_000);
+                banco.transferir(a, b, 20_000);
+                antes = banco.resumirSaldos();
+            }
+            try (Journal journal = new Journal(arquivo, PoliticaFsync.GRUPO, 1, Journal.TAMANHO_REGIAO_PADRAO)) {
+                Banco banco = new Banco(journal);
+                assertEquals(antes, banco.resumirSaldos());
+                assertEquals(150_000, banco.cortarSaldos(1).total());
+            }
+        } finally {
+            Files.deleteIfExists(arquivo);
+        }
+    }
+}
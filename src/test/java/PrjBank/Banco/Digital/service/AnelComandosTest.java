@@ -0,0 +1,181 @@
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.model.StatusOperacao;
+import PrjBank.Banco.Digital.persistencia.Journal;
+import PrjBank.Banco.Digital.persistencia.PoliticaFsync;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnelComandosTest {
+
+    @Test
+    void produtoresConcorrentesDandoVariasVoltasNoAnelPreservamOTotal() throws Exception {
+        Banco banco = new Banco();
+        List<Conta> contas = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Conta conta = new Conta(new Cliente("Cliente " + i, "000"));
+            conta.setSaldo(100_000);
+            banco.adicionarConta(conta);
+            contas.add(conta);
+        }
+
+        int threads = 4;
+        int porThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Long>> tarefas = new ArrayList<>();
+        // Anel pequeno: as requisições esperam por células livres e o anel dá muitas voltas.
+        try (AnelComandos anel = new AnelComandos(banco, 16)) {
+            for (int t = 0; t < threads; t++) {
+                tarefas.add(executor.submit(() -> {
+                    largada.await();
+                    ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                    List<CompletableFuture<StatusOperacao>> pendentes = new ArrayList<>();
+                    List<OperacaoLote> operacoes = new ArrayList<>();
+                    for (int i = 0; i < porThread; i++) {
+                        int origem = contas.get(aleatorio.nextInt(contas.size())).getNumero();
+                        int destino = contas.get(aleatorio.nextInt(contas.size())).getNumero();
+                        OperacaoLote operacao = switch (i % 3) {
+                            case 0 -> OperacaoLote.deposito(origem, 3);
+                            case 1 -> OperacaoLote.saque(origem, 5);
+                            default -> OperacaoLote.transferencia(origem, destino, 7);
+                        };
+                        operacoes.add(operacao);
+                        pendentes.add(anel.executar(operacao));
+                    }
+                    long variacao = 0;
+                    for (int i = 0; i < pendentes.size(); i++) {
+                        if (pendentes.get(i).join() != StatusOperacao.APLICADA) continue;
+                        OperacaoLote operacao = operacoes.get(i);
+                        if (operacao.tipo() == OperacaoLote.Tipo.DEPOSITO) variacao += operacao.valor();
+                        if (operacao.tipo() == OperacaoLote.Tipo.SAQUE) variacao -= operacao.valor();
+                    }
+                    return variacao;
+                }));
+            }
+            largada.countDown();
+            long variacaoTotal = 0;
+            for (Future<Long> tarefa : tarefas) {
+                variacaoTotal += tarefa.get();
+            }
+            executor.shutdown();
+
+            assertEquals(8 * 100_000L + variacaoTotal, contas.stream().mapToLong(Conta::getSaldo).sum());
+            assertEquals(threads * (long) porThread, anel.getPublicadas());
+            assertEquals(anel.getPublicadas(), anel.getConcluidas());
+            assertTrue(anel.getMaiorLote() <= anel.getCapacidade());
+        }
+    }
+
+    @Test
+    void operacoesDoAnelFicamNoJournal() throws Exception {
+        Path arquivo = Files.createTempFile("anel", ".dat");
+        Files.delete(arquivo);
+        try {
+            int numeroA;
+            int numeroB;
+            try (Journal journal = new Journal(arquivo, PoliticaFsync.GRUPO, 1, Journal.TAMANHO_REGIAO_PADRAO)) {
+                Banco banco = new Banco(journal);
+                Conta a = new Conta(new Cliente("Ana", "111"));
+                Conta b = new Conta(new Cliente("Bruno", "222"));
+                banco.adicionarConta(a);
+                banco.adicionarConta(b);
+                numeroA = a.getNumero();
+                numeroB = b.getNumero();
+                try (AnelComandos anel = new AnelComandos(banco, 64)) {
+                    assertEquals(StatusOperacao.APLICADA, anel.executar(OperacaoLote.deposito(numeroA, 1_000)).join());
+                    assertEquals(StatusOperacao.APLICADA, anel.executar(OperacaoLote.transferencia(numeroA, numeroB, 400)).join());
+                    assertEquals(StatusOperacao.SALDO_INSUFICIENTE, anel.executar(OperacaoLote.saque(numeroB, 500)).join());
+                    assertEquals(StatusOperacao.CONTA_INEXISTENTE, anel.executar(OperacaoLote.deposito(-1, 10)).join());
+                }
+            }
+            try (Journal journal = new Journal(arquivo, PoliticaFsync.GRUPO, 1, Journal.TAMANHO_REGIAO_PADRAO)) {
+                Banco banco = new Banco(journal);
+                assertEquals(600, banco.buscarConta(numeroA).orElseThrow().getSaldo());
+                assertEquals(400, banco.buscarConta(numeroB).orElseThrow().getSaldo());
+            }
+        } finally {
+            Files.deleteIfExists(arquivo);
+        }
+    }
+
+    @Test
+    void encerrarConcluiOQueJaFoiPublicadoERecusaOResto() {
+        Banco banco = new Banco();
+        Conta conta = new Conta(new Cliente("Ana", "111"));
+        banco.adicionarConta(conta);
+        AnelComandos anel = new AnelComandos(banco, 1024);
+        List<CompletableFuture<StatusOperacao>> pendentes = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            pendentes.add(anel.executar(OperacaoLote.deposito(conta.getNumero(), 1)));
+        }
+        anel.close();
+
+        pendentes.forEach(p -> assertEquals(StatusOperacao.APLICADA, p.join()));
+        assertEquals(1_000, conta.getSaldo());
+        CompletableFuture<StatusOperacao> recusada = anel.executar(OperacaoLote.deposito(conta.getNumero(), 1));
+        assertThrows(CompletionException.class, recusada::join);
+    }
+
+    @Test
+    void operacoesPublicadasDuranteOEncerramentoSaoAplicadasOuRecusadas() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int rodada = 0; rodada < 50; rodada++) {
+                Banco banco = new Banco();
+                Conta conta = new Conta(new Cliente("Ana", "111"));
+                banco.adicionarConta(conta);
+                AnelComandos anel = new AnelComandos(banco, 64);
+                CountDownLatch largada = new CountDownLatch(1);
+                List<Future<List<CompletableFuture<StatusOperacao>>>> tarefas = new ArrayList<>();
+                for (int t = 0; t < 4; t++) {
+                    tarefas.add(executor.submit(() -> {
+                        largada.await();
+                        List<CompletableFuture<StatusOperacao>> pendentes = new ArrayList<>();
+                        for (int i = 0; i < 2_000; i++) {
+                            pendentes.add(anel.executar(OperacaoLote.deposito(conta.getNumero(), 1)));
+                        }
+                        return pendentes;
+                    }));
+                }
+                largada.countDown();
+                Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+                anel.close();
+
+                // Nenhum futuro fica pendente: cada operação foi aplicada ou recusada pelo encerramento.
+                long aplicadas = 0;
+                for (Future<List<CompletableFuture<StatusOperacao>>> tarefa : tarefas) {
+                    for (CompletableFuture<StatusOperacao> pendente : tarefa.get()) {
+                        try {
+                            assertEquals(StatusOperacao.APLICADA, pendente.get(10, TimeUnit.SECONDS));
+                            aplicadas++;
+                        } catch (ExecutionException e) {
+                            assertTrue(e.getCause() instanceof IllegalStateException, e.toString());
+                        }
+                    }
+                }
+                assertEquals(aplicadas, conta.getSaldo(), "rodada " + rodada);
+                assertEquals(aplicadas, anel.getConcluidas());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.model.StatusOperacao;
+import PrjBank.Banco.Digital.persistencia.Journal;
+import PrjBank.Banco.Digital.persistencia.PoliticaFsync;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BancoTest {
+
+    @Test
+    void buscaContaPeloNumero() {
+        Banco banco = new Banco();
+        Conta conta = new Conta(new Cliente("Ana", "111"));
+        banco.adicionarConta(conta);
+
+        assertSame(conta, banco.buscarConta(conta.getNumero()).orElseThrow());
+        assertTrue(banco.buscarConta(-1).isEmpty());
+    }
+
+    @Test
+    void rejeitaNumeroDuplicado() {
+        Banco banco = new Banco();
+        Conta conta = new Conta(new Cliente("Ana", "111"));
+        banco.adicionarConta(conta);
+
+        assertThrows(IllegalStateException.class, () -> banco.adicionarConta(conta));
+        assertEquals(1, banco.getQuantidadeContas());
+    }
+
+    @Test
+    void aberturaQueFalhaNoJournalNaoDeixaOCpfReservado() throws Exception {
+        Path diretorio = Files.createTempDirectory("banco-test");
+        Path arquivo = diretorio.resolve("journal.dat");
+        try (Journal journal = new Journal(arquivo, PoliticaFsync.GRUPO, 1, Journal.TAMANHO_REGIAO_PADRAO)) {
+            Banco banco = new Banco(journal, null, List.of(), true);
+            // Nome acima do limite de texto do journal: a abertura falha depois de reservar o CPF.
+            Conta longa = new Conta(new Cliente("A".repeat(5_000), "123.456.789-09"));
+            assertThrows(IllegalArgumentException.class, () -> banco.adicionarConta(longa));
+            assertTrue(banco.buscarPorCpf("12345678909").isEmpty());
+            assertTrue(banco.buscarConta(longa.getNumero()).isEmpty());
+
+            Conta ana = new Conta(new Cliente("Ana", "123.456.789-09"));
+            banco.adicionarConta(ana);
+            assertEquals(List.of(ana), banco.buscarPorCpf("12345678909"));
+        } finally {
+            Files.deleteIfExists(arquivo);
+            Files.deleteIfExists(diretorio);
+        }
+    }
+
+    @Test
+    void journalRegistraCadaContaNaOrdemEmQueFoiAlterada() throws Exception {
+        Path diretorio = Files.createTempDirectory("banco-test");
+        Path arquivo = diretorio.resolve("journal.dat");
+        try {
+            int numero;
+            try (Journal journal = new Journal(arquivo, PoliticaFsync.INTERVALO, 1_000, Journal.TAMANHO_REGIAO_PADRAO)) {
+                Banco banco = new Banco(journal, List.of());
+                Conta conta = new Conta(new Cliente("Ana", "111"));
+                banco.adicionarConta(conta);
+                numero = conta.getNumero();
+
+                // Saques que só passam por causa de depósitos concorrentes, pelos vários caminhos do banco.
+                ExecutorService executor = Executors.newFixedThreadPool(6);
+                CountDownLatch largada = new CountDownLatch(1);
+                for (int t = 0; t < 6; t++) {
+                    int caminho = t;
+                    executor.submit(() -> {
+                        largada.await();
+                        for (int i = 0; i < 20_000; i++) {
+                            switch (caminho) {
+                                case 0 -> banco.depositar(conta, 1);
+                                case 1 -> banco.executar(OperacaoLote.deposito(numero, 1));
+                                case 2 -> banco.executarLote(List.of(OperacaoLote.deposito(numero, 1)),
+                                        ModoLote.MELHOR_ESFORCO, true);
+                                case 3 -> banco.executar(OperacaoLote.saque(numero, 1));
+                                case 4 -> banco.executarLote(List.of(OperacaoLote.saque(numero, 1)),
+                                        ModoLote.MELHOR_ESFORCO, false);
+                                default -> banco.executarLote(List.of(OperacaoLote.saque(numero, 1)),
+                                        ModoLote.TUDO_OU_NADA, false);
+                            }
+                        }
+                        return null;
+                    });
+                }
+                largada.countDown();
+                executor.shutdown();
+                assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+            }
+
+            // A reprodução não revalida os saldos: na ordem do journal, a conta nunca pode ficar negativa.
+            long[] saldo = new long[1];
+            long[] menor = new long[1];
+            try (Journal journal = new Journal(arquivo, PoliticaFsync.INTERVALO, 1_000, Journal.TAMANHO_REGIAO_PADRAO)) {
+                journal.reproduzir(new Journal.Leitor() {
+                    @Override
+                    public void abertura(int conta, int agencia, long inicial, String nome, String cpf) {
+                    }
+
+                    @Override
+                    public void deposito(int conta, long valor) {
+                        saldo[0] += valor;
+                    }
+
+                    @Override
+                    public void saque(int conta, long valor) {
+                        saldo[0] -= valor;
+                        menor[0] = Math.min(menor[0], saldo[0]);
+                    }
+
+                    @Override
+                    public void transferencia(int origem, int destino, long valor) {
+                    }
+                });
+            }
+            assertEquals(0, menor[0]);
+        } finally {
+            Files.deleteIfExists(arquivo);
+            Files.deleteIfExists(diretorio);
+        }
+    }
+
+    @Test
+    void ouvintesSoVeemOperacoesJaDuraveis() throws Exception {
+        Path diretorio = Files.createTempDirectory("banco-test");
+        Path arquivo = diretorio.resolve("journal.dat");
+        try (Journal journal = new Journal(arquivo, PoliticaFsync.GRUPO, 1, Journal.TAMANHO_REGIAO_PADRAO)) {
+            List<String> antesDoFsync = new ArrayList<>();
+            OuvinteOperacoes ouvinte = new OuvinteOperacoes() {
+                @Override
+                public void deposito(Conta conta, long valor, long saldo) {
+                    conferir("deposito " + valor);
+                }
+
+                @Override
+                public void saque(Conta conta, long valor, long saldo) {
+                    conferir("saque " + valor);
+                }
+
+                private void conferir(String operacao) {
+                    if (journal.getPosicaoDuravel() < journal.getPosicaoEscrita()) antesDoFsync.add(operacao);
+                }
+            };
+            Banco banco = new Banco(journal, List.of(ouvinte));
+            Conta conta = new Conta(new Cliente("Ana", "111"));
+            banco.adicionarConta(conta);
+            int numero = conta.getNumero();
+
+            banco.executar(OperacaoLote.deposito(numero, 1));
+            banco.executarLote(List.of(OperacaoLote.deposito(numero, 2)), ModoLote.MELHOR_ESFORCO, false);
+            banco.executarLote(List.of(OperacaoLote.deposito(numero, 3)), ModoLote.MELHOR_ESFORCO, true);
+            banco.executarLote(List.of(OperacaoLote.saque(numero, 4)), ModoLote.TUDO_OU_NADA, false);
+
+            assertEquals(List.of(), antesDoFsync);
+            assertEquals(2, conta.getSaldo());
+        } finally {
+            Files.deleteIfExists(arquivo);
+            Files.deleteIfExists(diretorio);
+        }
+    }
+
+    @Test
+    void insercoesConcorrentesNaoPerdemContas() throws Exception {
+        Banco banco = new Banco();
+        int threads = 8;
+        int porThread = 500;
+        List<List<Conta>> lotes = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            List<Conta> lote = new ArrayList<>();
+            for (int i = 0; i < porThread; i++) {
+                lote.add(new Conta(new Cliente("Cliente " + t + "-" + i, "000")));
+            }
+            lotes.add(lote);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        for (List<Conta> lote : lotes) {
+            executor.submit(() -> {
+                largada.await();
+                lote.forEach(banco::adicionarConta);
+                return null;
+            });
+        }
+        largada.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        List<Conta> contas = banco.getContas();
+        assertEquals(threads * porThread, contas.size());
+        for (int i = 1; i < contas.size(); i++) {
+            assertTrue(contas.get(i - 1).getNumero() < contas.get(i).getNumero());
+        }
+    }
+
+    @Test
+    void loteMelhorEsforcoInformaStatusDeCadaOperacao() {
+        Banco banco = new Banco();
+        Conta ana = new Conta(new Cliente("Ana", "111"));
+        Conta bruno = new Conta(new Cliente("Bruno", "222"));
+        banco.adicionarConta(ana);
+        banco.adicionarConta(bruno);
+
+        ResultadoLote resultado = banco.executarLote(List.of(
+                OperacaoLote.deposito(ana.getNumero(), 10_000),
+                OperacaoLote.saque(bruno.getNumero(), 1),
+                OperacaoLote.transferencia(ana.getNumero(), bruno.getNumero(), 4_000),
+                OperacaoLote.deposito(-1, 100),
+                OperacaoLote.saque(ana.getNumero(), 0)
+        ), ModoLote.MELHOR_ESFORCO, false);
+
+        assertEquals(List.of(StatusOperacao.APLICADA, StatusOperacao.SALDO_INSUFICIENTE, StatusOperacao.APLICADA,
+                StatusOperacao.CONTA_INEXISTENTE, StatusOperacao.VALOR_INVALIDO), resultado.status());
+        assertEquals(2, resultado.aplicadas());
+        assertEquals(3, resultado.rejeitadas());
+        assertEquals(6_000, ana.getSaldo());
+        assertEquals(4_000, bruno.getSaldo());
+    }
+
+    @Test
+    void loteTudoOuNadaNaoAlteraSaldosQuandoUmaOperacaoFalha() {
+        Banco banco = new Banco();
+        Conta ana = new Conta(new Cliente("Ana", "111"));
+        Conta bruno = new Conta(new Cliente("Bruno", "222"));
+        banco.adicionarConta(ana);
+        banco.adicionarConta(bruno);
+        banco.depositar(ana, 5_000);
+
+        ResultadoLote rejeitado = banco.executarLote(List.of(
+                OperacaoLote.transferencia(ana.getNumero(), bruno.getNumero(), 5_000),
+                OperacaoLote.saque(bruno.getNumero(), 3_000),
+                OperacaoLote.saque(ana.getNumero(), 1)
+        ), ModoLote.TUDO_OU_NADA, false);
+
+        assertEquals(List.of(StatusOperacao.NAO_EXECUTADA, StatusOperacao.NAO_EXECUTADA,
+                StatusOperacao.SALDO_INSUFICIENTE), rejeitado.status());
+        assertEquals(5_000, ana.getSaldo());
+        assertEquals(0, bruno.getSaldo());
+
+        // A operação só é válida graças à anterior do mesmo lote: os saldos projetados são considerados.
+        ResultadoLote aceito = banco.executarLote(List.of(
+                OperacaoLote.transferencia(ana.getNumero(), bruno.getNumero(), 5_000),
+                OperacaoLote.saque(bruno.getNumero(), 3_000)
+        ), ModoLote.TUDO_OU_NADA, false);
+
+        assertEquals(2, aceito.aplicadas());
+        assertEquals(0, ana.getSaldo());
+        assertEquals(2_000, bruno.getSaldo());
+    }
+
+    @Test
+    void loteParaleloPreservaAOrdemDasOperacoesDeCadaConta() {
+        Banco banco = new Banco();
+        List<Conta> contas = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            Conta conta = new Conta(new Cliente("Cliente " + i, "000"));
+            banco.adicionarConta(conta);
+            contas.add(conta);
+        }
+
+        // Em cada par, o saque só é possível depois do depósito e da transferência anteriores.
+        List<OperacaoLote> operacoes = new ArrayList<>();
+        for (int i = 0; i < contas.size(); i += 2) {
+            int origem = contas.get(i).getNumero();
+            int destino = contas.get(i + 1).getNumero();
+            for (int r = 0; r < 100; r++) {
+                operacoes.add(OperacaoLote.deposito(origem, 100));
+                operacoes.add(OperacaoLote.transferencia(origem, destino, 100));
+                operacoes.add(OperacaoLote.saque(destino, 100));
+            }
+        }
+
+        ResultadoLote resultado = banco.executarLote(operacoes, ModoLote.MELHOR_ESFORCO, true);
+
+        assertEquals(operacoes.size(), resultado.aplicadas());
+        for (Conta conta : contas) {
+            assertEquals(0, conta.getSaldo());
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.exception.ChaveIdempotenciaReutilizadaException;
+import PrjBank.Banco.Digital.exception.OperacaoNaoExecutadaException;
+import PrjBank.Banco.Digital.exception.ResultadoIndeterminadoException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheIdempotenciaTest {
+
+    @Test
+    void repeticaoDevolveOResultadoGuardadoSemExecutarDeNovo() {
+        CacheIdempotencia cache = new CacheIdempotencia(1_000, 60_000);
+        AtomicInteger execucoes = new AtomicInteger();
+
+        assertEquals("ok 1", cache.executar("chave-1", "deposito 1 100", () -> "ok " + execucoes.incrementAndGet()));
+        assertEquals("ok 1", cache.executar("chave-1", "deposito 1 100", () -> "ok " + execucoes.incrementAndGet()));
+        assertEquals(1, execucoes.get());
+        assertEquals(1, cache.getRepetidas());
+
+        assertThrows(ChaveIdempotenciaReutilizadaException.class,
+                () -> cache.executar("chave-1", "saque 1 100", () -> "outro"));
+
+        // Uma recusa que garante que nada foi aplicado não fica guardada: a próxima tentativa executa de verdade.
+        assertThrows(OperacaoNaoExecutadaException.class, () -> cache.executar("chave-2", "saque 1 100", () -> {
+            throw new OperacaoNaoExecutadaException("encerrado");
+        }));
+        assertEquals("ok 2", cache.executar("chave-2", "saque 1 100", () -> "ok " + execucoes.incrementAndGet()));
+    }
+
+    @Test
+    void falhaDepoisDeAplicarFicaGuardadaEAsRepeticoesNaoExecutamDeNovo() throws Exception {
+        CacheIdempotencia cache = new CacheIdempotencia(1_000, 60_000);
+        AtomicInteger execucoes = new AtomicInteger();
+        CountDownLatch dentroDaOperacao = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // A operação é aplicada e só então falha, como num fsync do journal que não deu certo.
+            Future<Integer> original = executor.submit(() -> cache.executar("k", "saque 1 100", () -> {
+                execucoes.incrementAndGet();
+                dentroDaOperacao.countDown();
+                aguardar(liberar);
+                throw new IllegalStateException("Falha ao gravar o journal no disco.");
+            }));
+            dentroDaOperacao.await();
+            Future<Integer> simultanea = executor.submit(
+                    () -> cache.executar("k", "saque 1 100", execucoes::incrementAndGet));
+            while (cache.getRepetidas() == 0) {
+                Thread.onSpinWait();
+            }
+            liberar.countDown();
+
+            ExecutionException falha = assertThrows(ExecutionException.class, original::get);
+            assertTrue(falha.getCause() instanceof IllegalStateException, falha.toString());
+            falha = assertThrows(ExecutionException.class, simultanea::get);
+            assertTrue(falha.getCause() instanceof ResultadoIndeterminadoException, falha.toString());
+            assertThrows(ResultadoIndeterminadoException.class,
+                    () -> cache.executar("k", "saque 1 100", execucoes::incrementAndGet));
+            assertEquals(1, execucoes.get());
+        } finally {
+            liberar.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void duplicadasSimultaneasExecutamUmaUnicaVez() throws Exception {
+        CacheIdempotencia cache = new CacheIdempotencia(1_000, 60_000);
+        AtomicInteger execucoes = new AtomicInteger();
+        CountDownLatch dentroDaOperacao = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> resultados = new ArrayList<>();
+            resultados.add(executor.submit(() -> cache.executar("k", "deposito 1 100", () -> {
+                dentroDaOperacao.countDown();
+                aguardar(liberar);
+                return execucoes.incrementAndGet();
+            })));
+            dentroDaOperacao.await();
+            for (int i = 1; i < threads; i++) {
+                resultados.add(executor.submit(() -> cache.executar("k", "deposito 1 100", execucoes::incrementAndGet)));
+            }
+            liberar.countDown();
+            for (Future<Integer> resultado : resultados) {
+                assertEquals(Integer.valueOf(1), resultado.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    void expiraELimitaAQuantidadeDeChaves() {
+        AtomicLong agora = new AtomicLong();
+        CacheIdempotencia cache = new CacheIdempotencia(64 * 4, 1_000, agora::get);
+        for (int i = 0; i < 100_000; i++) {
+            cache.executar("chave-" + i, "deposito", () -> "ok");
+        }
+        assertTrue(cache.getTamanho() <= 64 * 4, "tamanho " + cache.getTamanho());
+
+        agora.set(1_000);
+        AtomicInteger execucoes = new AtomicInteger();
+        cache.executar("chave-99999", "deposito", execucoes::incrementAndGet);
+        assertEquals(1, execucoes.get(), "chave vencida executa de novo");
+    }
+
+    @Test
+    void operacaoEmAndamentoNaoERemovidaPorFaltaDeEspacoNemPorVencer() throws Exception {
+        AtomicLong agora = new AtomicLong();
+        CacheIdempotencia cache = new CacheIdempotencia(64, 1_000, agora::get);
+        AtomicInteger execucoes = new AtomicInteger();
+        CountDownLatch dentroDaOperacao = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> original = executor.submit(() -> cache.executar("lenta", "deposito 1 100", () -> {
+                dentroDaOperacao.countDown();
+                aguardar(liberar);
+                return execucoes.incrementAndGet();
+            }));
+            dentroDaOperacao.await();
+            // Enche todos os segmentos, inclusive o da chave lenta, e deixa a sua validade passar.
+            for (int i = 0; i < 10_000; i++) {
+                cache.executar("chave-" + i, "deposito", () -> "ok");
+            }
+            agora.set(5_000);
+            for (int i = 10_000; i < 20_000; i++) {
+                cache.executar("chave-" + i, "deposito", () -> "ok");
+            }
+
+            long repetidasAntes = cache.getRepetidas();
+            Future<Integer> repetida = executor.submit(
+                    () -> cache.executar("lenta", "deposito 1 100", execucoes::incrementAndGet));
+            // Só libera a operação depois que a repetição encontrou a entrada em andamento.
+            while (cache.getRepetidas() == repetidasAntes && !repetida.isDone()) {
+                Thread.onSpinWait();
+            }
+            liberar.countDown();
+            assertEquals(Integer.valueOf(1), original.get());
+            assertEquals(Integer.valueOf(1), repetida.get());
+            assertEquals(1, execucoes.get());
+        } finally {
+            liberar.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static void aguardar(CountDownLatch trava) {
+        try {
+            trava.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
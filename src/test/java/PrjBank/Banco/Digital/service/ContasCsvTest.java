@@ -0,0 +1,212 @@
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.exception.SaldoInsuficienteException;
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.model.Dinheiro;
+import PrjBank.Banco.Digital.persistencia.Journal;
+import PrjBank.Banco.Digital.persistencia.PoliticaFsync;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContasCsvTest {
+
+    @Test
+    void exportaEImportaPreservandoNumerosSaldosETextos() throws Exception {
+        Path diretorio = Files.createTempDirectory("contas-csv");
+        Path arquivo = diretorio.resolve("contas.csv");
+        try {
+            Banco origem = new Banco();
+            Conta a = new Conta(new Cliente("José da Silva", "123.456.789-00"), 900_001, 7, Dinheiro.deReais(1_234) + 56);
+            Conta b = new Conta(new Cliente("Souza, \"Beto\"", "98765432100"), 900_002, 1, 0);
+            origem.carregarConta(a);
+            origem.carregarConta(b);
+
+            ContasCsv.ResultadoExportacao exportacao = new ContasCsv(origem).exportar(arquivo);
+            assertEquals(2, exportacao.contas());
+            assertEquals(Files.size(arquivo), exportacao.bytes());
+            assertEquals(List.of(
+                    ContasCsv.CABECALHO,
+                    "900001,7,1234.56,José da Silva,123.456.789-00",
+                    "900002,1,0.00,\"Souza, \"\"Beto\"\"\",98765432100"),
+                    Files.readAllLines(arquivo, StandardCharsets.UTF_8));
+
+            Banco destino = new Banco();
+            ContasCsv.ResultadoImportacao importacao = new ContasCsv(destino).importar(arquivo);
+            assertEquals(2, importacao.contas());
+            assertEquals(0, importacao.rejeitadas());
+            Conta copia = destino.buscarConta(900_002).orElseThrow();
+            assertEquals("Souza, \"Beto\"", copia.getTitular().getNome());
+            assertEquals(1, copia.getAgencia());
+            assertEquals(a.getSaldo(), destino.buscarConta(900_001).orElseThrow().getSaldo());
+            assertEquals(List.of(copia), destino.buscarPorCpf("98765432100"));
+
+            // Importar de novo não duplica: os números já existem.
+            ContasCsv.ResultadoImportacao repetida = new ContasCsv(destino).importar(arquivo);
+            assertEquals(0, repetida.contas());
+            assertEquals(2, repetida.repetidas());
+        } finally {
+            Files.deleteIfExists(arquivo);
+            Files.deleteIfExists(diretorio);
+        }
+    }
+
+    @Test
+    void quebrasDeLinhaEntreAspasFicamNoTextoEmTodosOsTrechos() throws Exception {
+        Path arquivo = Files.createTempFile("contas-csv", ".csv");
+        try {
+            // Cerca de 5 MiB, com nomes de várias linhas espalhados, para que alguns cruzem os limites dos trechos.
+            int contas = 80_000;
+            Banco origem = new Banco();
+            for (int i = 1; i <= contas; i++) {
+                String nome = i % 7 == 0 ? "Cliente " + i + "\nCasa\r\n\"Fundos\", " + i : "Cliente " + i + " da Silva Souza";
+                origem.carregarConta(new Conta(new Cliente(nome, "000"), 2_000_000 + i, 1, 100));
+            }
+            new ContasCsv(origem).exportar(arquivo);
+
+            Banco destino = new Banco();
+            ContasCsv.ResultadoImportacao resultado = new ContasCsv(destino).importar(arquivo);
+            assertEquals(contas, resultado.contas(), resultado.exemplosRejeitados().toString());
+            assertEquals(0, resultado.rejeitadas());
+            for (Conta conta : origem.getContas()) {
+                assertEquals(conta.getTitular().getNome(),
+                        destino.buscarConta(conta.getNumero()).orElseThrow().getTitular().getNome());
+            }
+            assertEquals(contas * 100L, destino.resumirSaldos().total());
+
+            // Os exemplos de rejeição contam as linhas do arquivo, inclusive as de dentro das aspas.
+            Files.writeString(arquivo, ContasCsv.CABECALHO + "\n1,1,1.00,\"Ana\nMaria\",000\nx,1,1.00,Bia,000\n",
+                    StandardCharsets.UTF_8);
+            ContasCsv.ResultadoImportacao rejeicao = new ContasCsv(new Banco()).importar(arquivo);
+            assertEquals(1, rejeicao.contas());
+            assertEquals(List.of("linha 4: número inválido [x,1,1.00,Bia,000]"), rejeicao.exemplosRejeitados());
+        } finally {
+            Files.deleteIfExists(arquivo);
+        }
+    }
+
+    @Test
+    void relataLinhasRejeitadasComONumeroDaLinhaEmTodosOsTrechos() throws Exception {
+        Path arquivo = Files.createTempFile("contas-csv", ".csv");
+        try {
+            // Cerca de 5 MiB, para que o arquivo seja dividido em vários trechos.
+            int linhas = 100_000;
+            StringBuilder conteudo = new StringBuilder(ContasCsv.CABECALHO).append('\n');
+            for (int i = 1; i <= linhas; i++) {
+                int linha = i + 1;
+                if (linha == 3) conteudo.append("abc,1,10.00,Inválida,000\n");
+                else if (linha == 70_001) conteudo.append(1_000_000 + i).append(",1,10.000,Fração,000\r\n");
+                else if (linha == linhas + 1) conteudo.append(1_000_000 + i).append(",1,10.00,Sem CPF\n");
+                else conteudo.append(1_000_000 + i).append(",1,10.00,Cliente ").append(i).append(",000\r\n");
+            }
+            conteudo.append('\n');
+            Files.writeString(arquivo, conteudo, StandardCharsets.UTF_8);
+
+            Banco banco = new Banco();
+            ContasCsv.ResultadoImportacao resultado = new ContasCsv(banco).importar(arquivo);
+            assertEquals(linhas - 3, resultado.contas());
+            assertEquals(3, resultado.rejeitadas());
+            assertEquals(List.of(
+                    "linha 3: número inválido [abc,1,10.00,Inválida,000]",
+                    "linha 70001: saldo inválido [1070000,1,10.000,Fração,000]",
+                    "linha 100001: colunas faltando [1100000,1,10.00,Sem CPF]"),
+                    resultado.exemplosRejeitados());
+            assertEquals(linhas - 3, banco.getQuantidadeContas());
+            assertEquals((linhas - 3) * 1_000L, banco.resumirSaldos().total());
+            assertEquals("Cliente 50000", banco.buscarConta(1_050_000).orElseThrow().getTitular().getNome());
+        } finally {
+            Files.deleteIfExists(arquivo);
+        }
+    }
+
+    @Test
+    void titularQueNaoCabeNoJournalERejeitadoSemInterromperAImportacao() throws Exception {
+        Path diretorio = Files.createTempDirectory("contas-csv");
+        Path arquivo = diretorio.resolve("contas.csv");
+        Path registro = diretorio.resolve("journal.log");
+        try (Journal journal = new Journal(registro, PoliticaFsync.GRUPO, 1, Journal.TAMANHO_REGIAO_PADRAO)) {
+            String longo = "x".repeat(Journal.TAMANHO_MAXIMO_TEXTO + 1);
+            Files.writeString(arquivo, ContasCsv.CABECALHO + "\n"
+                    + "500001,1,10.00,Ana,000\n"
+                    + "500002,1,10.00," + longo + ",000\n"
+                    + "500003,1,10.00,Bia,000\n", StandardCharsets.UTF_8);
+
+            Banco banco = new Banco(journal);
+            ContasCsv.ResultadoImportacao resultado = new ContasCsv(banco).importar(arquivo);
+            assertEquals(2, resultado.contas());
+            assertEquals(1, resultado.rejeitadas());
+            assertTrue(resultado.exemplosRejeitados().get(0).startsWith("linha 3: titular ou CPF longo demais ["),
+                    resultado.exemplosRejeitados().toString());
+            assertTrue(banco.buscarConta(500_002).isEmpty());
+            assertEquals("Bia", banco.buscarConta(500_003).orElseThrow().getTitular().getNome());
+        } finally {
+            Files.deleteIfExists(arquivo);
+            Files.deleteIfExists(registro);
+            Files.deleteIfExists(diretorio);
+        }
+    }
+
+    @Test
+    void exportacaoDuranteTransferenciasMantemOTotal() throws Exception {
+        Banco banco = new Banco();
+        List<Conta> contas = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            Conta conta = new Conta(new Cliente("Cliente " + i, "000"));
+            conta.setSaldo(10_000);
+            banco.adicionarConta(conta);
+            contas.add(conta);
+        }
+        long total = 2_000 * 10_000L;
+        Path arquivo = Files.createTempFile("contas-csv", ".csv");
+
+        AtomicBoolean parar = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < 2; t++) {
+            tarefas.add(executor.submit(() -> {
+                ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                while (!parar.get()) {
+                    try {
+                        banco.transferir(contas.get(aleatorio.nextInt(contas.size())),
+                                contas.get(aleatorio.nextInt(contas.size())), 1 + aleatorio.nextInt(500));
+                    } catch (SaldoInsuficienteException e) {
+                        // Esperado de vez em quando; o total não muda.
+                    }
+                }
+                return null;
+            }));
+        }
+        try {
+            ContasCsv csv = new ContasCsv(banco);
+            for (int i = 0; i < 20; i++) {
+                csv.exportar(arquivo);
+                long soma = 0;
+                List<String> linhas = Files.readAllLines(arquivo, StandardCharsets.UTF_8);
+                for (String linha : linhas.subList(1, linhas.size())) {
+                    soma += Dinheiro.lerDecimal(linha.split(",")[2]);
+                }
+                assertEquals(2_000, linhas.size() - 1);
+                assertEquals(total, soma, "exportação " + i);
+            }
+        } finally {
+            parar.set(true);
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+            executor.shutdown();
+            Files.deleteIfExists(arquivo);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GoogleSheetsServiceTest {
+
+    @Test
+    void lePaginasPreservandoNumeroEAgencia() throws Exception {
+        List<List<Object>> linhas = new ArrayList<>();
+        for (int i = 1; i <= 25; i++) {
+            linhas.add(List.of(String.valueOf(1000 + i), "3", "R$ 1.000,0" + (i % 10), "Cliente " + i, "cpf" + i));
+        }
+        PlanilhaTransporteFalso transporte = new PlanilhaTransporteFalso().comLinhas(linhas);
+        GoogleSheetsService sheets = new GoogleSheetsService(transporte);
+
+        List<Conta> contas = new ArrayList<>();
+        GoogleSheetsService.ResultadoLeitura resultado = sheets.lerContas(10, contas::add);
+
+        assertEquals(25, resultado.contas());
+        assertEquals(0, resultado.rejeitadas());
+        assertEquals(3, transporte.getLeituras());
+        assertEquals(1001, contas.get(0).getNumero());
+        assertEquals(3, contas.get(0).getAgencia());
+        assertEquals(100_001, contas.get(0).getSaldo());
+        assertEquals("Cliente 25", contas.get(24).getTitular().getNome());
+        assertTrue(new Conta(new Cliente("Novo", "0")).getNumero() > 1025);
+    }
+
+    @Test
+    void numerosNaoUsadosNoFimDaPaginaNaoInterrompemALeitura() throws Exception {
+        // Linha = número + 1: as contas 9, 10 e 21 a 30 nunca foram abertas, então a primeira página
+        // volta com 8 linhas e a terceira volta vazia.
+        List<List<Object>> linhas = new ArrayList<>();
+        for (int numero = 1; numero <= 35; numero++) {
+            boolean lacuna = numero == 9 || numero == 10 || (numero >= 21 && numero <= 30);
+            linhas.add(lacuna ? List.of()
+                    : List.of(String.valueOf(numero), "1", "R$ 1,00", "Cliente " + numero, "cpf" + numero));
+        }
+        PlanilhaTransporteFalso transporte = new PlanilhaTransporteFalso().comLinhas(linhas);
+        assertEquals(8, transporte.ler("Contas!A2:E11").size());
+
+        List<Conta> contas = new ArrayList<>();
+        GoogleSheetsService.ResultadoLeitura resultado = new GoogleSheetsService(transporte).lerContas(10, contas::add);
+
+        assertEquals(23, resultado.contas());
+        assertEquals(0, resultado.rejeitadas());
+        assertEquals(11, contas.get(8).getNumero());
+        assertEquals(35, contas.get(22).getNumero());
+    }
+
+    @Test
+    void leituraComPaginasSimultaneasEntregaAsContasEmOrdem() throws Exception {
+        List<List<Object>> linhas = new ArrayList<>();
+        for (int numero = 1; numero <= 95; numero++) {
+            linhas.add(numero % 10 == 0 ? List.of()
+                    : List.of(String.valueOf(numero), "1", "R$ 1,00", "Cliente " + numero, "cpf" + numero));
+        }
+        linhas.set(41, List.of("x", "1", "R$ 1,00", "Inválida", "000"));
+        PlanilhaTransporteFalso transporte = new PlanilhaTransporteFalso().comLinhas(linhas).comLatencia(5);
+        // O mesmo caminho das threads virtuais, com threads de plataforma (o Java dos testes pode ser o 17).
+        GoogleSheetsService sheets = new GoogleSheetsService(transporte, Executors::newCachedThreadPool, 4);
+
+        List<Conta> contas = new ArrayList<>();
+        GoogleSheetsService.ResultadoLeitura resultado = sheets.lerContas(7, contas::add);
+
+        assertEquals(85, resultado.contas());
+        assertEquals(List.of("linha 43: número inválido [x, 1, R$ 1,00, Inválida, 000]"), resultado.exemplosRejeitados());
+        assertEquals(14, transporte.getLeituras());
+        int anterior = 0;
+        for (Conta conta : contas) {
+            assertTrue(conta.getNumero() > anterior);
+            anterior = conta.getNumero();
+        }
+    }
+
+    @Test
+    void falhaDeUmaPaginaSimultaneaChegaAQuemLe() {
+        List<List<Object>> linhas = new ArrayList<>();
+        for (int numero = 1; numero <= 50; numero++) {
+            linhas.add(List.of(String.valueOf(numero), "1", "R$ 1,00", "Cliente " + numero, "cpf" + numero));
+        }
+        PlanilhaTransporteFalso transporte = new PlanilhaTransporteFalso().comLinhas(linhas).comFalhas(1);
+        GoogleSheetsService sheets = new GoogleSheetsService(transporte, Executors::newCachedThreadPool, 4);
+
+        assertThrows(IOException.class, () -> sheets.lerContas(10, conta -> { }));
+    }
+
+    @Test
+    void rejeitaLinhasInvalidasSemInterromperALeitura() throws Exception {
+        List<List<Object>> linhas = List.of(
+                List.of("1", "1", "R$ 10,00", "Ana", "111"),
+                List.of("x", "1", "R$ 10,00", "Bruno", "222"),
+                List.of(),
+                List.of("3", "1", "dez reais", "Caio", "333"),
+                List.of("4", "1", "R$ 5,00"),
+                List.of("5", "1", "R$ 1,50", "Dora", "555"));
+        GoogleSheetsService sheets = new GoogleSheetsService(new PlanilhaTransporteFalso().comLinhas(linhas));
+
+        List<Conta> contas = new ArrayList<>();
+        GoogleSheetsService.ResultadoLeitura resultado = sheets.lerContas(100, contas::add);
+
+        assertEquals(2, resultado.contas());
+        assertEquals(3, resultado.rejeitadas());
+        assertEquals(3, resultado.exemplosRejeitados().size());
+        assertTrue(resultado.exemplosRejeitados().get(0).startsWith("linha 3: número inválido"));
+        assertEquals(5, contas.get(1).getNumero());
+    }
+
+    @Test
+    void cargaInicialPreencheOBanco() throws Exception {
+        List<List<Object>> linhas = List.of(
+                List.of("10", "1", "R$ 10,00", "Ana", "111"),
+                List.of("10", "1", "R$ 99,00", "Repetida", "000"),
+                List.of("12", "2", "R$ 1.234,56", "Bruno", "222"));
+        Banco banco = new Banco();
+        CargaInicialPlanilha carga = new CargaInicialPlanilha(banco,
+                new GoogleSheetsService(new PlanilhaTransporteFalso().comLinhas(linhas)), 2);
+
+        GoogleSheetsService.ResultadoLeitura resultado = carga.carregar();
+
+        assertEquals(2, resultado.contas());
+        assertEquals(1, resultado.rejeitadas());
+        assertEquals(1_000, banco.buscarConta(10).orElseThrow().getSaldo());
+        assertEquals(123_456, banco.buscarConta(12).orElseThrow().getSaldo());
+    }
+}
@@ -0,0 +1,109 @@
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.exception.CpfJaCadastradoException;
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.persistencia.Journal;
+import PrjBank.Banco.Digital.persistencia.PoliticaFsync;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceClientesTest {
+
+    @Test
+    void buscaPorCpfComOuSemPontuacaoERecusaCpfRepetido() throws Exception {
+        Banco banco = new Banco(null, null, List.of(), true);
+        Conta ana = new Conta(new Cliente("Ana", "123.456.789-09"));
+        banco.adicionarConta(ana);
+
+        assertEquals(List.of(ana), banco.buscarPorCpf("12345678909"));
+        assertEquals(List.of(ana), banco.buscarPorCpf("123.456.789-09"));
+        assertTrue(banco.buscarPorCpf("98765432100").isEmpty());
+        assertThrows(CpfJaCadastradoException.class,
+                () -> banco.adicionarConta(new Conta(new Cliente("Ana Maria", "12345678909"))));
+        assertEquals(1, banco.getContas().size());
+
+        // Aberturas simultâneas para o mesmo CPF: só uma é aceita.
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Boolean>> tarefas = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                try {
+                    banco.adicionarConta(new Conta(new Cliente("Bruno", "111.222.333-44")));
+                    return true;
+                } catch (CpfJaCadastradoException e) {
+                    return false;
+                }
+            }));
+        }
+        largada.countDown();
+        int aceitas = 0;
+        for (Future<Boolean> tarefa : tarefas) {
+            if (tarefa.get()) aceitas++;
+        }
+        executor.shutdown();
+        assertEquals(1, aceitas);
+        assertEquals(1, banco.buscarPorCpf("11122233344").size());
+        assertEquals(2, banco.getContas().size());
+    }
+
+    @Test
+    void buscaPeloInicioDoNomeSemAcentosNemMaiusculasComCursor() {
+        Banco banco = new Banco();
+        Conta joao = new Conta(new Cliente("João  da Silva", "1"));
+        Conta joana = new Conta(new Cliente("Joana Souza", "2"));
+        Conta jose = new Conta(new Cliente("JOSÉ Lima", "3"));
+        Conta joao2 = new Conta(new Cliente("joao da silva", "4"));
+        banco.adicionarConta(joao);
+        banco.adicionarConta(joana);
+        banco.adicionarConta(jose);
+        banco.adicionarConta(joao2);
+        banco.adicionarConta(new Conta(new Cliente("Maria", "5")));
+
+        // Ordem de nome normalizado e, no mesmo nome, de número.
+        assertEquals(List.of(joana, joao, joao2, jose), List.copyOf(banco.buscarPorNome("JO", null)));
+        assertEquals(List.of(joao, joao2), List.copyOf(banco.buscarPorNome("joão da", null)));
+        assertEquals(List.of(jose), List.copyOf(banco.buscarPorNome("jose", null)));
+        assertTrue(banco.buscarPorNome("pedro", null).isEmpty());
+
+        assertEquals(List.of(joao2, jose), List.copyOf(banco.buscarPorNome("jo", joao.getNumero())));
+        assertEquals(List.of(), List.copyOf(banco.buscarPorNome("jo", jose.getNumero())));
+    }
+
+    @Test
+    void indicesSaoReconstruidosAoReabrirOJournal() throws Exception {
+        Path arquivo = Files.createTempFile("indice", ".dat");
+        Files.delete(arquivo);
+        try {
+            int numero;
+            try (Journal journal = new Journal(arquivo, PoliticaFsync.GRUPO, 1, Journal.TAMANHO_REGIAO_PADRAO)) {
+                Banco banco = new Banco(journal, null, List.of(), true);
+                Conta conta = new Conta(new Cliente("Árvore Santos", "555.666.777-88"));
+                banco.adicionarConta(conta);
+                numero = conta.getNumero();
+            }
+            try (Journal journal = new Journal(arquivo, PoliticaFsync.GRUPO, 1, Journal.TAMANHO_REGIAO_PADRAO)) {
+                Banco banco = new Banco(journal, null, List.of(), true);
+                assertEquals(numero, banco.buscarPorCpf("55566677788").get(0).getNumero());
+                assertEquals(numero, banco.buscarPorNome("arvore", null).iterator().next().getNumero());
+                assertThrows(CpfJaCadastradoException.class,
+                        () -> banco.adicionarConta(new Conta(new Cliente("Outro", "55566677788"))));
+            }
+        } finally {
+            Files.deleteIfExists(arquivo);
+        }
+    }
+}
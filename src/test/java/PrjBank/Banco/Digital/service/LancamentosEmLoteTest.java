@@ -0,0 +1,236 @@
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.persistencia.Journal;
+import PrjBank.Banco.Digital.persistencia.PoliticaFsync;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LancamentosEmLoteTest {
+
+    private Path diretorio;
+
+    @BeforeEach
+    void criarDiretorio() throws IOException {
+        diretorio = Files.createTempDirectory("lancamentos-test");
+    }
+
+    @AfterEach
+    void apagarDiretorio() throws IOException {
+        try (Stream<Path> caminhos = Files.walk(diretorio)) {
+            for (Path caminho : caminhos.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(caminho);
+            }
+        }
+    }
+
+    @Test
+    void aplicaRendimentoETarifaEmTodasAsContasUmaUnicaVez() throws Exception {
+        Banco banco = new Banco();
+        for (int i = 1; i <= 5_000; i++) {
+            banco.carregarConta(new Conta(new Cliente("Cliente " + i, String.format("%011d", i)),
+                    500_000 + i, 1, i % 10 == 0 ? 0 : 10_000));
+        }
+        LancamentosEmLote lancamentos = new LancamentosEmLote(banco, null, diretorio, 0);
+
+        LancamentosEmLote.Resultado rendimento = lancamentos.executar("rendimento-teste", RegraLancamento.rendimento(50));
+        assertEquals(5_000, rendimento.contas());
+        assertEquals(4_500, rendimento.aplicadas());
+        assertEquals(500, rendimento.ignoradas());
+        assertEquals(4_500 * 50L, rendimento.creditado());
+        assertEquals(10_050, banco.buscarConta(500_001).orElseThrow().getSaldo());
+
+        LancamentosEmLote.Resultado tarifa = lancamentos.executar("tarifa-teste", RegraLancamento.de("tarifa:12.90"));
+        assertEquals(4_500, tarifa.aplicadas());
+        assertEquals(500, tarifa.recusadas());
+        assertEquals(4_500 * 1_290L, tarifa.debitado());
+        assertEquals(20, tarifa.exemplosRecusados().size());
+        for (String exemplo : tarifa.exemplosRecusados()) {
+            assertTrue(exemplo.matches("conta 5\\d{4}0: SALDO_INSUFICIENTE"), exemplo);
+        }
+        assertEquals(0, banco.buscarConta(500_010).orElseThrow().getSaldo());
+
+        // O mesmo lote não lança de novo.
+        LancamentosEmLote.Resultado repetido = lancamentos.executar("rendimento-teste", RegraLancamento.rendimento(50));
+        assertTrue(repetido.jaConcluido());
+        assertEquals(4_500, repetido.aplicadas());
+        assertEquals(10_050 - 1_290, banco.buscarConta(500_001).orElseThrow().getSaldo());
+        assertEquals(4_500 * (10_050L - 1_290), banco.resumirSaldos().total());
+        assertThrows(IllegalStateException.class,
+                () -> lancamentos.executar("rendimento-teste", RegraLancamento.rendimento(60)));
+        assertThrows(IllegalArgumentException.class,
+                () -> lancamentos.executar("../fora", RegraLancamento.rendimento(50)));
+    }
+
+    @Test
+    void loteInterrompidoERetomadoAposAQuedaNaoLancaDuasVezes() throws Exception {
+        // Sem checkpoints periódicos, tudo o que foi lançado antes da queda só é achado no journal;
+        // com um checkpoint a cada bloco, parte vem do checkpoint e parte do journal.
+        for (long intervaloCheckpointMs : new long[]{3_600_000, 0}) {
+            Path subdiretorio = Files.createDirectory(diretorio.resolve("intervalo-" + intervaloCheckpointMs));
+            Path arquivoJournal = subdiretorio.resolve("journal.dat");
+            int contas = 40_000;
+            int numeroQueda = 1_000_000 + 33_333;
+
+            try (Journal journal = abrirJournal(arquivoJournal)) {
+                Banco banco = new Banco(journal);
+                for (int i = 1; i <= contas; i++) {
+                    banco.carregarConta(new Conta(new Cliente("Cliente " + i, String.format("%011d", i)),
+                            1_000_000 + i, 1, 100_000));
+                }
+                banco.concluirCarga();
+                LancamentosEmLote lancamentos = new LancamentosEmLote(banco, journal, subdiretorio, intervaloCheckpointMs);
+                RegraLancamento quebra = rendimentoComQueda(conta -> conta.getNumero() == numeroQueda);
+                assertThrows(IllegalStateException.class, () -> lancamentos.executar("rendimento-2026-10", quebra));
+            }
+
+            // A primeira retomada também cai no meio, com lançamentos recuperados ainda à frente das faixas.
+            try (Journal journal = abrirJournal(arquivoJournal)) {
+                LancamentosEmLote lancamentos = new LancamentosEmLote(new Banco(journal), journal, subdiretorio,
+                        intervaloCheckpointMs);
+                AtomicInteger avaliadas = new AtomicInteger();
+                RegraLancamento quebra = rendimentoComQueda(conta -> avaliadas.incrementAndGet() > 500);
+                assertThrows(IllegalStateException.class, () -> lancamentos.executar("rendimento-2026-10", quebra));
+            }
+
+            // "Reinicia" a aplicação: o banco é reconstruído do journal e o lote é retomado do checkpoint.
+            try (Journal journal = abrirJournal(arquivoJournal)) {
+                Banco banco = new Banco(journal);
+                LancamentosEmLote lancamentos = new LancamentosEmLote(banco, journal, subdiretorio, intervaloCheckpointMs);
+                List<LancamentosEmLote.Resultado> retomados = lancamentos.retomarPendentes();
+                assertEquals(1, retomados.size());
+                LancamentosEmLote.Resultado resultado = retomados.get(0);
+                assertTrue(resultado.retomado());
+                assertEquals(contas, resultado.contas(), "intervalo " + intervaloCheckpointMs);
+                assertEquals(contas, resultado.aplicadas(), "intervalo " + intervaloCheckpointMs);
+                assertEquals(contas * 1_000L, resultado.creditado());
+                for (Conta conta : banco.getContas()) {
+                    assertEquals(101_000, conta.getSaldo(), "conta " + conta.getNumero());
+                }
+                assertTrue(lancamentos.retomarPendentes().isEmpty());
+            }
+
+            // E o journal sozinho também reconstrói cada rendimento uma única vez.
+            try (Journal journal = abrirJournal(arquivoJournal)) {
+                assertEquals(contas * 101_000L, new Banco(journal).resumirSaldos().total());
+            }
+        }
+    }
+
+    @Test
+    void saqueQueDependeDoLancamentoNaoOPrecedeNoJournal() throws Exception {
+        Path arquivoJournal = diretorio.resolve("journal.dat");
+        int numero = 2_000_001;
+        CountDownLatch lancando = new CountDownLatch(1);
+        CountDownLatch sacou = new CountDownLatch(1);
+        try (Journal journal = new Journal(arquivoJournal, PoliticaFsync.INTERVALO, 1, Journal.TAMANHO_REGIAO_PADRAO) {
+            @Override
+            public long anexarLancamento(int conta, long valor, long lote) {
+                // Dá ao saque a chance de passar entre o crédito e o registro; com a trava mantida, ele espera.
+                lancando.countDown();
+                try {
+                    sacou.await(200, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.anexarLancamento(conta, valor, lote);
+            }
+        }) {
+            Banco banco = new Banco(journal);
+            Conta conta = new Conta(new Cliente("Ana", "111"), numero, 1, 0);
+            banco.carregarConta(conta);
+            banco.concluirCarga();
+            Thread saque = new Thread(() -> {
+                try {
+                    lancando.await();
+                    banco.sacar(conta, 1_000);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                } finally {
+                    sacou.countDown();
+                }
+            });
+            saque.start();
+            LancamentosEmLote lancamentos = new LancamentosEmLote(banco, journal, diretorio, 0);
+            RegraLancamento credito = new RegraLancamento() {
+                @Override
+                public long valor(Conta alvo, long atual) {
+                    return 1_000;
+                }
+
+                @Override
+                public String descricao() {
+                    return "rendimento:100";
+                }
+            };
+            assertEquals(1, lancamentos.executar("credito-teste", credito).aplicadas());
+            saque.join();
+            assertEquals(0, conta.getSaldo());
+        }
+
+        // A reprodução não revalida os saldos: na ordem do journal, a conta nunca pode ficar negativa.
+        long[] saldo = new long[1];
+        long[] menor = new long[1];
+        try (Journal journal = abrirJournal(arquivoJournal)) {
+            journal.reproduzir(new Journal.Leitor() {
+                @Override
+                public void abertura(int conta, int agencia, long inicial, String nome, String cpf) {
+                }
+
+                @Override
+                public void deposito(int conta, long valor) {
+                    saldo[0] += valor;
+                }
+
+                @Override
+                public void saque(int conta, long valor) {
+                    saldo[0] -= valor;
+                    menor[0] = Math.min(menor[0], saldo[0]);
+                }
+
+                @Override
+                public void transferencia(int origem, int destino, long valor) {
+                }
+            });
+        }
+        assertEquals(0, saldo[0]);
+        assertEquals(0, menor[0]);
+    }
+
+    /**
+     * Rendimento de 1% que lança uma exceção, simulando uma queda, ao chegar na conta indicada.
+     */
+    private static RegraLancamento rendimentoComQueda(Predicate<Conta> queda) {
+        return new RegraLancamento() {
+            @Override
+            public long valor(Conta conta, long saldo) {
+                if (queda.test(conta)) throw new IllegalStateException("queda simulada");
+                return saldo / 100;
+            }
+
+            @Override
+            public String descricao() {
+                return "rendimento:100";
+            }
+        };
+    }
+
+    private static Journal abrirJournal(Path arquivo) throws IOException {
+        return new Journal(arquivo, PoliticaFsync.INTERVALO, 1, Journal.TAMANHO_REGIAO_PADRAO);
+    }
+}
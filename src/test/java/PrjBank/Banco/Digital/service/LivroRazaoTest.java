@@ -0,0 +1,230 @@
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.controller.ExtratoController;
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.persistencia.Journal;
+import PrjBank.Banco.Digital.persistencia.PoliticaFsync;
+import PrjBank.Banco.Digital.persistencia.Snapshots;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LivroRazaoTest {
+
+    @Test
+    void registraCadaPernaComOSaldoResultante() throws Exception {
+        LivroRazao livro = new LivroRazao();
+        Banco banco = new Banco(null, List.of(livro));
+        Conta ana = new Conta(new Cliente("Ana", "111"));
+        Conta bruno = new Conta(new Cliente("Bruno", "222"));
+        banco.adicionarConta(ana);
+        banco.adicionarConta(bruno);
+
+        banco.depositar(ana, 10_000);
+        banco.sacar(ana, 1_500);
+        banco.transferir(ana, bruno, 2_500);
+
+        List<Lancamento> extratoAna = livro.consultar(ana.getNumero(), null, null, null, 10);
+        assertEquals(3, extratoAna.size());
+        assertEquals(TipoLancamento.DEPOSITO, extratoAna.get(0).tipo());
+        assertEquals(-1_500, extratoAna.get(1).valor());
+        assertEquals(8_500, extratoAna.get(1).saldo());
+        assertEquals(TipoLancamento.TRANSFERENCIA_ENVIADA, extratoAna.get(2).tipo());
+        assertEquals(Integer.valueOf(bruno.getNumero()), extratoAna.get(2).contraparte());
+        assertEquals(ana.getSaldo(), extratoAna.get(2).saldo());
+
+        List<Lancamento> extratoBruno = livro.consultar(bruno.getNumero(), null, null, null, 10);
+        assertEquals(1, extratoBruno.size());
+        assertEquals(TipoLancamento.TRANSFERENCIA_RECEBIDA, extratoBruno.get(0).tipo());
+        assertEquals(2_500, extratoBruno.get(0).saldo());
+    }
+
+    @Test
+    void guardaOSaldoDaPropriaOperacaoMesmoComAvisosForaDeOrdem() {
+        LivroRazao livro = new LivroRazao();
+        Conta conta = new Conta(new Cliente("Ana", "111"), 910_001, 1, 100);
+        livro.contaAdicionada(conta);
+        // Dois depósitos aplicados em ordem (100 -> 110 -> 130), avisados na ordem inversa.
+        livro.deposito(conta, 20, 130);
+        livro.deposito(conta, 10, 110);
+
+        List<Lancamento> extrato = livro.consultar(conta.getNumero(), null, null, null, 10);
+        assertEquals(130, extrato.get(0).saldo());
+        assertEquals(110, extrato.get(1).saldo());
+    }
+
+    @Test
+    void refazOHistoricoAPartirDoJournal() throws Exception {
+        Path diretorio = Files.createTempDirectory("livro-razao");
+        Path arquivo = diretorio.resolve("journal.log");
+        try {
+            int ana;
+            int bruno;
+            try (Journal journal = new Journal(arquivo, PoliticaFsync.GRUPO, 1, Journal.TAMANHO_REGIAO_PADRAO)) {
+                Banco banco = new Banco(journal, List.of());
+                Conta contaAna = new Conta(new Cliente("Ana", "111"));
+                Conta contaBruno = new Conta(new Cliente("Bruno", "222"));
+                banco.adicionarConta(contaAna);
+                banco.adicionarConta(contaBruno);
+                ana = contaAna.getNumero();
+                bruno = contaBruno.getNumero();
+                banco.executar(OperacaoLote.deposito(ana, 10_000));
+                banco.executar(OperacaoLote.saque(ana, 1_500));
+                banco.executar(OperacaoLote.transferencia(ana, bruno, 2_500));
+            }
+
+            long antes = System.currentTimeMillis();
+            LivroRazao livro = new LivroRazao(() -> antes + 60_000);
+            try (Journal journal = new Journal(arquivo, PoliticaFsync.GRUPO, 1, Journal.TAMANHO_REGIAO_PADRAO)) {
+                new Banco(journal, List.of(livro));
+            }
+
+            List<Lancamento> extratoAna = livro.consultar(ana, null, null, null, 10);
+            assertEquals(3, extratoAna.size());
+            assertEquals(TipoLancamento.DEPOSITO, extratoAna.get(0).tipo());
+            assertEquals(10_000, extratoAna.get(0).saldo());
+            assertEquals(TipoLancamento.SAQUE, extratoAna.get(1).tipo());
+            assertEquals(-1_500, extratoAna.get(1).valor());
+            assertEquals(TipoLancamento.TRANSFERENCIA_ENVIADA, extratoAna.get(2).tipo());
+            assertEquals(Integer.valueOf(bruno), extratoAna.get(2).contraparte());
+            assertEquals(6_000, extratoAna.get(2).saldo());
+            // A data é a do registro no journal, não a da reconstrução.
+            assertTrue(extratoAna.get(2).data().toEpochMilli() <= antes);
+
+            List<Lancamento> extratoBruno = livro.consultar(bruno, null, null, null, 10);
+            assertEquals(1, extratoBruno.size());
+            assertEquals(TipoLancamento.TRANSFERENCIA_RECEBIDA, extratoBruno.get(0).tipo());
+            assertEquals(2_500, extratoBruno.get(0).saldo());
+        } finally {
+            try (var arquivos = Files.list(diretorio)) {
+                for (Path caminho : arquivos.toList()) Files.deleteIfExists(caminho);
+            }
+            Files.deleteIfExists(diretorio);
+        }
+    }
+
+    @Test
+    void refazOHistoricoQueOSnapshotJaInclui() throws Exception {
+        Path diretorio = Files.createTempDirectory("livro-razao");
+        Path arquivo = diretorio.resolve("journal.log");
+        Path diretorioSnapshots = diretorio.resolve("snapshots");
+        try {
+            int ana;
+            int bruno;
+            try (Journal journal = new Journal(arquivo, PoliticaFsync.GRUPO, 1, Journal.TAMANHO_REGIAO_PADRAO)) {
+                Snapshots snapshots = new Snapshots(journal, diretorioSnapshots, 0, 2);
+                Banco banco = new Banco(journal, snapshots, List.of());
+                Conta contaAna = new Conta(new Cliente("Ana", "111"));
+                Conta contaBruno = new Conta(new Cliente("Bruno", "222"));
+                banco.adicionarConta(contaAna);
+                banco.adicionarConta(contaBruno);
+                ana = contaAna.getNumero();
+                bruno = contaBruno.getNumero();
+                banco.depositar(contaAna, 10_000);
+                banco.sacar(contaAna, 1_500);
+                assertNotNull(snapshots.gerarAgora());
+                banco.transferir(contaAna, contaBruno, 2_500);
+                // Encerramento normal: o snapshot final inclui todo o journal.
+                snapshots.close();
+            }
+
+            LivroRazao livro = new LivroRazao();
+            try (Journal journal = new Journal(arquivo, PoliticaFsync.GRUPO, 1, Journal.TAMANHO_REGIAO_PADRAO)) {
+                Banco banco = new Banco(journal, new Snapshots(journal, diretorioSnapshots, 0, 2), List.of(livro));
+                // A inicialização não lê o histórico que o snapshot já inclui.
+                assertEquals(0, livro.getTotalLancamentos());
+                banco.depositar(banco.buscarConta(ana).orElseThrow(), 1_000);
+
+                List<Lancamento> extratoAna = new ExtratoController(banco, livro)
+                        .consultarExtrato(ana, null, null, null, 10).getBody().lancamentos();
+                assertEquals(4, extratoAna.size());
+                assertEquals(TipoLancamento.DEPOSITO, extratoAna.get(0).tipo());
+                assertEquals(10_000, extratoAna.get(0).saldo());
+                assertEquals(8_500, extratoAna.get(1).saldo());
+                assertEquals(TipoLancamento.TRANSFERENCIA_ENVIADA, extratoAna.get(2).tipo());
+                assertEquals(6_000, extratoAna.get(2).saldo());
+                assertEquals(7_000, extratoAna.get(3).saldo());
+                assertEquals(List.of(0L, 1L, 2L, 3L), extratoAna.stream().map(Lancamento::sequencia).toList());
+                assertEquals(4, livro.getTotalLancamentos());
+
+                List<Lancamento> extratoBruno = livro.consultar(bruno, null, null, null, 10);
+                assertEquals(1, extratoBruno.size());
+                assertEquals(2_500, extratoBruno.get(0).saldo());
+            }
+        } finally {
+            try (var caminhos = Files.walk(diretorio)) {
+                for (Path caminho : caminhos.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(caminho);
+            }
+        }
+    }
+
+    @Test
+    void paginaPorCursorEFiltraPorPeriodo() {
+        AtomicLong agora = new AtomicLong(1_000);
+        LivroRazao livro = new LivroRazao(agora::get);
+        Conta conta = new Conta(new Cliente("Ana", "111"));
+        livro.contaAdicionada(conta);
+        // Mais lançamentos que o primeiro bloco e que um bloco inteiro.
+        int quantidade = LivroRazao.TAMANHO_BLOCO + 100;
+        for (int i = 0; i < quantidade; i++) {
+            agora.set(1_000 + i * 10L);
+            livro.deposito(conta, 1);
+        }
+
+        List<Lancamento> pagina = livro.consultar(conta.getNumero(), null, null, 4_000L, 50);
+        assertEquals(50, pagina.size());
+        assertEquals(4_001, pagina.get(0).sequencia());
+        assertEquals(4_002, pagina.get(0).saldo());
+
+        List<Lancamento> periodo = livro.consultar(conta.getNumero(),
+                Instant.ofEpochMilli(1_000 + 100 * 10), Instant.ofEpochMilli(1_000 + 110 * 10), null, 1_000);
+        assertEquals(10, periodo.size());
+        assertEquals(100, periodo.get(0).sequencia());
+        assertEquals(109, periodo.get(9).sequencia());
+
+        assertTrue(livro.consultar(conta.getNumero(), Instant.ofEpochMilli(Long.MAX_VALUE), null, null, 10).isEmpty());
+        assertEquals(quantidade, livro.getQuantidade(conta.getNumero()));
+    }
+
+    @Test
+    void leiturasConcorrentesVeemSempreLancamentosCompletos() throws Exception {
+        LivroRazao livro = new LivroRazao();
+        Conta conta = new Conta(new Cliente("Ana", "111"));
+        livro.contaAdicionada(conta);
+        int quantidade = 3 * LivroRazao.TAMANHO_BLOCO;
+        AtomicReference<String> erro = new AtomicReference<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        executor.submit(() -> {
+            for (int i = 0; i < quantidade; i++) {
+                livro.deposito(conta, 1);
+            }
+        });
+        executor.submit(() -> {
+            while (livro.getQuantidade(conta.getNumero()) < quantidade) {
+                List<Lancamento> todos = livro.consultar(conta.getNumero(), null, null, null, Integer.MAX_VALUE);
+                for (Lancamento lancamento : todos) {
+                    if (lancamento.saldo() != lancamento.sequencia() + 1 || lancamento.valor() != 1) {
+                        erro.set("lançamento incompleto: " + lancamento);
+                        return;
+                    }
+                }
+            }
+        });
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+        assertNull(erro.get());
+    }
+}
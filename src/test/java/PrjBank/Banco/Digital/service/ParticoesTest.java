@@ -0,0 +1,290 @@
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import PrjBank.Banco.Digital.model.StatusOperacao;
+import PrjBank.Banco.Digital.persistencia.Journal;
+import PrjBank.Banco.Digital.persistencia.PoliticaFsync;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParticoesTest {
+
+    @Test
+    void operacoesConcorrentesEntreParticoesPreservamOTotal() throws Exception {
+        Banco banco = new Banco();
+        List<Conta> contas = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            Conta conta = new Conta(new Cliente("Cliente " + i, "000"));
+            conta.setSaldo(1_000_000);
+            banco.adicionarConta(conta);
+            contas.add(conta);
+        }
+        long totalInicial = 16 * 1_000_000L;
+
+        int threads = 8;
+        int porThread = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Long>> tarefas = new ArrayList<>();
+        try (Particoes particoes = new Particoes(banco, 4)) {
+            for (int t = 0; t < threads; t++) {
+                tarefas.add(executor.submit(() -> {
+                    largada.await();
+                    ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                    List<CompletableFuture<StatusOperacao>> pendentes = new ArrayList<>();
+                    List<OperacaoLote> operacoes = new ArrayList<>();
+                    for (int i = 0; i < porThread; i++) {
+                        int origem = contas.get(aleatorio.nextInt(contas.size())).getNumero();
+                        int destino = contas.get(aleatorio.nextInt(contas.size())).getNumero();
+                        OperacaoLote operacao = switch (i % 3) {
+                            case 0 -> OperacaoLote.deposito(origem, 7);
+                            case 1 -> OperacaoLote.saque(origem, 5);
+                            default -> OperacaoLote.transferencia(origem, destino, 11);
+                        };
+                        operacoes.add(operacao);
+                        pendentes.add(particoes.executar(operacao));
+                    }
+                    // Variação do total causada pelas operações aplicadas desta thread.
+                    long variacao = 0;
+                    for (int i = 0; i < pendentes.size(); i++) {
+                        if (pendentes.get(i).join() != StatusOperacao.APLICADA) continue;
+                        OperacaoLote operacao = operacoes.get(i);
+                        if (operacao.tipo() == OperacaoLote.Tipo.DEPOSITO) variacao += operacao.valor();
+                        if (operacao.tipo() == OperacaoLote.Tipo.SAQUE) variacao -= operacao.valor();
+                    }
+                    return variacao;
+                }));
+            }
+            largada.countDown();
+            long variacaoTotal = 0;
+            for (Future<Long> tarefa : tarefas) {
+                variacaoTotal += tarefa.get();
+            }
+            executor.shutdown();
+
+            long totalFinal = contas.stream().mapToLong(Conta::getSaldo).sum();
+            assertEquals(totalInicial + variacaoTotal, totalFinal);
+            assertEquals(threads * (long) porThread, particoes.getExecutadas() - particoes.getTransferenciasEntreParticoes());
+            assertTrue(particoes.getTransferenciasEntreParticoes() > 0);
+        }
+    }
+
+    @Test
+    void contasCriadasEmParaleloRecebemNumerosUnicos() throws Exception {
+        Banco banco = new Banco();
+        Set<Integer> numeros = new HashSet<>();
+        try (Particoes particoes = new Particoes(banco, 4)) {
+            List<CompletableFuture<Conta>> criadas = new ArrayList<>();
+            for (int i = 0; i < 5_000; i++) {
+                criadas.add(particoes.criarConta(new Cliente("Cliente " + i, "000")));
+            }
+            for (CompletableFuture<Conta> criada : criadas) {
+                Conta conta = criada.join();
+                assertTrue(numeros.add(conta.getNumero()));
+                assertSame(conta, banco.buscarConta(conta.getNumero()).orElseThrow());
+            }
+        }
+        assertEquals(5_000, banco.getQuantidadeContas());
+        // Contas criadas fora das partições continuam depois dos blocos reservados.
+        assertTrue(new Conta(new Cliente("Ana", "111")).getNumero() > numeros.stream().mapToInt(Integer::intValue).max().orElseThrow());
+    }
+
+    @Test
+    void transferenciaSemSaldoEntreParticoesNaoAlteraAsContas() {
+        Banco banco = new Banco();
+        try (Particoes particoes = new Particoes(banco, 2)) {
+            Conta origem = new Conta(new Cliente("Ana", "111"));
+            origem.setSaldo(1_000);
+            banco.adicionarConta(origem);
+            // Procura um destino na outra partição.
+            Conta destino;
+            long entreParticoesAntes = particoes.getTransferenciasEntreParticoes();
+            do {
+                destino = new Conta(new Cliente("Bruno", "222"));
+                banco.adicionarConta(destino);
+                particoes.executar(OperacaoLote.transferencia(origem.getNumero(), destino.getNumero(), 1)).join();
+            } while (particoes.getTransferenciasEntreParticoes() == entreParticoesAntes);
+            long saldoOrigem = origem.getSaldo();
+            long saldoDestino = destino.getSaldo();
+
+            assertEquals(StatusOperacao.SALDO_INSUFICIENTE, particoes.executar(
+                    OperacaoLote.transferencia(origem.getNumero(), destino.getNumero(), 5_000)).join());
+            assertEquals(StatusOperacao.CONTA_INEXISTENTE, particoes.executar(
+                    OperacaoLote.transferencia(origem.getNumero(), -1, 10)).join());
+            assertEquals(saldoOrigem, origem.getSaldo());
+            assertEquals(saldoDestino, destino.getSaldo());
+        }
+    }
+
+    @Test
+    void cortesDuranteTransferenciasEntreParticoesVeemOTotalInteiro() throws Exception {
+        Banco banco = new Banco();
+        List<Conta> contas = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            Conta conta = new Conta(new Cliente("Cliente " + i, "000"));
+            conta.setSaldo(1_000_000);
+            banco.adicionarConta(conta);
+            contas.add(conta);
+        }
+        long total = 32 * 1_000_000L;
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (Particoes particoes = new Particoes(banco, 4)) {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                tarefas.add(executor.submit(() -> {
+                    ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                    List<CompletableFuture<StatusOperacao>> pendentes = new ArrayList<>();
+                    for (int i = 0; i < 20_000; i++) {
+                        int origem = contas.get(aleatorio.nextInt(contas.size())).getNumero();
+                        int destino = contas.get(aleatorio.nextInt(contas.size())).getNumero();
+                        pendentes.add(particoes.executar(OperacaoLote.transferencia(origem, destino, 1 + aleatorio.nextInt(100))));
+                    }
+                    pendentes.forEach(CompletableFuture::join);
+                }));
+            }
+            int cortes = 0;
+            while (!tarefas.stream().allMatch(Future::isDone)) {
+                // Um valor entre o débito e o crédito faria o total do corte ficar abaixo do real.
+                assertEquals(total, banco.cortarSaldos(0).total());
+                cortes++;
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+            assertTrue(cortes > 0);
+            assertTrue(particoes.getTransferenciasEntreParticoes() > 0);
+            assertEquals(total, banco.cortarSaldos(0).total());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void creditoRecusadoEntreParticoesDevolveOValorAOrigem() {
+        Banco banco = new Banco();
+        try (Particoes particoes = new Particoes(banco, 2)) {
+            Conta origem = new Conta(new Cliente("Ana", "111"));
+            origem.setSaldo(1_000);
+            banco.adicionarConta(origem);
+            Conta destino;
+            long entreParticoesAntes = particoes.getTransferenciasEntreParticoes();
+            do {
+                destino = new Conta(new Cliente("Bruno", "222"));
+                banco.adicionarConta(destino);
+                particoes.executar(OperacaoLote.transferencia(origem.getNumero(), destino.getNumero(), 1)).join();
+            } while (particoes.getTransferenciasEntreParticoes() == entreParticoesAntes);
+            destino.setSaldo(Long.MAX_VALUE - 10);
+            long saldoOrigem = origem.getSaldo();
+
+            assertEquals(StatusOperacao.LIMITE_EXCEDIDO, particoes.executar(
+                    OperacaoLote.transferencia(origem.getNumero(), destino.getNumero(), 500)).join());
+            assertEquals(saldoOrigem, origem.getSaldo());
+            assertEquals(Long.MAX_VALUE - 10, destino.getSaldo());
+            // A alteração compartilhada foi concluída: um corte não fica esperando por ela.
+            assertEquals(banco.getQuantidadeContas(), banco.cortarSaldos(0).contas());
+        }
+    }
+
+    @Test
+    void contaNovaPulaNumerosDoBlocoJaCarregadosPorUmaImportacao() throws Exception {
+        Banco banco = new Banco();
+        try (Particoes particoes = new Particoes(banco, 1)) {
+            int primeiro = particoes.criarConta(new Cliente("Primeira", "000")).join().getNumero();
+            // Uma importação carrega contas com os próximos números do bloco já reservado pela partição.
+            for (int numero = primeiro + 1; numero <= primeiro + 3; numero++) {
+                assertTrue(banco.carregarConta(new Conta(new Cliente("Importada " + numero, "000"), numero, 1, 100)));
+            }
+
+            Conta nova = particoes.criarConta(new Cliente("Nova", "000")).join();
+            assertEquals(primeiro + 4, nova.getNumero());
+            assertEquals("Importada " + (primeiro + 2), banco.buscarConta(primeiro + 2).orElseThrow().getTitular().getNome());
+            assertEquals(5, banco.getQuantidadeContas());
+        }
+    }
+
+    @Test
+    void falhaNoFsyncRespondeOLoteComErroEMantemAParticaoViva() throws Exception {
+        Path diretorio = Files.createTempDirectory("particoes");
+        AtomicBoolean falhar = new AtomicBoolean();
+        // Só o aguardar é trocado: a falha chega como a do fsync do journal, depois de o registro ser anexado.
+        Journal journal = new Journal(diretorio.resolve("journal.dat"), PoliticaFsync.GRUPO, 1,
+                Journal.TAMANHO_REGIAO_PADRAO) {
+            @Override
+            public void aguardar(long posicao) {
+                if (falhar.get()) {
+                    throw new IllegalStateException("Falha ao gravar o journal no disco.",
+                            new UncheckedIOException(new IOException("disco cheio")));
+                }
+                super.aguardar(posicao);
+            }
+        };
+        try {
+            // Os ouvintes só podem ver as operações que ficaram duráveis.
+            AtomicInteger avisadas = new AtomicInteger();
+            OuvinteOperacoes ouvinte = new OuvinteOperacoes() {
+                @Override
+                public void deposito(Conta conta, long valor, long saldo) {
+                    avisadas.incrementAndGet();
+                }
+
+                @Override
+                public void saque(Conta conta, long valor, long saldo) {
+                    avisadas.incrementAndGet();
+                }
+            };
+            Banco banco = new Banco(journal, List.of(ouvinte));
+            Conta conta = new Conta(new Cliente("Ana", "111"));
+            banco.adicionarConta(conta);
+            Particoes particoes = new Particoes(banco, 1);
+            assertEquals(StatusOperacao.APLICADA,
+                    particoes.executar(OperacaoLote.deposito(conta.getNumero(), 100)).get(10, TimeUnit.SECONDS));
+
+            falhar.set(true);
+            ExecutionException falha = assertThrows(ExecutionException.class, () -> particoes
+                    .executar(OperacaoLote.deposito(conta.getNumero(), 100)).get(10, TimeUnit.SECONDS));
+            assertTrue(falha.getCause() instanceof IllegalStateException, falha.toString());
+            // A thread da partição continua respondendo: os comandos seguintes também recebem o erro.
+            assertThrows(ExecutionException.class, () -> particoes
+                    .executar(OperacaoLote.saque(conta.getNumero(), 10)).get(10, TimeUnit.SECONDS));
+            assertThrows(ExecutionException.class, () -> particoes
+                    .criarConta(new Cliente("Bruno", "222")).get(10, TimeUnit.SECONDS));
+            assertEquals(1, avisadas.get());
+
+            falhar.set(false);
+            assertEquals(StatusOperacao.APLICADA,
+                    particoes.executar(OperacaoLote.deposito(conta.getNumero(), 100)).get(10, TimeUnit.SECONDS));
+            assertEquals(2, avisadas.get());
+            // Todas as operações aceitas foram respondidas, então o encerramento não espera o prazo.
+            assertTimeoutPreemptively(Duration.ofSeconds(5), particoes::close);
+        } finally {
+            journal.close();
+            try (var caminhos = Files.list(diretorio)) {
+                for (Path caminho : caminhos.toList()) Files.deleteIfExists(caminho);
+            }
+            Files.deleteIfExists(diretorio);
+        }
+    }
+}
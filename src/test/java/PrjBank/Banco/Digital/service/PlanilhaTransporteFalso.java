@@ -0,0 +1,121 @@
+package PrjBank.Banco.Digital.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Transporte em memória para testes e benchmarks: registra as chamadas recebidas e pode
+ * simular latência e falhas da API.
+ */
+public class PlanilhaTransporteFalso implements PlanilhaTransporte {
+
+    private final List<List<Escrita>> lotes = new CopyOnWriteArrayList<>();
+    private static final Pattern INTERVALO = Pattern.compile("Contas!A(\\d+):E(\\d*)");
+
+    private final AtomicInteger falhasRestantes = new AtomicInteger();
+    private final AtomicInteger leituras = new AtomicInteger();
+    private volatile List<List<Object>> linhas = List.of();
+    private volatile long latenciaMs;
+    private volatile Predicate<Escrita> recusada = escrita -> false;
+
+    public PlanilhaTransporteFalso comLatencia(long latenciaMs) {
+        this.latenciaMs = latenciaMs;
+        return this;
+    }
+
+    public PlanilhaTransporteFalso comFalhas(int quantidade) {
+        this.falhasRestantes.set(quantidade);
+        return this;
+    }
+
+    /**
+     * Recusa, como a API faz com um intervalo inválido, todo lote que tiver uma escrita aceita pelo filtro.
+     */
+    public PlanilhaTransporteFalso comRecusa(Predicate<Escrita> recusada) {
+        this.recusada = recusada;
+        return this;
+    }
+
+    public PlanilhaTransporteFalso comLinhas(List<List<Object>> linhas) {
+        this.linhas = linhas;
+        return this;
+    }
+
+    public List<List<Escrita>> getLotes() {
+        return lotes;
+    }
+
+    public List<Escrita> getEscritas() {
+        List<Escrita> todas = new ArrayList<>();
+        lotes.forEach(todas::addAll);
+        return todas;
+    }
+
+    public int getLeituras() {
+        return leituras.get();
+    }
+
+    /**
+     * Devolve as linhas do intervalo pedido, no formato {@code "Contas!A<inicio>:E<fim>"},
+     * considerando que a primeira linha configurada é a linha 2 da planilha. Como a API real,
+     * omite as linhas vazias do fim do intervalo.
+     */
+    @Override
+    public List<List<Object>> ler(String intervalo) throws IOException {
+        simularChamada();
+        leituras.incrementAndGet();
+        Matcher partes = INTERVALO.matcher(intervalo);
+        if (!partes.matches()) {
+            throw new IOException("Intervalo não suportado: " + intervalo);
+        }
+        int inicio = Integer.parseInt(partes.group(1)) - 2;
+        int fim = partes.group(2).isEmpty() ? linhas.size() : Integer.parseInt(partes.group(2)) - 1;
+        if (inicio >= linhas.size()) {
+            return List.of();
+        }
+        fim = Math.min(fim, linhas.size());
+        while (fim > inicio && linhas.get(fim - 1).isEmpty()) {
+            fim--;
+        }
+        return linhas.subList(inicio, fim);
+    }
+
+    /**
+     * A aba tem o cabeçalho e as linhas configuradas.
+     */
+    @Override
+    public int contarLinhas(String aba) {
+        return linhas.size() + 1;
+    }
+
+    @Override
+    public void atualizarEmLote(List<Escrita> escritas) throws IOException {
+        simularChamada();
+        for (Escrita escrita : escritas) {
+            if (recusada.test(escrita)) {
+                throw new EscritaRecusadaException("Intervalo inválido: " + escrita.intervalo(), null);
+            }
+        }
+        lotes.add(List.copyOf(escritas));
+    }
+
+    private void simularChamada() throws IOException {
+        if (latenciaMs > 0) {
+            try {
+                Thread.sleep(latenciaMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrompido", e);
+            }
+        }
+        if (falhasRestantes.getAndUpdate(n -> Math.max(n - 1, 0)) > 0) {
+            throw new IOException("Falha simulada da API");
+        }
+    }
+}
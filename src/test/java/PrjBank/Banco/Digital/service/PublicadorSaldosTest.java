@@ -0,0 +1,213 @@
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PublicadorSaldosTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private PublicadorSaldos publicador;
+
+    @AfterEach
+    void encerrar() {
+        if (publicador != null) publicador.close();
+    }
+
+    @Test
+    void agrupaAsAlteracoesDaMesmaContaNaJanela() throws Exception {
+        publicador = new PublicadorSaldos(objectMapper, 0, 100, 1, 64, 10_000, 60_000);
+        Banco banco = new Banco(null, List.of(publicador));
+        EmissorCapturado emissor = new EmissorCapturado(null);
+        publicador.registrar(emissor);
+
+        Conta a = new Conta(new Cliente("Ana", "111"));
+        Conta b = new Conta(new Cliente("Bruno", "222"));
+        banco.adicionarConta(a);
+        banco.adicionarConta(b);
+        for (int i = 0; i < 10; i++) {
+            banco.depositar(a, 100);
+        }
+        banco.transferir(a, b, 250);
+        publicador.publicar();
+        emissor.aguardar(1);
+
+        String texto = emissor.textos.get(0);
+        assertTrue(texto.contains("event: contas\n"));
+        // Uma única entrada por conta, com o saldo ao fim da janela.
+        String saldos = texto.substring(texto.indexOf("event: saldos\n"));
+        assertTrue(saldos.contains("{\"numero\":" + a.getNumero() + ",\"saldo\":7.50}"), texto);
+        assertTrue(saldos.contains("{\"numero\":" + b.getNumero() + ",\"saldo\":2.50}"), texto);
+        assertEquals(2, saldos.split("\"numero\"").length - 1);
+
+        // Sem alterações não há evento novo.
+        publicador.publicar();
+        Thread.sleep(50);
+        assertEquals(1, emissor.textos.size());
+    }
+
+    @Test
+    void assinanteLentoRecebeAlteracoesAcumuladasSemAtrasarOsOutros() throws Exception {
+        publicador = new PublicadorSaldos(objectMapper, 0, 3, 2, 64, 10_000, 60_000);
+        Banco banco = new Banco(null, List.of(publicador));
+        CountDownLatch liberarLento = new CountDownLatch(1);
+        EmissorCapturado lento = new EmissorCapturado(liberarLento);
+        EmissorCapturado rapido = new EmissorCapturado(null);
+        publicador.registrar(lento);
+        publicador.registrar(rapido);
+
+        Conta conta = new Conta(new Cliente("Ana", "111"));
+        banco.adicionarConta(conta);
+        publicador.publicar();
+        rapido.aguardar(1);
+        for (int i = 1; i <= 3; i++) {
+            banco.depositar(conta, 100);
+            publicador.publicar();
+            rapido.aguardar(1 + i);
+        }
+        // O lento ainda está no primeiro envio: as três janelas viraram um único saldo pendente.
+        assertEquals(0, lento.textos.size());
+        liberarLento.countDown();
+        lento.aguardar(2);
+        assertTrue(lento.textos.get(1).contains("\"saldo\":3.00"), lento.textos.get(1));
+        assertEquals(0, publicador.getRecargas());
+    }
+
+    @Test
+    void assinanteLentoDemaisRecebeRecarregarEConexaoFechadaESaiDaLista() throws Exception {
+        publicador = new PublicadorSaldos(objectMapper, 0, 2, 1, 64, 10_000, 60_000);
+        Banco banco = new Banco(null, List.of(publicador));
+        CountDownLatch liberarLento = new CountDownLatch(1);
+        EmissorCapturado lento = new EmissorCapturado(liberarLento);
+        publicador.registrar(lento);
+
+        banco.adicionarConta(new Conta(new Cliente("Ana", "111")));
+        publicador.publicar();
+        for (int i = 0; i < 5; i++) {
+            banco.adicionarConta(new Conta(new Cliente("Cliente " + i, "000")));
+            publicador.publicar();
+        }
+        liberarLento.countDown();
+        lento.aguardar(2);
+        assertTrue(lento.textos.get(1).startsWith("event: recarregar"));
+        assertEquals(1, publicador.getRecargas());
+
+        EmissorCapturado fechado = new EmissorCapturado(null);
+        fechado.falhar = true;
+        publicador.registrar(fechado);
+        assertEquals(2, publicador.getAssinantes());
+        banco.adicionarConta(new Conta(new Cliente("Caio", "333")));
+        publicador.publicar();
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (publicador.getAssinantes() > 1 && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, publicador.getAssinantes());
+    }
+
+    @Test
+    void escritaPresaNaoSeguraOsOutrosEAssinanteEDescartadoNoPrazo() throws Exception {
+        // Uma única thread mantida: o rápido só recebe se o envio dele não esperar atrás do lento.
+        publicador = new PublicadorSaldos(objectMapper, 0, 100, 1, 64, 50, 60_000);
+        Banco banco = new Banco(null, List.of(publicador));
+        CountDownLatch liberarLento = new CountDownLatch(1);
+        EmissorCapturado lento = new EmissorCapturado(liberarLento);
+        EmissorCapturado rapido = new EmissorCapturado(null);
+        publicador.registrar(lento);
+        publicador.registrar(rapido);
+
+        Conta conta = new Conta(new Cliente("Ana", "111"));
+        banco.adicionarConta(conta);
+        publicador.publicar();
+        rapido.aguardar(1);
+        Thread.sleep(100);
+        banco.depositar(conta, 100);
+        publicador.publicar();
+        rapido.aguardar(2);
+        assertEquals(1, publicador.getDescartados());
+        assertEquals(1, publicador.getAssinantes());
+
+        // Quando a escrita presa termina, a conexão é encerrada sem enviar o que veio depois.
+        liberarLento.countDown();
+        lento.aguardar(1);
+        Thread.sleep(50);
+        assertEquals(1, lento.textos.size());
+    }
+
+    @Test
+    void envioRecusadoPeloGrupoDesconectaOAssinante() throws Exception {
+        // Uma única thread, presa no envio do lento: o envio seguinte é recusado pelo grupo.
+        publicador = new PublicadorSaldos(objectMapper, 0, 100, 1, 1, 10_000, 60_000);
+        Banco banco = new Banco(null, List.of(publicador));
+        CountDownLatch liberarLento = new CountDownLatch(1);
+        EmissorCapturado lento = new EmissorCapturado(liberarLento);
+        publicador.registrar(lento);
+
+        Conta conta = new Conta(new Cliente("Ana", "111"));
+        banco.adicionarConta(conta);
+        publicador.publicar();
+        Thread.sleep(100);
+
+        EmissorCapturado semThread = new EmissorCapturado(null);
+        publicador.registrar(semThread);
+        banco.depositar(conta, 100);
+        publicador.publicar();
+        assertEquals(1, publicador.getAssinantes());
+        assertTrue(semThread.textos.isEmpty());
+
+        liberarLento.countDown();
+        lento.aguardar(2);
+    }
+
+    /**
+     * Emissor que guarda o texto enviado em vez de escrever em uma resposta HTTP; opcionalmente
+     * espera uma liberação no primeiro envio (cliente lento) ou falha (cliente que saiu).
+     */
+    private static final class EmissorCapturado extends SseEmitter {
+        final List<String> textos = new CopyOnWriteArrayList<>();
+        private final CountDownLatch liberar;
+        volatile boolean falhar;
+
+        EmissorCapturado(CountDownLatch liberar) {
+            this.liberar = liberar;
+        }
+
+        @Override
+        public synchronized void send(Set<ResponseBodyEmitter.DataWithMediaType> itens) throws IOException {
+            if (falhar) throw new IOException("Conexão fechada.");
+            if (liberar != null) {
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            StringBuilder texto = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType item : itens) {
+                texto.append(item.getData());
+            }
+            textos.add(texto.toString());
+        }
+
+        void aguardar(int quantidade) throws InterruptedException {
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (textos.size() < quantidade && System.nanoTime() < limite) {
+                Thread.sleep(1);
+            }
+            assertEquals(quantidade, textos.size());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegistroEventosTest {
+
+    @Test
+    void escreveUmaLinhaPorOperacao() throws Exception {
+        StringWriter saida = new StringWriter();
+        RegistroEventos registro = new RegistroEventos(saida, true, 16, PoliticaBufferCheio.BLOQUEAR);
+        Banco banco = new Banco(null, List.of(registro));
+        Conta ana = new Conta(new Cliente("Ana", "111"));
+        Conta bruno = new Conta(new Cliente("Bruno", "222"));
+        banco.adicionarConta(ana);
+        banco.adicionarConta(bruno);
+        banco.depositar(ana, 12_345);
+        banco.sacar(ana, 345);
+        banco.transferir(ana, bruno, 2_000);
+        registro.close();
+
+        String[] linhas = saida.toString().split("\n");
+        assertEquals(5, linhas.length);
+        assertTrue(linhas[0].endsWith(" ABERTURA conta=" + ana.getNumero() + " agencia=1 titular=Ana"));
+        assertTrue(linhas[2].endsWith(" DEPOSITO conta=" + ana.getNumero() + " valor=R$ 123,45"));
+        assertTrue(linhas[3].endsWith(" SAQUE conta=" + ana.getNumero() + " valor=R$ 3,45"));
+        assertTrue(linhas[4].endsWith(" TRANSFERENCIA conta=" + ana.getNumero()
+                + " destino=" + bruno.getNumero() + " valor=R$ 20,00"));
+        assertEquals(5, registro.getEscritos());
+    }
+
+    @Test
+    void descartaEContaQuandoOBufferEnche() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        StringWriter destino = new StringWriter();
+        // Saída que trava na primeira escrita, mantendo o buffer ocupado.
+        Writer lenta = new Writer() {
+            @Override
+            public void write(char[] cbuf, int off, int len) {
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                destino.write(cbuf, off, len);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        RegistroEventos registro = new RegistroEventos(lenta, true, 8, PoliticaBufferCheio.DESCARTAR);
+        Conta conta = new Conta(new Cliente("Ana", "111"));
+        for (int i = 0; i < 8 + 5; i++) {
+            registro.deposito(conta, 100);
+        }
+
+        assertEquals(5, registro.getDescartados());
+        assertEquals(8, registro.getPublicados());
+        liberar.countDown();
+        registro.close();
+        assertEquals(8, destino.toString().split("\n").length);
+    }
+
+    @Test
+    void bloqueioNaoPerdeEventosComVariasThreads() throws Exception {
+        StringWriter saida = new StringWriter();
+        RegistroEventos registro = new RegistroEventos(saida, true, 64, PoliticaBufferCheio.BLOQUEAR);
+        Conta conta = new Conta(new Cliente("Ana", "111"));
+        int threads = 4;
+        int porThread = 5_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < porThread; i++) {
+                    registro.deposito(conta, 1);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        registro.close();
+
+        assertEquals(0, registro.getDescartados());
+        assertEquals(threads * porThread, saida.toString().split("\n").length);
+    }
+}
@@ -0,0 +1,125 @@
+package PrjBank.Banco.Digital.service;
+
+import PrjBank.Banco.Digital.model.Cliente;
+import PrjBank.Banco.Digital.model.Conta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * As contas usam números fixos: o sequencial compartilhado pode já estar além da última linha da planilha.
+ */
+class SincronizadorPlanilhaTest {
+
+    private SincronizadorPlanilha sincronizador;
+
+    @AfterEach
+    void encerrar() {
+        if (sincronizador != null) sincronizador.close();
+    }
+
+    @Test
+    void agrupaAlteracoesDaMesmaContaEmUmaEscritaComOSaldoMaisRecente() throws Exception {
+        PlanilhaTransporteFalso transporte = new PlanilhaTransporteFalso();
+        sincronizador = new SincronizadorPlanilha(transporte, 500, 60_000, 10, 100);
+        Banco banco = new Banco(null, List.of(sincronizador));
+        Conta conta = new Conta(new Cliente("Ana", "111"), 101);
+        banco.adicionarConta(conta);
+        for (int i = 0; i < 10; i++) {
+            banco.depositar(conta, 100);
+        }
+        banco.sacar(conta, 50);
+
+        sincronizador.descarregarAgora();
+
+        assertEquals(1, transporte.getLotes().size());
+        List<PlanilhaTransporte.Escrita> escritas = transporte.getEscritas();
+        assertEquals(1, escritas.size());
+        int linha = conta.getNumero() + 1;
+        assertEquals("Contas!A" + linha + ":E" + linha, escritas.get(0).intervalo());
+        assertEquals("R$ 9,50", escritas.get(0).valores().get(0).get(2));
+    }
+
+    @Test
+    void contaJaSincronizadaEnviaApenasOSaldo() {
+        PlanilhaTransporteFalso transporte = new PlanilhaTransporteFalso();
+        sincronizador = new SincronizadorPlanilha(transporte, 500, 60_000, 10, 100);
+        Banco banco = new Banco(null, List.of(sincronizador));
+        Conta conta = new Conta(new Cliente("Ana", "111"), 101);
+        banco.adicionarConta(conta);
+        sincronizador.descarregarAgora();
+
+        banco.depositar(conta, 1_234_56);
+        sincronizador.descarregarAgora();
+
+        PlanilhaTransporte.Escrita escrita = transporte.getLotes().get(1).get(0);
+        assertEquals("Contas!C" + (conta.getNumero() + 1), escrita.intervalo());
+        assertEquals(List.of(List.of("R$ 1.234,56")), escrita.valores());
+    }
+
+    @Test
+    void divideEmLotesEEnviaAoAtingirOTamanhoMaximo() throws Exception {
+        PlanilhaTransporteFalso transporte = new PlanilhaTransporteFalso();
+        sincronizador = new SincronizadorPlanilha(transporte, 10, 60_000, 10, 100);
+        Banco banco = new Banco(null, List.of(sincronizador));
+        for (int i = 0; i < 25; i++) {
+            banco.adicionarConta(new Conta(new Cliente("Cliente " + i, "000"), 200 + i));
+        }
+
+        sincronizador.descarregarAgora();
+
+        assertEquals(25, transporte.getEscritas().size());
+        for (List<PlanilhaTransporte.Escrita> lote : transporte.getLotes()) {
+            assertTrue(lote.size() <= 10);
+        }
+    }
+
+    @Test
+    void escritasQueNuncaCabemSaoDescartadasSemTravarAsDemais() {
+        PlanilhaTransporteFalso transporte = new PlanilhaTransporteFalso()
+                .comRecusa(escrita -> escrita.intervalo().equals("Contas!A11:E11"));
+        sincronizador = new SincronizadorPlanilha(transporte, 500, 60_000, 10, 100);
+        for (int numero = 1; numero <= 20; numero++) {
+            sincronizador.contaAdicionada(new Conta(new Cliente("Cliente " + numero, "000"), numero));
+        }
+        // A linha Integer.MAX_VALUE + 1 estouraria um int e, de todo jeito, fica além da última linha da planilha.
+        sincronizador.contaAdicionada(new Conta(new Cliente("Fora", "000"), Integer.MAX_VALUE));
+
+        sincronizador.descarregarAgora();
+
+        assertEquals(0, sincronizador.getPendentes());
+        assertEquals(2, sincronizador.getDescartadas());
+        List<PlanilhaTransporte.Escrita> escritas = transporte.getEscritas();
+        assertEquals(19, escritas.size());
+        assertTrue(escritas.stream().noneMatch(escrita -> escrita.intervalo().equals("Contas!A11:E11")));
+        // Isolar a escrita recusada entre 20 custa poucas chamadas, não uma por escrita.
+        assertTrue(transporte.getLotes().size() <= 6, "lotes " + transporte.getLotes().size());
+        assertThrows(IllegalArgumentException.class, () -> GoogleSheetsService.linhaDaConta(Integer.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> GoogleSheetsService.linhaDaConta(0));
+        assertEquals(GoogleSheetsService.LINHA_MAXIMA,
+                GoogleSheetsService.linhaDaConta((int) GoogleSheetsService.LINHA_MAXIMA - 1));
+    }
+
+    @Test
+    void tentaNovamenteAposFalhaSemPerderAlteracoes() throws Exception {
+        PlanilhaTransporteFalso transporte = new PlanilhaTransporteFalso().comFalhas(2);
+        sincronizador = new SincronizadorPlanilha(transporte, 500, 5, 5, 20);
+        Banco banco = new Banco(null, List.of(sincronizador));
+        Conta conta = new Conta(new Cliente("Ana", "111"), 101);
+        banco.adicionarConta(conta);
+        banco.depositar(conta, 700);
+
+        long limite = System.currentTimeMillis() + 5_000;
+        while (transporte.getLotes().isEmpty() && System.currentTimeMillis() < limite) {
+            Thread.sleep(5);
+        }
+
+        assertEquals(2, sincronizador.getFalhas());
+        assertEquals(1, transporte.getEscritas().size());
+        assertEquals("R$ 7,00", transporte.getEscritas().get(0).valores().get(0).get(2));
+        assertEquals(0, sincronizador.getPendentes());
+    }
+}